@@ -91,6 +91,7 @@ class DependencyConstraints implements Plugin<Project> {
         api(group: 'com.carrotsearch.randomizedtesting', name: 'randomizedtesting-runner', version: '2.5.0')
         api(group: 'com.fasterxml.jackson.module', name: 'jackson-module-scala_2.10', version: '2.9.8')
         api(group: 'com.github.davidmoten', name: 'geo', version: '0.7.1')
+        api(group: 'com.github.luben', name: 'zstd-jni', version: '1.3.7-1')
         api(group: 'com.github.stefanbirkner', name: 'system-rules', version: '1.19.0')
         api(group: 'com.github.stephenc.findbugs', name: 'findbugs-annotations', version: '1.3.9-1')
         api(group: 'com.google.guava', name: 'guava', version: '27.0-jre')
@@ -144,6 +145,7 @@ class DependencyConstraints implements Plugin<Project> {
         api(group: 'org.httpunit', name: 'httpunit', version: '1.7.3')
         api(group: 'org.iq80.snappy', name: 'snappy', version: '0.4')
         api(group: 'org.jgroups', name: 'jgroups', version: get('jgroups.version'))
+        api(group: 'org.lz4', name: 'lz4-java', version: '1.5.0')
         api(group: 'org.mockito', name: 'mockito-core', version: '2.23.0')
         api(group: 'org.mortbay.jetty', name: 'servlet-api', version: '3.0.20100224')
         api(group: 'org.postgresql', name: 'postgresql', version: '42.2.2')
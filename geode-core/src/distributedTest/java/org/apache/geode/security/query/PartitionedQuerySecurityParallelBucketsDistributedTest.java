@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.security.query;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.internal.cache.PRQueryProcessor;
+import org.apache.geode.security.query.data.QueryTestObject;
+import org.apache.geode.test.junit.categories.SecurityTest;
+
+/**
+ * This test verifies that the pool threads that help a data store query its buckets authorize the
+ * query as the client user
+ */
+@Category(SecurityTest.class)
+public class PartitionedQuerySecurityParallelBucketsDistributedTest extends QuerySecurityBase {
+
+  private static final int NUM_ENTRIES = 200;
+
+  private static final String USER = "dataReaderRegion";
+
+  @Override
+  public RegionShortcut getRegionType() {
+    return RegionShortcut.PARTITION;
+  }
+
+  @Before
+  public void configureCache() {
+    // the server runs in this VM
+    PRQueryProcessor.TEST_NUM_THREADS = 4;
+
+    createClientCache(specificUserClient, USER, userPerms.getUserPassword(USER));
+    createProxyRegion(specificUserClient, regionName);
+
+    keys = new Object[NUM_ENTRIES];
+    values = new Object[NUM_ENTRIES];
+    for (int i = 0; i < NUM_ENTRIES; i++) {
+      keys[i] = "key-" + i;
+      values[i] = new QueryTestObject(i, "name-" + i);
+    }
+    putIntoRegion(superUserClient, keys, values, regionName);
+  }
+
+  @After
+  public void resetNumThreads() {
+    PRQueryProcessor.TEST_NUM_THREADS = 0;
+  }
+
+  @Test
+  public void queryOnRegionValuesIsAuthorizedOnAllThreads() {
+    String query = "select * from /" + regionName + ".values";
+    executeQueryWithCheckForAccessPermissions(specificUserClient, query, regionName,
+        Arrays.asList(values));
+  }
+
+  @Test
+  public void limitedQueryReturnsLimitResults() {
+    specificUserClient.invoke(() -> {
+      String query = "select * from /" + regionName + ".values limit 7";
+      Object results = getClientCache().getQueryService().newQuery(query).execute();
+      assertThat(results).isInstanceOf(SelectResults.class);
+      assertThat(((SelectResults) results).size()).isEqualTo(7);
+    });
+  }
+}
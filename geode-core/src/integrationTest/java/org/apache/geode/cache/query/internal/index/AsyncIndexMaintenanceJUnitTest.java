@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionFactory;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.data.Portfolio;
+import org.apache.geode.internal.cache.InternalRegion;
+import org.apache.geode.test.junit.categories.OQLIndexTest;
+
+/**
+ * Verifies that the index updates queued by asynchronous index maintenance are applied in batches
+ * and that {@link IndexManager#waitForPendingUpdates()} makes them visible to queries.
+ */
+@Category({OQLIndexTest.class})
+public class AsyncIndexMaintenanceJUnitTest {
+
+  private static final String NAME = "AsyncIndexMaintenance";
+
+  private Cache cache;
+
+  private Region<Integer, Portfolio> region;
+
+  @Before
+  public void setUp() throws Exception {
+    cache = new CacheFactory().set(MCAST_PORT, "0").create();
+    RegionFactory<Integer, Portfolio> rf = cache.createRegionFactory(RegionShortcut.REPLICATE);
+    rf.setIndexMaintenanceSynchronous(false);
+    region = rf.create(NAME);
+    cache.getQueryService().createIndex("idIndex", "ID", "/" + NAME);
+  }
+
+  @After
+  public void tearDown() {
+    cache.close();
+  }
+
+  @Test
+  public void queriesSeeAllUpdatesAfterWaitingForPendingUpdates() throws Exception {
+    for (int round = 0; round < 3; round++) {
+      for (int i = 0; i < 1000; i++) {
+        region.put(i, new Portfolio(i + round * 1000));
+      }
+    }
+
+    IndexManager indexManager = ((InternalRegion) region).getIndexManager();
+    indexManager.waitForPendingUpdates();
+
+    assertThat(indexManager.getUpdaterThread().isDone()).isTrue();
+    SelectResults<?> results = (SelectResults<?>) cache.getQueryService()
+        .newQuery("select * from /" + NAME + " where ID >= 2000").execute();
+    assertThat(results.size()).isEqualTo(1000);
+    results = (SelectResults<?>) cache.getQueryService()
+        .newQuery("select * from /" + NAME + " where ID < 2000").execute();
+    assertThat(results.size()).isEqualTo(0);
+  }
+
+  @Test
+  public void waitForPendingUpdatesReturnsOnceTheUpdaterThreadStopped() {
+    region.put(1, new Portfolio(1));
+    IndexManager indexManager = ((InternalRegion) region).getIndexManager();
+
+    region.close();
+
+    indexManager.waitForPendingUpdates();
+    assertThat(indexManager.getUpdaterThread().isAlive()).isFalse();
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.data.Portfolio;
+import org.apache.geode.cache.query.internal.QueryObserverAdapter;
+import org.apache.geode.cache.query.internal.QueryObserverHolder;
+import org.apache.geode.test.junit.categories.OQLIndexTest;
+
+/**
+ * Verifies that an index on several comma separated expressions returns the same results as a
+ * region scan and that it is used for equality conditions on its leading expressions.
+ */
+@Category({OQLIndexTest.class})
+public class CompositeIndexJUnitTest {
+
+  private static final String NAME = "portfolios";
+
+  private Cache cache;
+
+  private QueryService queryService;
+
+  private final List<String> indexesUsed = new ArrayList<>();
+
+  @Before
+  public void setUp() throws Exception {
+    cache = new CacheFactory().set(MCAST_PORT, "0").create();
+    Region<Integer, Portfolio> region =
+        cache.<Integer, Portfolio>createRegionFactory(RegionShortcut.REPLICATE).create(NAME);
+    for (int i = 0; i < 1000; i++) {
+      region.put(i, new Portfolio(i));
+    }
+    Portfolio withoutStatus = new Portfolio(1000);
+    withoutStatus.status = null;
+    region.put(1000, withoutStatus);
+    queryService = cache.getQueryService();
+    QueryObserverHolder.setInstance(new QueryObserverAdapter() {
+      @Override
+      public void beforeIndexLookup(Index index, int oper, Object key) {
+        indexesUsed.add(index.getName());
+      }
+
+      @Override
+      public void beforeIndexLookup(Index index, int lowerBoundOperator, Object lowerBoundKey,
+          int upperBoundOperator, Object upperBoundKey, Set NotEqualKeys) {
+        indexesUsed.add(index.getName());
+      }
+    });
+  }
+
+  @After
+  public void tearDown() {
+    QueryObserverHolder.reset();
+    cache.close();
+  }
+
+  @Test
+  public void equalityPrefixAndRangeUseCompositeIndex() throws Exception {
+    verifyQuery("status = 'active' and type = 'type1' and ID > 500", true);
+  }
+
+  @Test
+  public void equalityPrefixInAnyOrderUsesCompositeIndex() throws Exception {
+    verifyQuery("type = 'type2' and status = 'inactive'", true);
+  }
+
+  @Test
+  public void equalityOnAllExpressionsUsesCompositeIndex() throws Exception {
+    verifyQuery("ID = 502 and status = 'active' and type = 'type1'", true);
+    verifyQuery("ID = 503 and status = 'active' and type = 'type2'", true);
+  }
+
+  @Test
+  public void bothRangeBoundsWithAnotherConditionUseCompositeIndex() throws Exception {
+    verifyQuery("status = 'active' and type = 'type0' and ID >= 90 and ID <= 120 "
+        + "and pkid != '102'", true);
+  }
+
+  @Test
+  public void bindParametersUseCompositeIndex() throws Exception {
+    verifyQuery("status = $1 and type = $2 and ID < $3", true, "inactive", "type0", 300);
+  }
+
+  @Test
+  public void rangeWithoutEqualityOnThePrecedingExpressionIsStillCorrect() throws Exception {
+    verifyQuery("status = 'active' and ID < 10", false);
+  }
+
+  @Test
+  public void hashIndexOnSeveralExpressionsIsNotSupported() {
+    assertThatThrownBy(
+        () -> queryService.createHashIndex("compositeHashIndex", "status, type", "/" + NAME))
+            .isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  private void verifyQuery(String condition, boolean indexExpected, Object... params)
+      throws Exception {
+    String query = "select * from /" + NAME + " where " + condition;
+    Set<Integer> expected = executeQuery(query, params);
+    assertThat(indexesUsed).isEmpty();
+
+    queryService.createIndex("compositeIndex", "status, type, ID", "/" + NAME);
+    Set<Integer> actual = executeQuery(query, params);
+
+    assertThat(actual).isEqualTo(expected);
+    if (indexExpected) {
+      assertThat(indexesUsed).containsOnly("compositeIndex");
+    } else {
+      assertThat(indexesUsed).isEmpty();
+    }
+    queryService.removeIndexes();
+    indexesUsed.clear();
+  }
+
+  private Set<Integer> executeQuery(String query, Object... params) throws Exception {
+    SelectResults<?> results = (SelectResults<?>) queryService.newQuery(query).execute(params);
+    Set<Integer> ids = new TreeSet<>();
+    for (Object result : results) {
+      ids.add(((Portfolio) result).ID);
+    }
+    assertThat(ids).hasSize(results.size());
+    return ids;
+  }
+}
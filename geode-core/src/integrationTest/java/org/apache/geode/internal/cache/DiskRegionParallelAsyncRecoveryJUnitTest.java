@@ -0,0 +1,170 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import org.apache.geode.cache.DataPolicy;
+import org.apache.geode.cache.Region;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.test.awaitility.GeodeAwaitility;
+
+/**
+ * Recovers the values of several oplogs concurrently while regions are being created.
+ */
+public class DiskRegionParallelAsyncRecoveryJUnitTest extends DiskRegionTestingBase {
+
+  private static final int RECOVERY_THREADS = 4;
+  private static final int ENTRIES = 1500;
+  private static final int VALUE_SIZE = 1024;
+
+  static {
+    // read when DiskStoreImpl is loaded; integration tests run each class in its own JVM
+    System.setProperty(DistributionConfig.GEMFIRE_PREFIX + "disk.recoveryThreads",
+        String.valueOf(RECOVERY_THREADS));
+  }
+
+  @Override
+  protected final void postTearDown() throws Exception {
+    DiskStoreObserver.setInstance(null);
+  }
+
+  @Test
+  public void valuesOfEveryOplogAreRecoveredInParallel() throws Exception {
+    assertThat(DiskStoreImpl.RECOVERY_THREADS).isEqualTo(RECOVERY_THREADS);
+    writeEntries("region1", "region2");
+    cache.close();
+
+    cache = createCache();
+    CountDownLatch recoveryDone = awaitRecovery(new CountDownLatch(0));
+    Region<Object, Object> region1 = createRegion("region1");
+    Region<Object, Object> region2 = createRegion("region2");
+
+    assertThat(getOplogCount()).isGreaterThan(1);
+    assertThat(recoveryDone.await(getTimeoutMillis(), TimeUnit.MILLISECONDS)).isTrue();
+    checkEntriesInMemory(region1);
+    checkEntriesInMemory(region2);
+  }
+
+  @Test
+  public void regionCreatedDuringParallelRecoveryKeepsRecoveredValues() throws Exception {
+    writeEntries("region1", "region2");
+    cache.close();
+
+    cache = createCache();
+    CountDownLatch suspendRecovery = new CountDownLatch(1);
+    CountDownLatch recoveryDone = awaitRecovery(suspendRecovery);
+    try {
+      // recovers the keys of both regions, region2 only into its placeholder
+      Region<Object, Object> region1 = createRegion("region1");
+
+      // initializeOwner copies the placeholder entry map while the oplogs recover values into it
+      suspendRecovery.countDown();
+      Region<Object, Object> region2 = createRegion("region2");
+
+      assertThat(recoveryDone.await(getTimeoutMillis(), TimeUnit.MILLISECONDS)).isTrue();
+      checkEntriesInMemory(region1);
+      checkEntriesInMemory(region2);
+    } finally {
+      suspendRecovery.countDown();
+    }
+  }
+
+  /**
+   * Writes every entry with an old value and then overwrites half of them, so that the latest
+   * value of an entry is often in a later oplog than its first one.
+   */
+  private void writeEntries(String... regionNames) {
+    for (String regionName : regionNames) {
+      Region<Object, Object> region = createRegion(regionName);
+      for (int i = 0; i < ENTRIES; i++) {
+        region.put(i, value("old", i));
+      }
+    }
+    for (String regionName : regionNames) {
+      Region<Object, Object> region = cache.getRegion(regionName);
+      for (int i = 0; i < ENTRIES; i += 2) {
+        region.put(i, value("new", i));
+      }
+    }
+  }
+
+  private CountDownLatch awaitRecovery(CountDownLatch suspendRecovery) {
+    CountDownLatch recoveryDone = new CountDownLatch(1);
+    DiskStoreObserver.setInstance(new DiskStoreObserver() {
+
+      @Override
+      public void beforeAsyncValueRecovery(DiskStoreImpl store) {
+        try {
+          suspendRecovery.await();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+
+      @Override
+      public void afterAsyncValueRecovery(DiskStoreImpl store) {
+        recoveryDone.countDown();
+      }
+    });
+    return recoveryDone;
+  }
+
+  private void checkEntriesInMemory(Region<Object, Object> r) {
+    LocalRegion region = (LocalRegion) r;
+    assertThat(region.size()).isEqualTo(ENTRIES);
+    for (int i = 0; i < ENTRIES; i++) {
+      Object inMemoryValue = region.getValueInVM(i);
+      if (inMemoryValue instanceof VMCachedDeserializable) {
+        inMemoryValue = ((VMCachedDeserializable) inMemoryValue).getDeserializedForReading();
+      }
+      assertThat(inMemoryValue).as("entry " + i + " of " + region.getName())
+          .isEqualTo(value(i % 2 == 0 ? "new" : "old", i));
+    }
+  }
+
+  private long getOplogCount() {
+    DiskStoreImpl store = (DiskStoreImpl) cache.findDiskStore("store");
+    return Arrays.stream(store.getPersistentOplogs().getAllOplogs()).filter(Objects::nonNull)
+        .count();
+  }
+
+  private Region<Object, Object> createRegion(String regionName) {
+    if (cache.findDiskStore("store") == null) {
+      cache.createDiskStoreFactory().setMaxOplogSize(1).setDiskDirs(dirs).create("store");
+    }
+    return cache.createRegionFactory().setDiskStoreName("store")
+        .setDataPolicy(DataPolicy.PERSISTENT_REPLICATE).create(regionName);
+  }
+
+  private static long getTimeoutMillis() {
+    return GeodeAwaitility.getTimeout().getValueInMS();
+  }
+
+  private static String value(String prefix, int i) {
+    StringBuilder value = new StringBuilder(VALUE_SIZE).append(prefix).append('-').append(i);
+    while (value.length() < VALUE_SIZE) {
+      value.append('.');
+    }
+    return value.toString();
+  }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.apache.geode.test.awaitility.GeodeAwaitility.getTimeout;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.test.junit.rules.ExecutorServiceRule;
+
+/**
+ * Switches oplogs while synchronous writers are waiting in the group committer, which must force
+ * the files it closes before those writers are acknowledged.
+ */
+public class OplogGroupCommitIntegrationTest {
+
+  private static final int WRITERS = 8;
+  private static final int PUTS_PER_WRITER = 500;
+  private static final String DISK_STORE_NAME = "groupCommitStore";
+  private static final String REGION_NAME = "groupCommitRegion";
+
+  static {
+    // read when Oplog is loaded; integration tests run each class in its own JVM
+    System.setProperty(DistributionConfig.GEMFIRE_PREFIX + "disk.groupCommit", "true");
+  }
+
+  private Cache cache;
+  private File diskDir;
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  @Rule
+  public ExecutorServiceRule executorServiceRule = new ExecutorServiceRule();
+
+  @Before
+  public void setUp() throws Exception {
+    diskDir = temporaryFolder.newFolder("diskDir");
+  }
+
+  @After
+  public void tearDown() {
+    if (cache != null && !cache.isClosed()) {
+      cache.close();
+    }
+  }
+
+  @Test
+  public void oplogSwitchDuringGroupCommitKeepsEveryAcknowledgedWrite() throws Exception {
+    Region<String, String> region = createRegion();
+    DiskStoreImpl diskStore = (DiskStoreImpl) cache.findDiskStore(DISK_STORE_NAME);
+    long firstOplogId = diskStore.getPersistentOplogs().getChild().getOplogId();
+
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<Void>> writers = new ArrayList<>();
+    for (int i = 0; i < WRITERS; i++) {
+      int writer = i;
+      writers.add(executorServiceRule.submit(() -> {
+        start.await();
+        for (int j = 0; j < PUTS_PER_WRITER; j++) {
+          region.put(key(writer, j), value(writer, j));
+        }
+      }));
+    }
+
+    start.countDown();
+    int rolls = 0;
+    while (!allDone(writers)) {
+      diskStore.forceRoll();
+      rolls++;
+      Thread.sleep(1);
+    }
+    for (Future<Void> writer : writers) {
+      writer.get(getTimeout().getValueInMS(), TimeUnit.MILLISECONDS);
+    }
+
+    assertThat(rolls).isGreaterThan(0);
+    assertThat(diskStore.getPersistentOplogs().getChild().getOplogId())
+        .isGreaterThan(firstOplogId);
+    assertThat(diskStore.getStats().getGroupCommitWrites()).isGreaterThan(0);
+
+    cache.close();
+    Region<String, String> recovered = createRegion();
+
+    assertThat(recovered.size()).isEqualTo(WRITERS * PUTS_PER_WRITER);
+    for (int i = 0; i < WRITERS; i++) {
+      for (int j = 0; j < PUTS_PER_WRITER; j++) {
+        assertThat(recovered.get(key(i, j))).isEqualTo(value(i, j));
+      }
+    }
+  }
+
+  private Region<String, String> createRegion() {
+    Properties props = new Properties();
+    props.setProperty(MCAST_PORT, "0");
+    props.setProperty(LOCATORS, "");
+    cache = new CacheFactory(props).create();
+    cache.createDiskStoreFactory().setDiskDirs(new File[] {diskDir}).setMaxOplogSize(1)
+        .setAutoCompact(false).create(DISK_STORE_NAME);
+    return cache.<String, String>createRegionFactory(RegionShortcut.REPLICATE_PERSISTENT)
+        .setDiskStoreName(DISK_STORE_NAME).setDiskSynchronous(true).create(REGION_NAME);
+  }
+
+  private static boolean allDone(List<Future<Void>> futures) {
+    for (Future<Void> future : futures) {
+      if (!future.isDone()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static String key(int writer, int put) {
+    return writer + "-" + put;
+  }
+
+  private static String value(int writer, int put) {
+    return "value-" + writer + "-" + put;
+  }
+}
@@ -0,0 +1,143 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.apache.geode.distributed.ConfigurationProperties.SSL_ENABLED_COMPONENTS;
+import static org.apache.geode.distributed.ConfigurationProperties.SSL_KEYSTORE;
+import static org.apache.geode.distributed.ConfigurationProperties.SSL_KEYSTORE_PASSWORD;
+import static org.apache.geode.distributed.ConfigurationProperties.SSL_KEYSTORE_TYPE;
+import static org.apache.geode.distributed.ConfigurationProperties.SSL_TRUSTSTORE;
+import static org.apache.geode.distributed.ConfigurationProperties.SSL_TRUSTSTORE_PASSWORD;
+import static org.apache.geode.test.awaitility.GeodeAwaitility.getTimeout;
+import static org.apache.geode.test.util.ResourceUtils.createTempFileFromResource;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.client.Pool;
+import org.apache.geode.cache.client.PoolManager;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.server.CacheServer;
+import org.apache.geode.internal.cache.CacheServerImpl;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.net.SSLConfigurationFactory;
+import org.apache.geode.internal.security.SecurableCommunicationChannel;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.rules.ExecutorServiceRule;
+
+/**
+ * Runs TLS clients against a cache server that pools its threads with a selector
+ */
+@Category({ClientServerTest.class})
+public class CacheServerSSLSelectorIntegrationTest {
+
+  private static final int NUM_ENTRIES = 1000;
+
+  private static final int NUM_CLIENT_THREADS = 8;
+
+  private final String keyStore =
+      createTempFileFromResource(getClass(),
+          "/org/apache/geode/cache/client/internal/default.keystore").getAbsolutePath();
+
+  private InternalCache cache;
+
+  private CacheServer server;
+
+  private Pool pool;
+
+  @Rule
+  public ExecutorServiceRule executorServiceRule = new ExecutorServiceRule();
+
+  @Before
+  public void setUp() throws Exception {
+    Properties properties = new Properties();
+    properties.setProperty(MCAST_PORT, "0");
+    properties.setProperty(LOCATORS, "");
+    properties.setProperty(SSL_ENABLED_COMPONENTS,
+        SecurableCommunicationChannel.SERVER.getConstant());
+    properties.setProperty(SSL_KEYSTORE_TYPE, "jks");
+    properties.setProperty(SSL_KEYSTORE, keyStore);
+    properties.setProperty(SSL_KEYSTORE_PASSWORD, "password");
+    properties.setProperty(SSL_TRUSTSTORE, keyStore);
+    properties.setProperty(SSL_TRUSTSTORE_PASSWORD, "password");
+    cache = (InternalCache) new CacheFactory(properties).create();
+
+    Region<Integer, String> region =
+        cache.<Integer, String>createRegionFactory(RegionShortcut.REPLICATE).create("region");
+    StringBuilder value = new StringBuilder();
+    for (int i = 0; i < 1024; i++) {
+      value.append('v');
+    }
+    for (int i = 0; i < NUM_ENTRIES; i++) {
+      region.put(i, value.toString());
+    }
+
+    server = cache.addCacheServer();
+    server.setPort(0);
+    server.setMaxThreads(2);
+    server.start();
+
+    pool = PoolManager.createFactory().addServer("localhost", server.getPort())
+        .setMinConnections(0).create("sslPool");
+  }
+
+  @After
+  public void tearDown() {
+    if (pool != null) {
+      pool.destroy();
+    }
+    if (cache != null) {
+      cache.close();
+    }
+    SSLConfigurationFactory.close();
+  }
+
+  @Test
+  public void serverUsesSelectorWithSsl() {
+    assertThat(((CacheServerImpl) server).getAcceptor().isSelector()).isTrue();
+  }
+
+  @Test
+  public void concurrentClientsGetResults() throws Exception {
+    List<Future<Void>> futures = new ArrayList<>();
+    for (int i = 0; i < NUM_CLIENT_THREADS; i++) {
+      futures.add(executorServiceRule.submit(() -> {
+        for (int j = 0; j < 10; j++) {
+          SelectResults results = (SelectResults) pool.getQueryService()
+              .newQuery("select * from /region").execute();
+          assertThat(results).hasSize(NUM_ENTRIES);
+        }
+      }));
+    }
+    for (Future<Void> future : futures) {
+      future.get(getTimeout().getValueInMS(), TimeUnit.MILLISECONDS);
+    }
+  }
+}
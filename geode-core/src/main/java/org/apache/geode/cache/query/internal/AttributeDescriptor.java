@@ -17,7 +17,6 @@ package org.apache.geode.cache.query.internal;
 
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
@@ -55,6 +54,10 @@ public class AttributeDescriptor {
   /** cache for remembering the correct Member for a class and attribute */
   @MakeNotStatic
   private static final ConcurrentMap<List, Member> _localCache = new ConcurrentHashMap();
+  /** cache for remembering the accessor for the Member of a class and attribute */
+  @MakeNotStatic
+  private static final ConcurrentMap<List, MemberAccessor> _accessorCache =
+      new ConcurrentHashMap<>();
 
 
 
@@ -98,51 +101,45 @@ public class AttributeDescriptor {
       return QueryService.UNDEFINED;
     }
 
-    Class resolutionClass = target.getClass();
-    Member m = getReadMember(resolutionClass);
+    MemberAccessor accessor = getReadAccessor(target.getClass());
+    Member m = accessor.getMember();
     try {
       if (m instanceof Method) {
-        try {
-          _methodInvocationAuthorizer.authorizeMethodInvocation((Method) m, target);
-          return ((Method) m).invoke(target, (Object[]) null);
-        } catch (EntryDestroyedException e) {
-          // eat the Exception
-          return QueryService.UNDEFINED;
-        } catch (IllegalAccessException e) {
-          throw new NameNotFoundException(
-              String.format(
-                  "Method ' %s ' in class ' %s ' is not accessible to the query processor",
-                  new Object[] {m.getName(), target.getClass().getName()}),
-              e);
-        } catch (InvocationTargetException e) {
-          // if the target exception is Exception, wrap that,
-          // otherwise wrap the InvocationTargetException itself
-          Throwable t = e.getTargetException();
-          if ((t instanceof EntryDestroyedException)) {
-            // eat the exception
-            return QueryService.UNDEFINED;
-          }
-          if (t instanceof Exception)
-            throw new QueryInvocationTargetException(t);
-          throw new QueryInvocationTargetException(e);
-        }
-      } else {
-        try {
-          return ((Field) m).get(target);
-        } catch (IllegalAccessException e) {
-          throw new NameNotFoundException(
-              String.format(
-                  "Field ' %s ' in class ' %s ' is not accessible to the query processor",
-                  new Object[] {m.getName(), target.getClass().getName()}),
-              e);
-        } catch (EntryDestroyedException e) {
-          return QueryService.UNDEFINED;
-        }
+        _methodInvocationAuthorizer.authorizeMethodInvocation((Method) m, target);
       }
     } catch (EntryDestroyedException e) {
       // eat the exception
       return QueryService.UNDEFINED;
     }
+    try {
+      return accessor.read(target);
+    } catch (EntryDestroyedException e) {
+      // eat the exception
+      return QueryService.UNDEFINED;
+    } catch (Throwable t) {
+      throw new QueryInvocationTargetException(t);
+    }
+  }
+
+  private MemberAccessor getReadAccessor(Class targetClass) throws NameNotFoundException {
+    List key = new ArrayList(2);
+    key.add(targetClass);
+    key.add(_name);
+    MemberAccessor accessor = _accessorCache.get(key);
+    if (accessor == null) {
+      Member m = getReadMember(targetClass);
+      try {
+        accessor = MemberAccessor.forReadMember(m);
+      } catch (IllegalAccessException e) {
+        String message = m instanceof Method
+            ? "Method ' %s ' in class ' %s ' is not accessible to the query processor"
+            : "Field ' %s ' in class ' %s ' is not accessible to the query processor";
+        throw new NameNotFoundException(
+            String.format(message, new Object[] {m.getName(), targetClass.getName()}), e);
+      }
+      _accessorCache.putIfAbsent(key, accessor);
+    }
+    return accessor;
   }
 
   Member getReadMember(Class targetClass) throws NameNotFoundException {
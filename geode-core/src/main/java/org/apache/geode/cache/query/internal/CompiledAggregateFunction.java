@@ -21,6 +21,7 @@ import org.apache.geode.cache.query.QueryInvocationTargetException;
 import org.apache.geode.cache.query.TypeMismatchException;
 import org.apache.geode.cache.query.internal.aggregate.Avg;
 import org.apache.geode.cache.query.internal.aggregate.AvgBucketNode;
+import org.apache.geode.cache.query.internal.aggregate.AvgDataStoreNode;
 import org.apache.geode.cache.query.internal.aggregate.AvgDistinct;
 import org.apache.geode.cache.query.internal.aggregate.AvgDistinctPRQueryNode;
 import org.apache.geode.cache.query.internal.aggregate.AvgPRQueryNode;
@@ -29,6 +30,7 @@ import org.apache.geode.cache.query.internal.aggregate.CountDistinct;
 import org.apache.geode.cache.query.internal.aggregate.CountDistinctPRQueryNode;
 import org.apache.geode.cache.query.internal.aggregate.CountPRQueryNode;
 import org.apache.geode.cache.query.internal.aggregate.DistinctAggregator;
+import org.apache.geode.cache.query.internal.aggregate.DistinctDataStoreNode;
 import org.apache.geode.cache.query.internal.aggregate.MaxMin;
 import org.apache.geode.cache.query.internal.aggregate.Sum;
 import org.apache.geode.cache.query.internal.aggregate.SumDistinct;
@@ -64,11 +66,14 @@ public class CompiledAggregateFunction extends AbstractCompiledValue {
       TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
     boolean isPRQueryNode = context.getIsPRQueryNode();
     boolean isBucketNode = context.getBucketList() != null;
+    boolean isDataStoreNode = context.getIsPRDataStoreNode();
     switch (this.aggFuncType) {
 
       case OQLLexerTokenTypes.SUM:
         if (isPRQueryNode) {
           return this.distinctOnly ? new SumDistinctPRQueryNode() : new Sum();
+        } else if (isDataStoreNode) {
+          return this.distinctOnly ? new DistinctDataStoreNode() : new Sum();
         } else {
           return this.distinctOnly ? (isBucketNode ? new DistinctAggregator() : new SumDistinct())
               : new Sum();
@@ -83,6 +88,8 @@ public class CompiledAggregateFunction extends AbstractCompiledValue {
       case OQLLexerTokenTypes.AVG:
         if (isPRQueryNode) {
           return this.distinctOnly ? new AvgDistinctPRQueryNode() : new AvgPRQueryNode();
+        } else if (isDataStoreNode) {
+          return this.distinctOnly ? new DistinctDataStoreNode() : new AvgDataStoreNode();
         } else {
           return this.distinctOnly ? (isBucketNode ? new DistinctAggregator() : new AvgDistinct())
               : (isBucketNode ? new AvgBucketNode() : new Avg());
@@ -91,6 +98,8 @@ public class CompiledAggregateFunction extends AbstractCompiledValue {
       case OQLLexerTokenTypes.COUNT:
         if (isPRQueryNode) {
           return this.distinctOnly ? new CountDistinctPRQueryNode() : new CountPRQueryNode();
+        } else if (isDataStoreNode) {
+          return this.distinctOnly ? new DistinctDataStoreNode() : new CountPRQueryNode();
         } else {
           return this.distinctOnly ? (isBucketNode ? new DistinctAggregator() : new CountDistinct())
               : new Count();
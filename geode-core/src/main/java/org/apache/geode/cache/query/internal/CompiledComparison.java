@@ -81,9 +81,15 @@ public class CompiledComparison extends AbstractCompiledValue
   @Override
   public Object evaluate(ExecutionContext context) throws FunctionDomainException,
       TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
-    Object left = _left.evaluate(context);
-    Object right = _right.evaluate(context);
+    return compareOperands(_left.evaluate(context), _right.evaluate(context), context);
+  }
 
+  /**
+   * Compares the already evaluated values of the left and right operands with this comparison's
+   * operator.
+   */
+  Object compareOperands(Object left, Object right, ExecutionContext context)
+      throws TypeMismatchException {
     if (context.isCqQueryContext() && left instanceof Region.Entry) {
       left = ((Region.Entry) left).getValue();
     }
@@ -662,7 +668,7 @@ public class CompiledComparison extends AbstractCompiledValue
    * get the path to see if there's an index for, and also determine which CompiledValue is the key
    * while we're at it
    */
-  private PathAndKey getPathAndKey(ExecutionContext context)
+  PathAndKey getPathAndKey(ExecutionContext context)
       throws TypeMismatchException, AmbiguousNameException {
     // RuntimeIterator lIter = context.findRuntimeIterator(_left);
     // RuntimeIterator rIter = context.findRuntimeIterator(_right);
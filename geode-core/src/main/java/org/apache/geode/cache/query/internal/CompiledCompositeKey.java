@@ -0,0 +1,379 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.query.AmbiguousNameException;
+import org.apache.geode.cache.query.FunctionDomainException;
+import org.apache.geode.cache.query.IndexType;
+import org.apache.geode.cache.query.NameResolutionException;
+import org.apache.geode.cache.query.QueryInvocationTargetException;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.index.CompositeIndexKey;
+import org.apache.geode.cache.query.internal.index.IndexManager;
+import org.apache.geode.cache.query.internal.index.IndexProtocol;
+import org.apache.geode.cache.query.internal.index.IndexUtils;
+import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
+import org.apache.geode.cache.query.internal.types.TypeUtils;
+
+/**
+ * The indexed expression of a composite index, e.g. "status, region, ts", which evaluates to a
+ * {@link CompositeIndexKey}. On the query side the same class is used for the key of the leading
+ * components of such an index and for the bounds they are compared with, see
+ * {@link #getOperandsUsingCompositeIndexes}.
+ */
+public class CompiledCompositeKey extends AbstractCompiledValue {
+
+  /** Separates the components in the canonicalized expression of a composite index */
+  public static final String SEPARATOR = ", ";
+
+  private final List<CompiledValue> components;
+
+  public CompiledCompositeKey(List<CompiledValue> components) {
+    this.components = components;
+  }
+
+  public List<CompiledValue> getComponents() {
+    return this.components;
+  }
+
+  @Override
+  public List getChildren() {
+    return this.components;
+  }
+
+  @Override
+  public int getType() {
+    return COMPOSITE_KEY;
+  }
+
+  @Override
+  public Object evaluate(ExecutionContext context) throws FunctionDomainException,
+      TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+    Object[] values = new Object[this.components.size()];
+    for (int i = 0; i < values.length; i++) {
+      Object value = this.components.get(i).evaluate(context);
+      if (value == null) {
+        value = IndexManager.NULL;
+      } else if (value != CompositeIndexKey.MIN && value != CompositeIndexKey.MAX) {
+        value = TypeUtils.indexKeyFor(value);
+      }
+      values[i] = value;
+    }
+    return new CompositeIndexKey(values);
+  }
+
+  @Override
+  public Set computeDependencies(ExecutionContext context)
+      throws TypeMismatchException, AmbiguousNameException, NameResolutionException {
+    for (CompiledValue component : this.components) {
+      context.addDependencies(this, component.computeDependencies(context));
+    }
+    return context.getDependencySet(this, true);
+  }
+
+  @Override
+  public void generateCanonicalizedExpression(StringBuilder clauseBuffer, ExecutionContext context)
+      throws AmbiguousNameException, TypeMismatchException, NameResolutionException {
+    for (int i = this.components.size() - 1; i > 0; i--) {
+      this.components.get(i).generateCanonicalizedExpression(clauseBuffer, context);
+      clauseBuffer.insert(0, SEPARATOR);
+    }
+    this.components.get(0).generateCanonicalizedExpression(clauseBuffer, context);
+  }
+
+  /**
+   * Replaces the comparisons of an AND junction which can be answered by a single lookup of a
+   * composite index. These are equality comparisons on a leading prefix of the index components,
+   * optionally followed by range comparisons on the next component. Each group of such comparisons
+   * is replaced by one or two comparisons of the key of those components against composite bounds,
+   * e.g. for an index on "status, region, ts" the operands
+   *
+   * <pre>
+   * status = 'A' AND region = 'EU' AND ts > $1
+   * </pre>
+   *
+   * become (status, region, ts) > ('A', 'EU', $1, MAX) AND (status, region, ts) < ('A', 'EU', MAX),
+   * which a RangeJunction evaluates with one range lookup of the index. The rewritten comparisons
+   * evaluate to the same result as the original ones, so they remain correct when iterated.
+   *
+   * @return the rewritten operands, or the passed array if no composite index applies
+   */
+  static CompiledValue[] getOperandsUsingCompositeIndexes(CompiledValue[] operands,
+      ExecutionContext context) throws FunctionDomainException, TypeMismatchException,
+      NameResolutionException, QueryInvocationTargetException {
+    Map<RuntimeIterator, List<Conjunct>> iterToConjuncts = new HashMap<>();
+    for (CompiledValue operand : operands) {
+      if (operand.getType() != COMPARISON || !operand.isDependentOnCurrentScope(context)) {
+        continue;
+      }
+      CompiledComparison cc = (CompiledComparison) operand;
+      CompiledComparison.PathAndKey pathAndKey = cc.getPathAndKey(context);
+      if (pathAndKey == null || pathAndKey._path instanceof CompiledCompositeKey
+          || !cc.isRangeEvaluatable()) {
+        continue;
+      }
+      int operator = cc.reflectOnOperator(pathAndKey._key);
+      if (operator != OQLLexerTokenTypes.TOK_EQ && !isRangeOperator(operator)) {
+        continue;
+      }
+      Set iterators = QueryUtils.getCurrentScopeUltimateRuntimeIteratorsIfAny(cc, context);
+      if (iterators.size() != 1) {
+        continue;
+      }
+      StringBuilder sb = new StringBuilder();
+      pathAndKey._path.generateCanonicalizedExpression(sb, context);
+      RuntimeIterator rIter = (RuntimeIterator) iterators.iterator().next();
+      iterToConjuncts.computeIfAbsent(rIter, k -> new ArrayList<>())
+          .add(new Conjunct(cc, pathAndKey._path, pathAndKey._key, operator, sb.toString()));
+    }
+
+    Set<CompiledValue> replaced = new HashSet<>();
+    List<CompiledValue> replacements = new ArrayList<>();
+    for (Map.Entry<RuntimeIterator, List<Conjunct>> entry : iterToConjuncts.entrySet()) {
+      List<Conjunct> conjuncts = entry.getValue();
+      if (conjuncts.size() < 2) {
+        continue;
+      }
+      Match match = getBestMatch(entry.getKey(), conjuncts, context);
+      if (match == null) {
+        continue;
+      }
+      for (Conjunct conjunct : match.equalities) {
+        replaced.add(conjunct.comparison);
+      }
+      for (Conjunct conjunct : match.ranges) {
+        replaced.add(conjunct.comparison);
+      }
+      replacements.addAll(match.createComparisons());
+    }
+    if (replacements.isEmpty()) {
+      return operands;
+    }
+
+    List<CompiledValue> result = new ArrayList<>(operands.length);
+    for (CompiledValue operand : operands) {
+      if (!replaced.contains(operand)) {
+        result.add(operand);
+      }
+    }
+    for (CompiledValue replacement : replacements) {
+      replacement.computeDependencies(context);
+      result.add(replacement);
+    }
+    return result.toArray(new CompiledValue[0]);
+  }
+
+  private static boolean isRangeOperator(int operator) {
+    return operator == OQLLexerTokenTypes.TOK_LT || operator == OQLLexerTokenTypes.TOK_LE
+        || operator == OQLLexerTokenTypes.TOK_GT || operator == OQLLexerTokenTypes.TOK_GE;
+  }
+
+  /**
+   * Finds the composite index on the region of the iterator that covers most of the conjuncts.
+   */
+  private static Match getBestMatch(RuntimeIterator rIter, List<Conjunct> conjuncts,
+      ExecutionContext context) throws FunctionDomainException, TypeMismatchException,
+      NameResolutionException, QueryInvocationTargetException {
+    String regionPath = context.getRegionPathForIndependentRuntimeIterator(rIter);
+    if (regionPath == null) {
+      return null;
+    }
+    Region region = context.getCache().getRegion(regionPath);
+    IndexManager indexManager = IndexUtils.getIndexManager(context.getCache(), region, false);
+    if (indexManager == null) {
+      return null;
+    }
+    Match best = null;
+    for (Object index : indexManager.getIndexes(IndexType.FUNCTIONAL)) {
+      if (!((IndexProtocol) index).isValid()) {
+        continue;
+      }
+      String expression = ((IndexProtocol) index).getCanonicalizedIndexedExpression();
+      if (!expression.contains(SEPARATOR)) {
+        continue;
+      }
+      Match match = match(expression, conjuncts, context);
+      if (match != null && (best == null || match.size() > best.size())) {
+        best = match;
+      }
+    }
+    return best;
+  }
+
+  /**
+   * Matches the conjuncts against the components of the canonicalized expression of a composite
+   * index, from left to right.
+   */
+  private static Match match(String expression, List<Conjunct> conjuncts,
+      ExecutionContext context) throws FunctionDomainException, TypeMismatchException,
+      NameResolutionException, QueryInvocationTargetException {
+    Match match = new Match();
+    int position = 0;
+    boolean found = true;
+    while (found && position < expression.length()) {
+      found = false;
+      for (Conjunct conjunct : conjuncts) {
+        if (conjunct.operator == OQLLexerTokenTypes.TOK_EQ
+            && !match.equalities.contains(conjunct) && conjunct.isAt(expression, position)) {
+          match.equalities.add(conjunct);
+          position = conjunct.next(expression, position);
+          found = true;
+          break;
+        }
+      }
+    }
+    if (match.equalities.isEmpty()) {
+      return null;
+    }
+    match.complete = position == expression.length();
+    if (!match.complete) {
+      for (Conjunct conjunct : conjuncts) {
+        if (isRangeOperator(conjunct.operator) && conjunct.isAt(expression, position)) {
+          // comparisons with null or UNDEFINED are never true, keep them as they are
+          Object key = conjunct.key.evaluate(context);
+          if (key != null && key != QueryService.UNDEFINED) {
+            match.ranges.add(conjunct);
+          }
+        }
+      }
+    }
+    return match.size() < 2 ? null : match;
+  }
+
+  /** A comparison of a path with a key that is independent of the current scope */
+  private static class Conjunct {
+    final CompiledComparison comparison;
+    final CompiledValue path;
+    final CompiledValue key;
+    /** The operator, reflected such that the path is the left operand */
+    final int operator;
+    final String canonicalizedPath;
+
+    Conjunct(CompiledComparison comparison, CompiledValue path, CompiledValue key, int operator,
+        String canonicalizedPath) {
+      this.comparison = comparison;
+      this.path = path;
+      this.key = key;
+      this.operator = operator;
+      this.canonicalizedPath = canonicalizedPath;
+    }
+
+    /** Returns true if the component of the expression at the position is the path */
+    boolean isAt(String expression, int position) {
+      if (!expression.startsWith(this.canonicalizedPath, position)) {
+        return false;
+      }
+      int end = position + this.canonicalizedPath.length();
+      return end == expression.length() || expression.startsWith(SEPARATOR, end);
+    }
+
+    int next(String expression, int position) {
+      int end = position + this.canonicalizedPath.length();
+      return end == expression.length() ? end : end + SEPARATOR.length();
+    }
+  }
+
+  /** The conjuncts that cover the leading components of a composite index */
+  private static class Match {
+    final List<Conjunct> equalities = new ArrayList<>();
+    final List<Conjunct> ranges = new ArrayList<>();
+    /** True if there is an equality for every component */
+    boolean complete;
+
+    int size() {
+      return this.equalities.size() + this.ranges.size();
+    }
+
+    List<CompiledComparison> createComparisons() {
+      List<CompiledValue> paths = new ArrayList<>();
+      List<CompiledValue> keys = new ArrayList<>();
+      for (Conjunct conjunct : this.equalities) {
+        paths.add(conjunct.path);
+        keys.add(conjunct.key);
+      }
+      List<CompiledComparison> comparisons = new ArrayList<>();
+      if (this.complete) {
+        comparisons.add(compare(paths, keys, null, null, OQLLexerTokenTypes.TOK_EQ));
+        return comparisons;
+      }
+      if (this.ranges.isEmpty()) {
+        comparisons.add(compare(paths, keys, null, CompositeIndexKey.MIN,
+            OQLLexerTokenTypes.TOK_GT));
+        comparisons.add(compare(paths, keys, null, CompositeIndexKey.MAX,
+            OQLLexerTokenTypes.TOK_LT));
+        return comparisons;
+      }
+      paths.add(this.ranges.get(0).path);
+      boolean hasLowerBound = false;
+      boolean hasUpperBound = false;
+      for (Conjunct range : this.ranges) {
+        switch (range.operator) {
+          case OQLLexerTokenTypes.TOK_GT:
+            comparisons.add(compare(paths, keys, range.key, CompositeIndexKey.MAX,
+                OQLLexerTokenTypes.TOK_GT));
+            hasLowerBound = true;
+            break;
+          case OQLLexerTokenTypes.TOK_GE:
+            comparisons.add(compare(paths, keys, range.key, CompositeIndexKey.MIN,
+                OQLLexerTokenTypes.TOK_GT));
+            hasLowerBound = true;
+            break;
+          case OQLLexerTokenTypes.TOK_LT:
+            comparisons.add(compare(paths, keys, range.key, CompositeIndexKey.MIN,
+                OQLLexerTokenTypes.TOK_LT));
+            hasUpperBound = true;
+            break;
+          default:
+            comparisons.add(compare(paths, keys, range.key, CompositeIndexKey.MAX,
+                OQLLexerTokenTypes.TOK_LT));
+            hasUpperBound = true;
+        }
+      }
+      if (!hasLowerBound) {
+        // excludes null and UNDEFINED, like the range comparison itself
+        comparisons.add(compare(paths, keys, new CompiledLiteral(IndexManager.NULL),
+            CompositeIndexKey.MAX, OQLLexerTokenTypes.TOK_GT));
+      }
+      if (!hasUpperBound) {
+        paths.remove(paths.size() - 1);
+        comparisons.add(compare(paths, keys, null, CompositeIndexKey.MAX,
+            OQLLexerTokenTypes.TOK_LT));
+      }
+      return comparisons;
+    }
+
+    private static CompiledComparison compare(List<CompiledValue> paths, List<CompiledValue> keys,
+        CompiledValue rangeKey, Object bound, int operator) {
+      List<CompiledValue> boundKeys = new ArrayList<>(keys);
+      if (rangeKey != null) {
+        boundKeys.add(rangeKey);
+      }
+      if (bound != null) {
+        boundKeys.add(new CompiledLiteral(bound));
+      }
+      return new CompiledComparison(new CompiledCompositeKey(new ArrayList<>(paths)),
+          new CompiledCompositeKey(boundKeys), operator);
+    }
+  }
+}
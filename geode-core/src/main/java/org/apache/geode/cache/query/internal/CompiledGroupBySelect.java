@@ -192,6 +192,22 @@ public class CompiledGroupBySelect extends CompiledSelect {
     return newResults;
   }
 
+  /**
+   * Merges the group by results of the buckets of a data store into a single partial result per
+   * group, so that the data store ships one row per group rather than one row per group and bucket
+   * to the PR query node. The bucket results need to be merged in group order, and the merged rows
+   * keep the partial form the PR query node expects from bucket nodes.
+   *
+   * @param bucketResults the results of all the queried buckets, merged in group order
+   * @param context a context whose bucket list is set to the queried buckets
+   */
+  public SelectResults mergeBucketResults(SelectResults bucketResults, ExecutionContext context)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    context.setIsPRDataStoreNode(true);
+    return this.applyAggregateAndGroupBy(bucketResults, context);
+  }
+
   private SelectResults createResultSet(ExecutionContext context, ObjectType elementType,
       boolean isStruct, boolean createOrderedResults) {
     elementType = createNewElementType(elementType, isStruct);
@@ -37,6 +37,7 @@ import org.apache.geode.cache.query.Struct;
 import org.apache.geode.cache.query.TypeMismatchException;
 import org.apache.geode.cache.query.internal.index.IndexManager;
 import org.apache.geode.cache.query.internal.index.IndexProtocol;
+import org.apache.geode.cache.query.internal.index.IndexUtils;
 import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
 import org.apache.geode.cache.query.internal.types.StructTypeImpl;
 import org.apache.geode.cache.query.types.ObjectType;
@@ -98,6 +99,13 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
   // not set the place holder
   private static final String PLACEHOLDER_FOR_JOIN = "join";
 
+  /**
+   * The key under which the operands to plan an AND junction with are cached for an execution.
+   * They may differ from the operands of the junction when comparisons are replaced by lookups of
+   * a composite index.
+   */
+  private final Object planOperandsKey = new Object();
+
   CompiledJunction(CompiledValue[] operands, int operator) {
     // invariant: operator must be LITERAL_and or LITERAL_or
     // invariant: at least two operands
@@ -415,8 +423,9 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
     // for LITERAL_and operator, if any say yes to filter,
     // then change default evalAsFilter from false to true
     // of LITERAL_or operator, if any say no to filter, change to false
-    for (int i = 0; i < _operands.length; i++) {
-      PlanInfo opPlanInfo = _operands[i].getPlanInfo(context);
+    CompiledValue[] operands = getPlanOperands(context);
+    for (int i = 0; i < operands.length; i++) {
+      PlanInfo opPlanInfo = operands[i].getPlanInfo(context);
       resultPlanInfo.indexes.addAll(opPlanInfo.indexes);
       if (!isOr && opPlanInfo.evalAsFilter) {
         resultPlanInfo.evalAsFilter = true;
@@ -427,6 +436,25 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
     return resultPlanInfo;
   }
 
+  /**
+   * Returns the operands to plan the evaluation of this junction with. For an AND junction
+   * comparisons that can be answered by a composite index are replaced, see
+   * {@link CompiledCompositeKey#getOperandsUsingCompositeIndexes}.
+   */
+  private CompiledValue[] getPlanOperands(ExecutionContext context)
+      throws FunctionDomainException, TypeMismatchException, NameResolutionException,
+      QueryInvocationTargetException {
+    if (_operator != LITERAL_and || !IndexUtils.indexesEnabled) {
+      return _operands;
+    }
+    CompiledValue[] operands = (CompiledValue[]) context.cacheGet(this.planOperandsKey);
+    if (operands == null) {
+      operands = CompiledCompositeKey.getOperandsUsingCompositeIndexes(_operands, context);
+      context.cachePut(this.planOperandsKey, operands);
+    }
+    return operands;
+  }
+
   /* Package methods */
   @Override
   public int getOperator() {
@@ -454,11 +482,12 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
       TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
     // get the list of operands to evaluate, and evaluate operands that can use
     // indexes first.
-    List evalOperands = new ArrayList(_operands.length);
+    CompiledValue[] operands = getPlanOperands(context);
+    List evalOperands = new ArrayList(operands.length);
     int indexCount = 0;
     // TODO: Check if we can defer the creation of this array list only
     // if there exists an eval operand
-    List compositeIterOperands = new ArrayList(_operands.length);
+    List compositeIterOperands = new ArrayList(operands.length);
     // Asif: This Map will contain as key the composite filter operand & as
     // value , the set containing independent RuntimeIterators ( which will
     // necessarily be two )
@@ -468,7 +497,7 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
     boolean isJunctionNeeded = false;
     boolean indexExistsOnNonJoinOp = false;
 
-    for (int i = 0; i < _operands.length; i++) {
+    for (int i = 0; i < operands.length; i++) {
       // Asif : If we are inside this function this itself indicates
       // that there exists at least on operand which can be evaluated
       // as an auxFilterEvaluate. If any operand even if its flag of
@@ -485,7 +514,7 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
       // We are here itself implies, that any independent operand can be
       // either true or false for an AND junction but always false for an
       // OR Junction.
-      operand = this._operands[i];
+      operand = operands[i];
       if (!operand.isDependentOnCurrentScope(context)) {
         indexCount++;
         // Asif Ensure that independent operands are always at the start
@@ -1107,11 +1136,12 @@ public class CompiledJunction extends AbstractCompiledValue implements Negatable
       // hard coded to use 1 index
       // we can for the time being return true if there exists atleast one indexable condition
       boolean foundIndex = false;
-      for (int i = 0; i < this._operands.length; ++i) {
-        if (this._operands[i].getPlanInfo(context).evalAsFilter
-            && this._operands[i].getType() == JUNCTION) {
+      CompiledValue[] operands = getPlanOperands(context);
+      for (int i = 0; i < operands.length; ++i) {
+        if (operands[i].getPlanInfo(context).evalAsFilter
+            && operands[i].getType() == JUNCTION) {
           return false;
-        } else if (this._operands[i].getPlanInfo(context).evalAsFilter) {
+        } else if (operands[i].getPlanInfo(context).evalAsFilter) {
           foundIndex = true;
         }
       }
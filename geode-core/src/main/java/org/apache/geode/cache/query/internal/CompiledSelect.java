@@ -20,6 +20,7 @@ import java.util.Collection;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.geode.cache.Cache;
 import org.apache.geode.cache.CacheClosedException;
@@ -71,6 +72,9 @@ public class CompiledSelect extends AbstractCompiledValue {
   protected boolean transformationDone = false;
   protected ObjectType cachedElementTypeForOrderBy = null;
   private boolean hasUnmappedOrderByCols = false;
+  // the number of times the where clause has been interpreted, and the compiled where clause
+  private final AtomicInteger whereClauseEvaluations = new AtomicInteger();
+  private volatile WherePredicate compiledWhereClause;
 
   // used as a key in a context to identify the scope of this CompiledSelect
   private Object scopeID = new Object();
@@ -696,9 +700,10 @@ public class CompiledSelect extends AbstractCompiledValue {
         return results;
       }
     }
+    WherePredicate wherePredicate = evaluateWhereClause ? getWherePredicate(context) : null;
     int numElementsInResult = 0;
     try {
-      doNestedIterations(0, results, context, evaluateWhereClause, numElementsInResult);
+      doNestedIterations(0, results, context, wherePredicate, numElementsInResult);
     } catch (CompiledSelect.NullIteratorException ignore) {
       return null;
     }
@@ -761,16 +766,36 @@ public class CompiledSelect extends AbstractCompiledValue {
     return cIn.optimizeBulkGet(rgn, context);
   }
 
+  /**
+   * Returns the predicate evaluating the where clause for this execution. The where clause is
+   * interpreted for the first {@link WherePredicate#COMPILE_THRESHOLD} executions and compiled
+   * after that.
+   */
+  private WherePredicate getWherePredicate(ExecutionContext context)
+      throws TypeMismatchException, FunctionDomainException, NameResolutionException,
+      QueryInvocationTargetException {
+    WherePredicate predicate = this.compiledWhereClause;
+    if (predicate == null) {
+      if (WherePredicate.COMPILE_THRESHOLD < 0
+          || this.whereClauseEvaluations.incrementAndGet() <= WherePredicate.COMPILE_THRESHOLD) {
+        return WherePredicate.interpret(this.whereClause);
+      }
+      predicate = WherePredicate.compile(this.whereClause);
+      this.compiledWhereClause = predicate;
+    }
+    return predicate.bind(context);
+  }
+
   // returns the number of elements added in the return ResultSet
   private int doNestedIterations(int level, SelectResults results, ExecutionContext context,
-      boolean evaluateWhereClause, int numElementsInResult)
+      WherePredicate wherePredicate, int numElementsInResult)
       throws TypeMismatchException, FunctionDomainException, NameResolutionException,
       QueryInvocationTargetException, CompiledSelect.NullIteratorException {
     List iterList = context.getCurrentIterators();
     if (level == iterList.size()) {
       boolean addToResults = true;
-      if (evaluateWhereClause) {
-        Object result = this.whereClause.evaluate(context);
+      if (wherePredicate != null) {
+        Object result = wherePredicate.evaluate(context);
         QueryObserver observer = QueryObserverHolder.getInstance();
         observer.afterIterationEvaluation(result);
         if (result == null) {
@@ -839,7 +864,7 @@ public class CompiledSelect extends AbstractCompiledValue {
         rIter.setCurrent(currObj);
         QueryObserver observer = QueryObserverHolder.getInstance();
         observer.beforeIterationEvaluation(rIter, currObj);
-        numElementsInResult = doNestedIterations(level + 1, results, context, evaluateWhereClause,
+        numElementsInResult = doNestedIterations(level + 1, results, context, wherePredicate,
             numElementsInResult);
         Integer limitValue = evaluateLimitValue(context, this.limit);
         if (this.orderByAttrs == null && limitValue > -1 && numElementsInResult == limitValue) {
@@ -1155,11 +1180,12 @@ public class CompiledSelect extends AbstractCompiledValue {
     ArrayList evaluatedOrderByClause = null;
     OrderByComparator comparator = null;
     boolean applyOrderBy = false;
+    int limitValue = -1;
     if (this.orderByAttrs != null && !ignoreOrderBy) {
       // In case PR order-by will get applied on the coordinator node
       // on the cumulative results. Apply the order-by on PR only if
       // limit is specified.
-      Integer limitValue = evaluateLimitValue(context, this.limit);
+      limitValue = evaluateLimitValue(context, this.limit);
       if (context.getPartitionedRegion() != null && limitValue < 0) {
         applyOrderBy = false;
       }
@@ -1370,9 +1396,48 @@ public class CompiledSelect extends AbstractCompiledValue {
         }
       }
     }
+    // Only the first limitValue rows of the sorted results can survive the final limit, so
+    // keep the container bounded instead of sorting every row the iteration produces.
+    if (applyOrderBy && limitValue > -1 && !isCount()
+        && resultSet.size() - limitValue > limitValue) {
+      trimToLimit(resultSet, limitValue, comparator);
+    }
     return occurrence;
   }
 
+  /**
+   * Drops all but the first limit rows of an order-by result set, along with any sort criteria
+   * cached for the dropped rows. Rows are removed from the sorted container before their criteria,
+   * since the container's comparator still needs them to locate the rows.
+   */
+  static void trimToLimit(SelectResults resultSet, int limit, OrderByComparator comparator) {
+    boolean isStructFields = resultSet instanceof StructFields;
+    Iterator rows =
+        isStructFields ? ((StructFields) resultSet).fieldValuesIterator() : resultSet.iterator();
+    List tail = new ArrayList(resultSet.size() - limit);
+    for (int i = 0; rows.hasNext(); i++) {
+      Object row = rows.next();
+      if (i >= limit) {
+        tail.add(row);
+      }
+    }
+    for (Object row : tail) {
+      if (isStructFields) {
+        StructFields structFields = (StructFields) resultSet;
+        Object[] fieldValues = (Object[]) row;
+        structFields.removeFieldValues(fieldValues);
+        if (!structFields.containsFieldValues(fieldValues)) {
+          comparator.removeEvaluatedSortCriteria(fieldValues);
+        }
+      } else {
+        resultSet.remove(row);
+        if (!resultSet.contains(row)) {
+          comparator.removeEvaluatedSortCriteria(row);
+        }
+      }
+    }
+  }
+
   private String generateProjectionName(CompiledValue projExpr, ExecutionContext context) {
     String name = null;
     if (projExpr instanceof RuntimeIterator) {
@@ -95,6 +95,7 @@ public class ExecutionContext {
   private boolean distinct = false;
   private Object currentProjectionField = null;
   private boolean isPRQueryNode = false;
+  private boolean isPRDataStoreNode = false;
 
   private Optional<ScheduledFuture> cancelationTask;
   private volatile CacheRuntimeException canceledException;
@@ -647,6 +648,14 @@ public class ExecutionContext {
     return isPRQueryNode;
   }
 
+  void setIsPRDataStoreNode(boolean isPRDataStoreNode) {
+    this.isPRDataStoreNode = isPRDataStoreNode;
+  }
+
+  boolean getIsPRDataStoreNode() {
+    return isPRDataStoreNode;
+  }
+
   /**
    * Check to see if the query execution was canceled. The query gets canceled by the QueryMonitor
    * if it takes more than the max query execution time or low memory situations
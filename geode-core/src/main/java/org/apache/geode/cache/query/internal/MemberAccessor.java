@@ -0,0 +1,181 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.lang.invoke.CallSite;
+import java.lang.invoke.LambdaMetafactory;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.function.Function;
+
+/**
+ * Reads a field or calls a method for the query engine without the cost of reflection. An accessor
+ * is created once for each field or method that {@link AttributeDescriptor} or
+ * {@link MethodDispatch} resolves, and is cached with it.
+ * <p>
+ * A public method with no parameters, declared by a public class that Geode's class loader can
+ * see, is called through a class generated by {@link LambdaMetafactory}, which the JIT compiles
+ * like a direct call. Any other member, such as one declared by a class in a deployed jar, is
+ * called through a {@link MethodHandle}.
+ * <p>
+ * Authorizing method invocations is left to the callers.
+ */
+abstract class MemberAccessor {
+  private static final MethodHandles.Lookup LOOKUP = MethodHandles.lookup();
+
+  private static final MethodType INVOKE_TYPE =
+      MethodType.methodType(Object.class, Object.class, Object[].class);
+
+  private static final Object[] NO_ARGS = new Object[0];
+
+  private final Member member;
+
+  MemberAccessor(Member member) {
+    this.member = member;
+  }
+
+  Member getMember() {
+    return member;
+  }
+
+  /**
+   * Returns the value of the field, or the result of calling the method with no arguments
+   */
+  abstract Object read(Object target) throws Throwable;
+
+  /**
+   * Returns the result of calling the method with the given arguments
+   */
+  abstract Object invoke(Object target, Object[] args) throws Throwable;
+
+  /**
+   * Returns an accessor for a field or a method with no parameters
+   *
+   * @throws IllegalAccessException if the member is not accessible. Call setAccessible on it
+   *         first to call a public member of a non public class.
+   */
+  static MemberAccessor forReadMember(Member member) throws IllegalAccessException {
+    if (member instanceof Method) {
+      return forMethod((Method) member);
+    }
+    Field field = (Field) member;
+    MethodHandle getter = LOOKUP.unreflectGetter(field);
+    return new HandleAccessor(field, spread(getter, Modifier.isStatic(field.getModifiers()), 0));
+  }
+
+  /**
+   * Returns an accessor for a method
+   *
+   * @throws IllegalAccessException if the method is not accessible. Call setAccessible on it
+   *         first to call a public method of a non public class.
+   */
+  static MemberAccessor forMethod(Method method) throws IllegalAccessException {
+    MethodHandle handle = LOOKUP.unreflect(method);
+    if (canGenerateFunction(method)) {
+      try {
+        return new FunctionAccessor(method, generateFunction(method, handle));
+      } catch (Throwable e) {
+        // fall back to the method handle
+      }
+    }
+    return new HandleAccessor(method, spread(handle.asFixedArity(),
+        Modifier.isStatic(method.getModifiers()), method.getParameterCount()));
+  }
+
+  private static boolean canGenerateFunction(Method method) {
+    Class<?> declaringClass = method.getDeclaringClass();
+    if (method.getParameterCount() != 0 || Modifier.isStatic(method.getModifiers())
+        || !Modifier.isPublic(method.getModifiers())
+        || !Modifier.isPublic(declaringClass.getModifiers())) {
+      return false;
+    }
+    // the generated class resolves the declaring class with Geode's class loader
+    try {
+      return Class.forName(declaringClass.getName(), false,
+          MemberAccessor.class.getClassLoader()) == declaringClass;
+    } catch (ClassNotFoundException | LinkageError e) {
+      return false;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private static Function<Object, Object> generateFunction(Method method, MethodHandle handle)
+      throws Throwable {
+    Class<?> returnType = method.getReturnType();
+    if (returnType.isPrimitive()) {
+      returnType = MethodType.methodType(returnType).wrap().returnType();
+    }
+    CallSite site = LambdaMetafactory.metafactory(LOOKUP, "apply",
+        MethodType.methodType(Function.class),
+        MethodType.methodType(Object.class, Object.class), handle,
+        MethodType.methodType(returnType, method.getDeclaringClass()));
+    return (Function<Object, Object>) site.getTarget().invokeExact();
+  }
+
+  /**
+   * Adapts a handle to take the target and an array of arguments and return an Object, converting
+   * the arguments the way Method.invoke does
+   */
+  private static MethodHandle spread(MethodHandle handle, boolean isStatic, int parameterCount) {
+    MethodHandle result = handle;
+    if (isStatic) {
+      result = MethodHandles.dropArguments(result, 0, Object.class);
+    }
+    return result.asSpreader(Object[].class, parameterCount).asType(INVOKE_TYPE);
+  }
+
+  private static class FunctionAccessor extends MemberAccessor {
+    private final Function<Object, Object> function;
+
+    FunctionAccessor(Method method, Function<Object, Object> function) {
+      super(method);
+      this.function = function;
+    }
+
+    @Override
+    Object read(Object target) {
+      return function.apply(target);
+    }
+
+    @Override
+    Object invoke(Object target, Object[] args) {
+      return function.apply(target);
+    }
+  }
+
+  private static class HandleAccessor extends MemberAccessor {
+    private final MethodHandle handle;
+
+    HandleAccessor(Member member, MethodHandle handle) {
+      super(member);
+      this.handle = handle;
+    }
+
+    @Override
+    Object read(Object target) throws Throwable {
+      return (Object) handle.invokeExact(target, NO_ARGS);
+    }
+
+    @Override
+    Object invoke(Object target, Object[] args) throws Throwable {
+      return (Object) handle.invokeExact(target, args);
+    }
+  }
+}
@@ -16,7 +16,6 @@
 package org.apache.geode.cache.query.internal;
 
 
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Method;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -42,6 +41,7 @@ public class MethodDispatch {
   private String _methodName;
   private Class[] _argTypes;
   private Method _method; // remember the right method
+  private MemberAccessor _accessor; // calls _method without reflection
   private MethodInvocationAuthorizer _methodInvocationAuthorizer;
 
   public MethodDispatch(MethodInvocationAuthorizer methodInvocationAuthorizer, Class targetClass,
@@ -55,28 +55,26 @@ public class MethodDispatch {
     // override security in case this is a method on a nonpublic class
     // with a public method
     _method.setAccessible(true);
+    try {
+      _accessor = MemberAccessor.forMethod(_method);
+    } catch (IllegalAccessException e) {
+      throw new NameNotFoundException(
+          String.format(
+              "Method ' %s ' in class ' %s ' is not accessible to the query processor",
+              new Object[] {_method.getName(), _targetClass.getName()}),
+          e);
+    }
   }
 
   public Object invoke(Object target, List args)
       throws NameNotFoundException, QueryInvocationTargetException {
     Object[] argsArray = args.toArray();
 
+    _methodInvocationAuthorizer.authorizeMethodInvocation(_method, target);
     try {
-      _methodInvocationAuthorizer.authorizeMethodInvocation(_method, target);
-      return _method.invoke(target, argsArray);
-    } catch (IllegalAccessException e) {
-      throw new NameNotFoundException(
-          String.format(
-              "Method ' %s ' in class ' %s ' is not accessible to the query processor",
-              new Object[] {_method.getName(), target.getClass().getName()}),
-          e);
-    } catch (InvocationTargetException e) {
-      // if targetException is Exception, wrap it, otherwise wrap the InvocationTargetException
-      // itself
-      Throwable t = e.getTargetException();
-      if (t instanceof Exception)
-        throw new QueryInvocationTargetException(t);
-      throw new QueryInvocationTargetException(e);
+      return _accessor.invoke(target, argsArray);
+    } catch (Throwable t) {
+      throw new QueryInvocationTargetException(t);
     }
   }
 
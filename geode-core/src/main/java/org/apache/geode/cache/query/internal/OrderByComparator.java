@@ -139,6 +139,10 @@ public class OrderByComparator implements Comparator {
     // No op
   }
 
+  void removeEvaluatedSortCriteria(Object row) {
+    // No op
+  }
+
   private int compareHelperMethod(Object obj1, Object obj2) {
     if (obj1 == null || obj2 == null) {
       return compareIfOneOrMoreNull(obj1, obj2);
@@ -19,6 +19,8 @@ import java.io.DataOutput;
 import java.io.IOException;
 import java.util.Collection;
 import java.util.Iterator;
+import java.util.Map;
+import java.util.TreeMap;
 
 import org.apache.geode.DataSerializer;
 import org.apache.geode.distributed.DistributedMember;
@@ -34,28 +36,46 @@ public class PRQueryTraceInfo implements DataSerializableFixedID {
   private InternalDistributedMember sender;
   private float timeInMillis;
   private int numResults;
+  // time in millis taken by each bucket that was queried on its own, sorted by bucket id
+  private Map<Integer, Float> bucketTimes = new TreeMap<>();
 
   public PRQueryTraceInfo() {}
 
-  @Override
-  public void toData(DataOutput out) throws IOException {
+  public void toDataPre_GEODE_1_10_0_0(DataOutput out) throws IOException {
     out.writeFloat(timeInMillis);
     out.writeInt(numResults);
     DataSerializer.writeString(indexesUsed, out);
   }
 
   @Override
-  public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+  public void toData(DataOutput out) throws IOException {
+    toDataPre_GEODE_1_10_0_0(out);
+    out.writeInt(bucketTimes.size());
+    for (Map.Entry<Integer, Float> bucketTime : bucketTimes.entrySet()) {
+      out.writeInt(bucketTime.getKey());
+      out.writeFloat(bucketTime.getValue());
+    }
+  }
+
+  public void fromDataPre_GEODE_1_10_0_0(DataInput in) throws IOException {
     timeInMillis = in.readFloat();
     numResults = in.readInt();
     indexesUsed = DataSerializer.readString(in);
   }
 
+  @Override
+  public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+    fromDataPre_GEODE_1_10_0_0(in);
+    int size = in.readInt();
+    for (int i = 0; i < size; i++) {
+      bucketTimes.put(in.readInt(), in.readFloat());
+    }
+  }
+
 
   @Override
   public Version[] getSerializationVersions() {
-    // TODO Auto-generated method stub
-    return null;
+    return new Version[] {Version.GEODE_1_10_0};
   }
 
   @Override
@@ -75,12 +95,29 @@ public class PRQueryTraceInfo implements DataSerializableFixedID {
 
   public String createLogLine(DistributedMember me) {
     if (sender.equals(me)) {
-      return String.format("Local %s took %sms and returned %s results; %s", sender,
-          timeInMillis, numResults, indexesUsed);
+      return String.format("Local %s took %sms and returned %s results; %s%s", sender,
+          timeInMillis, numResults, indexesUsed, createBucketTimesString());
     } else {
-      return String.format("Remote %s took %sms and returned %s results; %s",
-          sender, timeInMillis, numResults, indexesUsed);
+      return String.format("Remote %s took %sms and returned %s results; %s%s",
+          sender, timeInMillis, numResults, indexesUsed, createBucketTimesString());
+    }
+  }
+
+  private String createBucketTimesString() {
+    if (bucketTimes.isEmpty()) {
+      return "";
     }
+    StringBuilder sb = new StringBuilder();
+    sb.append(" bucketTimes(").append(bucketTimes.size()).append("):");
+    for (Iterator<Map.Entry<Integer, Float>> itr = bucketTimes.entrySet().iterator(); itr
+        .hasNext();) {
+      Map.Entry<Integer, Float> bucketTime = itr.next();
+      sb.append(bucketTime.getKey()).append("=").append(bucketTime.getValue()).append("ms");
+      if (itr.hasNext()) {
+        sb.append(",");
+      }
+    }
+    return sb.toString();
   }
 
   public float getTimeInMillis() {
@@ -103,4 +140,12 @@ public class PRQueryTraceInfo implements DataSerializableFixedID {
     this.indexesUsed = indexesUsed;
   }
 
+  public Map<Integer, Float> getBucketTimes() {
+    return bucketTimes;
+  }
+
+  public void setBucketTimes(Map<Integer, Float> bucketTimes) {
+    this.bucketTimes = new TreeMap<>(bucketTimes);
+  }
+
 }
@@ -0,0 +1,281 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import org.apache.geode.cache.EntryDestroyedException;
+import org.apache.geode.cache.query.FunctionDomainException;
+import org.apache.geode.cache.query.NameResolutionException;
+import org.apache.geode.cache.query.QueryInvocationTargetException;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
+import org.apache.geode.distributed.internal.DistributionConfig;
+
+/**
+ * The WHERE clause of a {@link CompiledSelect} compiled into a tree of evaluators specialized for
+ * the shape of the clause. Junctions evaluate their compiled operands directly, and a comparison
+ * between an expression and a literal or bind argument resolves the constant once per execution
+ * and compares numbers and strings without going through the generic type dispatch of
+ * {@link org.apache.geode.cache.query.internal.types.TypeUtils#compare}. Any other expression, and
+ * any value the specialized comparison does not handle, is evaluated by the {@link CompiledValue}
+ * itself, so a compiled clause returns exactly what the interpreted clause would.
+ */
+abstract class WherePredicate {
+
+  /**
+   * This system property sets the number of times the WHERE clause of a query is interpreted before
+   * it is compiled. A negative value disables compilation.
+   */
+  static final int COMPILE_THRESHOLD =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "Query.COMPILE_THRESHOLD", 10);
+
+  /**
+   * Evaluates the clause against the current iteration of the given context.
+   *
+   * @return a Boolean, null or {@link QueryService#UNDEFINED}, as {@link CompiledValue#evaluate}
+   *         would
+   */
+  abstract Object evaluate(ExecutionContext context) throws FunctionDomainException,
+      TypeMismatchException, NameResolutionException, QueryInvocationTargetException;
+
+  /**
+   * Returns a predicate with the bind arguments of the given execution resolved.
+   */
+  WherePredicate bind(ExecutionContext context) throws FunctionDomainException,
+      TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+    return this;
+  }
+
+  /**
+   * Returns a predicate that evaluates the clause as is.
+   */
+  static WherePredicate interpret(CompiledValue whereClause) {
+    return new Interpreted(whereClause);
+  }
+
+  /**
+   * Compiles the clause. The returned predicate must be {@linkplain #bind bound} to an execution
+   * before it is evaluated.
+   */
+  static WherePredicate compile(CompiledValue whereClause) {
+    // exact class checks, the subclasses evaluate differently
+    if (whereClause.getClass() == CompiledJunction.class) {
+      CompiledJunction junction = (CompiledJunction) whereClause;
+      Object[] operands = junction.getOperands().toArray();
+      WherePredicate[] compiled = new WherePredicate[operands.length];
+      for (int i = 0; i < operands.length; i++) {
+        compiled[i] = compile((CompiledValue) operands[i]);
+      }
+      return new Junction(junction.getOperator() == OQLLexerTokenTypes.LITERAL_or, compiled);
+    }
+    if (whereClause.getClass() == CompiledComparison.class) {
+      CompiledComparison comparison = (CompiledComparison) whereClause;
+      if (isConstant(comparison._right)) {
+        return new ConstantComparison(comparison, comparison._left, comparison._right, false);
+      }
+      if (isConstant(comparison._left)) {
+        return new ConstantComparison(comparison, comparison._right, comparison._left, true);
+      }
+    }
+    return interpret(whereClause);
+  }
+
+  private static boolean isConstant(CompiledValue value) {
+    return value instanceof CompiledLiteral || value instanceof CompiledBindArgument;
+  }
+
+  private static class Interpreted extends WherePredicate {
+    private final CompiledValue value;
+
+    Interpreted(CompiledValue value) {
+      this.value = value;
+    }
+
+    @Override
+    Object evaluate(ExecutionContext context) throws FunctionDomainException,
+        TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+      return value.evaluate(context);
+    }
+  }
+
+  /**
+   * LITERAL_and / LITERAL_or with the same short circuit and UNDEFINED handling as
+   * {@link CompiledJunction#evaluate}.
+   */
+  private static class Junction extends WherePredicate {
+    private final boolean or;
+    private final WherePredicate[] operands;
+
+    Junction(boolean or, WherePredicate[] operands) {
+      this.or = or;
+      this.operands = operands;
+    }
+
+    @Override
+    WherePredicate bind(ExecutionContext context) throws FunctionDomainException,
+        TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+      WherePredicate[] bound = new WherePredicate[operands.length];
+      for (int i = 0; i < operands.length; i++) {
+        bound[i] = operands[i].bind(context);
+      }
+      return new Junction(or, bound);
+    }
+
+    @Override
+    Object evaluate(ExecutionContext context) throws FunctionDomainException,
+        TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+      Object r = operands[0].evaluate(context);
+      if (r instanceof Boolean && ((Boolean) r) == or) {
+        return r;
+      }
+      if (r == null || r == QueryService.UNDEFINED) {
+        r = QueryService.UNDEFINED;
+      } else if (!(r instanceof Boolean)) {
+        throw operandTypeMismatch(r);
+      }
+      for (int i = 1; i < operands.length; i++) {
+        Object ri;
+        try {
+          ri = operands[i].evaluate(context);
+        } catch (EntryDestroyedException ignore) {
+          continue;
+        }
+        if (ri instanceof Boolean && ((Boolean) ri) == or) {
+          return ri;
+        }
+        if (ri == null || ri == QueryService.UNDEFINED || r == QueryService.UNDEFINED) {
+          r = QueryService.UNDEFINED;
+        } else if (!(ri instanceof Boolean)) {
+          throw operandTypeMismatch(ri);
+        }
+        // a Boolean operand that did not short circuit leaves r unchanged
+      }
+      return r;
+    }
+
+    private static TypeMismatchException operandTypeMismatch(Object operand) {
+      return new TypeMismatchException(
+          String.format(
+              "LITERAL_and/LITERAL_or operands must be of type boolean, not type ' %s '",
+              operand.getClass().getName()));
+    }
+  }
+
+  /**
+   * A comparison of an expression with a literal or bind argument.
+   */
+  private static class ConstantComparison extends WherePredicate {
+    private static final int OTHER = 0;
+    private static final int INTEGRAL = 1;
+    private static final int DOUBLE = 2;
+    private static final int STRING = 3;
+
+    private final CompiledComparison comparison;
+    private final CompiledValue expression;
+    private final CompiledValue constantExpression;
+    private final boolean constantOnLeft;
+
+    private final boolean bound;
+    private final Object constant;
+    private final int constantKind;
+    private final long longConstant;
+    private final double doubleConstant;
+
+    ConstantComparison(CompiledComparison comparison, CompiledValue expression,
+        CompiledValue constantExpression, boolean constantOnLeft) {
+      this(comparison, expression, constantExpression, constantOnLeft, false, null);
+    }
+
+    private ConstantComparison(CompiledComparison comparison, CompiledValue expression,
+        CompiledValue constantExpression, boolean constantOnLeft, boolean bound,
+        Object constant) {
+      this.comparison = comparison;
+      this.expression = expression;
+      this.constantExpression = constantExpression;
+      this.constantOnLeft = constantOnLeft;
+      this.bound = bound;
+      this.constant = constant;
+      this.constantKind = kindOf(constant);
+      this.longConstant = constantKind == INTEGRAL ? ((Number) constant).longValue() : 0L;
+      this.doubleConstant = constantKind == DOUBLE ? (Double) constant : 0D;
+    }
+
+    private static int kindOf(Object value) {
+      if (isIntegral(value)) {
+        return INTEGRAL;
+      }
+      if (value instanceof Double) {
+        return DOUBLE;
+      }
+      if (value instanceof String) {
+        return STRING;
+      }
+      return OTHER;
+    }
+
+    private static boolean isIntegral(Object value) {
+      return value instanceof Integer || value instanceof Long || value instanceof Short
+          || value instanceof Byte;
+    }
+
+    @Override
+    WherePredicate bind(ExecutionContext context) throws FunctionDomainException,
+        TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+      return new ConstantComparison(comparison, expression, constantExpression, constantOnLeft,
+          true, constantExpression.evaluate(context));
+    }
+
+    @Override
+    Object evaluate(ExecutionContext context) throws FunctionDomainException,
+        TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+      if (!bound) {
+        return bind(context).evaluate(context);
+      }
+      Object value = expression.evaluate(context);
+      int result;
+      // mixed numeric comparisons follow NumericComparator, the rest Comparable.compareTo
+      if (constantKind == INTEGRAL && isIntegral(value)) {
+        result = Long.compare(((Number) value).longValue(), longConstant);
+      } else if (constantKind == INTEGRAL && value instanceof Double) {
+        result = Double.compare((Double) value, (double) longConstant);
+      } else if (constantKind == DOUBLE && (value instanceof Double || isIntegral(value))) {
+        result = Double.compare(((Number) value).doubleValue(), doubleConstant);
+      } else if (constantKind == STRING && value instanceof String) {
+        result = Integer.signum(((String) value).compareTo((String) constant));
+      } else if (constantOnLeft) {
+        return comparison.compareOperands(constant, value, context);
+      } else {
+        return comparison.compareOperands(value, constant, context);
+      }
+      if (constantOnLeft) {
+        result = -result;
+      }
+      switch (comparison.getOperator()) {
+        case OQLLexerTokenTypes.TOK_EQ:
+          return result == 0;
+        case OQLLexerTokenTypes.TOK_NE:
+          return result != 0;
+        case OQLLexerTokenTypes.TOK_LT:
+          return result < 0;
+        case OQLLexerTokenTypes.TOK_LE:
+          return result <= 0;
+        case OQLLexerTokenTypes.TOK_GT:
+          return result > 0;
+        default:
+          return result >= 0;
+      }
+    }
+  }
+}
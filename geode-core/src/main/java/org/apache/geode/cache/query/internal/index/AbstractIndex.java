@@ -41,6 +41,7 @@ import org.apache.geode.cache.query.QueryService;
 import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.Struct;
 import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.CompiledCompositeKey;
 import org.apache.geode.cache.query.internal.CompiledID;
 import org.apache.geode.cache.query.internal.CompiledIndexOperation;
 import org.apache.geode.cache.query.internal.CompiledIteratorDef;
@@ -535,6 +536,12 @@ public abstract class AbstractIndex implements IndexProtocol {
   public boolean isMatchingWithIndexExpression(CompiledValue condnExpr, String condnExprStr,
       ExecutionContext context)
       throws AmbiguousNameException, TypeMismatchException, NameResolutionException {
+    if (condnExpr instanceof CompiledCompositeKey) {
+      // the key of the leading components of a composite index can use that index
+      return this.indexedExpression.startsWith(condnExprStr + CompiledCompositeKey.SEPARATOR)
+          || ((CompiledCompositeKey) condnExpr).getComponents().size() > 1
+              && this.indexedExpression.equals(condnExprStr);
+    }
     return this.indexedExpression.equals(condnExprStr);
   }
 
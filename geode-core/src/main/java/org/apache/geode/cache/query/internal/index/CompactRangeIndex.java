@@ -195,6 +195,46 @@ public class CompactRangeIndex extends AbstractIndex {
     return indexStore.clear();
   }
 
+  @Override
+  public void destroy() {
+    super.destroy();
+    closeOffHeapKeys();
+  }
+
+  /**
+   * Frees the off-heap memory of the index keys, if any, once no query or update uses them any
+   * more. Called when the index or its region is destroyed.
+   */
+  void closeOffHeapKeys() {
+    if (indexStore instanceof MemoryIndexStore) {
+      ((MemoryIndexStore) indexStore).closeOffHeapKeys();
+    }
+  }
+
+  /**
+   * Also keeps the off-heap index keys, if any, until the query using this index is done.
+   */
+  @Override
+  boolean acquireIndexReadLockForRemove() {
+    if (!super.acquireIndexReadLockForRemove()) {
+      return false;
+    }
+    if (indexStore instanceof MemoryIndexStore
+        && !((MemoryIndexStore) indexStore).retainOffHeapKeys()) {
+      super.releaseIndexReadLockForRemove();
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public void releaseIndexReadLockForRemove() {
+    if (indexStore instanceof MemoryIndexStore) {
+      ((MemoryIndexStore) indexStore).releaseOffHeapKeys();
+    }
+    super.releaseIndexReadLockForRemove();
+  }
+
 
   @Override
   public List queryEquijoinCondition(IndexProtocol indx, ExecutionContext context)
@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import java.util.Arrays;
+
+import org.apache.geode.cache.query.internal.NullToken;
+import org.apache.geode.cache.query.internal.Undefined;
+import org.apache.geode.cache.query.internal.types.TypeUtils;
+import org.apache.geode.pdx.internal.PdxString;
+
+/**
+ * The key of a composite index, i.e. an index whose indexed expression is a comma separated list
+ * of expressions. Keys are ordered lexicographically component by component. Within a component
+ * UNDEFINED sorts before NULL, NULL before any value, and values of different numeric types are
+ * compared by value.
+ *
+ * A key used as a query bound may end with {@link #MIN} or {@link #MAX}. These sort before
+ * respectively after every value, so that (a, MIN) and (a, MAX) enclose every key starting with a.
+ * A key that runs out of components sorts between MIN and MAX at that position, which lets a key
+ * made of the leading components of an entry be compared with such bounds as well.
+ */
+public final class CompositeIndexKey implements Comparable {
+
+  /** Bound component that sorts before every value */
+  public static final Object MIN = new Bound("MIN");
+
+  /** Bound component that sorts after every value */
+  public static final Object MAX = new Bound("MAX");
+
+  /* the order of the kinds of components */
+  private static final int RANK_MIN = 0;
+  private static final int RANK_UNDEFINED = 1;
+  private static final int RANK_NULL = 2;
+  private static final int RANK_VALUE = 3;
+  private static final int RANK_MAX = 4;
+
+  private final Object[] components;
+
+  public CompositeIndexKey(Object[] components) {
+    this.components = components;
+  }
+
+  public int size() {
+    return this.components.length;
+  }
+
+  public Object get(int index) {
+    return this.components[index];
+  }
+
+  @Override
+  public int compareTo(Object o) {
+    if (!(o instanceof CompositeIndexKey)) {
+      if (o instanceof NullToken || o instanceof Undefined) {
+        return 1;
+      }
+      throw new ClassCastException(
+          "Unable to compare a composite index key with " + o.getClass().getName());
+    }
+    Object[] other = ((CompositeIndexKey) o).components;
+    int length = Math.min(this.components.length, other.length);
+    for (int i = 0; i < length; i++) {
+      int result = compareComponents(this.components[i], other[i]);
+      if (result != 0) {
+        return result;
+      }
+    }
+    if (this.components.length == other.length) {
+      return 0;
+    }
+    // the shorter key sorts between MIN and MAX, and before any other value
+    if (this.components.length > length) {
+      return this.components[length] == MIN ? -1 : 1;
+    }
+    return other[length] == MIN ? 1 : -1;
+  }
+
+  private static int compareComponents(Object c1, Object c2) {
+    if (c1 == c2) {
+      return 0;
+    }
+    int rank1 = rank(c1);
+    int rank2 = rank(c2);
+    if (rank1 != rank2 || rank1 != RANK_VALUE) {
+      return Integer.compare(rank1, rank2);
+    }
+    if (c1 instanceof Number && c2 instanceof Number && c1.getClass() != c2.getClass()) {
+      return TypeUtils.getNumericComparator().compare(c1, c2);
+    }
+    if (c1 instanceof PdxString && c2 instanceof String) {
+      c2 = new PdxString((String) c2);
+    } else if (c1 instanceof String && c2 instanceof PdxString) {
+      c1 = new PdxString((String) c1);
+    }
+    return ((Comparable) c1).compareTo(c2);
+  }
+
+  private static int rank(Object component) {
+    if (component == MIN) {
+      return RANK_MIN;
+    } else if (component == MAX) {
+      return RANK_MAX;
+    } else if (component instanceof Undefined) {
+      return RANK_UNDEFINED;
+    } else if (component instanceof NullToken) {
+      return RANK_NULL;
+    }
+    return RANK_VALUE;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    if (!(o instanceof CompositeIndexKey)) {
+      return false;
+    }
+    try {
+      return compareTo(o) == 0;
+    } catch (ClassCastException e) {
+      return false;
+    }
+  }
+
+  @Override
+  public int hashCode() {
+    // must agree with equals, so numbers hash by value and PdxStrings like Strings
+    int hash = 1;
+    for (Object component : this.components) {
+      int h;
+      if (component instanceof Number) {
+        h = Double.hashCode(((Number) component).doubleValue());
+      } else if (component instanceof PdxString) {
+        h = component.toString().hashCode();
+      } else {
+        h = component.hashCode();
+      }
+      hash = 31 * hash + h;
+    }
+    return hash;
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(this.components);
+  }
+
+  private static class Bound {
+    private final String name;
+
+    Bound(String name) {
+      this.name = name;
+    }
+
+    @Override
+    public String toString() {
+      return this.name;
+    }
+  }
+}
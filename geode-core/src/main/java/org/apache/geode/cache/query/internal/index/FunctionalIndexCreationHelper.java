@@ -23,9 +23,11 @@ import org.apache.geode.cache.Region;
 import org.apache.geode.cache.query.AmbiguousNameException;
 import org.apache.geode.cache.query.IndexInvalidException;
 import org.apache.geode.cache.query.NameResolutionException;
+import org.apache.geode.cache.query.QueryInvalidException;
 import org.apache.geode.cache.query.TypeMismatchException;
 import org.apache.geode.cache.query.internal.CompiledBindArgument;
 import org.apache.geode.cache.query.internal.CompiledComparison;
+import org.apache.geode.cache.query.internal.CompiledCompositeKey;
 import org.apache.geode.cache.query.internal.CompiledFunction;
 import org.apache.geode.cache.query.internal.CompiledID;
 import org.apache.geode.cache.query.internal.CompiledIndexOperation;
@@ -433,16 +435,14 @@ class FunctionalIndexCreationHelper extends IndexCreationHelper {
    * TODO: refactor large method prepareIndexExpression
    */
   private void prepareIndexExpression(String indexedExpression) throws IndexInvalidException {
-    CompiledValue expr = this.compiler.compileQuery(indexedExpression);
+    CompiledValue expr = compileIndexedExpression(indexedExpression);
     if (expr == null) {
       throw new IndexInvalidException(
           String.format("Invalid indexed expression : ' %s '",
               indexedExpression));
     }
 
-    if (expr instanceof CompiledUndefined || expr instanceof CompiledLiteral
-        || expr instanceof CompiledComparison || expr instanceof CompiledBindArgument
-        || expr instanceof CompiledNegation) {
+    if (!isIndexable(expr)) {
       throw new IndexInvalidException(
           String.format("Invalid indexed expression : ' %s '",
               indexedExpression));
@@ -511,6 +511,50 @@ class FunctionalIndexCreationHelper extends IndexCreationHelper {
     this.indexedExpr = expr;
   }
 
+  /**
+   * Compiles the indexed expression. A comma separated list of expressions, e.g. "status, region,
+   * ts", is the indexed expression of a composite index and compiles into a
+   * {@link CompiledCompositeKey}.
+   */
+  private CompiledValue compileIndexedExpression(String indexedExpression) {
+    if (indexedExpression.indexOf(',') >= 0) {
+      List attributes = null;
+      try {
+        attributes = this.compiler.compileProjectionAttributes(indexedExpression);
+      } catch (QueryInvalidException ignore) {
+        // not a list of expressions, compile it as a single expression below
+      }
+      if (attributes != null && attributes.size() > 1) {
+        List<CompiledValue> components = new ArrayList<>(attributes.size());
+        for (Object attribute : attributes) {
+          Object[] nameAndExpr = (Object[]) attribute;
+          if (nameAndExpr[0] != null) {
+            throw new IndexInvalidException(
+                String.format("Invalid indexed expression : ' %s '",
+                    indexedExpression));
+          }
+          components.add((CompiledValue) nameAndExpr[1]);
+        }
+        return new CompiledCompositeKey(components);
+      }
+    }
+    return this.compiler.compileQuery(indexedExpression);
+  }
+
+  private static boolean isIndexable(CompiledValue expr) {
+    if (expr instanceof CompiledCompositeKey) {
+      for (CompiledValue component : ((CompiledCompositeKey) expr).getComponents()) {
+        if (!isIndexable(component)) {
+          return false;
+        }
+      }
+      return true;
+    }
+    return !(expr instanceof CompiledUndefined || expr instanceof CompiledLiteral
+        || expr instanceof CompiledComparison || expr instanceof CompiledBindArgument
+        || expr instanceof CompiledNegation);
+  }
+
   private void prepareProjectionAttributes(String projectionAttributes)
       throws IndexInvalidException {
     if (projectionAttributes != null && !projectionAttributes.equals("*")) {
@@ -689,6 +733,18 @@ class FunctionalIndexCreationHelper extends IndexCreationHelper {
       return new CompiledIndexOperation(
           getModifiedDependentCompiledValue(context, currItrID, co.getReceiver(), isDependent),
           cv1);
+    } else if (cv instanceof CompiledCompositeKey) {
+      List<CompiledValue> components = ((CompiledCompositeKey) cv).getComponents();
+      List<CompiledValue> newComponents = new ArrayList<>(components.size());
+      for (CompiledValue component : components) {
+        StringBuilder sb = new StringBuilder();
+        component.generateCanonicalizedExpression(sb, context);
+        boolean isComponentDependent =
+            sb.toString().startsWith(this.canonicalizedIteratorNames[0]);
+        newComponents.add(getModifiedDependentCompiledValue(context, currItrID, component,
+            isComponentDependent));
+      }
+      return new CompiledCompositeKey(newComponents);
     } else {
       return cv;
     }
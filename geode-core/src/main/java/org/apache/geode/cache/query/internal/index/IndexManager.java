@@ -19,7 +19,9 @@ import static org.apache.geode.internal.lang.SystemUtils.getLineSeparator;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
@@ -52,6 +54,7 @@ import org.apache.geode.cache.query.MultiIndexCreationException;
 import org.apache.geode.cache.query.NameResolutionException;
 import org.apache.geode.cache.query.QueryException;
 import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.CompiledCompositeKey;
 import org.apache.geode.cache.query.internal.CompiledPath;
 import org.apache.geode.cache.query.internal.CompiledValue;
 import org.apache.geode.cache.query.internal.ExecutionContext;
@@ -109,12 +112,32 @@ public class IndexManager {
   private final int INDEX_MAINTENANCE_BUFFER =
       Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "AsynchIndexMaintenanceThreshold", -1);
 
+  /**
+   * System property to limit the number of queued index updates the updater thread applies in one
+   * batch when index maintenance is asynchronous.
+   */
+  static final int INDEX_MAINTENANCE_BATCH_SIZE = Integer
+      .getInteger(DistributionConfig.GEMFIRE_PREFIX + "AsynchIndexMaintenanceBatchSize", 1000);
+
+  /**
+   * System property to make queries on regions with asynchronous index maintenance wait for the
+   * index updates queued before they look up an index, so that they see the preceding writes.
+   */
+  static final boolean INDEX_MAINTENANCE_READ_YOUR_WRITES = Boolean.getBoolean(
+      DistributionConfig.GEMFIRE_PREFIX + "AsynchIndexMaintenanceReadYourWrites");
+
   public static final boolean JOIN_OPTIMIZATION =
       !Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "index.DisableJoinOptimization");
 
   @MutableForTesting
   public static boolean INPLACE_OBJECT_MODIFICATION_FOR_TEST = false;
 
+  @MutableForTesting
+  public static boolean NUMERIC_KEY_STORE_FOR_TEST = false;
+
+  @MutableForTesting
+  public static boolean OFF_HEAP_INDEX_KEYS_FOR_TEST = false;
+
   @MutableForTesting
   public static boolean IS_TEST_LDM = false;
 
@@ -140,6 +163,21 @@ public class IndexManager {
 
   @MutableForTesting
   public static boolean TEST_RANGEINDEX_ONLY = false;
+
+  /**
+   * System property to keep the integral keys of compact range indexes unboxed in sorted chunks,
+   * which takes less memory than a skip list node per key for indexes over numeric fields.
+   */
+  public static final boolean NUMERIC_KEY_STORE =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "index.NUMERIC_KEY_STORE");
+
+  /**
+   * System property to keep the integral keys of compact range indexes on off-heap regions in the
+   * off-heap memory, using the same chunks as {@link #NUMERIC_KEY_STORE}.
+   */
+  public static final boolean OFF_HEAP_INDEX_KEYS =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "index.OFF_HEAP_INDEX_KEYS");
+
   public static final String INDEX_ELEMARRAY_THRESHOLD_PROP = "index_elemarray_threshold";
   public static final String INDEX_ELEMARRAY_SIZE_PROP = "index_elemarray_size";
   public static final int INDEX_ELEMARRAY_THRESHOLD =
@@ -308,6 +346,11 @@ public class IndexManager {
       } else {
         throw new AssertionError("Don't know how to set helper for " + indexType);
       }
+      if (indexType == IndexType.HASH
+          && helper.getCompiledIndexedExpression() instanceof CompiledCompositeKey) {
+        throw new UnsupportedOperationException(
+            "Hash index is currently not supported for composite indexed expressions.");
+      }
       if (!isCompactOrHash && indexType != IndexType.PRIMARY_KEY) {
 
         if (indexType == IndexType.HASH) {
@@ -452,26 +495,31 @@ public class IndexManager {
       return false;
     }
 
-    // indexedExpression requirement
-    CompiledValue cv = helper.getCompiledIndexedExpression();
-    int nodeType;
-    do {
-      nodeType = cv.getType();
-      if (nodeType == CompiledValue.PATH) {
-        cv = ((CompiledPath) cv).getReceiver();
-      }
-    } while (nodeType == CompiledValue.PATH);
-    // end of path, nodeType at this point should be an Identifier
-    if (nodeType != OQLLexerTokenTypes.Identifier && nodeType != OQLLexerTokenTypes.METHOD_INV) {
-      if (nodeType == OQLLexerTokenTypes.TOK_LBRACK && !helper.isMapTypeIndex()
-          && helper.modifiedIndexExpr instanceof MapIndexable) {
-        if (((MapIndexable) helper.modifiedIndexExpr).getIndexingKeys().size() == 1) {
+    // indexedExpression requirement, which applies to every component of a composite index
+    CompiledValue indexedExpr = helper.getCompiledIndexedExpression();
+    List<CompiledValue> expressions = indexedExpr instanceof CompiledCompositeKey
+        ? ((CompiledCompositeKey) indexedExpr).getComponents()
+        : Collections.singletonList(indexedExpr);
+    for (CompiledValue cv : expressions) {
+      int nodeType;
+      do {
+        nodeType = cv.getType();
+        if (nodeType == CompiledValue.PATH) {
+          cv = ((CompiledPath) cv).getReceiver();
+        }
+      } while (nodeType == CompiledValue.PATH);
+      // end of path, nodeType at this point should be an Identifier
+      if (nodeType != OQLLexerTokenTypes.Identifier && nodeType != OQLLexerTokenTypes.METHOD_INV) {
+        if (nodeType == OQLLexerTokenTypes.TOK_LBRACK && !helper.isMapTypeIndex()
+            && helper.modifiedIndexExpr instanceof MapIndexable) {
+          if (((MapIndexable) helper.modifiedIndexExpr).getIndexingKeys().size() == 1) {
 
+          } else {
+            return false;
+          }
         } else {
           return false;
         }
-      } else {
-        return false;
       }
     }
 
@@ -527,6 +575,9 @@ public class IndexManager {
   public IndexData getIndex(IndexType indexType, String[] definitions,
       CompiledValue indexedExpression, ExecutionContext context)
       throws AmbiguousNameException, TypeMismatchException, NameResolutionException {
+    if (INDEX_MAINTENANCE_READ_YOUR_WRITES) {
+      waitForPendingUpdates();
+    }
     IndexData indxData = null;
     int qItrSize = definitions.length;
     Iterator it = this.indexes.values().iterator();
@@ -589,6 +640,9 @@ public class IndexManager {
   public IndexData getBestMatchIndex(IndexType indexType, String[] definitions,
       CompiledValue indexedExpression, ExecutionContext context)
       throws AmbiguousNameException, TypeMismatchException, NameResolutionException {
+    if (INDEX_MAINTENANCE_READ_YOUR_WRITES) {
+      waitForPendingUpdates();
+    }
 
     Index bestIndex = null;
     Index bestPRIndex = null;
@@ -991,6 +1045,38 @@ public class IndexManager {
     }
   }
 
+  /**
+   * Waits until the index updates queued by asynchronous index maintenance before this call have
+   * been applied, so that a query run afterwards sees the preceding writes. Returns right away if
+   * index maintenance is synchronous.
+   */
+  public void waitForPendingUpdates() {
+    if (!isIndexMaintenanceTypeSynchronous()) {
+      updater.waitForPendingTasks();
+    }
+  }
+
+  /**
+   * Returns the tasks of a batch without the tasks that repeat the previous task of the same
+   * entry. Applying a task reads the current value of the entry, so a repeated task would apply
+   * the same value again.
+   */
+  static List<Object[]> coalesceTasks(List<Object[]> tasks) {
+    Map<RegionEntry, Object[]> previousTasks = new IdentityHashMap<>();
+    List<Object[]> result = new ArrayList<>(tasks.size());
+    for (Object[] task : tasks) {
+      RegionEntry entry = (RegionEntry) task[1];
+      if (entry != null) {
+        Object[] previous = previousTasks.put(entry, task);
+        if (previous != null && previous[0].equals(task[0]) && previous[2].equals(task[2])) {
+          continue;
+        }
+      }
+      result.add(task);
+    }
+    return result;
+  }
+
   /**
    * @param opCode one of IndexProtocol.OTHER_OP, BEFORE_UPDATE_OP, AFTER_UPDATE_OP.
    */
@@ -1293,6 +1379,13 @@ public class IndexManager {
    * Callback for destroying IndexManager Called after Region.destroy() called
    */
   public void destroy() throws QueryException {
+    if (isOffHeap()) {
+      for (Object index : getIndexes()) {
+        if (index instanceof CompactRangeIndex) {
+          ((CompactRangeIndex) index).closeOffHeapKeys();
+        }
+      }
+    }
     this.indexes.clear();
     if (!isIndexMaintenanceTypeSynchronous())
       updater.shutdown();
@@ -1350,6 +1443,14 @@ public class IndexManager {
     return (INPLACE_OBJECT_MODIFICATION || INPLACE_OBJECT_MODIFICATION_FOR_TEST);
   }
 
+  public static boolean isNumericKeyStore() {
+    return (NUMERIC_KEY_STORE || NUMERIC_KEY_STORE_FOR_TEST);
+  }
+
+  public static boolean isOffHeapIndexKeys() {
+    return (OFF_HEAP_INDEX_KEYS || OFF_HEAP_INDEX_KEYS_FOR_TEST);
+  }
+
   /**
    * Asif : This function is used exclusively by Index Manager. It gets the unique Iterator name for
    * a Iterator definition, if it already exists, else creates a unqiue name & also stores it in a
@@ -1402,6 +1503,15 @@ public class IndexManager {
 
     private volatile BlockingQueue pendingTasks;
 
+    /**
+     * The number of tasks added and the number of tasks applied, which are counted in the order
+     * they are taken from the queue. A task is counted before it is queued, so once as many tasks
+     * have been applied as had been added, every task queued before is applied.
+     */
+    private final AtomicLong addedTasks = new AtomicLong();
+    private volatile long appliedTasks;
+    private final Object appliedTasksLock = new Object();
+
     /**
      * Creates instance of IndexUpdaterThread
      */
@@ -1422,9 +1532,30 @@ public class IndexManager {
       task[0] = action;
       task[1] = entry;
       task[2] = opCode;
+      addedTasks.incrementAndGet();
       pendingTasks.add(task);
     }
 
+    /**
+     * Waits until the tasks added before this call have been applied, or this thread has stopped.
+     */
+    void waitForPendingTasks() {
+      long target = addedTasks.get();
+      if (this.appliedTasks >= target) {
+        return;
+      }
+      synchronized (this.appliedTasksLock) {
+        while (this.appliedTasks < target && this.running) {
+          try {
+            this.appliedTasksLock.wait();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+          }
+        }
+      }
+    }
+
     /**
      * Stops this thread. Does not return until it has stopped.
      */
@@ -1447,6 +1578,7 @@ public class IndexManager {
       // async writers main loop
       // logger.debug("DiskRegion writer started (writer=" + this + ")");
       org.apache.geode.CancelCriterion stopper = ((LocalRegion) region).getCancelCriterion();
+      List<Object[]> batch = new ArrayList<>();
       try {
         while (!this.shutdownRequested) {
           // Termination checks
@@ -1455,17 +1587,28 @@ public class IndexManager {
             break;
           }
           try {
-            Object[] task = (Object[]) pendingTasks.take();
+            batch.add((Object[]) pendingTasks.take());
             if (this.shutdownRequested) {
               break;
             }
-            updateIndexes(task);
+            pendingTasks.drainTo(batch, Math.max(INDEX_MAINTENANCE_BATCH_SIZE, 1) - 1);
+            for (Object[] task : coalesceTasks(batch)) {
+              updateIndexes(task);
+            }
+            synchronized (this.appliedTasksLock) {
+              this.appliedTasks += batch.size();
+              this.appliedTasksLock.notifyAll();
+            }
+            batch.clear();
           } catch (InterruptedException ignore) {
             return; // give up (exit the thread)
           }
         }
       } finally {
-        this.running = false;
+        synchronized (this.appliedTasksLock) {
+          this.running = false;
+          this.appliedTasksLock.notifyAll();
+        }
       }
     }
 
@@ -1495,12 +1638,11 @@ public class IndexManager {
     }
 
     /**
-     * Used by tests to determine if the updater thread has finished updating its indexes. The list
-     * is cleared without synchronization, which makes this methods somewhat unsafe from a threading
-     * point of view.
+     * Used by tests to determine if the updater thread has finished updating its indexes, including
+     * the batch it is applying.
      */
-    public synchronized boolean isDone() {
-      return this.pendingTasks.size() == 0;
+    public boolean isDone() {
+      return this.appliedTasks >= this.addedTasks.get();
     }
 
   }
@@ -55,8 +55,7 @@ public class MemoryIndexStore implements IndexStore {
    * Map for valueOf(indexedExpression)=>RegionEntries. SortedMap<Object, (RegionEntry |
    * List<RegionEntry>)>. Package access for unit tests.
    */
-  final ConcurrentNavigableMap valueToEntriesMap =
-      new ConcurrentSkipListMap(TypeUtils.getExtendedNumericComparator());
+  final ConcurrentNavigableMap valueToEntriesMap;
 
   // number of keys
   private final AtomicInteger numIndexKeys = new AtomicInteger(0);
@@ -86,6 +85,13 @@ public class MemoryIndexStore implements IndexStore {
   MemoryIndexStore(Region region, InternalIndexStatistics internalIndexStats, InternalCache cache) {
     this.region = region;
     RegionAttributes ra = region.getAttributes();
+    if (IndexManager.isOffHeapIndexKeys() && ra.getOffHeap() && cache.getOffHeapStore() != null) {
+      this.valueToEntriesMap = new NumericKeyIndexMap(cache.getOffHeapStore());
+    } else if (IndexManager.isNumericKeyStore()) {
+      this.valueToEntriesMap = new NumericKeyIndexMap();
+    } else {
+      this.valueToEntriesMap = new ConcurrentSkipListMap(TypeUtils.getExtendedNumericComparator());
+    }
     // Initialize the reverse-map if in-place modification is set by the
     // application.
     if (IndexManager.isObjectModificationInplace()) {
@@ -560,6 +566,46 @@ public class MemoryIndexStore implements IndexStore {
     return true;
   }
 
+  /**
+   * Keeps the off-heap index keys, if any, from being freed while a query uses them.
+   *
+   * @return false if the keys have already been freed because the index was destroyed
+   */
+  boolean retainOffHeapKeys() {
+    NumericKeyIndexMap offHeapKeys = getOffHeapKeys();
+    return offHeapKeys == null || offHeapKeys.retain();
+  }
+
+  /**
+   * Releases a successful {@link #retainOffHeapKeys()}.
+   */
+  void releaseOffHeapKeys() {
+    NumericKeyIndexMap offHeapKeys = getOffHeapKeys();
+    if (offHeapKeys != null) {
+      offHeapKeys.release();
+    }
+  }
+
+  /**
+   * Refuses further updates of the off-heap index keys, if any, and frees them once no query or
+   * update uses them any more. The keys are not cleared before that, so that queries already
+   * using the index get all of its entries.
+   */
+  void closeOffHeapKeys() {
+    NumericKeyIndexMap offHeapKeys = getOffHeapKeys();
+    if (offHeapKeys != null) {
+      offHeapKeys.close();
+    }
+  }
+
+  private NumericKeyIndexMap getOffHeapKeys() {
+    if (this.valueToEntriesMap instanceof NumericKeyIndexMap
+        && ((NumericKeyIndexMap) this.valueToEntriesMap).isOffHeap()) {
+      return (NumericKeyIndexMap) this.valueToEntriesMap;
+    }
+    return null;
+  }
+
   @Override
   public int size(Object key) {
     Object obj = valueToEntriesMap.get(key);
@@ -0,0 +1,1490 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedSet;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.internal.NullToken;
+import org.apache.geode.cache.query.internal.Undefined;
+import org.apache.geode.cache.query.internal.types.ExtendedNumericComparator;
+import org.apache.geode.cache.query.internal.types.TypeUtils;
+import org.apache.geode.internal.offheap.AddressableMemoryManager;
+import org.apache.geode.internal.offheap.MemoryAllocator;
+import org.apache.geode.internal.offheap.StoredObject;
+
+/**
+ * A {@link ConcurrentNavigableMap} ordered by the {@link ExtendedNumericComparator}, used as the
+ * forward map of a {@link MemoryIndexStore} for indexes over numeric fields. Index keys that are
+ * integral numbers are kept unboxed in sorted chunks of up to {@link #CHUNK_SIZE} {@code long}
+ * keys, along with their values, and a chunk is found through a skip list keyed by the lowest key
+ * it may hold. A {@link ConcurrentSkipListMap} allocates a node and a boxed key for every index
+ * key, so this needs a fraction of the memory per key, and range scans read the keys of a chunk
+ * from a single array. All other keys, like {@link IndexManager#NULL},
+ * {@link QueryService#UNDEFINED} or fractional numbers, are kept in a
+ * {@link ConcurrentSkipListMap}, and iterators merge both in key order.
+ *
+ * <p>
+ * The keys of the chunks can be kept in blocks allocated from the off-heap memory, so that indexes
+ * on off-heap regions keep only their values, the region entries, on the heap.
+ *
+ * <p>
+ * An integral key is returned boxed with the type of the key it was first added with. Integral keys
+ * are compared exactly, while the comparator compares a long with a double as doubles, so longs
+ * beyond 2^53 are not merged with equal doubles. Updates lock the chunk holding the key, and
+ * iterators are weakly consistent, copying the entries of one chunk at a time.
+ */
+class NumericKeyIndexMap extends AbstractMap<Object, Object>
+    implements ConcurrentNavigableMap<Object, Object> {
+
+  /** The maximum number of keys in a chunk */
+  static final int CHUNK_SIZE = 64;
+
+  private static final int INITIAL_CHUNK_CAPACITY = 4;
+
+  /** Doubles and floats beyond these are not exactly comparable with longs */
+  private static final double MAX_EXACT_DOUBLE = 0x1p53;
+  private static final double MAX_EXACT_FLOAT = 0x1p24;
+
+  private static final byte LONG = 0;
+  private static final byte INTEGER = 1;
+  private static final byte SHORT = 2;
+  private static final byte BYTE = 3;
+  private static final byte DOUBLE = 4;
+  private static final byte FLOAT = 5;
+
+  private static final int PUT = 0;
+  private static final int PUT_IF_ABSENT = 1;
+  private static final int REPLACE = 2;
+  private static final int REPLACE_IF_EQUAL = 3;
+  private static final int REMOVE = 4;
+  private static final int REMOVE_IF_EQUAL = 5;
+
+  private final Store store;
+
+  /** The bounds of this view in ascending order, null if unbounded */
+  private final Object lo;
+  private final boolean loInclusive;
+  private final Object hi;
+  private final boolean hiInclusive;
+
+  private final boolean descending;
+
+  NumericKeyIndexMap() {
+    this(new Store(null), null, false, null, false, false);
+  }
+
+  /**
+   * Creates a map keeping its integral keys in blocks allocated from the given off-heap memory,
+   * which are freed when the keys are removed or the map is cleared.
+   */
+  NumericKeyIndexMap(MemoryAllocator offHeapStore) {
+    this(new Store(offHeapStore), null, false, null, false, false);
+  }
+
+  /**
+   * Returns true if the integral keys are kept in the off-heap memory.
+   */
+  boolean isOffHeap() {
+    return this.store.allocator != null;
+  }
+
+  /**
+   * Keeps the off-heap keys from being freed by {@link #close()} until {@link #release()} is
+   * called, so that a query using the map sees all of its keys.
+   *
+   * @return false if the map has been closed and its keys have already been freed
+   */
+  boolean retain() {
+    return this.store.retain();
+  }
+
+  /**
+   * Releases a successful {@link #retain()}.
+   */
+  void release() {
+    this.store.release();
+  }
+
+  /**
+   * Refuses any further update and frees the off-heap keys once no query or update uses them any
+   * more. The map keeps its keys until then.
+   */
+  void close() {
+    this.store.close();
+  }
+
+  private NumericKeyIndexMap(Store store, Object lo, boolean loInclusive, Object hi,
+      boolean hiInclusive, boolean descending) {
+    this.store = store;
+    this.lo = lo;
+    this.loInclusive = loInclusive;
+    this.hi = hi;
+    this.hiInclusive = hiInclusive;
+    this.descending = descending;
+  }
+
+  /**
+   * Returns true if the key is kept unboxed, which requires that it compares exactly with longs.
+   * Negative zero is less than a long zero, so it is not.
+   */
+  static boolean isChunked(Object key) {
+    Class<?> keyClass = key.getClass();
+    if (keyClass == Long.class || keyClass == Integer.class || keyClass == Short.class
+        || keyClass == Byte.class) {
+      return true;
+    }
+    if (keyClass == Double.class || keyClass == Float.class) {
+      double value = ((Number) key).doubleValue();
+      double max = keyClass == Double.class ? MAX_EXACT_DOUBLE : MAX_EXACT_FLOAT;
+      return value == Math.rint(value) && Math.abs(value) <= max
+          && Double.doubleToRawLongBits(value) != Double.doubleToRawLongBits(-0.0d);
+    }
+    return false;
+  }
+
+  private static boolean isIntegral(Object key) {
+    Class<?> keyClass = key.getClass();
+    return keyClass == Long.class || keyClass == Integer.class || keyClass == Short.class
+        || keyClass == Byte.class;
+  }
+
+  private static byte typeOf(Object key) {
+    Class<?> keyClass = key.getClass();
+    if (keyClass == Long.class) {
+      return LONG;
+    } else if (keyClass == Integer.class) {
+      return INTEGER;
+    } else if (keyClass == Short.class) {
+      return SHORT;
+    } else if (keyClass == Byte.class) {
+      return BYTE;
+    } else if (keyClass == Double.class) {
+      return DOUBLE;
+    } else {
+      return FLOAT;
+    }
+  }
+
+  private static Object box(long key, byte type) {
+    switch (type) {
+      case INTEGER:
+        return (int) key;
+      case SHORT:
+        return (short) key;
+      case BYTE:
+        return (byte) key;
+      case DOUBLE:
+        return (double) key;
+      case FLOAT:
+        return (float) key;
+      default:
+        return key;
+    }
+  }
+
+  private static boolean isToken(Object key) {
+    return key instanceof NullToken || key instanceof Undefined;
+  }
+
+  /**
+   * Returns the lowest chunked key that may be at or above the given lower bound, or null if no
+   * chunked key can be. Unless the bound is {@link #isExactBound exact}, keys need to be checked
+   * against the bound.
+   */
+  private static Long lowestChunkedKey(Object bound, boolean inclusive) {
+    if (bound == null || isToken(bound)) {
+      return Long.MIN_VALUE;
+    }
+    if (isIntegral(bound)) {
+      long value = ((Number) bound).longValue();
+      if (inclusive) {
+        return value;
+      }
+      return value == Long.MAX_VALUE ? null : value + 1;
+    }
+    if (bound instanceof Number) {
+      double value = ((Number) bound).doubleValue();
+      if (Double.isNaN(value) || value >= 0x1p63) {
+        return null;
+      }
+      return value < -0x1p63 ? Long.MIN_VALUE : (long) Math.floor(value);
+    }
+    return Long.MIN_VALUE;
+  }
+
+  /**
+   * Returns the highest chunked key that may be at or below the given upper bound, or null if no
+   * chunked key can be. Unless the bound is {@link #isExactBound exact}, keys need to be checked
+   * against the bound.
+   */
+  private static Long highestChunkedKey(Object bound, boolean inclusive) {
+    if (bound == null) {
+      return Long.MAX_VALUE;
+    }
+    if (isToken(bound)) {
+      return null;
+    }
+    if (isIntegral(bound)) {
+      long value = ((Number) bound).longValue();
+      if (inclusive) {
+        return value;
+      }
+      return value == Long.MIN_VALUE ? null : value - 1;
+    }
+    if (bound instanceof Number) {
+      double value = ((Number) bound).doubleValue();
+      if (Double.isNaN(value) || value >= 0x1p63) {
+        return Long.MAX_VALUE;
+      }
+      return value < -0x1p63 ? null : (long) Math.ceil(value);
+    }
+    return Long.MAX_VALUE;
+  }
+
+  private static boolean isExactBound(Object bound) {
+    return bound == null || isIntegral(bound) || isToken(bound);
+  }
+
+  private int compare(Object key1, Object key2) {
+    return this.store.comparator.compare(key1, key2);
+  }
+
+  private boolean inBounds(Object key) {
+    if (this.lo != null) {
+      int result = compare(key, this.lo);
+      if (result < 0 || result == 0 && !this.loInclusive) {
+        return false;
+      }
+    }
+    if (this.hi != null) {
+      int result = compare(key, this.hi);
+      if (result > 0 || result == 0 && !this.hiInclusive) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private boolean isEmptyRange() {
+    if (this.lo == null || this.hi == null) {
+      return false;
+    }
+    int result = compare(this.lo, this.hi);
+    return result > 0 || result == 0 && !(this.loInclusive && this.hiInclusive);
+  }
+
+  private void checkInBounds(Object key) {
+    if (key == null) {
+      throw new NullPointerException();
+    }
+    if (!inBounds(key)) {
+      throw new IllegalArgumentException("key out of range");
+    }
+  }
+
+  @Override
+  public Object get(Object key) {
+    if (key == null) {
+      throw new NullPointerException();
+    }
+    return inBounds(key) ? this.store.get(key) : null;
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return get(key) != null;
+  }
+
+  @Override
+  public Object put(Object key, Object value) {
+    checkInBounds(key);
+    return this.store.update(key, PUT, null, value);
+  }
+
+  @Override
+  public Object putIfAbsent(Object key, Object value) {
+    checkInBounds(key);
+    return this.store.update(key, PUT_IF_ABSENT, null, value);
+  }
+
+  @Override
+  public Object replace(Object key, Object value) {
+    checkInBounds(key);
+    return this.store.update(key, REPLACE, null, value);
+  }
+
+  @Override
+  public boolean replace(Object key, Object oldValue, Object newValue) {
+    checkInBounds(key);
+    if (oldValue == null) {
+      throw new NullPointerException();
+    }
+    Object previous = this.store.update(key, REPLACE_IF_EQUAL, oldValue, newValue);
+    return previous != null && oldValue.equals(previous);
+  }
+
+  @Override
+  public Object remove(Object key) {
+    if (key == null) {
+      throw new NullPointerException();
+    }
+    return inBounds(key) ? this.store.update(key, REMOVE, null, null) : null;
+  }
+
+  @Override
+  public boolean remove(Object key, Object value) {
+    if (key == null) {
+      throw new NullPointerException();
+    }
+    if (value == null || !inBounds(key)) {
+      return false;
+    }
+    Object previous = this.store.update(key, REMOVE_IF_EQUAL, value, null);
+    return previous != null && value.equals(previous);
+  }
+
+  @Override
+  public int size() {
+    if (this.lo == null && this.hi == null) {
+      return this.store.size();
+    }
+    int size = 0;
+    for (Iterator<Map.Entry<Object, Object>> entries = entryIterator(); entries.hasNext();) {
+      entries.next();
+      size++;
+    }
+    return size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return !entryIterator().hasNext();
+  }
+
+  @Override
+  public void clear() {
+    if (this.lo == null && this.hi == null) {
+      this.store.clear();
+    } else {
+      for (Iterator<Map.Entry<Object, Object>> entries = entryIterator(); entries.hasNext();) {
+        entries.next();
+        entries.remove();
+      }
+    }
+  }
+
+  @Override
+  public Set<Map.Entry<Object, Object>> entrySet() {
+    return new AbstractSet<Map.Entry<Object, Object>>() {
+      @Override
+      public Iterator<Map.Entry<Object, Object>> iterator() {
+        return entryIterator();
+      }
+
+      @Override
+      public int size() {
+        return NumericKeyIndexMap.this.size();
+      }
+
+      @Override
+      public boolean isEmpty() {
+        return NumericKeyIndexMap.this.isEmpty();
+      }
+
+      @Override
+      public void clear() {
+        NumericKeyIndexMap.this.clear();
+      }
+    };
+  }
+
+  @Override
+  public NavigableSet<Object> keySet() {
+    return new KeySet(this);
+  }
+
+  @Override
+  public NavigableSet<Object> navigableKeySet() {
+    return new KeySet(this);
+  }
+
+  @Override
+  public NavigableSet<Object> descendingKeySet() {
+    return new KeySet(descendingMap());
+  }
+
+  @Override
+  public Comparator<Object> comparator() {
+    return this.descending ? Collections.reverseOrder(this.store.comparator)
+        : this.store.comparator;
+  }
+
+  @Override
+  public Map.Entry<Object, Object> firstEntry() {
+    Iterator<Map.Entry<Object, Object>> entries = entryIterator();
+    return entries.hasNext() ? entries.next() : null;
+  }
+
+  @Override
+  public Map.Entry<Object, Object> lastEntry() {
+    return descendingMap().firstEntry();
+  }
+
+  @Override
+  public Object firstKey() {
+    Map.Entry<Object, Object> entry = firstEntry();
+    if (entry == null) {
+      throw new NoSuchElementException();
+    }
+    return entry.getKey();
+  }
+
+  @Override
+  public Object lastKey() {
+    Map.Entry<Object, Object> entry = lastEntry();
+    if (entry == null) {
+      throw new NoSuchElementException();
+    }
+    return entry.getKey();
+  }
+
+  @Override
+  public Map.Entry<Object, Object> pollFirstEntry() {
+    Map.Entry<Object, Object> entry;
+    do {
+      entry = firstEntry();
+    } while (entry != null && !remove(entry.getKey(), entry.getValue()));
+    return entry;
+  }
+
+  @Override
+  public Map.Entry<Object, Object> pollLastEntry() {
+    return descendingMap().pollFirstEntry();
+  }
+
+  @Override
+  public Map.Entry<Object, Object> lowerEntry(Object key) {
+    return headMap(key, false).lastEntry();
+  }
+
+  @Override
+  public Object lowerKey(Object key) {
+    return keyOf(lowerEntry(key));
+  }
+
+  @Override
+  public Map.Entry<Object, Object> floorEntry(Object key) {
+    return headMap(key, true).lastEntry();
+  }
+
+  @Override
+  public Object floorKey(Object key) {
+    return keyOf(floorEntry(key));
+  }
+
+  @Override
+  public Map.Entry<Object, Object> ceilingEntry(Object key) {
+    return tailMap(key, true).firstEntry();
+  }
+
+  @Override
+  public Object ceilingKey(Object key) {
+    return keyOf(ceilingEntry(key));
+  }
+
+  @Override
+  public Map.Entry<Object, Object> higherEntry(Object key) {
+    return tailMap(key, false).firstEntry();
+  }
+
+  @Override
+  public Object higherKey(Object key) {
+    return keyOf(higherEntry(key));
+  }
+
+  private static Object keyOf(Map.Entry<Object, Object> entry) {
+    return entry == null ? null : entry.getKey();
+  }
+
+  @Override
+  public NumericKeyIndexMap subMap(Object fromKey, boolean fromInclusive, Object toKey,
+      boolean toInclusive) {
+    if (fromKey == null || toKey == null) {
+      throw new NullPointerException();
+    }
+    return this.descending ? restrict(toKey, toInclusive, fromKey, fromInclusive)
+        : restrict(fromKey, fromInclusive, toKey, toInclusive);
+  }
+
+  @Override
+  public NumericKeyIndexMap headMap(Object toKey, boolean inclusive) {
+    if (toKey == null) {
+      throw new NullPointerException();
+    }
+    return this.descending ? restrict(toKey, inclusive, null, false)
+        : restrict(null, false, toKey, inclusive);
+  }
+
+  @Override
+  public NumericKeyIndexMap tailMap(Object fromKey, boolean inclusive) {
+    if (fromKey == null) {
+      throw new NullPointerException();
+    }
+    return this.descending ? restrict(null, false, fromKey, inclusive)
+        : restrict(fromKey, inclusive, null, false);
+  }
+
+  @Override
+  public NumericKeyIndexMap subMap(Object fromKey, Object toKey) {
+    return subMap(fromKey, true, toKey, false);
+  }
+
+  @Override
+  public NumericKeyIndexMap headMap(Object toKey) {
+    return headMap(toKey, false);
+  }
+
+  @Override
+  public NumericKeyIndexMap tailMap(Object fromKey) {
+    return tailMap(fromKey, true);
+  }
+
+  @Override
+  public NumericKeyIndexMap descendingMap() {
+    return new NumericKeyIndexMap(this.store, this.lo, this.loInclusive, this.hi,
+        this.hiInclusive, !this.descending);
+  }
+
+  /**
+   * Returns a view narrowed to the given bounds, which are in ascending order and null if not
+   * narrowed.
+   */
+  private NumericKeyIndexMap restrict(Object newLo, boolean newLoInclusive, Object newHi,
+      boolean newHiInclusive) {
+    Object lo = this.lo;
+    boolean loInclusive = this.loInclusive;
+    if (newLo != null) {
+      int result = lo == null ? 1 : compare(newLo, lo);
+      if (result > 0) {
+        lo = newLo;
+        loInclusive = newLoInclusive;
+      } else if (result == 0) {
+        loInclusive &= newLoInclusive;
+      }
+    }
+    Object hi = this.hi;
+    boolean hiInclusive = this.hiInclusive;
+    if (newHi != null) {
+      int result = hi == null ? -1 : compare(newHi, hi);
+      if (result < 0) {
+        hi = newHi;
+        hiInclusive = newHiInclusive;
+      } else if (result == 0) {
+        hiInclusive &= newHiInclusive;
+      }
+    }
+    return new NumericKeyIndexMap(this.store, lo, loInclusive, hi, hiInclusive, this.descending);
+  }
+
+  private Iterator<Map.Entry<Object, Object>> entryIterator() {
+    if (isEmptyRange()) {
+      return Collections.emptyIterator();
+    }
+    Long lowestKey = lowestChunkedKey(this.lo, this.loInclusive);
+    Long highestKey = highestChunkedKey(this.hi, this.hiInclusive);
+    Iterator<Map.Entry<Object, Object>> chunked;
+    if (lowestKey == null || highestKey == null || lowestKey > highestKey) {
+      chunked = Collections.emptyIterator();
+    } else {
+      boolean exact = isExactBound(this.lo) && isExactBound(this.hi);
+      chunked = new ChunkIterator(this.store.chunks, lowestKey, highestKey, exact);
+    }
+    return new MergeIterator(chunked, othersView().entrySet().iterator());
+  }
+
+  private ConcurrentNavigableMap<Object, Object> othersView() {
+    ConcurrentNavigableMap<Object, Object> others = this.store.others;
+    if (this.lo != null && this.hi != null) {
+      others = others.subMap(this.lo, this.loInclusive, this.hi, this.hiInclusive);
+    } else if (this.lo != null) {
+      others = others.tailMap(this.lo, this.loInclusive);
+    } else if (this.hi != null) {
+      others = others.headMap(this.hi, this.hiInclusive);
+    }
+    return this.descending ? others.descendingMap() : others;
+  }
+
+  /**
+   * Iterates over the chunked keys between two keys, copying the entries of one chunk at a time.
+   */
+  private class ChunkIterator implements Iterator<Map.Entry<Object, Object>> {
+    private final Chunks chunks;
+    private final long lowestKey;
+    private final long highestKey;
+    private final boolean exact;
+
+    private final long[] keys = new long[CHUNK_SIZE];
+    private final byte[] types = new byte[CHUNK_SIZE];
+    private final Object[] values = new Object[CHUNK_SIZE];
+    private int index;
+    private int count;
+
+    /** The key to continue with once the copied entries are consumed */
+    private long nextKey;
+    private boolean exhausted;
+
+    private Map.Entry<Object, Object> next;
+
+    ChunkIterator(Chunks chunks, long lowestKey, long highestKey, boolean exact) {
+      this.chunks = chunks;
+      this.lowestKey = lowestKey;
+      this.highestKey = highestKey;
+      this.exact = exact;
+      this.nextKey = descending ? highestKey : lowestKey;
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (this.next == null) {
+        if (this.index == this.count) {
+          if (this.exhausted) {
+            return false;
+          }
+          copyNextEntries();
+          continue;
+        }
+        Object key = box(this.keys[this.index], this.types[this.index]);
+        Object value = this.values[this.index];
+        this.values[this.index++] = null;
+        if (this.exact || inBounds(key)) {
+          this.next = new AbstractMap.SimpleImmutableEntry<>(key, value);
+        }
+      }
+      return true;
+    }
+
+    @Override
+    public Map.Entry<Object, Object> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      Map.Entry<Object, Object> entry = this.next;
+      this.next = null;
+      return entry;
+    }
+
+    private void copyNextEntries() {
+      this.index = 0;
+      this.count = 0;
+      for (;;) {
+        Chunk chunk = this.chunks.chunkFor(this.nextKey);
+        if (chunk == null) {
+          this.exhausted = true;
+          return;
+        }
+        synchronized (chunk) {
+          if (!chunk.covers(this.nextKey)) {
+            if (this.chunks.cleared) {
+              this.exhausted = true;
+              return;
+            }
+            continue;
+          }
+          if (descending) {
+            copyDescending(chunk);
+          } else {
+            copyAscending(chunk);
+          }
+          return;
+        }
+      }
+    }
+
+    private void copyAscending(Chunk chunk) {
+      int i = chunk.indexOf(this.nextKey);
+      if (i < 0) {
+        i = -i - 1;
+      }
+      for (; i < chunk.size && chunk.key(i) <= this.highestKey; i++) {
+        copy(chunk, i);
+      }
+      if (i < chunk.size || !chunk.bounded || chunk.high > this.highestKey) {
+        this.exhausted = true;
+      } else {
+        this.nextKey = chunk.high;
+      }
+    }
+
+    private void copyDescending(Chunk chunk) {
+      int i = chunk.indexOf(this.nextKey);
+      if (i < 0) {
+        i = -i - 2;
+      }
+      for (; i >= 0 && chunk.key(i) >= this.lowestKey; i--) {
+        copy(chunk, i);
+      }
+      if (i >= 0 || chunk.low <= this.lowestKey) {
+        this.exhausted = true;
+      } else {
+        this.nextKey = chunk.low - 1;
+      }
+    }
+
+    private void copy(Chunk chunk, int i) {
+      this.keys[this.count] = chunk.key(i);
+      this.types[this.count] = chunk.type(i);
+      this.values[this.count++] = chunk.values[i];
+    }
+  }
+
+  /**
+   * Merges the chunked and the other entries of this view in key order.
+   */
+  private class MergeIterator implements Iterator<Map.Entry<Object, Object>> {
+    private final Iterator<Map.Entry<Object, Object>> chunked;
+    private final Iterator<Map.Entry<Object, Object>> others;
+    private Map.Entry<Object, Object> nextChunked;
+    private Map.Entry<Object, Object> nextOther;
+    private Map.Entry<Object, Object> lastReturned;
+
+    MergeIterator(Iterator<Map.Entry<Object, Object>> chunked,
+        Iterator<Map.Entry<Object, Object>> others) {
+      this.chunked = chunked;
+      this.others = others;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (this.nextChunked == null && this.chunked.hasNext()) {
+        this.nextChunked = this.chunked.next();
+      }
+      if (this.nextOther == null && this.others.hasNext()) {
+        this.nextOther = this.others.next();
+      }
+      return this.nextChunked != null || this.nextOther != null;
+    }
+
+    @Override
+    public Map.Entry<Object, Object> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      boolean takeChunked;
+      if (this.nextOther == null) {
+        takeChunked = true;
+      } else if (this.nextChunked == null) {
+        takeChunked = false;
+      } else {
+        int result = compare(this.nextChunked.getKey(), this.nextOther.getKey());
+        takeChunked = descending ? result >= 0 : result <= 0;
+      }
+      if (takeChunked) {
+        this.lastReturned = this.nextChunked;
+        this.nextChunked = null;
+      } else {
+        this.lastReturned = this.nextOther;
+        this.nextOther = null;
+      }
+      return this.lastReturned;
+    }
+
+    @Override
+    public void remove() {
+      if (this.lastReturned == null) {
+        throw new IllegalStateException();
+      }
+      store.update(this.lastReturned.getKey(), REMOVE, null, null);
+      this.lastReturned = null;
+    }
+  }
+
+  /**
+   * Up to {@link #CHUNK_SIZE} sorted keys with their values. A chunk holds the keys from its low
+   * key up to, but excluding, its high key. The low key of a chunk never changes, while its high
+   * key changes when it is split or when the next chunk is removed. All fields other than the low
+   * key are guarded by the chunk's monitor. The values always stay on the heap, while the keys and
+   * their types are kept by a subclass.
+   */
+  private abstract static class Chunk {
+    final long low;
+    long high;
+    boolean bounded;
+    boolean removed;
+    Object[] values;
+    int size;
+
+    Chunk(long low, int capacity) {
+      this.low = low;
+      this.values = new Object[capacity];
+    }
+
+    abstract long key(int index);
+
+    abstract byte type(int index);
+
+    abstract void setKey(int index, long key, byte type);
+
+    /**
+     * Moves keys within this chunk. The source and destination may overlap.
+     */
+    abstract void moveKeys(int from, int to, int count);
+
+    /**
+     * Changes the capacity of the keys, which is the length of the values until they are resized.
+     */
+    abstract void resizeKeys(int capacity);
+
+    /**
+     * Returns a new empty chunk of the same kind.
+     */
+    abstract Chunk newChunk(long low, int capacity);
+
+    /**
+     * Frees the memory of the keys once this chunk is removed.
+     */
+    void release() {}
+
+    boolean covers(long key) {
+      return !this.removed && key >= this.low && (!this.bounded || key < this.high);
+    }
+
+    int indexOf(long key) {
+      int lowIndex = 0;
+      int highIndex = this.size - 1;
+      while (lowIndex <= highIndex) {
+        int middle = (lowIndex + highIndex) >>> 1;
+        long middleKey = key(middle);
+        if (middleKey < key) {
+          lowIndex = middle + 1;
+        } else if (middleKey > key) {
+          highIndex = middle - 1;
+        } else {
+          return middle;
+        }
+      }
+      return -(lowIndex + 1);
+    }
+
+    void insert(int index, long key, byte type, Object value) {
+      if (this.size == this.values.length) {
+        int capacity = Math.max(Math.min(this.size * 2, CHUNK_SIZE), INITIAL_CHUNK_CAPACITY);
+        resizeKeys(capacity);
+        this.values = Arrays.copyOf(this.values, capacity);
+      }
+      int moved = this.size - index;
+      moveKeys(index, index + 1, moved);
+      System.arraycopy(this.values, index, this.values, index + 1, moved);
+      setKey(index, key, type);
+      this.values[index] = value;
+      this.size++;
+    }
+
+    void delete(int index) {
+      int moved = this.size - index - 1;
+      moveKeys(index + 1, index, moved);
+      System.arraycopy(this.values, index + 1, this.values, index, moved);
+      this.values[--this.size] = null;
+    }
+  }
+
+  private static class HeapChunk extends Chunk {
+    private long[] keys;
+    private byte[] types;
+
+    HeapChunk(long low, int capacity) {
+      super(low, capacity);
+      this.keys = new long[capacity];
+      this.types = new byte[capacity];
+    }
+
+    @Override
+    long key(int index) {
+      return this.keys[index];
+    }
+
+    @Override
+    byte type(int index) {
+      return this.types[index];
+    }
+
+    @Override
+    void setKey(int index, long key, byte type) {
+      this.keys[index] = key;
+      this.types[index] = type;
+    }
+
+    @Override
+    void moveKeys(int from, int to, int count) {
+      System.arraycopy(this.keys, from, this.keys, to, count);
+      System.arraycopy(this.types, from, this.types, to, count);
+    }
+
+    @Override
+    void resizeKeys(int capacity) {
+      this.keys = Arrays.copyOf(this.keys, capacity);
+      this.types = Arrays.copyOf(this.types, capacity);
+    }
+
+    @Override
+    Chunk newChunk(long low, int capacity) {
+      return new HeapChunk(low, capacity);
+    }
+  }
+
+  /**
+   * A chunk keeping its keys in a block allocated from the off-heap memory, holding the keys as
+   * longs followed by their types. The chunk holds the only reference to the block, which it
+   * releases when it is removed. The block is allocated with the first key.
+   */
+  private static class OffHeapChunk extends Chunk {
+    private final MemoryAllocator allocator;
+    private StoredObject block;
+    private long address;
+
+    OffHeapChunk(MemoryAllocator allocator, long low, int capacity) {
+      super(low, 0);
+      this.allocator = allocator;
+      if (capacity > 0) {
+        resizeKeys(capacity);
+        this.values = new Object[capacity];
+      }
+    }
+
+    private long typeAddress(int index) {
+      return this.address + (long) this.values.length * Long.BYTES + index;
+    }
+
+    @Override
+    long key(int index) {
+      return AddressableMemoryManager.readLong(this.address + (long) index * Long.BYTES);
+    }
+
+    @Override
+    byte type(int index) {
+      return AddressableMemoryManager.readByte(typeAddress(index));
+    }
+
+    @Override
+    void setKey(int index, long key, byte type) {
+      AddressableMemoryManager.writeLong(this.address + (long) index * Long.BYTES, key);
+      AddressableMemoryManager.writeByte(typeAddress(index), type);
+    }
+
+    @Override
+    void moveKeys(int from, int to, int count) {
+      if (count > 0) {
+        AddressableMemoryManager.copyMemory(this.address + (long) from * Long.BYTES,
+            this.address + (long) to * Long.BYTES, (long) count * Long.BYTES);
+        AddressableMemoryManager.copyMemory(typeAddress(from), typeAddress(to), count);
+      }
+    }
+
+    @Override
+    void resizeKeys(int capacity) {
+      int blockSize = capacity * (Long.BYTES + 1);
+      StoredObject newBlock = this.allocator.allocate(blockSize);
+      long newAddress = newBlock.getAddressForReadingData(0, blockSize);
+      if (this.size > 0) {
+        AddressableMemoryManager.copyMemory(this.address, newAddress,
+            (long) this.size * Long.BYTES);
+        AddressableMemoryManager.copyMemory(typeAddress(0),
+            newAddress + (long) capacity * Long.BYTES, this.size);
+      }
+      release();
+      this.block = newBlock;
+      this.address = newAddress;
+    }
+
+    @Override
+    Chunk newChunk(long low, int capacity) {
+      return new OffHeapChunk(this.allocator, low, capacity);
+    }
+
+    @Override
+    void release() {
+      if (this.block != null) {
+        this.block.release();
+        this.block = null;
+        this.address = 0L;
+      }
+    }
+  }
+
+  /**
+   * The chunks of a map, which are replaced as a whole when the map is cleared. The first chunk
+   * always has the lowest possible key as its low key, so there is a chunk for every key until the
+   * chunks are cleared.
+   */
+  private static class Chunks {
+    /** Returned by an update of cleared chunks, which needs to be applied to the new chunks */
+    static final Object RETRY = new Object();
+
+    final ConcurrentSkipListMap<Long, Chunk> map = new ConcurrentSkipListMap<>();
+    final AtomicInteger size = new AtomicInteger();
+    volatile boolean cleared;
+
+    Chunks(MemoryAllocator allocator) {
+      Chunk first = allocator == null ? new HeapChunk(Long.MIN_VALUE, 0)
+          : new OffHeapChunk(allocator, Long.MIN_VALUE, 0);
+      this.map.put(Long.MIN_VALUE, first);
+    }
+
+    /**
+     * Returns the chunk that may hold the key, or null if the chunks have been cleared.
+     */
+    Chunk chunkFor(long key) {
+      Map.Entry<Long, Chunk> entry = this.map.floorEntry(key);
+      return entry == null ? null : entry.getValue();
+    }
+
+    Object get(long key) {
+      for (;;) {
+        Chunk chunk = chunkFor(key);
+        if (chunk == null) {
+          return null;
+        }
+        synchronized (chunk) {
+          if (chunk.covers(key)) {
+            int index = chunk.indexOf(key);
+            return index >= 0 ? chunk.values[index] : null;
+          } else if (this.cleared) {
+            return null;
+          }
+        }
+      }
+    }
+
+    Object update(long key, byte type, int mode, Object expected, Object value) {
+      Chunk emptied = null;
+      Object previous;
+      for (;;) {
+        Chunk chunk = chunkFor(key);
+        if (chunk == null) {
+          return RETRY;
+        }
+        synchronized (chunk) {
+          if (!chunk.covers(key)) {
+            if (this.cleared) {
+              return RETRY;
+            }
+            continue;
+          }
+          int index = chunk.indexOf(key);
+          previous = index >= 0 ? chunk.values[index] : null;
+          if (previous == null) {
+            if (mode == PUT || mode == PUT_IF_ABSENT) {
+              if (chunk.size == CHUNK_SIZE) {
+                split(chunk, -index - 1, key);
+                continue;
+              }
+              chunk.insert(-index - 1, key, type, value);
+              this.size.incrementAndGet();
+            }
+          } else if (mode == PUT || mode == REPLACE
+              || mode == REPLACE_IF_EQUAL && expected.equals(previous)) {
+            chunk.values[index] = value;
+          } else if (mode == REMOVE || mode == REMOVE_IF_EQUAL && expected.equals(previous)) {
+            chunk.delete(index);
+            this.size.decrementAndGet();
+            if (chunk.size == 0 && chunk.low != Long.MIN_VALUE) {
+              emptied = chunk;
+            }
+          }
+          break;
+        }
+      }
+      if (emptied != null) {
+        removeChunk(emptied);
+      }
+      return previous;
+    }
+
+    /**
+     * Moves the upper half of a full chunk into a new chunk. If the key is added at the end of the
+     * chunk, as with increasing keys like timestamps, the new chunk starts with the added key
+     * instead, so that the full chunk stays full. Called with the chunk's monitor held.
+     */
+    private void split(Chunk chunk, int insertionPoint, long key) {
+      int from = insertionPoint == chunk.size ? chunk.size : chunk.size / 2;
+      long low = from < chunk.size ? chunk.key(from) : key;
+      int moved = chunk.size - from;
+      Chunk upper = chunk.newChunk(low, moved > 0 ? CHUNK_SIZE : INITIAL_CHUNK_CAPACITY);
+      for (int i = 0; i < moved; i++) {
+        upper.setKey(i, chunk.key(from + i), chunk.type(from + i));
+      }
+      System.arraycopy(chunk.values, from, upper.values, 0, moved);
+      Arrays.fill(chunk.values, from, chunk.size, null);
+      upper.size = moved;
+      upper.high = chunk.high;
+      upper.bounded = chunk.bounded;
+      chunk.size = from;
+      chunk.high = low;
+      chunk.bounded = true;
+      this.map.put(low, upper);
+    }
+
+    /**
+     * Removes an empty chunk by extending the previous chunk over its keys. Chunks are locked in
+     * key order, so this cannot deadlock with another removal.
+     */
+    private void removeChunk(Chunk chunk) {
+      for (;;) {
+        Map.Entry<Long, Chunk> lower = this.map.lowerEntry(chunk.low);
+        if (lower == null) {
+          return;
+        }
+        Chunk previous = lower.getValue();
+        synchronized (previous) {
+          synchronized (chunk) {
+            if (chunk.removed || chunk.size != 0) {
+              return;
+            }
+            if (!previous.removed && previous.bounded && previous.high == chunk.low) {
+              previous.high = chunk.high;
+              previous.bounded = chunk.bounded;
+              chunk.removed = true;
+              chunk.release();
+              this.map.remove(chunk.low, chunk);
+              return;
+            }
+          }
+        }
+      }
+    }
+
+    /**
+     * Removes and releases all chunks. A chunk can only be added by splitting a chunk that has
+     * not been removed, so no chunk is left once the map is empty.
+     */
+    void clear() {
+      this.cleared = true;
+      Map.Entry<Long, Chunk> entry;
+      while ((entry = this.map.pollFirstEntry()) != null) {
+        Chunk chunk = entry.getValue();
+        synchronized (chunk) {
+          chunk.removed = true;
+          chunk.release();
+        }
+      }
+    }
+  }
+
+  private static class Store {
+    final Comparator<Object> comparator = TypeUtils.getExtendedNumericComparator();
+
+    final ConcurrentSkipListMap<Object, Object> others = new ConcurrentSkipListMap<>(comparator);
+
+    /** The allocator of the blocks holding the chunked keys, or null to keep them on the heap */
+    final MemoryAllocator allocator;
+
+    volatile Chunks chunks;
+
+    /**
+     * Only used with an allocator: one for the map until it is closed, plus one per update in
+     * progress and per retain. The chunks are freed once there are none left.
+     */
+    private final AtomicInteger users = new AtomicInteger(1);
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    Store(MemoryAllocator allocator) {
+      this.allocator = allocator;
+      this.chunks = new Chunks(allocator);
+    }
+
+    boolean retain() {
+      if (this.allocator == null) {
+        return true;
+      }
+      for (;;) {
+        int current = this.users.get();
+        if (current == 0) {
+          return false;
+        }
+        if (this.users.compareAndSet(current, current + 1)) {
+          return true;
+        }
+      }
+    }
+
+    void release() {
+      if (this.allocator != null && this.users.decrementAndGet() == 0) {
+        this.chunks.clear();
+        this.others.clear();
+      }
+    }
+
+    void close() {
+      if (this.closed.compareAndSet(false, true)) {
+        release();
+      }
+    }
+
+    /**
+     * Returns true if an update can go ahead, in which case it has to call {@link #release()}
+     * once done. Updates are refused once the map is closed, so they cannot allocate keys that
+     * would never be freed.
+     */
+    private boolean beginUpdate() {
+      return !this.closed.get() && retain();
+    }
+
+    Object get(Object key) {
+      if (isChunked(key)) {
+        return this.chunks.get(((Number) key).longValue());
+      }
+      return this.others.get(key);
+    }
+
+    Object update(Object key, int mode, Object expected, Object value) {
+      if (value == null && mode != REMOVE && mode != REMOVE_IF_EQUAL) {
+        throw new NullPointerException();
+      }
+      if (isChunked(key)) {
+        if (!this.others.isEmpty() && mode <= PUT_IF_ABSENT) {
+          // fail like a single skip list would for keys not comparable with the other keys
+          this.comparator.compare(key, this.others.lastKey());
+        }
+        long longKey = ((Number) key).longValue();
+        byte type = typeOf(key);
+        if (!beginUpdate()) {
+          return null;
+        }
+        try {
+          Object previous;
+          do {
+            previous = this.chunks.update(longKey, type, mode, expected, value);
+          } while (previous == Chunks.RETRY);
+          return previous;
+        } finally {
+          release();
+        }
+      }
+      if (mode <= PUT_IF_ABSENT && !isToken(key) && this.chunks.size.get() > 0) {
+        Object chunkedKey = firstChunkedKey();
+        if (chunkedKey != null) {
+          this.comparator.compare(key, chunkedKey);
+        }
+      }
+      switch (mode) {
+        case PUT:
+          return this.others.put(key, value);
+        case PUT_IF_ABSENT:
+          return this.others.putIfAbsent(key, value);
+        case REPLACE:
+          return this.others.replace(key, value);
+        case REPLACE_IF_EQUAL:
+          Object current = this.others.get(key);
+          return current != null && this.others.replace(key, expected, value) ? expected : current;
+        case REMOVE:
+          return this.others.remove(key);
+        default:
+          current = this.others.get(key);
+          return current != null && this.others.remove(key, expected) ? expected : current;
+      }
+    }
+
+    private Object firstChunkedKey() {
+      Chunks chunks = this.chunks;
+      for (Chunk chunk : chunks.map.values()) {
+        synchronized (chunk) {
+          if (!chunk.removed && chunk.size > 0) {
+            return box(chunk.key(0), chunk.type(0));
+          }
+        }
+      }
+      return null;
+    }
+
+    int size() {
+      return this.chunks.size.get() + this.others.size();
+    }
+
+    /**
+     * Like {@link ConcurrentSkipListMap#clear()}, this is not atomic. Updates running concurrently
+     * may be lost. Iterators of the cleared chunks end early.
+     */
+    void clear() {
+      if (!beginUpdate()) {
+        return;
+      }
+      try {
+        Chunks cleared = this.chunks;
+        this.chunks = new Chunks(this.allocator);
+        cleared.clear();
+        this.others.clear();
+      } finally {
+        release();
+      }
+    }
+  }
+
+  /**
+   * The navigable key set of a view.
+   */
+  private static class KeySet extends AbstractSet<Object> implements NavigableSet<Object> {
+    private final NumericKeyIndexMap map;
+
+    KeySet(NumericKeyIndexMap map) {
+      this.map = map;
+    }
+
+    @Override
+    public Iterator<Object> iterator() {
+      Iterator<Map.Entry<Object, Object>> entries = this.map.entryIterator();
+      return new Iterator<Object>() {
+        @Override
+        public boolean hasNext() {
+          return entries.hasNext();
+        }
+
+        @Override
+        public Object next() {
+          return entries.next().getKey();
+        }
+
+        @Override
+        public void remove() {
+          entries.remove();
+        }
+      };
+    }
+
+    @Override
+    public int size() {
+      return this.map.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return this.map.isEmpty();
+    }
+
+    @Override
+    public boolean contains(Object key) {
+      return this.map.containsKey(key);
+    }
+
+    @Override
+    public boolean remove(Object key) {
+      return this.map.remove(key) != null;
+    }
+
+    @Override
+    public void clear() {
+      this.map.clear();
+    }
+
+    @Override
+    public Object lower(Object key) {
+      return this.map.lowerKey(key);
+    }
+
+    @Override
+    public Object floor(Object key) {
+      return this.map.floorKey(key);
+    }
+
+    @Override
+    public Object ceiling(Object key) {
+      return this.map.ceilingKey(key);
+    }
+
+    @Override
+    public Object higher(Object key) {
+      return this.map.higherKey(key);
+    }
+
+    @Override
+    public Object pollFirst() {
+      return keyOf(this.map.pollFirstEntry());
+    }
+
+    @Override
+    public Object pollLast() {
+      return keyOf(this.map.pollLastEntry());
+    }
+
+    @Override
+    public NavigableSet<Object> descendingSet() {
+      return new KeySet(this.map.descendingMap());
+    }
+
+    @Override
+    public Iterator<Object> descendingIterator() {
+      return descendingSet().iterator();
+    }
+
+    @Override
+    public NavigableSet<Object> subSet(Object fromElement, boolean fromInclusive,
+        Object toElement, boolean toInclusive) {
+      return new KeySet(this.map.subMap(fromElement, fromInclusive, toElement, toInclusive));
+    }
+
+    @Override
+    public NavigableSet<Object> headSet(Object toElement, boolean inclusive) {
+      return new KeySet(this.map.headMap(toElement, inclusive));
+    }
+
+    @Override
+    public NavigableSet<Object> tailSet(Object fromElement, boolean inclusive) {
+      return new KeySet(this.map.tailMap(fromElement, inclusive));
+    }
+
+    @Override
+    public SortedSet<Object> subSet(Object fromElement, Object toElement) {
+      return subSet(fromElement, true, toElement, false);
+    }
+
+    @Override
+    public SortedSet<Object> headSet(Object toElement) {
+      return headSet(toElement, false);
+    }
+
+    @Override
+    public SortedSet<Object> tailSet(Object fromElement) {
+      return tailSet(fromElement, true);
+    }
+
+    @Override
+    public Comparator<? super Object> comparator() {
+      return this.map.comparator();
+    }
+
+    @Override
+    public Object first() {
+      return this.map.firstKey();
+    }
+
+    @Override
+    public Object last() {
+      return this.map.lastKey();
+    }
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.compression;
+
+import java.io.Serializable;
+
+import net.jpountz.lz4.LZ4Exception;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4SafeDecompressor;
+
+/**
+ * An implementation of {@link Compressor} for the LZ4 compression codec. Utilizes the lz4-java
+ * library. LZ4 compresses and decompresses faster than Snappy at a similar ratio.
+ * <p>
+ * The compressed bytes are an LZ4 block preceded by the length of the uncompressed input as a four
+ * byte big-endian integer.
+ *
+ * @since Geode 1.10
+ */
+public class LZ4Compressor implements Compressor, Serializable {
+  private static final long serialVersionUID = -5215283217858539441L;
+
+  private static final int LENGTH_BYTES = 4;
+
+  /**
+   * Create a new instance of the LZ4Compressor.
+   */
+  public LZ4Compressor() {}
+
+  private static LZ4Factory factory() {
+    return LZ4Factory.fastestInstance();
+  }
+
+  @Override
+  public byte[] compress(byte[] input) {
+    net.jpountz.lz4.LZ4Compressor compressor = factory().fastCompressor();
+    int maxLength = compressor.maxCompressedLength(input.length);
+    byte[] output = new byte[LENGTH_BYTES + maxLength];
+    writeLength(input.length, output);
+    int length = compressor.compress(input, 0, input.length, output, LENGTH_BYTES, maxLength);
+    byte[] result = new byte[LENGTH_BYTES + length];
+    System.arraycopy(output, 0, result, 0, result.length);
+    return result;
+  }
+
+  @Override
+  public byte[] decompress(byte[] input) {
+    if (input.length < LENGTH_BYTES) {
+      throw new CompressionException("LZ4 input of " + input.length + " bytes is too short");
+    }
+    int length = readLength(input);
+    if (length < 0) {
+      throw new CompressionException("Invalid LZ4 uncompressed length " + length);
+    }
+    byte[] output = new byte[length];
+    LZ4SafeDecompressor decompressor = factory().safeDecompressor();
+    try {
+      int decompressed = decompressor.decompress(input, LENGTH_BYTES,
+          input.length - LENGTH_BYTES, output, 0, length);
+      if (decompressed != length) {
+        throw new CompressionException(
+            "LZ4 decompressed " + decompressed + " bytes but expected " + length);
+      }
+    } catch (LZ4Exception e) {
+      throw new CompressionException(e);
+    }
+    return output;
+  }
+
+  private static void writeLength(int length, byte[] output) {
+    output[0] = (byte) (length >>> 24);
+    output[1] = (byte) (length >>> 16);
+    output[2] = (byte) (length >>> 8);
+    output[3] = (byte) length;
+  }
+
+  private static int readLength(byte[] input) {
+    return ((input[0] & 0xFF) << 24) | ((input[1] & 0xFF) << 16) | ((input[2] & 0xFF) << 8)
+        | (input[3] & 0xFF);
+  }
+
+  @Override
+  public int hashCode() {
+    return this.getClass().getName().hashCode();
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (other == null) {
+      return false;
+    }
+
+    return this.getClass().getName().equals(other.getClass().getName());
+  }
+}
@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.compression;
+
+import java.io.Serializable;
+
+import com.github.luben.zstd.Zstd;
+
+/**
+ * An implementation of {@link Compressor} for the Zstandard compression codec. Utilizes the
+ * zstd-jni library. Zstandard reaches considerably better ratios than Snappy or LZ4 at the cost of
+ * slower compression, which makes it a good fit for large, repetitive values such as JSON or PDX.
+ *
+ * @since Geode 1.10
+ */
+public class ZstdCompressor implements Compressor, Serializable {
+  private static final long serialVersionUID = 8452209744616442347L;
+
+  /**
+   * The compression level used by the zstd command line tool.
+   */
+  public static final int DEFAULT_LEVEL = 3;
+
+  private final int level;
+
+  /**
+   * Create a new instance of the ZstdCompressor that uses the {@link #DEFAULT_LEVEL}.
+   */
+  public ZstdCompressor() {
+    this(DEFAULT_LEVEL);
+  }
+
+  /**
+   * Create a new instance of the ZstdCompressor.
+   *
+   * @param level the compression level, from 1 (fastest) to 22 (smallest). Only affects
+   *        compression, any level can decompress the output of any other level.
+   */
+  public ZstdCompressor(int level) {
+    this.level = level;
+  }
+
+  public int getLevel() {
+    return this.level;
+  }
+
+  @Override
+  public byte[] compress(byte[] input) {
+    try {
+      return Zstd.compress(input, this.level);
+    } catch (RuntimeException e) {
+      throw new CompressionException(e);
+    }
+  }
+
+  @Override
+  public byte[] decompress(byte[] input) {
+    long length = Zstd.decompressedSize(input);
+    if (length < 0 || length > Integer.MAX_VALUE) {
+      throw new CompressionException("Invalid Zstandard uncompressed length " + length);
+    }
+    try {
+      return Zstd.decompress(input, (int) length);
+    } catch (RuntimeException e) {
+      throw new CompressionException(e);
+    }
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * this.getClass().getName().hashCode() + this.level;
+  }
+
+  @Override
+  public boolean equals(final Object other) {
+    if (other == null) {
+      return false;
+    }
+
+    return this.getClass().getName().equals(other.getClass().getName())
+        && this.level == ((ZstdCompressor) other).level;
+  }
+}
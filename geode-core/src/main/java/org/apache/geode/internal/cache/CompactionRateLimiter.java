@@ -0,0 +1,79 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Limits the rate at which an oplog compactor copies live entries forward. The budget is a token
+ * bucket refilled at the configured bytes per second that holds at most one increment, so the
+ * compactor copies up to an increment at full speed and then pauses until the budget allows the
+ * next one. Foreground writes get the disk to themselves during those pauses.
+ */
+class CompactionRateLimiter {
+
+  private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+
+  private final long bytesPerSecond;
+  private final long incrementBytes;
+  private final LongSupplier nanoClock;
+
+  /**
+   * Bytes that can be copied without pausing, negative once the budget has been overdrawn. Only
+   * accessed by the compactor thread that owns this limiter.
+   */
+  private long available;
+  private long lastRefill;
+
+  CompactionRateLimiter(long bytesPerSecond, long incrementBytes) {
+    this(bytesPerSecond, incrementBytes, System::nanoTime);
+  }
+
+  CompactionRateLimiter(long bytesPerSecond, long incrementBytes, LongSupplier nanoClock) {
+    if (bytesPerSecond <= 0) {
+      throw new IllegalArgumentException("bytesPerSecond must be positive: " + bytesPerSecond);
+    }
+    this.bytesPerSecond = bytesPerSecond;
+    this.incrementBytes = Math.max(incrementBytes, 1);
+    this.nanoClock = nanoClock;
+    this.available = this.incrementBytes;
+    this.lastRefill = nanoClock.getAsLong();
+  }
+
+  /**
+   * Records that the compactor copied the given number of bytes.
+   *
+   * @return the number of nanoseconds the compactor has to pause before copying more, 0 if it can
+   *         go on right away. Once the budget is overdrawn the pause lasts until a whole increment
+   *         is available again, so that the copying happens in increments rather than entry by
+   *         entry.
+   */
+  long recordCopied(long bytes) {
+    long now = this.nanoClock.getAsLong();
+    double refill = (now - this.lastRefill) * (double) this.bytesPerSecond / NANOS_PER_SECOND;
+    this.lastRefill = now;
+    this.available = (long) Math.min(this.incrementBytes, this.available + refill) - bytes;
+    if (this.available >= 0) {
+      return 0;
+    }
+    return (long) ((this.incrementBytes - this.available) * NANOS_PER_SECOND
+        / this.bytesPerSecond);
+  }
+
+  long getBytesPerSecond() {
+    return this.bytesPerSecond;
+  }
+}
@@ -48,6 +48,7 @@ import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
@@ -55,10 +56,12 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.ReadLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
+import java.util.function.BooleanSupplier;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -230,6 +233,30 @@ public class DiskStoreImpl implements DiskStore {
   public static final int MAX_PENDING_TASKS =
       Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "disk.MAX_PENDING_TASKS", 6);
 
+  /**
+   * This system property indicates the number of threads that recover values asynchronously, each
+   * of them reading a different oplog. Defaults to 1, which recovers the oplogs one after another.
+   */
+  static final int RECOVERY_THREADS =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "disk.recoveryThreads", 1);
+
+  /**
+   * This system property indicates the number of bytes per second the compactor may copy forward.
+   * Defaults to 0 which lets the compactor run unthrottled. When set the compactor works in
+   * increments of {@link #COMPACTION_INCREMENT_BYTES}, pausing in between so that foreground writes
+   * keep most of the disk bandwidth, and picks the oplogs with the most garbage first.
+   */
+  static final long COMPACTION_BYTES_PER_SECOND =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "disk.compactionBytesPerSecond", 0);
+
+  /**
+   * This system property indicates the number of bytes the throttled compactor copies before it
+   * pauses. Only used if {@link #COMPACTION_BYTES_PER_SECOND} is set.
+   */
+  static final long COMPACTION_INCREMENT_BYTES =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "disk.compactionIncrementBytes",
+          1024 * 1024);
+
   /**
    * This system property indicates that IF should also be preallocated. This property will be used
    * in conjunction with the PREALLOCATE_OPLOGS property. If PREALLOCATE_OPLOGS is ON the below will
@@ -353,6 +380,13 @@ public class DiskStoreImpl implements DiskStore {
 
   private final Object asyncValueRecoveryLock = new Object();
 
+  /**
+   * Held shared by the threads recovering values while they recover one. A region copying its
+   * recovered entry map holds it exclusively, while also holding the monitor of
+   * currentAsyncValueRecoveryMap, so that no value is recovered into an entry being copied.
+   */
+  private final ReentrantReadWriteLock valueRecoveryLock = new ReentrantReadWriteLock();
+
   /**
    * The unique id for this disk store.
    *
@@ -423,6 +457,7 @@ public class DiskStoreImpl implements DiskStore {
     this.diskDirSizes = props.getDiskDirSizes();
     this.warningPercent = props.getDiskUsageWarningPercentage();
     this.criticalPercent = props.getDiskUsageCriticalPercentage();
+    this.valueCompression = OplogCompression.forDiskStore(name);
 
     this.cache = cache;
     StatisticsFactory factory = cache.getDistributedSystem();
@@ -616,6 +651,7 @@ public class DiskStoreImpl implements DiskStore {
           acquireCompactorWriteLock(); // fix bug #51097 to prevent concurrent compaction
           releaseCompactorWriteLock = true;
         }
+        valueRecoveryLock.writeLock().lock();
         try {
           drv.copyExistingRegionMap(lr);
           getStats().incUncreatedRecoveredRegions(-1);
@@ -625,6 +661,7 @@ public class DiskStoreImpl implements DiskStore {
             }
           }
         } finally {
+          valueRecoveryLock.writeLock().unlock();
           if (releaseCompactorWriteLock) {
             releaseCompactorWriteLock();
           }
@@ -2269,6 +2306,14 @@ public class DiskStoreImpl implements DiskStore {
     compactorReadLock.lock();
   }
 
+  /**
+   * Returns true if a thread is waiting to acquire the compactor lock, for instance a clear or a
+   * region close waiting for the compactor to release its read lock.
+   */
+  boolean isCompactorLockWanted() {
+    return compactorLock.hasQueuedThreads();
+  }
+
   private volatile boolean closing = false;
   private volatile boolean closed = false;
 
@@ -2791,10 +2836,19 @@ public class DiskStoreImpl implements DiskStore {
    *
    */
   class OplogCompactor implements Runnable {
+    /**
+     * Longest a throttled compactor parks at once, so that it notices being stopped
+     */
+    private static final long MAX_COMPACTION_PAUSE_SLICE_NANOS = 10_000_000L;
+
     /** boolean for the thread to continue compaction* */
     private volatile boolean compactorEnabled;
     private volatile boolean scheduled;
     private CompactableOplog[] scheduledOplogs;
+    /**
+     * Limits the bytes copied by the current compaction run, null if the compactor is unthrottled
+     */
+    private CompactionRateLimiter rateLimiter;
     /**
      * used to keep track of the Thread currently invoking run on this compactor
      */
@@ -2880,12 +2934,17 @@ public class DiskStoreImpl implements DiskStore {
       int totalCount = 0;
       long compactionStart = getStats().startCompaction();
       long start = System.nanoTime();
+      if (COMPACTION_BYTES_PER_SECOND > 0) {
+        this.rateLimiter =
+            new CompactionRateLimiter(COMPACTION_BYTES_PER_SECOND, COMPACTION_INCREMENT_BYTES);
+      }
       try {
         for (int i = 0; i < oplogs.length && keepCompactorRunning(); i++) {
           totalCount += oplogs[i].compact(this);
         }
 
       } finally {
+        this.rateLimiter = null;
         getStats().endCompaction(compactionStart);
       }
       long endTime = System.nanoTime();
@@ -3007,6 +3066,39 @@ public class DiskStoreImpl implements DiskStore {
     boolean keepCompactorRunning() {
       return this.compactorEnabled || this.compactionCompletionRequired;
     }
+
+    /**
+     * Called by an oplog after it copied an entry forward and released the entry's lock. If the
+     * compactor is throttled this pauses it once it has used up its budget, and otherwise yields to
+     * any foreground write in progress. Returns early if the compactor is being stopped.
+     *
+     * The oplog still holds the compactor locks during the pause, so it does not pause while
+     * another thread waits for one of them. The compactor then finishes the oplog at full speed
+     * and releases them; the unpaid budget delays the next increment instead.
+     *
+     * @param compactorLockWanted returns true if a thread waits for a compactor lock held by the
+     *        calling oplog
+     */
+    void afterCopyForward(long bytes, BooleanSupplier compactorLockWanted) {
+      CompactionRateLimiter limiter = this.rateLimiter;
+      if (limiter == null) {
+        return;
+      }
+      long pause = limiter.recordCopied(bytes);
+      if (pause <= 0) {
+        DiskStoreStats stats = getStats();
+        if (stats.getWritesInProgress() > 0 || stats.getFlushesInProgress() > 0) {
+          Thread.yield();
+        }
+        return;
+      }
+      long deadline = System.nanoTime() + pause;
+      while (pause > 0 && keepCompactorRunning() && !isClosing()
+          && !compactorLockWanted.getAsBoolean()) {
+        LockSupport.parkNanos(this, Math.min(pause, MAX_COMPACTION_PAUSE_SLICE_NANOS));
+        pause = deadline - System.nanoTime();
+      }
+    }
   }
 
   /**
@@ -3380,6 +3472,10 @@ public class DiskStoreImpl implements DiskStore {
   private final long timeInterval;
   private final int queueSize;
   private final int writeBufferSize;
+  /**
+   * Compresses the values written to the crfs, null if they are written as is
+   */
+  private final OplogCompression valueCompression;
   private final File[] diskDirs;
   private final int[] diskDirSizes;
   private volatile float warningPercent;
@@ -3420,6 +3516,10 @@ public class DiskStoreImpl implements DiskStore {
     return this.queueSize;
   }
 
+  OplogCompression getValueCompression() {
+    return this.valueCompression;
+  }
+
   @Override
   public int getWriteBufferSize() {
     return this.writeBufferSize;
@@ -4335,9 +4435,24 @@ public class DiskStoreImpl implements DiskStore {
       synchronized (asyncValueRecoveryLock) {
         DiskStoreObserver.startAsyncValueRecovery(DiskStoreImpl.this);
         try {
-          for (Oplog oplog : oplogSet) {
-            oplog.recoverValuesIfNeeded(currentAsyncValueRecoveryMap);
+          long start = System.nanoTime();
+          long recoveredBytes;
+          int threads = Math.min(RECOVERY_THREADS, oplogSet.size());
+          if (threads > 1) {
+            recoveredBytes = recoverInParallel(threads);
+          } else {
+            recoveredBytes = 0;
+            for (Oplog oplog : oplogSet) {
+              recoveredBytes += oplog.recoverValuesIfNeeded(currentAsyncValueRecoveryMap,
+                  valueRecoveryLock.readLock());
+            }
           }
+          long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+          logger.info(
+              "Recovered {} bytes of values from {} oplogs of disk store {} in {} ms ({} MB/s) using {} threads",
+              recoveredBytes, oplogSet.size(), getName(), elapsedMillis,
+              elapsedMillis == 0 ? 0 : recoveredBytes * 1000 / elapsedMillis / (1024 * 1024),
+              Math.max(threads, 1));
         } catch (CancelException ignore) {
           // do nothing
         } finally {
@@ -4350,6 +4465,46 @@ public class DiskStoreImpl implements DiskStore {
         }
       }
     }
+
+    /**
+     * Recovers each oplog on its own thread. The oplogs are independent of each other because an
+     * entry is only recovered from the oplog that holds its latest value.
+     */
+    private long recoverInParallel(int threads) {
+      ExecutorService pool =
+          LoggingExecutors.newFixedThreadPool("Value Recovery Thread", true, threads);
+      try {
+        List<Future<Long>> recoveries = new ArrayList<>(oplogSet.size());
+        for (Oplog oplog : oplogSet) {
+          recoveries.add(pool.submit(() -> oplog.recoverValuesIfNeeded(
+              currentAsyncValueRecoveryMap, valueRecoveryLock.readLock())));
+        }
+        long recoveredBytes = 0;
+        boolean interrupted = false;
+        for (Future<Long> recovery : recoveries) {
+          while (true) {
+            try {
+              recoveredBytes += recovery.get();
+              break;
+            } catch (InterruptedException e) {
+              interrupted = true;
+            } catch (ExecutionException e) {
+              if (e.getCause() instanceof CancelException) {
+                throw (CancelException) e.getCause();
+              }
+              throw new DiskAccessException("Failed recovering values", e.getCause(),
+                  DiskStoreImpl.this);
+            }
+          }
+        }
+        if (interrupted) {
+          Thread.currentThread().interrupt();
+        }
+        return recoveredBytes;
+      } finally {
+        pool.shutdownNow();
+      }
+    }
   }
 
   public void waitForAsyncRecovery(DiskRegion diskRegion) {
@@ -82,6 +82,10 @@ public class DiskStoreStats {
   private static final int oplogReadsId;
   private static final int oplogSeeksId;
 
+  private static final int groupCommitsId;
+  private static final int groupCommitWritesId;
+  private static final int groupCommitTimeId;
+
   private static final int uncreatedRecoveredRegionsId;
   private static final int backupsInProgress;
   private static final int backupsCompleted;
@@ -190,6 +194,14 @@ public class DiskStoreStats {
                 "oplogs"),
             f.createLongCounter("oplogReads", "Total number of oplog reads", "reads"),
             f.createLongCounter("oplogSeeks", "Total number of oplog seeks", "seeks"),
+            f.createLongCounter("groupCommits",
+                "Total number of times a group of synchronous writes was forced to disk",
+                "commits"),
+            f.createLongCounter("groupCommitWrites",
+                "Total number of synchronous writes made durable by group commits", "writes"),
+            f.createLongCounter("groupCommitTime",
+                "Total amount of time, in nanoseconds, spent forcing groups of synchronous writes to disk",
+                "nanoseconds"),
             f.createIntGauge("uncreatedRecoveredRegions",
                 "The current number of regions that have been recovered but have not yet been created.",
                 "regions"),
@@ -235,6 +247,9 @@ public class DiskStoreStats {
     compactUpdateTimeId = type.nameToId("compactUpdateTime");
     oplogReadsId = type.nameToId("oplogReads");
     oplogSeeksId = type.nameToId("oplogSeeks");
+    groupCommitsId = type.nameToId("groupCommits");
+    groupCommitWritesId = type.nameToId("groupCommitWrites");
+    groupCommitTimeId = type.nameToId("groupCommitTime");
 
     openOplogsId = type.nameToId("openOplogs");
     inactiveOplogsId = type.nameToId("inactiveOplogs");
@@ -396,6 +411,38 @@ public class DiskStoreStats {
     return this.stats.getLong(flushesId);
   }
 
+  public int getWritesInProgress() {
+    return this.stats.getInt(writesInProgressId);
+  }
+
+  public int getFlushesInProgress() {
+    return this.stats.getInt(flushesInProgressId);
+  }
+
+  public long startGroupCommit() {
+    return getTime();
+  }
+
+  /**
+   * Invoked after a group of synchronous writes has been forced to disk
+   *
+   * @param start The time at which the force started
+   * @param writes The number of writes made durable by the force
+   */
+  public void endGroupCommit(long start, int writes) {
+    this.stats.incLong(groupCommitsId, 1);
+    this.stats.incLong(groupCommitWritesId, writes);
+    this.stats.incLong(groupCommitTimeId, getTime() - start);
+  }
+
+  public long getGroupCommits() {
+    return this.stats.getLong(groupCommitsId);
+  }
+
+  public long getGroupCommitWrites() {
+    return this.stats.getLong(groupCommitWritesId);
+  }
+
   /**
    * Invoked before data is read from disk.
    *
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Makes synchronous oplog writes durable in groups. A writer calls {@link #awaitForce()} once its
+ * record has been written to the channel. The first waiting writer becomes the forcer of its
+ * batch: it waits up to the max wait for more writers to join, or until the batch is full, and then
+ * forces once on behalf of all of them. Writers arriving while a batch is being forced join the
+ * next batch.
+ * <p>
+ * Only one batch is forced at a time, and the monitor of this object is not held while forcing so
+ * that writers can keep appending to the oplog.
+ *
+ * @see Oplog#GROUP_COMMIT
+ */
+class GroupCommitter {
+
+  interface Forcer {
+    /**
+     * Forces everything written to the channels so far to disk
+     *
+     * @param writes the number of writes waiting on this force
+     */
+    void force(int writes) throws IOException;
+  }
+
+  private static class Batch {
+    private int size;
+    private boolean done;
+    private IOException failure;
+  }
+
+  private final Forcer forcer;
+  private final long maxWaitNanos;
+  private final int maxBatch;
+
+  /**
+   * The batch that writers join, guarded by this
+   */
+  private Batch current = new Batch();
+
+  /**
+   * True while a writer is collecting or forcing a batch, guarded by this
+   */
+  private boolean forcing;
+
+  GroupCommitter(Forcer forcer, long maxWaitNanos, int maxBatch) {
+    this.forcer = forcer;
+    this.maxWaitNanos = maxWaitNanos;
+    this.maxBatch = maxBatch;
+  }
+
+  /**
+   * Waits until the writes done by the calling thread have been forced to disk. Interrupts are
+   * deferred until the force has completed, like the rest of the oplog io.
+   *
+   * @throws IOException if the force of the batch of the calling thread failed
+   */
+  void awaitForce() throws IOException {
+    boolean interrupted = false;
+    try {
+      Batch batch;
+      synchronized (this) {
+        batch = this.current;
+        batch.size++;
+        if (batch.size >= this.maxBatch) {
+          // wake up the forcer that is collecting this batch
+          notifyAll();
+        }
+        while (!batch.done && this.forcing) {
+          try {
+            wait();
+          } catch (InterruptedException e) {
+            interrupted = true;
+          }
+        }
+        if (batch.done) {
+          throwIfFailed(batch);
+          return;
+        }
+        this.forcing = true;
+        long deadline = System.nanoTime() + this.maxWaitNanos;
+        long remaining = this.maxWaitNanos;
+        while (batch.size < this.maxBatch && remaining > 0) {
+          try {
+            TimeUnit.NANOSECONDS.timedWait(this, remaining);
+          } catch (InterruptedException e) {
+            interrupted = true;
+          }
+          remaining = deadline - System.nanoTime();
+        }
+        this.current = new Batch();
+      }
+      IOException failure = null;
+      try {
+        this.forcer.force(batch.size);
+      } catch (IOException e) {
+        failure = e;
+      } catch (RuntimeException e) {
+        failure = new IOException(e);
+      } finally {
+        synchronized (this) {
+          batch.failure = failure;
+          batch.done = true;
+          this.forcing = false;
+          notifyAll();
+        }
+      }
+      throwIfFailed(batch);
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private static void throwIfFailed(Batch batch) throws IOException {
+    if (batch.failure != null) {
+      throw new IOException("Failed to force a group of " + batch.size + " writes to disk",
+          batch.failure);
+    }
+  }
+}
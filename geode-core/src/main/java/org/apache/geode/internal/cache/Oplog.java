@@ -179,6 +179,36 @@ public class Oplog implements CompactableOplog, Flushable {
   private static final boolean SYNC_WRITES =
       Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "syncWrites");
 
+  /**
+   * This system property instructs that values of oplogs that are no longer appended to be read
+   * from a read only memory mapping of their crf file. Faults are then served from the page cache
+   * without holding the oplog lock or doing a seek and read system call per value.
+   */
+  static final boolean MMAP_READS =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "Oplog.MMAP_READS");
+
+  /**
+   * This system property makes synchronous writes durable by forcing them to disk in groups. Each
+   * writer appends its record and then waits for a single force that covers every write of its
+   * group, instead of forcing the channel itself while holding the oplog lock. When set the files
+   * are not opened in "rwd" mode even if {@link #SYNC_WRITES} is also set.
+   */
+  static final boolean GROUP_COMMIT =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "disk.groupCommit");
+
+  /**
+   * The maximum time, in microseconds, that the first writer of a group waits for other writers to
+   * join before forcing.
+   */
+  static final long GROUP_COMMIT_MAX_WAIT_MICROS =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "disk.groupCommitMaxWaitMicros", 500);
+
+  /**
+   * The number of writers that make a group complete, forcing it without waiting any longer.
+   */
+  static final int GROUP_COMMIT_MAX_BATCH =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "disk.groupCommitMaxBatch", 64);
+
   /**
    * The HighWaterMark of recentValues.
    */
@@ -1071,7 +1101,7 @@ public class Oplog implements CompactableOplog, Flushable {
     }
     this.crf.f = f;
     preblow(this.crf, getMaxCrfSize());
-    this.crf.raf = new UninterruptibleRandomAccessFile(f, SYNC_WRITES ? "rwd" : "rw");
+    this.crf.raf = new UninterruptibleRandomAccessFile(f, getWriteMode());
     this.crf.RAFClosed = false;
     oplogSet.crfCreate(this.oplogId);
     this.crf.writeBuf = allocateWriteBuf(prevOlf);
@@ -1111,7 +1141,7 @@ public class Oplog implements CompactableOplog, Flushable {
       logger.debug("Creating operation log file {}", f);
     }
     preblow(this.drf, getMaxDrfSize());
-    this.drf.raf = new UninterruptibleRandomAccessFile(f, SYNC_WRITES ? "rwd" : "rw");
+    this.drf.raf = new UninterruptibleRandomAccessFile(f, getWriteMode());
     this.drf.RAFClosed = false;
     this.oplogSet.drfCreate(this.oplogId);
     this.drf.writeBuf = allocateWriteBuf(prevOlf);
@@ -2297,12 +2327,12 @@ public class Oplog implements CompactableOplog, Flushable {
         value = Token.INVALID;
         valueLength = 0;
       } else if (EntryBits.isSerialized(userBits)) {
-        value = DiskEntry.Helper.readSerializedValue(valueBytes, version, in, false,
-            getParent().getCache());
+        value = DiskEntry.Helper.readSerializedValue(uncompressed(valueBytes, userBits), version,
+            in, false, getParent().getCache());
       } else if (EntryBits.isTombstone(userBits)) {
         value = Token.TOMBSTONE;
       } else {
-        value = valueBytes;
+        value = uncompressed(valueBytes, userBits);
       }
       re = new DiskEntry.RecoveredEntry(oplogKeyId, oplogId, offsetInOplog, userBits, valueLength,
           value);
@@ -2312,6 +2342,17 @@ public class Oplog implements CompactableOplog, Flushable {
     return re;
   }
 
+  /**
+   * Returns the recovered value bytes as they were before {@link #compressValue} compressed them.
+   * The entry keeps the compressed bit since its disk id refers to the bytes in the crf.
+   */
+  private static byte[] uncompressed(byte[] valueBytes, byte userBits) {
+    if (EntryBits.isCompressed(userBits) && EntryBits.isNeedsValue(userBits)) {
+      return OplogCompression.decompress(valueBytes);
+    }
+    return valueBytes;
+  }
+
   private void readEndOfRecord(DataInput di) throws IOException {
     int b = di.readByte();
     if (b != END_OF_RECORD_ID) {
@@ -2796,6 +2837,7 @@ public class Oplog implements CompactableOplog, Flushable {
     if (getParent().isValidating()) {
       if (EntryBits.isSerialized(userBits)) {
         // make sure values are deserializable
+        valueBytes = uncompressed(valueBytes, userBits);
         if (!PdxWriterImpl.isPdx(valueBytes)) { // fix bug 43011
           try {
             DiskEntry.Helper.readSerializedValue(valueBytes, version, in, true,
@@ -3224,7 +3266,9 @@ public class Oplog implements CompactableOplog, Flushable {
     // synchronized block does not attempt to get the backup lock (incorrect lock order)
     synchronized (this.lock/* crf */) {
       unpreblow(this.crf, getMaxCrfSize());
+      closeMapping(this.crf);
       if (!this.crf.RAFClosed) {
+        forceBeforeClose(this.crf);
         try {
           this.crf.channel.close();
         } catch (IOException ignore) {
@@ -3243,6 +3287,7 @@ public class Oplog implements CompactableOplog, Flushable {
     synchronized (this.lock/* drf */) {
       unpreblow(this.drf, getMaxDrfSize());
       if (!this.drf.RAFClosed) {
+        forceBeforeClose(this.drf);
         try {
           this.drf.channel.close();
         } catch (IOException ignore) {
@@ -3465,6 +3510,63 @@ public class Oplog implements CompactableOplog, Flushable {
 
   }
 
+  /**
+   * Compresses the value with the codec of the disk store. This is done before taking any oplog
+   * lock so that concurrent writers compress in parallel.
+   *
+   * @return the compressed value, or null if the value is to be written as is because the disk
+   *         store does not compress, the value is already compressed (the compactor copying it
+   *         forward) or it does not get any smaller
+   */
+  private ValueWrapper compressValue(ValueWrapper value, byte userBits) throws IOException {
+    OplogCompression compression = getParent().getValueCompression();
+    if (compression == null || value == null || !EntryBits.isNeedsValue(userBits)
+        || EntryBits.isCompressed(userBits)
+        || value.getLength() < OplogCompression.MIN_COMPRESSED_LENGTH) {
+      return null;
+    }
+    byte[] bytes;
+    if (value instanceof DiskEntry.Helper.ByteArrayValueWrapper) {
+      bytes = ((DiskEntry.Helper.ByteArrayValueWrapper) value).bytes;
+    } else {
+      ByteBuffer bb = ByteBuffer.allocate(value.getLength());
+      value.sendTo(bb, HEAP_BUFFER_FLUSHABLE);
+      bytes = bb.array();
+    }
+    byte[] compressed = compression.compress(bytes, value.getLength());
+    if (compressed == null) {
+      return null;
+    }
+    return new DiskEntry.Helper.CompactorValueWrapper(compressed, compressed.length);
+  }
+
+  /**
+   * Used to copy a value into a heap buffer that is large enough to hold all of it
+   */
+  private static final Flushable HEAP_BUFFER_FLUSHABLE = new Flushable() {
+    @Override
+    public void flush() {
+      // nothing to flush since the buffer holds the whole value
+    }
+
+    @Override
+    public void flush(ByteBuffer bb, ByteBuffer chunkbb) {
+      bb.put(chunkbb);
+    }
+  };
+
+  /**
+   * Returns the value read from the crf as it was before {@link #compressValue} compressed it.
+   */
+  private static BytesAndBits decompressValue(BytesAndBits bb) {
+    BytesAndBits result = new BytesAndBits(OplogCompression.decompress(bb.getBytes()),
+        EntryBits.setCompressed(bb.getBits(), false));
+    if (bb.getVersion() != null) {
+      result.setVersion(bb.getVersion());
+    }
+    return result;
+  }
+
   /**
    * Return true if no records have been written to the oplog yet.
    */
@@ -3481,9 +3583,15 @@ public class Oplog implements CompactableOplog, Flushable {
    */
   private void basicCreate(DiskRegion dr, DiskEntry entry, ValueWrapper value, byte userBits,
       boolean async) throws IOException, InterruptedException {
+    ValueWrapper compressedValue = compressValue(value, userBits);
+    if (compressedValue != null) {
+      value = compressedValue;
+      userBits = EntryBits.setCompressed(userBits, true);
+    }
     DiskId id = entry.getDiskId();
     boolean useNextOplog = false;
     long startPosForSynchOp = -1;
+    boolean deferredSync = false;
     if (DiskStoreImpl.KRF_DEBUG) {
       // wait for cache close to create krf
       System.out.println("basicCreate KRF_DEBUG");
@@ -3552,7 +3660,8 @@ public class Oplog implements CompactableOplog, Flushable {
           id.setOplogId(getOplogId());
           // do the io while holding lock so that switch can set doneAppending
           // Write the data to the opLog for the synch mode
-          startPosForSynchOp = writeOpLogBytes(this.crf, async, true);
+          deferredSync = !async && GROUP_COMMIT;
+          startPosForSynchOp = writeOpLogBytes(this.crf, async, true, deferredSync);
           // if (this.crf.currSize != startPosForSynchOp) {
           // assert false;
           // }
@@ -3608,6 +3717,9 @@ public class Oplog implements CompactableOplog, Flushable {
     } finally {
       getParent().getBackupLock().unlock();
     }
+    if (deferredSync) {
+      awaitGroupCommit();
+    }
     if (useNextOplog) {
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSwitchingOplog();
@@ -3746,6 +3858,7 @@ public class Oplog implements CompactableOplog, Flushable {
           // I think at this point the drf no longer needs to be open
           synchronized (Oplog.this.lock/* drf */) {
             if (!Oplog.this.drf.RAFClosed) {
+              forceBeforeClose(Oplog.this.drf);
               try {
                 Oplog.this.drf.channel.close();
               } catch (IOException ignore) {
@@ -4485,9 +4598,15 @@ public class Oplog implements CompactableOplog, Flushable {
    */
   private void basicModify(DiskRegionView dr, DiskEntry entry, ValueWrapper value, byte userBits,
       boolean async, boolean calledByCompactor) throws IOException, InterruptedException {
+    ValueWrapper compressedValue = compressValue(value, userBits);
+    if (compressedValue != null) {
+      value = compressedValue;
+      userBits = EntryBits.setCompressed(userBits, true);
+    }
     DiskId id = entry.getDiskId();
     boolean useNextOplog = false;
     long startPosForSynchOp = -1L;
+    boolean deferredSync = false;
     int adjustment = 0;
     Oplog emptyOplog = null;
     if (DiskStoreImpl.KRF_DEBUG) {
@@ -4521,7 +4640,8 @@ public class Oplog implements CompactableOplog, Flushable {
             long oldOplogId;
             // do the io while holding lock so that switch can set doneAppending
             // Write the data to the opLog for the synch mode
-            startPosForSynchOp = writeOpLogBytes(this.crf, async, true);
+            deferredSync = !async && GROUP_COMMIT;
+            startPosForSynchOp = writeOpLogBytes(this.crf, async, true, deferredSync);
             this.crf.currSize = temp;
             startPosForSynchOp += getOpStateValueOffset();
             if (logger.isTraceEnabled(LogMarker.PERSIST_WRITES_VERBOSE)) {
@@ -4592,6 +4712,9 @@ public class Oplog implements CompactableOplog, Flushable {
     } finally {
       getParent().getBackupLock().unlock();
     }
+    if (deferredSync) {
+      awaitGroupCommit();
+    }
     if (useNextOplog) {
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSwitchingOplog();
@@ -4624,6 +4747,7 @@ public class Oplog implements CompactableOplog, Flushable {
       throws IOException, InterruptedException {
     boolean useNextOplog = false;
     int adjustment = 0;
+    boolean deferredSync = false;
     getParent().getBackupLock().lock();
     try {
       synchronized (this.lock) {
@@ -4646,7 +4770,8 @@ public class Oplog implements CompactableOplog, Flushable {
               throw cce;
             }
             this.firstRecord = false;
-            writeOpLogBytes(this.crf, async, true);
+            deferredSync = !async && GROUP_COMMIT;
+            writeOpLogBytes(this.crf, async, true, deferredSync);
             this.crf.currSize = temp;
             if (logger.isTraceEnabled(LogMarker.PERSIST_WRITES_VERBOSE)) {
               logger.trace(LogMarker.PERSIST_WRITES_VERBOSE,
@@ -4668,6 +4793,9 @@ public class Oplog implements CompactableOplog, Flushable {
     } finally {
       getParent().getBackupLock().unlock();
     }
+    if (deferredSync) {
+      awaitGroupCommit();
+    }
     if (useNextOplog) {
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSwitchingOplog();
@@ -4945,6 +5073,7 @@ public class Oplog implements CompactableOplog, Flushable {
 
     boolean useNextOplog = false;
     long startPosForSynchOp = -1;
+    boolean deferredSync = false;
     Oplog emptyOplog = null;
     if (DiskStoreImpl.KRF_DEBUG) {
       // wait for cache close to create krf
@@ -4994,7 +5123,8 @@ public class Oplog implements CompactableOplog, Flushable {
             // before we flush the crf.
             // However we can't have removes by async if we are doing a sync write
             // because we might be killed right after we do this write.
-            startPosForSynchOp = writeOpLogBytes(this.drf, async, true);
+            deferredSync = !async && GROUP_COMMIT;
+            startPosForSynchOp = writeOpLogBytes(this.drf, async, true, deferredSync);
             setHasDeletes(true);
             if (logger.isDebugEnabled(LogMarker.PERSIST_WRITES_VERBOSE)) {
               logger.debug("basicRemove: id=<{}> key=<{}> drId={} oplog#{}", abs(id.getKeyId()),
@@ -5026,6 +5156,9 @@ public class Oplog implements CompactableOplog, Flushable {
     } finally {
       getParent().getBackupLock().unlock();
     }
+    if (deferredSync) {
+      awaitGroupCommit();
+    }
     if (useNextOplog) {
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSwitchingOplog();
@@ -5120,7 +5253,7 @@ public class Oplog implements CompactableOplog, Flushable {
           bb.clear();
         }
         if (doSync) {
-          if (SYNC_WRITES) {
+          if (SYNC_WRITES || GROUP_COMMIT) {
             // Synch Meta Data as well as content
             olf.channel.force(true);
           }
@@ -5206,6 +5339,15 @@ public class Oplog implements CompactableOplog, Flushable {
    */
   private long writeOpLogBytes(OplogFile olf, boolean async, boolean doFlushIfSync)
       throws IOException {
+    return writeOpLogBytes(olf, async, doFlushIfSync, false);
+  }
+
+  /**
+   * @param deferSync if true a synchronous write is only flushed to the channel, the caller has to
+   *        {@link #awaitGroupCommit()} once it has released the oplog lock
+   */
+  private long writeOpLogBytes(OplogFile olf, boolean async, boolean doFlushIfSync,
+      boolean deferSync) throws IOException {
     long startPos = -1L;
     getParent().getBackupLock().lock();
     try {
@@ -5230,7 +5372,11 @@ public class Oplog implements CompactableOplog, Flushable {
         // " was not > lastWritePos=" + lastWritePos);
         long bytesWritten = this.opState.write(olf);
         if (!async && doFlushIfSync) {
-          flushAndSync(olf);
+          if (deferSync) {
+            flushAll(false, false);
+          } else {
+            flushAndSync(olf);
+          }
         }
         getStats().incWrittenBytes(bytesWritten, async);
 
@@ -5249,6 +5395,75 @@ public class Oplog implements CompactableOplog, Flushable {
     return !this.crf.RAFClosed; // volatile read
   }
 
+  private final GroupCommitter groupCommitter = GROUP_COMMIT ? new GroupCommitter(
+      this::forceForGroupCommit, GROUP_COMMIT_MAX_WAIT_MICROS * 1000, GROUP_COMMIT_MAX_BATCH)
+      : null;
+
+  private static String getWriteMode() {
+    return SYNC_WRITES && !GROUP_COMMIT ? "rwd" : "rw";
+  }
+
+  /**
+   * Waits until a synchronous write of the calling thread, written with deferSync, is on disk.
+   * Must not be called while holding the oplog lock, or no other writer could join the group.
+   */
+  private void awaitGroupCommit() {
+    try {
+      this.groupCommitter.awaitForce();
+    } catch (IOException ex) {
+      getParent().getCancelCriterion().checkCancelInProgress(ex);
+      throw new DiskAccessException(
+          String.format("Failed forcing synchronous writes of oplog %s to disk", this.oplogId),
+          ex, getParent());
+    }
+  }
+
+  /**
+   * Forces what has been flushed to the drf and crf channels, called by the
+   * {@link GroupCommitter} once for a whole group of synchronous writes.
+   */
+  private void forceForGroupCommit(int writes) throws IOException {
+    long start = this.stats.startGroupCommit();
+    try {
+      forceChannel(this.drf);
+      forceChannel(this.crf);
+    } finally {
+      this.stats.endGroupCommit(start, writes);
+    }
+  }
+
+  private void forceChannel(OplogFile olf) throws IOException {
+    if (!olf.RAFClosed) {
+      try {
+        olf.channel.force(true);
+        return;
+      } catch (ClosedChannelException ignore) {
+        // closed concurrently, which forced it first, see forceBeforeClose
+      }
+    }
+    IOException failure = olf.forceBeforeCloseFailure;
+    if (failure != null) {
+      throw failure;
+    }
+  }
+
+  /**
+   * Forces a file that is about to be closed. Closing a file does not force it, and synchronous
+   * writers waiting in the {@link GroupCommitter} may not have been forced yet. If the force fails
+   * the failure is kept so that those writers fail instead of being acknowledged. Must be called
+   * while holding the oplog lock, so that nothing is written to the file after it.
+   */
+  private void forceBeforeClose(OplogFile olf) {
+    if (!GROUP_COMMIT || olf.RAFClosed || olf.channel == null) {
+      return;
+    }
+    try {
+      olf.channel.force(true);
+    } catch (IOException e) {
+      olf.forceBeforeCloseFailure = e;
+    }
+  }
+
   private boolean okToReopen;
 
   boolean closeRAF() {
@@ -5264,6 +5479,7 @@ public class Oplog implements CompactableOplog, Flushable {
       if (this.crf.RAFClosed) {
         return false;
       } else {
+        forceBeforeClose(this.crf);
         try {
           this.crf.raf.close();
         } catch (IOException ignore) {
@@ -5300,8 +5516,85 @@ public class Oplog implements CompactableOplog, Flushable {
     }
   }
 
+  /**
+   * Reads a value from the memory mapping of the crf, creating the mapping on first use.
+   *
+   * @return the value, or null if this oplog is still being appended to, its crf could not be
+   *         mapped or the mapping has been closed, in which case the value needs to be read from
+   *         the file
+   */
+  private BytesAndBits mappedGet(long offsetInOplog, int valueLength, byte userBits) {
+    OplogFileMapping mapping = getCrfMapping();
+    if (mapping == null) {
+      return null;
+    }
+    byte[] valueBytes = mapping.read(offsetInOplog, valueLength);
+    if (valueBytes == null) {
+      return null;
+    }
+    this.stats.incOplogReads();
+    BytesAndBits bb = new BytesAndBits(valueBytes, userBits);
+    // also set the product version for an older product
+    final Version version = getProductVersionIfOld();
+    if (version != null) {
+      bb.setVersion(version);
+    }
+    return bb;
+  }
+
+  OplogFileMapping getCrfMapping() {
+    OplogFileMapping mapping = this.crf.mapping;
+    if (mapping != null) {
+      return mapping;
+    }
+    // No need to get the backup lock prior to synchronizing (correct lock order) since the
+    // synchronized block does not attempt to get the backup lock (incorrect lock order)
+    synchronized (this.lock/* crf */) {
+      if (!this.doneAppending || this.closed || this.crf.f == null || this.crf.unmappable) {
+        return null;
+      }
+      if (this.crf.mapping == null) {
+        // only what has been flushed is mapped; unpreblow never truncates the file below that
+        long size = this.crf.bytesFlushed;
+        if (size <= 0 || size > Integer.MAX_VALUE) {
+          this.crf.unmappable = true;
+          return null;
+        }
+        try {
+          this.crf.mapping = OplogFileMapping.map(this.crf.f, size);
+        } catch (IOException e) {
+          if (logger.isDebugEnabled()) {
+            logger.debug("Could not map {} for reading, values will be read from the file",
+                this.crf.f, e);
+          }
+          return null;
+        }
+      }
+      return this.crf.mapping;
+    }
+  }
+
+  /**
+   * Closes the mapping of the file, if any, and prevents it from being mapped again. The mapping
+   * is unmapped once the reads copying from it are done.
+   */
+  private void closeMapping(OplogFile olf) {
+    olf.unmappable = true;
+    OplogFileMapping mapping = olf.mapping;
+    olf.mapping = null;
+    if (mapping != null) {
+      mapping.close();
+    }
+  }
+
   private BytesAndBits attemptGet(DiskRegionView dr, long offsetInOplog, boolean bitOnly,
       int valueLength, byte userBits) throws IOException {
+    if (MMAP_READS && this.doneAppending) {
+      BytesAndBits bb = mappedGet(offsetInOplog, valueLength, userBits);
+      if (bb != null) {
+        return bb;
+      }
+    }
     boolean didReopen = false;
     boolean accessedInactive = false;
     try {
@@ -5399,6 +5692,9 @@ public class Oplog implements CompactableOplog, Flushable {
   private BytesAndBits basicGet(DiskRegionView dr, long offsetInOplog, boolean bitOnly,
       int valueLength, byte userBits) {
     BytesAndBits bb = null;
+    // callers get the value as it was written, the compressed bit only describes the crf bytes
+    final boolean compressed = EntryBits.isCompressed(userBits);
+    userBits = EntryBits.setCompressed(userBits, false);
     if (EntryBits.isAnyInvalid(userBits) || EntryBits.isTombstone(userBits) || bitOnly
         || valueLength == 0) {
       if (EntryBits.isInvalid(userBits)) {
@@ -5417,6 +5713,9 @@ public class Oplog implements CompactableOplog, Flushable {
           boolean interrupted = Thread.interrupted();
           try {
             bb = attemptGet(dr, offsetInOplog, bitOnly, valueLength, userBits);
+            if (compressed) {
+              bb = decompressValue(bb);
+            }
             break;
           } catch (InterruptedIOException ignore) { // bug 39756
             // ignore, we'll clear and retry.
@@ -5646,6 +5945,7 @@ public class Oplog implements CompactableOplog, Flushable {
         this.dirHolder.decrementTotalOplogSize(olf.currSize);
         olf.currSize = 0;
       }
+      closeMapping(olf);
       if (olf.f == null)
         return;
       if (!olf.f.exists())
@@ -5778,6 +6078,23 @@ public class Oplog implements CompactableOplog, Flushable {
     return false;
   }
 
+  /**
+   * Returns how worthwhile compacting this oplog is, the cost-benefit ratio of log structured
+   * file systems: the garbage reclaimed times the age of the oplog, divided by the cost of reading
+   * the oplog and writing its live entries. Old oplogs with little live data score highest.
+   *
+   * @param currentOplogId the id of the oplog currently being written to
+   */
+  double getCompactionScore(long currentOplogId) {
+    long total = this.totalCount.get();
+    double live = 0;
+    if (total > 0) {
+      live = Math.max(0, Math.min(this.totalLiveCount.get(), total)) / (double) total;
+    }
+    long age = Math.max(1, currentOplogId - getOplogId());
+    return (1 - live) * age / (1 + live);
+  }
+
   public boolean hadLiveEntries() {
     return this.totalCount.get() != 0;
   }
@@ -5918,7 +6235,7 @@ public class Oplog implements CompactableOplog, Flushable {
     this.compacting = true;
   }
 
-  private final Lock compactorLock = new ReentrantLock();
+  private final ReentrantLock compactorLock = new ReentrantLock();
 
   private void lockCompactor() {
     this.compactorLock.lock();
@@ -5928,6 +6245,13 @@ public class Oplog implements CompactableOplog, Flushable {
     this.compactorLock.unlock();
   }
 
+  /**
+   * Returns true if a thread is waiting for a lock the compactor holds while compacting this oplog
+   */
+  private boolean isCompactorLockWanted() {
+    return this.compactorLock.hasQueuedThreads() || getParent().isCompactorLockWanted();
+  }
+
   /**
    * Copy any live entries last stored in this oplog to the current oplog. No need to copy deletes
    * in the drf. Backup only needs them until all the older crfs are empty.
@@ -5984,6 +6308,7 @@ public class Oplog implements CompactableOplog, Flushable {
             }
             lastDe = de;
             didCompact = false;
+            int copiedBytes = 0;
             synchronized (de) { // fix for bug 41797
               DiskId did = de.getDiskId();
               assert did != null;
@@ -6008,6 +6333,7 @@ public class Oplog implements CompactableOplog, Flushable {
                   getOplogSet().getChild().copyForwardModifyForCompact(dr, de, wrapper);
                   // the did's oplogId will now be set to the current active oplog
                   didCompact = true;
+                  copiedBytes = did.getValueLength();
                 }
               } // did
             } // de
@@ -6025,6 +6351,8 @@ public class Oplog implements CompactableOplog, Flushable {
               if (!wrapper.isReusable()) {
                 wrapper = new BytesAndBitsForCompactor();
               }
+              // pause outside of the entry locks if the compactor is over its I/O budget
+              compactor.afterCopyForward(copiedBytes, this::isCompactorLockWanted);
             }
           }
         }
@@ -6080,12 +6408,19 @@ public class Oplog implements CompactableOplog, Flushable {
 
   /**
    * This method is called by the async value recovery task to recover the values from the crf if
-   * the keys were recovered from the krf.
+   * the keys were recovered from the krf. Several oplogs may be recovered at the same time, the
+   * values are read while only holding the given lock so that the reads can proceed in parallel.
+   * Each entry is only recovered from the oplog that holds its latest value.
+   *
+   * @param valueRecoveryLock held while recovering a value, a region copying its recovered entry
+   *        map holds the exclusive side of it
+   * @return the number of value bytes recovered
    */
-  public void recoverValuesIfNeeded(Map<Long, DiskRecoveryStore> diskRecoveryStores) {
+  public long recoverValuesIfNeeded(Map<Long, DiskRecoveryStore> diskRecoveryStores,
+      Lock valueRecoveryLock) {
     // Early out if we start closing the parent.
     if (getParent().isClosing()) {
-      return;
+      return 0;
     }
 
     List<KRFEntry> sortedLiveEntries;
@@ -6106,14 +6441,15 @@ public class Oplog implements CompactableOplog, Flushable {
     sortedLiveEntries = getSortedLiveEntries(targetRegions.values());
     if (sortedLiveEntries == null) {
       // There are no live entries in this oplog to recover.
-      return;
+      return 0;
     }
 
+    long recoveredBytes = 0;
     final ByteArrayDataInput in = new ByteArrayDataInput();
     for (KRFEntry entry : sortedLiveEntries) {
       // Early out if we start closing the parent.
       if (getParent().isClosing()) {
-        return;
+        return recoveredBytes;
       }
 
       DiskEntry diskEntry = entry.getDiskEntry();
@@ -6130,8 +6466,9 @@ public class Oplog implements CompactableOplog, Flushable {
       // from
       // disk is still valid. That is going to be something like
 
+      DiskRecoveryStore diskRecoveryStore;
       synchronized (diskRecoveryStores) {
-        DiskRecoveryStore diskRecoveryStore = diskRecoveryStores.get(diskRegionId);
+        diskRecoveryStore = diskRecoveryStores.get(diskRegionId);
         if (diskRecoveryStore == null) {
           continue;
         }
@@ -6156,10 +6493,17 @@ public class Oplog implements CompactableOplog, Flushable {
             continue;
           }
         }
+        // taken while still holding the monitor so that a region can not start copying its
+        // entry map between the lookup above and the recovery below
+        valueRecoveryLock.lock();
+      }
 
+      boolean regionDestroyed = false;
+      try {
         synchronized (diskEntry) {
           // Make sure the entry hasn't been modified
-          if (diskEntry.getDiskId() != null && diskEntry.getDiskId().getOplogId() == oplogId) {
+          DiskId diskId = diskEntry.getDiskId();
+          if (diskId != null && diskId.getOplogId() == oplogId) {
             // dear lord, this goes through a lot of layers. Maybe we should
             // skip some?
             // * specifically, this could end up faulting in from a different
@@ -6179,14 +6523,23 @@ public class Oplog implements CompactableOplog, Flushable {
 
             try {
               DiskEntry.Helper.recoverValue(diskEntry, getOplogId(), diskRecoveryStore, in);
+              recoveredBytes += diskId.getValueLength();
             } catch (RegionDestroyedException ignore) {
-              // This region has been destroyed, stop recovering from it.
-              diskRecoveryStores.remove(diskRegionId);
+              regionDestroyed = true;
             }
           }
         }
+      } finally {
+        valueRecoveryLock.unlock();
+      }
+      if (regionDestroyed) {
+        // This region has been destroyed, stop recovering from it.
+        synchronized (diskRecoveryStores) {
+          diskRecoveryStores.remove(diskRegionId);
+        }
       }
     }
+    return recoveredBytes;
   }
 
   private byte[] serializeRVVs(Map<Long, AbstractDiskRegion> drMap, boolean gcRVV)
@@ -6488,6 +6841,17 @@ public class Oplog implements CompactableOplog, Flushable {
     public long currSize;
     public long bytesFlushed;
     public boolean unpreblown;
+    /**
+     * Read only mapping of the flushed part of the file, only created when {@link #MMAP_READS} is
+     * set and the file is no longer appended to
+     */
+    public volatile OplogFileMapping mapping;
+    public boolean unmappable;
+    /**
+     * Set if forcing the file before closing it failed, so that writers waiting for a group commit
+     * fail, see {@link #GROUP_COMMIT}
+     */
+    public volatile IOException forceBeforeCloseFailure;
   }
 
   private static class KRFile {
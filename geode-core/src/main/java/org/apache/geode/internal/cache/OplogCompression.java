@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.function.Supplier;
+
+import org.apache.geode.compression.CompressionException;
+import org.apache.geode.compression.Compressor;
+import org.apache.geode.compression.LZ4Compressor;
+import org.apache.geode.compression.SnappyCompressor;
+import org.apache.geode.compression.ZstdCompressor;
+import org.apache.geode.distributed.internal.DistributionConfig;
+
+/**
+ * Compresses the values an {@link Oplog} writes to its crf. This is independent of any region
+ * {@link Compressor}: it is configured per disk store and applies to every value it persists.
+ * <p>
+ * A compressed value is stored with {@link EntryBits#isCompressed(byte)} set and starts with the
+ * id of its {@link Codec}, so it can be read back whatever codec the disk store is configured
+ * with later on, or if compression has been turned off since.
+ */
+class OplogCompression {
+
+  /**
+   * This system property selects the codec for the values of all disk stores: none, snappy, lz4 or
+   * zstd. Defaults to none.
+   */
+  static final String COMPRESSION_PROPERTY = DistributionConfig.GEMFIRE_PREFIX + "disk.compression";
+
+  /**
+   * This system property indicates the smallest value, in bytes, that is compressed. Smaller
+   * values rarely shrink enough to make up for the time spent compressing them.
+   */
+  static final int MIN_COMPRESSED_LENGTH =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "disk.compressionMinBytes", 64);
+
+  enum Codec {
+    SNAPPY(1, SnappyCompressor::new),
+    LZ4(2, LZ4Compressor::new),
+    ZSTD(3, ZstdCompressor::new);
+
+    private final byte id;
+    private final Supplier<Compressor> factory;
+    /**
+     * Created on first use since the libraries of the codecs are optional
+     */
+    private volatile Compressor compressor;
+
+    Codec(int id, Supplier<Compressor> factory) {
+      this.id = (byte) id;
+      this.factory = factory;
+    }
+
+    Compressor getCompressor() {
+      Compressor result = this.compressor;
+      if (result == null) {
+        result = this.factory.get();
+        this.compressor = result;
+      }
+      return result;
+    }
+
+    static Codec forId(byte id) {
+      for (Codec codec : values()) {
+        if (codec.id == id) {
+          return codec;
+        }
+      }
+      throw new CompressionException("Unknown oplog value codec " + id);
+    }
+  }
+
+  private final Codec codec;
+
+  OplogCompression(Codec codec) {
+    this.codec = codec;
+  }
+
+  /**
+   * Returns the compression configured for the named disk store, null if its values are written
+   * uncompressed. The codec is read from the {@link #COMPRESSION_PROPERTY} system property suffixed
+   * with "." and the name of the disk store, falling back to the unsuffixed property.
+   *
+   * @throws IllegalArgumentException if the configured codec is unknown
+   */
+  static OplogCompression forDiskStore(String diskStoreName) {
+    String value = System.getProperty(COMPRESSION_PROPERTY + "." + diskStoreName);
+    if (value == null) {
+      value = System.getProperty(COMPRESSION_PROPERTY);
+    }
+    if (value == null || value.trim().isEmpty() || value.trim().equalsIgnoreCase("none")) {
+      return null;
+    }
+    Codec codec;
+    try {
+      codec = Codec.valueOf(value.trim().toUpperCase(Locale.ENGLISH));
+    } catch (IllegalArgumentException e) {
+      throw new IllegalArgumentException("Unknown compression " + value + " for disk store "
+          + diskStoreName + ", expected one of none, snappy, lz4 or zstd", e);
+    }
+    // fail now rather than on the first write if the library of the codec is missing
+    codec.getCompressor();
+    return new OplogCompression(codec);
+  }
+
+  Codec getCodec() {
+    return this.codec;
+  }
+
+  /**
+   * Compresses the first length bytes of the value.
+   *
+   * @return the compressed value prefixed with the codec id, or null if the value is too small or
+   *         does not get smaller
+   */
+  byte[] compress(byte[] value, int length) {
+    if (length < MIN_COMPRESSED_LENGTH) {
+      return null;
+    }
+    byte[] input = value.length == length ? value : Arrays.copyOf(value, length);
+    byte[] compressed = this.codec.getCompressor().compress(input);
+    if (compressed.length + 1 >= length) {
+      return null;
+    }
+    byte[] result = new byte[compressed.length + 1];
+    result[0] = this.codec.id;
+    System.arraycopy(compressed, 0, result, 1, compressed.length);
+    return result;
+  }
+
+  /**
+   * Decompresses a value returned by {@link #compress(byte[], int)}, using the codec it was
+   * compressed with.
+   */
+  static byte[] decompress(byte[] stored) {
+    if (stored.length == 0) {
+      throw new CompressionException("Compressed oplog value is empty");
+    }
+    Codec codec = Codec.forId(stored[0]);
+    return codec.getCompressor().decompress(Arrays.copyOfRange(stored, 1, stored.length));
+  }
+}
@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.internal.logging.LogService;
+
+/**
+ * A read only memory mapping of the start of an oplog file. The mapping is unmapped as soon as it
+ * has been closed and no read is copying from it anymore, instead of when the garbage collector
+ * happens to collect the buffer, so that a deleted file releases its disk and address space right
+ * away.
+ */
+class OplogFileMapping {
+  private static final Logger logger = LogService.getLogger();
+
+  private final MappedByteBuffer buffer;
+
+  /**
+   * Number of reads in progress plus one for the owner until {@link #close()} is called
+   */
+  private final AtomicInteger references = new AtomicInteger(1);
+
+  private final AtomicBoolean closed = new AtomicBoolean();
+
+  private OplogFileMapping(MappedByteBuffer buffer) {
+    this.buffer = buffer;
+  }
+
+  /**
+   * Maps the first size bytes of the file, which must not be more than {@link Integer#MAX_VALUE}.
+   */
+  static OplogFileMapping map(File file, long size) throws IOException {
+    try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+      return new OplogFileMapping(raf.getChannel().map(FileChannel.MapMode.READ_ONLY, 0, size));
+    }
+  }
+
+  int capacity() {
+    return this.buffer.capacity();
+  }
+
+  /**
+   * Copies length bytes starting at offset out of the mapping.
+   *
+   * @return the bytes, or null if they are not all mapped or the mapping has been closed, in which
+   *         case they need to be read from the file
+   */
+  byte[] read(long offset, int length) {
+    if (offset < 0 || length < 0 || offset + length > this.buffer.capacity()) {
+      return null;
+    }
+    if (!acquire()) {
+      return null;
+    }
+    try {
+      // each read positions its own view so that concurrent reads do not need to synchronize
+      ByteBuffer view = this.buffer.duplicate();
+      view.position((int) offset);
+      byte[] bytes = new byte[length];
+      view.get(bytes);
+      return bytes;
+    } finally {
+      release();
+    }
+  }
+
+  /**
+   * Closes the mapping. It is unmapped once the reads in progress are done.
+   */
+  void close() {
+    if (this.closed.compareAndSet(false, true)) {
+      release();
+    }
+  }
+
+  boolean isUnmapped() {
+    return this.references.get() == 0;
+  }
+
+  private boolean acquire() {
+    for (;;) {
+      int count = this.references.get();
+      if (count == 0) {
+        return false;
+      }
+      if (this.references.compareAndSet(count, count + 1)) {
+        return true;
+      }
+    }
+  }
+
+  private void release() {
+    if (this.references.decrementAndGet() == 0) {
+      unmap(this.buffer);
+    }
+  }
+
+  /**
+   * Unmaps the buffer with sun.misc.Unsafe#invokeCleaner on Java 9 and later, or its cleaner on
+   * Java 8. If neither is available the buffer stays mapped until it is garbage collected.
+   */
+  private static void unmap(MappedByteBuffer buffer) {
+    try {
+      Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+      Method invokeCleaner;
+      try {
+        invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+      } catch (NoSuchMethodException e) {
+        invokeCleaner = null;
+      }
+      if (invokeCleaner != null) {
+        Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+        theUnsafe.setAccessible(true);
+        invokeCleaner.invoke(theUnsafe.get(null), buffer);
+      } else {
+        Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+        cleanerMethod.setAccessible(true);
+        Object cleaner = cleanerMethod.invoke(buffer);
+        if (cleaner != null) {
+          Method clean = cleaner.getClass().getMethod("clean");
+          clean.setAccessible(true);
+          clean.invoke(cleaner);
+        }
+      }
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      if (logger.isDebugEnabled()) {
+        logger.debug("Could not unmap an oplog file, it stays mapped until garbage collected", e);
+      }
+    }
+  }
+}
@@ -24,7 +24,6 @@ import java.nio.channels.ClosedChannelException;
 import java.nio.channels.FileChannel;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
-import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.logging.log4j.Logger;
@@ -1217,7 +1216,7 @@ class OverflowOplog implements CompactableOplog, Flushable {
     return v != null && v == Boolean.TRUE;
   }
 
-  private final Lock compactorLock = new ReentrantLock();
+  private final ReentrantLock compactorLock = new ReentrantLock();
 
   private void lockCompactor() {
     this.compactorLock.lock();
@@ -1227,6 +1226,13 @@ class OverflowOplog implements CompactableOplog, Flushable {
     this.compactorLock.unlock();
   }
 
+  /**
+   * Returns true if a thread is waiting for a lock the compactor holds while compacting this oplog
+   */
+  private boolean isCompactorLockWanted() {
+    return this.compactorLock.hasQueuedThreads() || getParent().isCompactorLockWanted();
+  }
+
   @Override
   public int compact(OplogCompactor compactor) {
     if (!needsCompaction()) {
@@ -1265,6 +1271,7 @@ class OverflowOplog implements CompactableOplog, Flushable {
           }
           lastDe = de;
           didCompact = false;
+          int copiedBytes = 0;
           synchronized (de) { // fix for bug 41797
             DiskId did = de.getDiskId();
             assert did != null;
@@ -1306,6 +1313,7 @@ class OverflowOplog implements CompactableOplog, Flushable {
                 getOplogSet().copyForwardForOverflowCompact(de, valueBytes, length, userBits);
                 // the did's oplogId will now be set to the current active oplog
                 didCompact = true;
+                copiedBytes = length;
               }
             } // did
           } // de
@@ -1321,6 +1329,8 @@ class OverflowOplog implements CompactableOplog, Flushable {
             if (!wrapper.isReusable()) {
               wrapper = new BytesAndBitsForCompactor();
             }
+            // pause outside of the entry locks if the compactor is over its I/O budget
+            compactor.afterCopyForward(copiedBytes, this::isCompactorLockWanted);
           }
         }
 
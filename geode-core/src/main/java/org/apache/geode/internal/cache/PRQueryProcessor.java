@@ -15,7 +15,6 @@
 package org.apache.geode.internal.cache;
 
 import static java.lang.Integer.getInteger;
-import static java.lang.Integer.valueOf;
 
 import java.io.DataInput;
 import java.io.DataOutput;
@@ -23,16 +22,20 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
-import java.util.Iterator;
 import java.util.List;
-import java.util.concurrent.Callable;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.logging.log4j.Logger;
+import org.apache.shiro.subject.Subject;
+import org.apache.shiro.util.ThreadContext;
 
 import org.apache.geode.InternalGemFireException;
 import org.apache.geode.annotations.internal.MakeNotStatic;
@@ -42,7 +45,9 @@ import org.apache.geode.cache.RegionDestroyedException;
 import org.apache.geode.cache.query.QueryException;
 import org.apache.geode.cache.query.QueryInvocationTargetException;
 import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.internal.CompiledGroupBySelect;
 import org.apache.geode.cache.query.internal.CompiledSelect;
+import org.apache.geode.cache.query.internal.CompiledValue;
 import org.apache.geode.cache.query.internal.DefaultQuery;
 import org.apache.geode.cache.query.internal.ExecutionContext;
 import org.apache.geode.cache.query.internal.NWayMergeResults;
@@ -52,6 +57,7 @@ import org.apache.geode.cache.query.types.ObjectType;
 import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.internal.Assert;
 import org.apache.geode.internal.DataSerializableFixedID;
+import org.apache.geode.internal.NanoTimer;
 import org.apache.geode.internal.Version;
 import org.apache.geode.internal.cache.execute.BucketMovedException;
 import org.apache.geode.internal.logging.LogService;
@@ -59,19 +65,23 @@ import org.apache.geode.internal.logging.LoggingExecutors;
 
 /**
  * This class takes the responsibility of executing the query on a data store for the buckets
- * specified in bucketList. It contains a {@code PRQueryExecutor} thread-pool executor that takes a
- * {@code Callable} task identified by {@code PartitionedRegion}, queryString and bucketId.
+ * specified in bucketList. It contains a {@code PRQueryExecutor} thread-pool executor whose idle
+ * threads help the calling thread query the buckets.
  *
- * The QueryTasks add results directly to a results queue. The BucketQueryResult is used not only to
- * indicate completion, and holds an exception if there one occurred while processing a query.
+ * The threads add results directly to a results queue. A BucketScan hands out the buckets and holds
+ * the first exception that occurred while processing a query.
  */
 public class PRQueryProcessor {
   private static final Logger logger = LogService.getLogger();
 
   static final int BUCKET_QUERY_TIMEOUT = 60;
 
+  /**
+   * The number of threads a data store uses to query its buckets. The default of 0 sizes the pool
+   * from the number of available processors, and 1 queries the buckets serially.
+   */
   public static final int NUM_THREADS =
-      getInteger(DistributionConfig.GEMFIRE_PREFIX + "PRQueryProcessor.numThreads", 1);
+      getInteger(DistributionConfig.GEMFIRE_PREFIX + "PRQueryProcessor.numThreads", 0);
 
   /* For Test purpose */
   @MutableForTesting
@@ -87,6 +97,9 @@ public class PRQueryProcessor {
 
   private boolean isIndexUsedForLocalQuery = false;
 
+  /** time in milliseconds taken by each bucket queried on its own, only kept for traced queries */
+  private final Map<Integer, Float> bucketTimes = new ConcurrentHashMap<>();
+
   public PRQueryProcessor(PartitionedRegionDataStore prDS, DefaultQuery query, Object[] parameters,
       List<Integer> buckets) {
     Assert.assertTrue(!buckets.isEmpty(), "bucket list can not be empty. ");
@@ -116,77 +129,149 @@ public class PRQueryProcessor {
    */
   public boolean executeQuery(Collection<Collection> resultCollector)
       throws QueryException, InterruptedException, ForceReattemptException {
-    if (NUM_THREADS > 1 || TEST_NUM_THREADS > 1) {
-      executeWithThreadPool(resultCollector);
+    int maxThreads = getMaxThreads();
+    int helpers = 0;
+    if (maxThreads > 1 && this._bucketsToQuery.size() > 1) {
+      // the calling thread queries buckets as well, so it only needs help for the others
+      helpers = PRQueryExecutor.reserveThreads(
+          Math.min(maxThreads, this._bucketsToQuery.size()) - 1, maxThreads);
+    }
+    if (helpers > 0) {
+      executeInParallel(resultCollector, helpers);
     } else {
       executeSequentially(resultCollector, this._bucketsToQuery);
     }
     return this.resultType.isStructType();
   }
 
-  private void executeWithThreadPool(Collection<Collection> resultCollector)
+  /**
+   * Returns the maximum number of threads, including the calling thread, used to query the buckets
+   * of a data store.
+   */
+  static int getMaxThreads() {
+    int numThreads = TEST_NUM_THREADS > 1 ? TEST_NUM_THREADS : NUM_THREADS;
+    return numThreads > 0 ? numThreads : Runtime.getRuntime().availableProcessors();
+  }
+
+  /**
+   * Queries the buckets on the calling thread and the given number of reserved pool threads. Each
+   * thread claims the next unqueried bucket when it finishes one, so threads that hit small or
+   * indexed buckets take over the work of threads stuck in large ones.
+   */
+  private void executeInParallel(Collection<Collection> resultCollector, int helpers)
       throws QueryException, InterruptedException, ForceReattemptException {
-    if (Thread.interrupted())
-      throw new InterruptedException();
-
-    java.util.List callableTasks = buildCallableTaskList(resultCollector);
-    ExecutorService execService = PRQueryExecutor.getExecutorService();
-
-    boolean reattemptNeeded = false;
-    ForceReattemptException fre = null;
-
-    if (callableTasks != null && !callableTasks.isEmpty()) {
-      List futures = null;
-      futures = execService.invokeAll(callableTasks, 300, TimeUnit.SECONDS);
-
-      if (futures != null) {
-        Iterator itr = futures.iterator();
-        while (itr.hasNext() && !execService.isShutdown() && !execService.isTerminated()) {
-          Future fut = (Future) itr.next();
-          QueryTask.BucketQueryResult bqr = null;
-
-          try {
-            bqr = (QueryTask.BucketQueryResult) fut.get(BUCKET_QUERY_TIMEOUT, TimeUnit.SECONDS);
-            bqr.handleAndThrowException();
-            if (bqr.retry) {
-              reattemptNeeded = true;
-            }
-
-          } catch (TimeoutException e) {
-            throw new InternalGemFireException(
-                String.format("Timed out while executing query, time exceeded %s",
-                    BUCKET_QUERY_TIMEOUT),
-                e);
-          } catch (ExecutionException ee) {
-            Throwable cause = ee.getCause();
-            if (cause instanceof QueryException) {
-              throw (QueryException) cause;
-            } else {
-              throw new InternalGemFireException(
-                  "Got unexpected exception while executing query on partitioned region bucket",
-                  cause);
-            }
-          }
+    List<Future<?>> futures = new ArrayList<>(helpers);
+    BucketScan scan;
+    try {
+      if (Thread.interrupted()) {
+        throw new InterruptedException();
+      }
+      scan = new BucketScan(resultCollector, getLimitForScan());
+      Runnable helper = () -> {
+        try {
+          scan.run();
+        } finally {
+          PRQueryExecutor.releaseThreads(1);
         }
+      };
+      // the pool threads query as the user of the calling thread, so that method invocations and
+      // region accesses of the query are authorized as they are when it queries all the buckets
+      Subject subject = ThreadContext.getSubject();
+      if (subject != null) {
+        helper = subject.associateWith(helper);
+      }
+      ExecutorService execService = PRQueryExecutor.getExecutorService();
+      for (; helpers > 0; helpers--) {
+        futures.add(execService.submit(helper));
+      }
+    } catch (RejectedExecutionException e) {
+      this.pr.checkReadiness();
+      throw new InternalGemFireException(
+          "Got unexpected exception while executing query on partitioned region bucket", e);
+    } finally {
+      // give back the threads that were not started
+      PRQueryExecutor.releaseThreads(helpers);
+    }
 
-        CompiledSelect cs = this.query.getSimpleSelect();
-
-        if (cs != null && (cs.isOrderBy() || cs.isGroupBy())) {
-          ExecutionContext context = new QueryExecutionContext(this.parameters, pr.getCache());
-          int limit = this.query.getLimit(parameters);
-          Collection mergedResults = coalesceOrderedResults(resultCollector, context, cs, limit);
-          resultCollector.clear();
-          resultCollector.add(mergedResults);
-        }
+    scan.run();
+    for (Future<?> future : futures) {
+      try {
+        future.get(BUCKET_QUERY_TIMEOUT, TimeUnit.SECONDS);
+      } catch (TimeoutException e) {
+        throw new InternalGemFireException(
+            String.format("Timed out while executing query, time exceeded %s",
+                BUCKET_QUERY_TIMEOUT),
+            e);
+      } catch (ExecutionException ee) {
+        throw new InternalGemFireException(
+            "Got unexpected exception while executing query on partitioned region bucket",
+            ee.getCause());
       }
     }
+    scan.throwException();
+    if (scan.limit >= 0) {
+      trimToLimit(resultCollector, scan.limit);
+    }
+
+    CompiledSelect cs = this.query.getSimpleSelect();
+    if (cs != null && (cs.isOrderBy() || cs.isGroupBy())) {
+      ExecutionContext context = new QueryExecutionContext(this.parameters, pr.getCache());
+      int limit = this.query.getLimit(parameters);
+      Collection mergedResults = coalesceOrderedResults(resultCollector, context, cs, limit);
+      resultCollector.clear();
+      resultCollector.add(mergedResults);
+    }
+  }
+
+  /**
+   * Merges the per bucket partial aggregates of a group by query into a single partial aggregate
+   * per group, so that only one row per group is shipped to the query node.
+   */
+  private Collection mergeGroupByResults(Collection orderedResults, CompiledSelect cs)
+      throws QueryException {
+    ExecutionContext context = new QueryExecutionContext(this.parameters, this.pr.getCache());
+    context.setBucketList(this._bucketsToQuery);
+    return ((CompiledGroupBySelect) cs).mergeBucketResults((SelectResults) orderedResults,
+        context);
+  }
 
-    if (execService == null || execService.isShutdown() || execService.isTerminated()) {
-      this._prds.partitionedRegion.checkReadiness();
+  /**
+   * Returns the number of results after which no more buckets need to be queried, or -1 if all
+   * buckets need to be queried. The results of each bucket are combined as they are, so this is
+   * only known for plain limited selects.
+   */
+  private int getLimitForScan() throws QueryException {
+    CompiledSelect cs = this.query.getSimpleSelect();
+    if (cs == null || cs.isOrderBy() || cs.isGroupBy() || cs.isDistinct() || cs.isCount()) {
+      return -1;
     }
+    return this.query.getLimit(parameters);
+  }
 
-    if (reattemptNeeded) {
-      throw fre;
+  /**
+   * Drops the results beyond the limit. The threads that were still querying a bucket when the
+   * limit was reached may each have added up to limit results of their own.
+   */
+  static void trimToLimit(Collection<Collection> resultCollector, int limit) {
+    List<Collection> bucketResults = new ArrayList<>(resultCollector);
+    resultCollector.clear();
+    int remaining = limit;
+    for (Collection results : bucketResults) {
+      if (remaining <= 0) {
+        break;
+      }
+      if (results.size() > remaining) {
+        List trimmed = new ArrayList(remaining);
+        for (Object result : results) {
+          if (trimmed.size() == remaining) {
+            break;
+          }
+          trimmed.add(result);
+        }
+        results = trimmed;
+      }
+      resultCollector.add(results);
+      remaining -= results.size();
     }
   }
 
@@ -199,9 +284,7 @@ public class PRQueryProcessor {
     int limit = this.query.getLimit(parameters);
     if (cs != null && cs.isOrderBy()) {
       for (Integer bucketID : this._bucketsToQuery) {
-        List<Integer> singleBucket = Collections.singletonList(bucketID);
-        context.setBucketList(singleBucket);
-        executeQueryOnBuckets(resultCollector, context);
+        executeQueryOnBucket(resultCollector, context, bucketID);
       }
       Collection mergedResults = coalesceOrderedResults(resultCollector, context, cs, limit);
       resultCollector.clear();
@@ -214,7 +297,7 @@ public class PRQueryProcessor {
   }
 
   private Collection coalesceOrderedResults(Collection<Collection> results,
-      ExecutionContext context, CompiledSelect cs, int limit) {
+      ExecutionContext context, CompiledSelect cs, int limit) throws QueryException {
     List<Collection> sortedResults = new ArrayList<Collection>(results.size());
     // TODO :Asif : Deal with UNDEFINED
     for (Object o : results) {
@@ -223,12 +306,34 @@ public class PRQueryProcessor {
       }
     }
 
+    if (cs.getType() == CompiledValue.GROUP_BY_SELECT) {
+      // The limit applies to the groups, not to the partial rows of the buckets
+      return mergeGroupByResults(new NWayMergeResults(sortedResults, cs.isDistinct(), -1,
+          cs.getOrderByAttrs(), context, cs.getElementTypeForOrderByQueries()), cs);
+    }
     return new NWayMergeResults(sortedResults, cs.isDistinct(), limit, cs.getOrderByAttrs(),
         context, cs.getElementTypeForOrderByQueries());
 
   }
 
-  private void executeQueryOnBuckets(Collection<Collection> resultCollector,
+  /**
+   * Queries a single bucket, recording how long it took if the query is traced.
+   *
+   * @return the results of the bucket
+   */
+  private Collection executeQueryOnBucket(Collection<Collection> resultCollector,
+      ExecutionContext context, Integer bucketId)
+      throws ForceReattemptException, QueryInvocationTargetException, QueryException {
+    context.setBucketList(Collections.singletonList(bucketId));
+    long startTime = this.query.isTraced() ? NanoTimer.getTime() : 0L;
+    Collection results = executeQueryOnBuckets(resultCollector, context);
+    if (this.query.isTraced()) {
+      this.bucketTimes.put(bucketId, (NanoTimer.getTime() - startTime) / 1.0e6f);
+    }
+    return results;
+  }
+
+  private Collection executeQueryOnBuckets(Collection<Collection> resultCollector,
       ExecutionContext context)
       throws ForceReattemptException, QueryInvocationTargetException, QueryException {
     // Check if QueryMonitor is enabled, if so add query to be monitored.
@@ -249,7 +354,10 @@ public class PRQueryProcessor {
         this.resultType = ((SelectResults) results).getCollectionType().getElementType();
         resultCollector.add((Collection) results);
       }
-      isIndexUsedForLocalQuery = ((QueryExecutionContext) context).isIndexUsed();
+      if (((QueryExecutionContext) context).isIndexUsed()) {
+        isIndexUsedForLocalQuery = true;
+      }
+      return (Collection) results;
 
     } catch (BucketMovedException bme) {
       if (logger.isDebugEnabled()) {
@@ -274,18 +382,18 @@ public class PRQueryProcessor {
     }
   }
 
-  private List<QueryTask> buildCallableTaskList(Collection<Collection> resultsColl) {
-    List<QueryTask> callableTasks = new ArrayList<>();
-    for (Integer bId : _bucketsToQuery) {
-      callableTasks.add(new QueryTask(this.query, this.parameters, _prds, bId, resultsColl));
-    }
-    return callableTasks;
-  }
-
   public boolean isIndexUsed() {
     return isIndexUsedForLocalQuery;
   }
 
+  /**
+   * Returns the time in milliseconds taken by each bucket that was queried on its own, if the
+   * query is traced.
+   */
+  public Map<Integer, Float> getBucketTimes() {
+    return this.bucketTimes;
+  }
+
   public static void shutdown() {
     PRQueryExecutor.shutdown();
   }
@@ -303,6 +411,35 @@ public class PRQueryProcessor {
     @MakeNotStatic
     private static ExecutorService execService = null;
 
+    /** the number of pool threads reserved by queries that are running */
+    @MakeNotStatic
+    private static final AtomicInteger busyThreads = new AtomicInteger();
+
+    /**
+     * Reserves up to {@code wanted} pool threads, leaving the threads that other queries already
+     * use so that a busy data store falls back to querying on the calling thread.
+     *
+     * @return the number of threads reserved, which must be {@linkplain #releaseThreads released}
+     */
+    static int reserveThreads(int wanted, int maxThreads) {
+      while (true) {
+        int busy = busyThreads.get();
+        int reserved = Math.min(wanted, maxThreads - 1 - busy);
+        if (reserved <= 0) {
+          return 0;
+        }
+        if (busyThreads.compareAndSet(busy, busy + reserved)) {
+          return reserved;
+        }
+      }
+    }
+
+    static void releaseThreads(int count) {
+      if (count > 0) {
+        busyThreads.addAndGet(-count);
+      }
+    }
+
     /**
      * Closes the executor service. This is called from
      * {@link PartitionedRegion#afterRegionsClosedByCacheClose(InternalCache)}
@@ -331,8 +468,8 @@ public class PRQueryProcessor {
      */
     static synchronized void initializeExecutorService() {
       if (execService == null || execService.isShutdown() || execService.isTerminated()) {
-        int numThreads = (TEST_NUM_THREADS > 1 ? TEST_NUM_THREADS : NUM_THREADS);
-        execService = LoggingExecutors.newFixedThreadPool("PRQueryProcessor", true, numThreads);
+        execService =
+            LoggingExecutors.newFixedThreadPool("PRQueryProcessor", true, getMaxThreads());
       }
     }
   }
@@ -382,85 +519,62 @@ public class PRQueryProcessor {
   }
 
   /**
-   * Implementation of call-able task to execute query on a bucket region. This task will be
-   * generated by the PRQueryProcessor.
-   *
+   * The buckets of one query execution, claimed one at a time by the threads querying them.
    */
-  @SuppressWarnings("synthetic-access")
-  private class QueryTask implements Callable {
-    private final DefaultQuery query;
-    private final Object[] parameters;
-    private final PartitionedRegionDataStore _prDs;
-    private final Integer _bucketId;
-    private final Collection<Collection> resultColl;
-
-    public QueryTask(DefaultQuery query, Object[] parameters, PartitionedRegionDataStore prDS,
-        Integer bucketId, final Collection<Collection> rColl) {
-      this.query = query;
-      this._prDs = prDS;
-      this._bucketId = bucketId;
-      this.resultColl = rColl;
-      this.parameters = parameters;
+  private class BucketScan {
+    private final Collection<Collection> resultCollector;
+    private final int limit;
+    private final AtomicInteger nextBucket = new AtomicInteger();
+    private final AtomicInteger numResults = new AtomicInteger();
+    private volatile boolean stopped = false;
+    private Exception exception = null;
+
+    BucketScan(Collection<Collection> resultCollector, int limit) {
+      this.resultCollector = resultCollector;
+      this.limit = limit;
     }
 
-    @Override
-    public Object call() throws Exception {
-      BucketQueryResult bukResult = new BucketQueryResult(this._bucketId);
+    void run() {
+      boolean completed = false;
       try {
-        List<Integer> bucketList = Collections.singletonList(this._bucketId);
-        ExecutionContext context =
-            new QueryExecutionContext(this.parameters, pr.getCache(), this.query);
-        context.setBucketList(bucketList);
-        executeQueryOnBuckets(this.resultColl, context);
-      } catch (ForceReattemptException | QueryException | CacheRuntimeException fre) {
-        bukResult.setException(fre);
+        while (!this.stopped) {
+          int index = this.nextBucket.getAndIncrement();
+          if (index >= _bucketsToQuery.size()) {
+            break;
+          }
+          ExecutionContext context =
+              new QueryExecutionContext(parameters, pr.getCache(), query);
+          Collection results =
+              executeQueryOnBucket(this.resultCollector, context, _bucketsToQuery.get(index));
+          if (this.limit >= 0 && this.numResults.addAndGet(results.size()) >= this.limit) {
+            this.stopped = true;
+          }
+        }
+        completed = true;
+      } catch (ForceReattemptException | QueryException | CacheRuntimeException e) {
+        synchronized (this) {
+          if (this.exception == null) {
+            this.exception = e;
+          }
+        }
+        completed = true;
+      } finally {
+        if (!completed || this.exception != null) {
+          this.stopped = true;
+        }
       }
-      // Exception
-      return bukResult;
     }
 
     /**
-     * Encapsulates the result for the query on the bucket.
-     *
+     * Throws the first exception any of the threads got.
      */
-    private class BucketQueryResult {
-
-      private int _buk;
-      private Exception _ex = null;
-      public boolean retry = false;
-
-      public BucketQueryResult(int bukId) {
-        this._buk = bukId;
-      }
-
-      public Exception getException() {
-        return _ex;
-      }
-
-      public boolean exceptionOccurred() {
-        return _ex != null;
-      }
-
-      public void setException(Exception e) {
-        this._ex = e;
-      }
-
-      public Integer getBucketId() {
-        return valueOf(this._buk);
-      }
-
-      public boolean isReattemptNeeded() {
-        return this._ex instanceof ForceReattemptException;
-      }
-
-      public void handleAndThrowException() throws QueryException {
-        if (_ex != null) {
-          if (_ex instanceof QueryException) {
-            throw (QueryException) _ex;
-          } else if (_ex instanceof CacheRuntimeException) {
-            throw (CacheRuntimeException) _ex;
-          }
-        }
+    synchronized void throwException() throws QueryException, ForceReattemptException {
+      if (this.exception instanceof ForceReattemptException) {
+        throw (ForceReattemptException) this.exception;
+      } else if (this.exception instanceof QueryException) {
+        throw (QueryException) this.exception;
+      } else if (this.exception instanceof CacheRuntimeException) {
+        throw (CacheRuntimeException) this.exception;
       }
     }
   }
@@ -472,8 +472,8 @@ public class PersistentOplogSet implements OplogSet {
       }
       long endOpLogRecovery = System.currentTimeMillis();
       long elapsed = endOpLogRecovery - startOpLogRecovery;
-      logger
-          .info("recovery oplog load took {} ms", elapsed);
+      logger.info("recovery oplog load of disk store {} took {} ms reading {} bytes",
+          parent.getName(), elapsed, byteCount);
     }
     if (!parent.isOfflineCompacting()) {
       long startRegionInit = System.currentTimeMillis();
@@ -1036,10 +1036,16 @@ public class PersistentOplogSet implements OplogSet {
   }
 
   /**
-   * Add compactable oplogs to the list, up to the maximum size.
+   * Add compactable oplogs to the list, up to the maximum size. A throttled compactor only gets
+   * through a few oplogs per run so it is given the ones with the best
+   * {@link Oplog#getCompactionScore(long) score} first.
    */
   public void getCompactableOplogs(List<CompactableOplog> l, int max) {
     synchronized (this.oplogIdToOplog) {
+      if (DiskStoreImpl.COMPACTION_BYTES_PER_SECOND > 0) {
+        getCompactableOplogsByScore(l, max);
+        return;
+      }
       // Sort this list so we compact the oldest first instead of the one
       // that was
       // compactable first.
@@ -1059,6 +1065,27 @@ public class PersistentOplogSet implements OplogSet {
     }
   }
 
+  private void getCompactableOplogsByScore(List<CompactableOplog> l, int max) {
+    List<Oplog> candidates = new ArrayList<>();
+    long newestOplogId = 0;
+    for (Oplog oplog : this.oplogIdToOplog.values()) {
+      newestOplogId = Math.max(newestOplogId, oplog.getOplogId());
+      if (oplog.needsCompaction()) {
+        candidates.add(oplog);
+      }
+    }
+    Oplog child = getChild();
+    if (child != null) {
+      newestOplogId = Math.max(newestOplogId, child.getOplogId());
+    }
+    final long currentOplogId = newestOplogId;
+    candidates.sort(Comparator.comparingDouble(
+        (Oplog oplog) -> oplog.getCompactionScore(currentOplogId)).reversed());
+    for (int i = 0; i < candidates.size() && l.size() < max; i++) {
+      l.add(candidates.get(i));
+    }
+  }
+
   public void scheduleForRecovery(DiskRecoveryStore drs) {
     DiskRegionView dr = drs.getDiskRegionView();
     if (dr.isRecreated() && (dr.getMyPersistentID() != null || dr.getMyInitializingID() != null)) {
@@ -22,6 +22,10 @@ public class EvictionListBuilder {
 
   private final boolean evictionScanAsync;
 
+  private final boolean evictionStripedBuffers;
+
+  private final boolean evictionTinyLFU;
+
   private final EvictionController controller;
 
   public EvictionListBuilder(EvictionController evictionController) {
@@ -29,13 +33,23 @@ public class EvictionListBuilder {
     Optional<Boolean> asyncScan =
         SystemPropertyHelper.getProductBooleanProperty(SystemPropertyHelper.EVICTION_SCAN_ASYNC);
     evictionScanAsync = asyncScan.orElse(true);
+    Optional<Boolean> stripedBuffers = SystemPropertyHelper
+        .getProductBooleanProperty(SystemPropertyHelper.EVICTION_STRIPED_BUFFERS);
+    evictionStripedBuffers = stripedBuffers.orElse(false);
+    Optional<Boolean> tinyLFU =
+        SystemPropertyHelper.getProductBooleanProperty(SystemPropertyHelper.EVICTION_TINY_LFU);
+    evictionTinyLFU = tinyLFU.orElse(false);
   }
 
   public EvictionList create() {
     if (this.controller.getEvictionAlgorithm().isLIFO()) {
       return new LIFOList(this.controller);
     } else {
-      if (evictionScanAsync) {
+      if (evictionTinyLFU) {
+        return new WindowTinyLFUList(this.controller);
+      } else if (evictionStripedBuffers) {
+        return new LRUListWithStripedBuffers(this.controller);
+      } else if (evictionScanAsync) {
         return new LRUListWithAsyncSorting(this.controller);
       } else {
         return new LRUListWithSyncSorting(this.controller);
@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+/**
+ * A probabilistic count of how often each entry was used, kept in a count-min sketch as in TinyLFU.
+ * The hash of an entry selects four 4-bit counters in a table of longs and the frequency of the
+ * entry is the smallest of them, so collisions can only overestimate it. Once the number of
+ * increments reaches ten times the table size all counters are halved, so that the frequencies
+ * reflect recent use. This class is not thread safe.
+ */
+class FrequencySketch {
+  private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+      0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+  private static final long RESET_MASK = 0x7777777777777777L;
+
+  private static final long ONE_MASK = 0x1111111111111111L;
+
+  static final int MAX_FREQUENCY = 15;
+
+  private static final int MIN_CAPACITY = 16;
+
+  private static final int MAX_CAPACITY = 1 << 26;
+
+  private long[] table;
+
+  private int sampleSize;
+
+  private int size;
+
+  FrequencySketch() {
+    ensureCapacity(MIN_CAPACITY);
+  }
+
+  /**
+   * Grows the table so that it can count about maximumSize entries. Growing the table forgets all
+   * counts.
+   */
+  void ensureCapacity(long maximumSize) {
+    int maximum = (int) Math.min(Math.max(maximumSize, MIN_CAPACITY), MAX_CAPACITY);
+    if (this.table != null && this.table.length >= maximum) {
+      return;
+    }
+    this.table = new long[Integer.highestOneBit(maximum - 1) << 1];
+    this.sampleSize = 10 * this.table.length;
+    this.size = 0;
+  }
+
+  int frequency(int hashCode) {
+    int hash = spread(hashCode);
+    int start = (hash & 3) << 2;
+    int frequency = MAX_FREQUENCY;
+    for (int i = 0; i < 4; i++) {
+      int offset = (start + i) << 2;
+      int count = (int) ((this.table[indexOf(hash, i)] >>> offset) & 0xfL);
+      frequency = Math.min(frequency, count);
+    }
+    return frequency;
+  }
+
+  void increment(int hashCode) {
+    int hash = spread(hashCode);
+    int start = (hash & 3) << 2;
+    boolean added = false;
+    for (int i = 0; i < 4; i++) {
+      added |= incrementAt(indexOf(hash, i), start + i);
+    }
+    if (added && ++this.size == this.sampleSize) {
+      reset();
+    }
+  }
+
+  private boolean incrementAt(int index, int counter) {
+    int offset = counter << 2;
+    long mask = 0xfL << offset;
+    if ((this.table[index] & mask) != mask) {
+      this.table[index] += 1L << offset;
+      return true;
+    }
+    return false;
+  }
+
+  /**
+   * Halves every counter.
+   */
+  void reset() {
+    int odd = 0;
+    for (int i = 0; i < this.table.length; i++) {
+      odd += Long.bitCount(this.table[i] & ONE_MASK);
+      this.table[i] = (this.table[i] >>> 1) & RESET_MASK;
+    }
+    this.size = (this.size >>> 1) - (odd >>> 2);
+  }
+
+  private int indexOf(int hash, int depth) {
+    long index = (hash + SEEDS[depth]) * SEEDS[depth];
+    index += index >>> 32;
+    return ((int) index) & (this.table.length - 1);
+  }
+
+  private static int spread(int x) {
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    return (x >>> 16) ^ x;
+  }
+}
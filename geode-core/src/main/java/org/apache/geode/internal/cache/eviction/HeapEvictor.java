@@ -16,6 +16,8 @@ package org.apache.geode.internal.cache.eviction;
 
 import static org.apache.geode.distributed.internal.DistributionConfig.GEMFIRE_PREFIX;
 
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryUsage;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashSet;
@@ -39,6 +41,8 @@ import org.apache.geode.internal.cache.control.HeapMemoryMonitor;
 import org.apache.geode.internal.cache.control.InternalResourceManager;
 import org.apache.geode.internal.cache.control.InternalResourceManager.ResourceType;
 import org.apache.geode.internal.cache.control.MemoryEvent;
+import org.apache.geode.internal.cache.control.MemoryMonitor;
+import org.apache.geode.internal.cache.control.MemoryThresholds;
 import org.apache.geode.internal.cache.control.ResourceListener;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.logging.LoggingExecutors;
@@ -71,6 +75,14 @@ public class HeapEvictor implements ResourceListener<MemoryEvent> {
   private static final boolean DISABLE_HEAP_EVICTOR_THREAD_POOL = Boolean
       .getBoolean(GEMFIRE_PREFIX + "HeapLRUCapacityController.DISABLE_HEAP_EVICTOR_THREAD_POOL");
 
+  /**
+   * When true eviction tasks run on a work-stealing pool with one thread per processor, and the
+   * rate of eviction follows the memory usage reported by the memory monitor after each garbage
+   * collection.
+   */
+  static final boolean PARALLEL_EVICTION = Boolean
+      .getBoolean(GEMFIRE_PREFIX + "HeapLRUCapacityController.parallelEviction");
+
   private static final long TOTAL_BYTES_TO_EVICT_FROM_HEAP = setTotalBytesToEvictFromHeap();
 
   private static final String EVICTOR_THREAD_NAME = "EvictorThread";
@@ -102,6 +114,12 @@ public class HeapEvictor implements ResourceListener<MemoryEvent> {
   private volatile int numEvictionLoopsCompleted = 0;
   private volatile int numFastLoops;
 
+  /**
+   * The memory usage after a collection last read while evicting, used to notice when another
+   * collection has run. Guarded by evictionLock.
+   */
+  private long lastBytesUsedAfterCollection = -1;
+
   public HeapEvictor(final InternalCache cache) {
     this(cache, EVICTOR_THREAD_NAME);
   }
@@ -110,9 +128,15 @@ public class HeapEvictor implements ResourceListener<MemoryEvent> {
     this.cache = cache;
 
     if (!DISABLE_HEAP_EVICTOR_THREAD_POOL) {
-      QueueStatHelper poolStats = this.cache.getCachePerfStats().getEvictionQueueStatHelper();
-      this.evictorThreadPool = LoggingExecutors.newFixedThreadPoolWithTimeout(threadName,
-          MAX_EVICTOR_THREADS, 15, poolStats);
+      if (PARALLEL_EVICTION) {
+        // Add 1 for the management task that waits between eviction passes
+        this.evictorThreadPool = LoggingExecutors.newWorkStealingPool(threadName,
+            Runtime.getRuntime().availableProcessors() + 1);
+      } else {
+        QueueStatHelper poolStats = this.cache.getCachePerfStats().getEvictionQueueStatHelper();
+        this.evictorThreadPool = LoggingExecutors.newFixedThreadPoolWithTimeout(threadName,
+            MAX_EVICTOR_THREADS, 15, poolStats);
+      }
     } else {
       // disabled
       this.evictorThreadPool = null;
@@ -321,9 +345,7 @@ public class HeapEvictor implements ResourceListener<MemoryEvent> {
           // to update the number of fast loops to perform.
           synchronized (evictionLock) {
             numEvictionLoopsCompleted = 0;
-            numFastLoops = (int) ((event.getBytesUsed()
-                - event.getThresholds().getEvictionThresholdClearBytes() + getTotalBytesToEvict())
-                / getTotalBytesToEvict());
+            numFastLoops = calculateFastLoops(event.getBytesUsed(), event.getThresholds());
             evictionLock.notifyAll();
           }
 
@@ -337,10 +359,10 @@ public class HeapEvictor implements ResourceListener<MemoryEvent> {
           return;
         }
 
-        numEvictionLoopsCompleted = 0;
-        numFastLoops =
-            (int) ((event.getBytesUsed() - event.getThresholds().getEvictionThresholdClearBytes()
-                + getTotalBytesToEvict()) / getTotalBytesToEvict());
+        synchronized (evictionLock) {
+          numEvictionLoopsCompleted = 0;
+          numFastLoops = calculateFastLoops(event.getBytesUsed(), event.getThresholds());
+        }
         if (logger.isDebugEnabled()) {
           logger.debug("Starting eviction in response to memory event: {}", event);
         }
@@ -364,6 +386,9 @@ public class HeapEvictor implements ResourceListener<MemoryEvent> {
                 // Make sure that another thread isn't processing a new eviction event
                 // and changing the number of fast loops to perform.
                 synchronized (evictionLock) {
+                  if (PARALLEL_EVICTION) {
+                    updateFastLoopsFromMemoryMonitor();
+                  }
                   int delayTime = getEvictionLoopDelayTime();
                   if (logger.isDebugEnabled()) {
                     logger.debug(
@@ -408,6 +433,49 @@ public class HeapEvictor implements ResourceListener<MemoryEvent> {
     }
   }
 
+  private int calculateFastLoops(long bytesUsed, MemoryThresholds thresholds) {
+    return (int) ((bytesUsed - thresholds.getEvictionThresholdClearBytes() + getTotalBytesToEvict())
+        / getTotalBytesToEvict());
+  }
+
+  /**
+   * Recalculates the number of fast loops still needed once a garbage collection has run since the
+   * memory usage after a collection was last read. This keeps evicting at the fast rate while a
+   * collection shows that memory usage is still above the eviction threshold, instead of slowing
+   * down once the estimate made from the eviction event has run out.
+   */
+  void updateFastLoopsFromMemoryMonitor() {
+    InternalResourceManager resourceManager = (InternalResourceManager) cache.getResourceManager();
+    MemoryMonitor monitor =
+        resourceManager.getMemoryMonitor(getResourceType() == ResourceType.OFFHEAP_MEMORY);
+    if (monitor == null) {
+      return;
+    }
+    long bytesUsed = getBytesUsedAfterCollection(monitor);
+    if (bytesUsed < 0 || bytesUsed == lastBytesUsedAfterCollection) {
+      return;
+    }
+    lastBytesUsedAfterCollection = bytesUsed;
+    int remainingFastLoops = calculateFastLoops(bytesUsed, monitor.getThresholds());
+    if (remainingFastLoops > 0) {
+      numFastLoops = Math.max(numFastLoops, numEvictionLoopsCompleted + remainingFastLoops);
+    }
+  }
+
+  /**
+   * Returns the tenured memory left in use by the last garbage collection, or -1 if it is not
+   * known. Unlike the current usage, which grows with every promotion, it only changes when a
+   * collection of the tenured pool completes.
+   */
+  long getBytesUsedAfterCollection(MemoryMonitor monitor) {
+    MemoryPoolMXBean tenuredPool = HeapMemoryMonitor.getTenuredMemoryPoolMXBean();
+    if (tenuredPool == null) {
+      return -1;
+    }
+    MemoryUsage usage = tenuredPool.getCollectionUsage();
+    return usage == null ? -1 : usage.getUsed();
+  }
+
   protected int getEvictionLoopDelayTime() {
     int delayTime = 850; // The waiting period when running fast loops
     if (numEvictionLoopsCompleted - numFastLoops > 2) {
@@ -0,0 +1,258 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.internal.cache.BucketRegion;
+import org.apache.geode.internal.cache.versions.RegionVersionVector;
+import org.apache.geode.internal.lang.SystemPropertyHelper;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.log4j.LogMarker;
+
+/**
+ * LRUListWithStripedBuffers evicts entries like {@link LRUListWithSyncSorting}, but most appends
+ * do not synchronize on the list. A thread that appends a node records it in one of several
+ * buffers, picked by thread id, and the buffered nodes are linked in bulk by the thread that finds
+ * its buffer full. Using an entry only sets its recently used bit, so with the buffers most entry
+ * operations never wait for the list monitor.
+ * <p>
+ * All buffers are drained before an entry is destroyed or evicted. That way a node appended before
+ * it was destroyed can not be linked afterwards, and every buffered node is considered for
+ * eviction. Nodes still in a buffer are not counted by {@link #size()}.
+ */
+public class LRUListWithStripedBuffers extends AbstractEvictionList {
+
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * Number of nodes a buffer can hold before the appending thread has to drain the buffers.
+   */
+  static final int BUFFER_SIZE = 64;
+
+  private static final int MAX_STRIPES = 64;
+
+  private final Buffer[] buffers;
+
+  private final int maxEntries;
+
+  public LRUListWithStripedBuffers(EvictionController controller) {
+    this(controller, Runtime.getRuntime().availableProcessors() * 2);
+  }
+
+  LRUListWithStripedBuffers(EvictionController controller, int stripes) {
+    super(controller);
+    int count = Integer.highestOneBit(Math.max(1, Math.min(stripes, MAX_STRIPES)));
+    this.buffers = new Buffer[count];
+    for (int i = 0; i < count; i++) {
+      this.buffers[i] = new Buffer();
+    }
+    this.maxEntries = readMaxEntriesProperty();
+  }
+
+  private int readMaxEntriesProperty() {
+    Optional<Integer> optionalMaxEntries = SystemPropertyHelper
+        .getProductIntegerProperty(SystemPropertyHelper.EVICTION_SEARCH_MAX_ENTRIES);
+    return optionalMaxEntries.orElse(-1);
+  }
+
+  @Override
+  public void appendEntry(EvictionNode evictionNode) {
+    // Reading the link without synchronization can only miss a concurrent unlink of this node,
+    // which is the same as this append happening before that unlink.
+    if (evictionNode.next() != null) {
+      return;
+    }
+    Buffer buffer = getBuffer(Thread.currentThread());
+    while (!buffer.offer(evictionNode)) {
+      drainBuffers();
+    }
+  }
+
+  Buffer getBuffer(Thread thread) {
+    return this.buffers[(int) thread.getId() & (this.buffers.length - 1)];
+  }
+
+  /**
+   * Links all the nodes buffered by {@link #appendEntry(EvictionNode)} to the tail of the list.
+   */
+  synchronized void drainBuffers() {
+    for (Buffer buffer : this.buffers) {
+      EvictionNode evictionNode = buffer.poll();
+      while (evictionNode != null) {
+        super.appendEntry(evictionNode);
+        evictionNode = buffer.poll();
+      }
+    }
+  }
+
+  @Override
+  public synchronized void destroyEntry(EvictionNode evictionNode) {
+    drainBuffers();
+    super.destroyEntry(evictionNode);
+  }
+
+  @Override
+  public void clear(RegionVersionVector regionVersionVector, BucketRegion bucketRegion) {
+    synchronized (this) {
+      if (regionVersionVector == null) {
+        for (Buffer buffer : this.buffers) {
+          buffer.clear();
+        }
+      }
+      super.clear(regionVersionVector, bucketRegion);
+    }
+  }
+
+  /**
+   * Remove and return the Entry that is considered least recently used.
+   */
+  @Override
+  public EvictableEntry getEvictableEntry() {
+    drainBuffers();
+    long numEvals = 0;
+    for (;;) {
+      EvictionNode evictionNode = unlinkHeadEntry();
+
+      if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
+        logger.trace(LogMarker.LRU_CLOCK_VERBOSE, "lru considering {}", evictionNode);
+      }
+
+      if (evictionNode == null) { // hit the end of the list
+        getStatistics().incEvaluations(numEvals);
+        return null;
+      }
+
+      numEvals++;
+
+      if (!isEvictable(evictionNode)) {
+        continue;
+      }
+
+      if (maxEntries > 0 && numEvals > maxEntries) {
+        if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
+          logger.trace(LogMarker.LRU_CLOCK_VERBOSE, "greedily picking an available entry");
+        }
+        getStatistics().incGreedyReturns(1);
+      } else if (evictionNode.isRecentlyUsed()) {
+        if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
+          logger.trace(LogMarker.LRU_CLOCK_VERBOSE, "skipping recently used entry {}",
+              evictionNode);
+        }
+        evictionNode.unsetRecentlyUsed();
+        super.appendEntry(evictionNode);
+        continue;
+      }
+
+      if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
+        logger.trace(LogMarker.LRU_CLOCK_VERBOSE, "returning unused entry: {}", evictionNode);
+      }
+      getStatistics().incEvaluations(numEvals);
+      return (EvictableEntry) evictionNode;
+    }
+  }
+
+  @Override
+  public void incrementRecentlyUsed() {
+    // nothing needed
+  }
+
+  /**
+   * A bounded buffer of nodes that many threads can offer to and one thread at a time, holding the
+   * list monitor, polls from.
+   */
+  static class Buffer {
+    /**
+     * Spins between yields while waiting for an offering thread to store its node
+     */
+    private static final int SPINS_BEFORE_YIELD = 64;
+
+    private final AtomicReferenceArray<EvictionNode> nodes =
+        new AtomicReferenceArray<>(BUFFER_SIZE);
+
+    private final AtomicLong writeCount = new AtomicLong();
+
+    private volatile long readCount;
+
+    boolean offer(EvictionNode evictionNode) {
+      long write = claim();
+      if (write < 0) {
+        return false;
+      }
+      publish(write, evictionNode);
+      return true;
+    }
+
+    /**
+     * Reserves the next slot of this buffer, which has to be {@link #publish published}.
+     *
+     * @return the write count of the reserved slot, or -1 if this buffer is full
+     */
+    long claim() {
+      for (;;) {
+        long write = this.writeCount.get();
+        if (write - this.readCount >= BUFFER_SIZE) {
+          return -1;
+        }
+        if (this.writeCount.compareAndSet(write, write + 1)) {
+          return write;
+        }
+      }
+    }
+
+    void publish(long write, EvictionNode evictionNode) {
+      this.nodes.lazySet(index(write), evictionNode);
+    }
+
+    /**
+     * Returns the oldest node in this buffer, or null if it is empty. If the thread that claimed
+     * the oldest slot has not stored its node yet this waits for it, which is short since that
+     * thread is between its claim and its publish. Returning early instead would leave the nodes
+     * offered after it in the buffer, where a destroy could miss them.
+     */
+    EvictionNode poll() {
+      long read = this.readCount;
+      if (read == this.writeCount.get()) {
+        return null;
+      }
+      int index = index(read);
+      EvictionNode evictionNode;
+      int spins = 0;
+      while ((evictionNode = this.nodes.get(index)) == null) {
+        if (++spins % SPINS_BEFORE_YIELD == 0) {
+          Thread.yield();
+        }
+      }
+      this.nodes.lazySet(index, null);
+      this.readCount = read + 1;
+      return evictionNode;
+    }
+
+    void clear() {
+      EvictionNode evictionNode = poll();
+      while (evictionNode != null) {
+        evictionNode = poll();
+      }
+    }
+
+    private static int index(long count) {
+      return (int) (count & (BUFFER_SIZE - 1));
+    }
+  }
+}
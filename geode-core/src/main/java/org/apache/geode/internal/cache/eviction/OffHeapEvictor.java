@@ -19,6 +19,7 @@ import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.internal.cache.LocalRegion;
 import org.apache.geode.internal.cache.PartitionedRegion;
 import org.apache.geode.internal.cache.control.InternalResourceManager.ResourceType;
+import org.apache.geode.internal.cache.control.MemoryMonitor;
 import org.apache.geode.internal.offheap.MemoryAllocator;
 
 /**
@@ -82,6 +83,15 @@ public class OffHeapEvictor extends HeapEvictor {
     return bytesToEvictWithEachBurst;
   }
 
+  /**
+   * Off-heap memory is freed explicitly rather than by a collection, so its current usage is
+   * already what is left in use.
+   */
+  @Override
+  long getBytesUsedAfterCollection(MemoryMonitor monitor) {
+    return monitor.getBytesUsed();
+  }
+
   @Override
   protected ResourceType getResourceType() {
     return ResourceType.OFFHEAP_MEMORY;
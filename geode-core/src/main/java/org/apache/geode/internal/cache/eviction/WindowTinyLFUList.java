@@ -0,0 +1,270 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import java.util.Optional;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.internal.cache.BucketRegion;
+import org.apache.geode.internal.cache.versions.RegionVersionVector;
+import org.apache.geode.internal.lang.SystemPropertyHelper;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.log4j.LogMarker;
+
+/**
+ * WindowTinyLFUList evicts entries using the W-TinyLFU policy, so that entries used only once do
+ * not displace entries that are used often. The list is split in two by a guard node: new entries
+ * are appended to a small admission window at the tail, and entries that leave the window move to
+ * the main segment in front of it. When an entry has to be evicted, the oldest entry that left the
+ * window competes with the head of the main segment and the one used less often, according to a
+ * {@link FrequencySketch}, is evicted. Entries of the main segment that were recently used get a
+ * second chance as in {@link LRUListWithSyncSorting}.
+ * <p>
+ * Reading an entry only sets its recently used bit, so the frequency of an entry counts the times
+ * it was appended (created or updated) and the times it was found recently used while searching
+ * for an entry to evict.
+ */
+public class WindowTinyLFUList extends AbstractEvictionList {
+
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * Percentage of the entries that are kept in the admission window.
+   */
+  static final int WINDOW_PERCENT = 1;
+
+  /** Separates the main segment (before it) from the admission window (after it) */
+  private final EvictionNode windowBoundary = new GuardNode();
+
+  private final FrequencySketch sketch = new FrequencySketch();
+
+  private final int maxEntries;
+
+  /**
+   * Approximate number of entries in the admission window. Entries destroyed from the window are
+   * not subtracted until the window is found empty. Guarded by this.
+   */
+  private int windowSize;
+
+  /**
+   * The oldest entry that moved from the window to the main segment and has not been compared to
+   * the head of the main segment yet, or null if there is none. Guarded by this.
+   */
+  private EvictionNode candidate;
+
+  public WindowTinyLFUList(EvictionController controller) {
+    super(controller);
+    this.maxEntries = readMaxEntriesProperty();
+    linkWindowBoundary();
+  }
+
+  private int readMaxEntriesProperty() {
+    int result = -1;
+    Optional<Integer> optionalMaxEntries = SystemPropertyHelper
+        .getProductIntegerProperty(SystemPropertyHelper.EVICTION_SEARCH_MAX_ENTRIES);
+    if (optionalMaxEntries.isPresent()) {
+      result = optionalMaxEntries.get();
+    }
+    return result;
+  }
+
+  private synchronized void linkWindowBoundary() {
+    EvictionNode last = tail.previous();
+    windowBoundary.setNext(tail);
+    windowBoundary.setPrevious(last);
+    last.setNext(windowBoundary);
+    tail.setPrevious(windowBoundary);
+    windowSize = 0;
+    candidate = null;
+  }
+
+  /**
+   * Empties the list and relinks the window boundary in one step, so that no entry is appended
+   * between them.
+   */
+  @Override
+  public void clear(RegionVersionVector regionVersionVector, BucketRegion bucketRegion) {
+    synchronized (this) {
+      super.clear(regionVersionVector, bucketRegion);
+      if (regionVersionVector == null) {
+        // the list was emptied, the boundary included
+        linkWindowBoundary();
+      }
+    }
+  }
+
+  /**
+   * Adds an lru node to the tail of the admission window and counts its use.
+   */
+  @Override
+  public synchronized void appendEntry(final EvictionNode evictionNode) {
+    sketch.increment(hash(evictionNode));
+    if (evictionNode.next() != null) {
+      // already in the list
+      return;
+    }
+    super.appendEntry(evictionNode);
+    windowSize++;
+    sketch.ensureCapacity(size());
+  }
+
+  @Override
+  protected synchronized boolean removeEntry(EvictionNode evictionNode) {
+    if (evictionNode == candidate) {
+      advanceCandidate();
+    }
+    return super.removeEntry(evictionNode);
+  }
+
+  /**
+   * return the Entry that is considered least frequently used. The entry will no longer be in the
+   * list.
+   */
+  @Override
+  public EvictableEntry getEvictableEntry() {
+    long numEvals = 0;
+
+    for (;;) {
+      EvictionNode aNode = selectVictim();
+
+      if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
+        logger.trace(LogMarker.LRU_CLOCK_VERBOSE, "tiny lfu considering {}", aNode);
+      }
+
+      if (aNode == null) { // hit the end of the list
+        getStatistics().incEvaluations(numEvals);
+        return null;
+      }
+
+      numEvals++;
+
+      // isEvictable locks the node, so it must not be called while holding the list monitor
+      if (!isEvictable(aNode)) {
+        continue;
+      }
+
+      if (maxEntries > 0 && numEvals > maxEntries) {
+        if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
+          logger.trace(LogMarker.LRU_CLOCK_VERBOSE, "greedily picking an available entry");
+        }
+        getStatistics().incGreedyReturns(1);
+        // fall through, return this node
+      } else if (aNode.isRecentlyUsed()) {
+        if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
+          logger.trace(LogMarker.LRU_CLOCK_VERBOSE, "skipping recently used entry {}", aNode);
+        }
+        relinkRecentlyUsed(aNode);
+        continue; // keep looking
+      } else {
+        if (logger.isTraceEnabled(LogMarker.LRU_CLOCK_VERBOSE)) {
+          logger.trace(LogMarker.LRU_CLOCK_VERBOSE, "returning unused entry: {}", aNode);
+        }
+        // fall through, return this node
+      }
+
+      getStatistics().incEvaluations(numEvals);
+      return (EvictableEntry) aNode;
+    }
+  }
+
+  /**
+   * Moves entries that overflow the admission window to the main segment, then unlinks and
+   * returns either the oldest of them or the head of the main segment, whichever is used less
+   * often. Returns null if the list is empty.
+   */
+  private synchronized EvictionNode selectVictim() {
+    int maxWindowSize = Math.max(1, size() * WINDOW_PERCENT / 100);
+    while (windowSize > maxWindowSize) {
+      EvictionNode node = windowBoundary.next();
+      if (node == tail) {
+        windowSize = 0;
+        break;
+      }
+      // move the boundary after the node
+      EvictionNode previous = windowBoundary.previous();
+      EvictionNode next = node.next();
+      previous.setNext(node);
+      node.setPrevious(previous);
+      node.setNext(windowBoundary);
+      windowBoundary.setPrevious(node);
+      windowBoundary.setNext(next);
+      next.setPrevious(windowBoundary);
+      windowSize--;
+      if (candidate == null) {
+        candidate = node;
+      }
+    }
+
+    EvictionNode victim = head.next();
+    if (victim == windowBoundary) {
+      // the main segment is empty so evict from the window
+      victim = windowBoundary.next();
+      if (victim == tail) {
+        return null;
+      }
+      windowSize--;
+    } else if (candidate != null) {
+      if (candidate == victim) {
+        // the main segment holds nothing but candidates so the two oldest ones compete
+        advanceCandidate();
+      }
+      EvictionNode contender = candidate;
+      if (contender != null) {
+        advanceCandidate();
+        if (sketch.frequency(hash(contender)) <= sketch.frequency(hash(victim))) {
+          victim = contender;
+        }
+      }
+    }
+    unlinkEntry(victim);
+    return victim;
+  }
+
+  private void advanceCandidate() {
+    EvictionNode next = candidate.next();
+    candidate = next == windowBoundary || next == null ? null : next;
+  }
+
+  private synchronized void relinkRecentlyUsed(EvictionNode evictionNode) {
+    evictionNode.unsetRecentlyUsed();
+    sketch.increment(hash(evictionNode));
+    if (evictionNode.next() != null) {
+      // appended again by another thread
+      return;
+    }
+    EvictionNode last = windowBoundary.previous();
+    evictionNode.setNext(windowBoundary);
+    evictionNode.setPrevious(last);
+    last.setNext(evictionNode);
+    windowBoundary.setPrevious(evictionNode);
+    incrementSize();
+  }
+
+  private static int hash(EvictionNode evictionNode) {
+    if (evictionNode instanceof EvictableEntry) {
+      Object key = ((EvictableEntry) evictionNode).getKeyForSizing();
+      if (key != null) {
+        return key.hashCode();
+      }
+    }
+    return System.identityHashCode(evictionNode);
+  }
+
+  @Override
+  public void incrementRecentlyUsed() {
+    // nothing needed
+  }
+}
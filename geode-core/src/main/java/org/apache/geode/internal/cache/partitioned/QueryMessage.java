@@ -227,6 +227,7 @@ public class QueryMessage extends StreamingPartitionOperation.StreamingPartition
         traceSize -= 1;
         queryTraceInfo.setTimeInMillis((NanoTimer.getTime() - traceStartTime) / 1.0e6f);
         queryTraceInfo.setNumResults(traceSize);
+        queryTraceInfo.setBucketTimes(qp.getBucketTimes());
 
         // created the indexes used string
         if (indexObserver instanceof IndexTrackingQueryObserver) {
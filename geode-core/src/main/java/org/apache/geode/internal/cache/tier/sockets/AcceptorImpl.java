@@ -56,6 +56,8 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Supplier;
 
+import javax.net.ssl.SSLEngine;
+
 import io.micrometer.core.instrument.MeterRegistry;
 import org.apache.logging.log4j.Logger;
 
@@ -95,7 +97,10 @@ import org.apache.geode.internal.logging.LoggingExecutors;
 import org.apache.geode.internal.logging.LoggingThread;
 import org.apache.geode.internal.logging.LoggingThreadFactory.CommandWrapper;
 import org.apache.geode.internal.logging.LoggingThreadFactory.ThreadInitializer;
+import org.apache.geode.internal.logging.VirtualThreadFactory;
 import org.apache.geode.internal.monitoring.ThreadsMonitoring;
+import org.apache.geode.internal.net.BufferPool;
+import org.apache.geode.internal.net.NioSslEngine;
 import org.apache.geode.internal.net.SocketCreator;
 import org.apache.geode.internal.security.SecurityService;
 import org.apache.geode.internal.tcp.ConnectionTable;
@@ -168,6 +173,12 @@ public class AcceptorImpl implements Acceptor, Runnable {
    * Used to timeout accepted sockets that we are waiting for the handshake packet
    */
   private final SystemTimer hsTimer;
+
+  /**
+   * The pool of network buffers used by TLS connections when this acceptor is a selector. Null if
+   * this acceptor is not a selector or does not use SSL.
+   */
+  private final BufferPool sslBufferPool;
   /**
    * A queue used to feed register requests to the selector; null if no selector.
    */
@@ -504,10 +515,8 @@ public class AcceptorImpl implements Acceptor, Runnable {
       final long tilt = System.currentTimeMillis() + timeLimitMillis;
 
       if (isSelector()) {
-        if (socketCreator.useSSL()) {
-          throw new IllegalArgumentException(
-              "Selector thread pooling can not be used with client/server SSL. The selector can be disabled by setting max-threads=0.");
-        }
+        // with SSL the TLS handshake is done on each accepted channel with an SSLEngine,
+        // see handshakeSslChannel
         ServerSocketChannel channel = ServerSocketChannel.open();
         serverSock = channel.socket();
         serverSock.setReuseAddress(true);
@@ -609,6 +618,12 @@ public class AcceptorImpl implements Acceptor, Runnable {
     cache = internalCache;
     crHelper = new CachedRegionHelper(cache);
 
+    if (isSelector() && socketCreator.useSSL()) {
+      sslBufferPool = new BufferPool(internalCache.getDistributionManager().getStats());
+    } else {
+      sslBufferPool = null;
+    }
+
     clientNotifier = cacheClientNotifierProvider.get(internalCache, stats, maximumMessageCount,
         messageTimeToLive, this.connectionListener, overflowAttributes, isGatewayReceiver());
 
@@ -676,6 +691,11 @@ public class AcceptorImpl implements Acceptor, Runnable {
             commandWrapper, maxThreads,
             getStats().getCnxPoolHelper(), Integer.MAX_VALUE, getThreadMonitorObj());
       }
+      if (VirtualThreadFactory.isEnabled()) {
+        // each connection blocks a cheap virtual thread, so max-connections is the only limit
+        return LoggingExecutors.newVirtualThreadPerTaskExecutor(threadName, threadInitializer,
+            commandWrapper);
+      }
       return LoggingExecutors.newThreadPoolWithSynchronousFeed(threadName, threadInitializer,
           commandWrapper,
           MINIMUM_MAX_CONNECTIONS, maxConnections, 0L);
@@ -1337,8 +1357,12 @@ public class AcceptorImpl implements Acceptor, Runnable {
       stats.incAcceptsInProgress();
       hsPool.execute(() -> {
         boolean finished = false;
+        Socket clientSocket = socket;
         try {
-          handleNewClientConnection(socket, serverConnectionFactory);
+          if (sslBufferPool != null) {
+            clientSocket = handshakeSslChannel(socket);
+          }
+          handleNewClientConnection(clientSocket, serverConnectionFactory);
           finished = true;
         } catch (RegionDestroyedException rde) {
           // aborted due to disconnect - bug 42273
@@ -1365,7 +1389,7 @@ public class AcceptorImpl implements Acceptor, Runnable {
           }
         } finally {
           if (!finished) {
-            closeSocket(socket);
+            closeSocket(clientSocket);
           }
           if (isRunning()) {
             stats.decAcceptsInProgress();
@@ -1381,10 +1405,39 @@ public class AcceptorImpl implements Acceptor, Runnable {
     }
   }
 
+  /**
+   * Performs the TLS handshake on a client channel accepted by the selector and returns a socket
+   * whose streams encrypt and decrypt with the negotiated {@link SSLEngine}. The handshake fails if
+   * it does not complete within the accept timeout.
+   */
+  private Socket handshakeSslChannel(Socket socket) throws IOException {
+    SSLEngine engine = socketCreator.createServerSSLEngine(
+        socket.getInetAddress().getHostAddress(), socket.getPort());
+    ByteBuffer netBuffer =
+        sslBufferPool.acquireReceiveBuffer(engine.getSession().getPacketBufferSize());
+    boolean finished = false;
+    try {
+      NioSslEngine filter = socketCreator.handshakeSSLSocketChannel(socket.getChannel(), engine,
+          acceptTimeout, false, netBuffer, sslBufferPool);
+      Socket sslSocket = new SslChannelSocket(socket, filter, netBuffer, sslBufferPool);
+      finished = true;
+      return sslSocket;
+    } finally {
+      if (!finished) {
+        sslBufferPool.releaseReceiveBuffer(netBuffer);
+      }
+    }
+  }
+
   private ByteBuffer takeCommBuffer() {
     ByteBuffer result = commBufferQueue.poll();
     if (result == null) {
-      result = ByteBuffer.allocateDirect(socketBufferSize);
+      if (sslBufferPool != null) {
+        // TLS connections are read and written through streams, which need a heap buffer
+        result = ByteBuffer.allocate(socketBufferSize);
+      } else {
+        result = ByteBuffer.allocateDirect(socketBufferSize);
+      }
     }
     return result;
   }
@@ -1424,7 +1477,9 @@ public class AcceptorImpl implements Acceptor, Runnable {
     // for processing.
     final CommunicationMode communicationMode;
     try {
-      if (isSelector()) {
+      if (socket instanceof SslChannelSocket) {
+        communicationMode = getCommunicationModeForSslSelector(socket);
+      } else if (isSelector()) {
         communicationMode = getCommunicationModeForSelector(socket);
       } else {
         communicationMode = getCommunicationModeForNonSelector(socket);
@@ -1576,15 +1631,7 @@ public class AcceptorImpl implements Acceptor, Runnable {
     if (res == 0) {
       // now do a blocking read so setup a timer to close the socket if the
       // the read takes too long
-      SystemTimer.SystemTimerTask timerTask = new SystemTimer.SystemTimerTask() {
-        @Override
-        public void run2() {
-          logger.warn("Cache server: timed out waiting for handshake from {}",
-              socket.getRemoteSocketAddress());
-          closeSocket(socket);
-        }
-      };
-      hsTimer.schedule(timerTask, acceptTimeout);
+      SystemTimer.SystemTimerTask timerTask = scheduleHandshakeTimeout(socket);
       res = socketChannel.read(byteBuffer);
       if (!timerTask.cancel() || res <= 0) {
         throw new EOFException();
@@ -1593,6 +1640,34 @@ public class AcceptorImpl implements Acceptor, Runnable {
     return CommunicationMode.fromModeNumber(byteBuffer.get(0));
   }
 
+  private CommunicationMode getCommunicationModeForSslSelector(Socket socket)
+      throws IOException {
+    // the channel ignores the socket timeout so use a timer to bound the blocking read
+    SystemTimer.SystemTimerTask timerTask = scheduleHandshakeTimeout(socket);
+    int res = socket.getInputStream().read();
+    if (!timerTask.cancel() || res < 0) {
+      throw new EOFException();
+    }
+    return CommunicationMode.fromModeNumber((byte) res);
+  }
+
+  /**
+   * Schedules a task that closes the given socket if the client has not sent its communication
+   * mode within the accept timeout. The caller must cancel the returned task.
+   */
+  private SystemTimer.SystemTimerTask scheduleHandshakeTimeout(Socket socket) {
+    SystemTimer.SystemTimerTask timerTask = new SystemTimer.SystemTimerTask() {
+      @Override
+      public void run2() {
+        logger.warn("Cache server: timed out waiting for handshake from {}",
+            socket.getRemoteSocketAddress());
+        closeSocket(socket);
+      }
+    };
+    hsTimer.schedule(timerTask, acceptTimeout);
+    return timerTask;
+  }
+
   @Override
   public boolean isRunning() {
     return !shutdownStarted;
@@ -193,7 +193,7 @@ public class ChunkedMessage extends Message {
   public void readHeader() throws IOException {
     if (this.socket != null) {
       final ByteBuffer cb = getCommBuffer();
-      synchronized (cb) {
+      withCommBufferLock(() -> {
         fetchHeader();
         final int type = cb.getInt();
         final int numParts = cb.getInt();
@@ -211,7 +211,7 @@ public class ChunkedMessage extends Message {
         this.messageType = type;
         this.numberOfParts = numParts; // Already set in setPayloadFields via setNumberOfParts
         this.transactionId = txid;
-      }
+      });
     } else {
       throw new IOException("Dead Connection");
     }
@@ -222,9 +222,7 @@ public class ChunkedMessage extends Message {
    */
   public void receiveChunk() throws IOException {
     if (this.socket != null) {
-      synchronized (getCommBuffer()) {
-        readChunk();
-      }
+      withCommBufferLock(this::readChunk);
     } else {
       throw new IOException("Dead Connection");
     }
@@ -280,13 +278,13 @@ public class ChunkedMessage extends Message {
    */
   public void sendHeader() throws IOException {
     if (this.socket != null) {
-      synchronized (getCommBuffer()) {
+      withCommBufferLock(() -> {
         getDSCODEsForWrite();
         flushBuffer();
         // Darrel says: I see no need for the following os.flush() call
         // so I've deadcoded it for performance.
         // this.os.flush();
-      }
+      });
       this.currentPart = 0;
       this.headerSent = true;
     } else {
@@ -25,6 +25,7 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
 
 import org.apache.logging.log4j.Logger;
 
@@ -148,6 +149,7 @@ public class Message {
   int currentPart = 0;
   private Part[] partsList = null;
   private ByteBuffer cachedCommBuffer;
+  private Lock commBufferLock;
   protected Socket socket = null;
   private SocketChannel socketChannel = null;
   private OutputStream outputStream = null;
@@ -481,6 +483,33 @@ public class Message {
     return result;
   }
 
+  /**
+   * Runs the given action while holding the lock on this message's comm buffer, which may be
+   * shared with the other messages of the same connection. Server side messages use their
+   * connection's {@link ServerConnection#getCommBufferLock() lock} rather than the buffer's
+   * monitor so that a virtual thread blocked in socket I/O does not pin its carrier thread.
+   */
+  void withCommBufferLock(CommBufferAction action) throws IOException {
+    final Lock lock = this.commBufferLock;
+    if (lock == null) {
+      synchronized (getCommBuffer()) {
+        action.run();
+      }
+      return;
+    }
+    lock.lock();
+    try {
+      action.run();
+    } finally {
+      lock.unlock();
+    }
+  }
+
+  @FunctionalInterface
+  interface CommBufferAction {
+    void run() throws IOException;
+  }
+
   public ByteBuffer getCommBuffer() {
     if (this.cachedCommBuffer != null) {
       return this.cachedCommBuffer;
@@ -573,7 +602,7 @@ public class Message {
       if (commBuffer == null) {
         throw new IOException("No buffer");
       }
-      synchronized (commBuffer) {
+      withCommBufferLock(() -> {
         long totalPartLen = 0;
         long headerLen = 0;
         int partsToTransmit = this.numberOfParts;
@@ -639,7 +668,7 @@ public class Message {
         if (this.socketChannel == null) {
           this.outputStream.flush();
         }
-      }
+      });
     } finally {
       if (clearMessage) {
         clearParts();
@@ -1070,6 +1099,7 @@ public class Message {
       throws IOException {
     this.serverConnection = sc;
     setComms(socket, bb, msgStats);
+    this.commBufferLock = sc.getCommBufferLock();
   }
 
   // Set up a message on the client side.
@@ -1105,6 +1135,7 @@ public class Message {
     this.inputStream = null;
     this.outputStream = null;
     this.cachedCommBuffer = null;
+    this.commBufferLock = null;
     this.messageStats = null;
   }
 
@@ -1136,9 +1167,7 @@ public class Message {
    */
   public void receiveWithHeaderReadTimeout(int timeoutMillis) throws IOException {
     if (this.socket != null) {
-      synchronized (getCommBuffer()) {
-        readHeaderAndBody(true, timeoutMillis);
-      }
+      withCommBufferLock(() -> readHeaderAndBody(true, timeoutMillis));
     } else {
       throw new IOException("Dead Connection");
     }
@@ -1149,9 +1178,7 @@ public class Message {
    */
   public void receive() throws IOException {
     if (this.socket != null) {
-      synchronized (getCommBuffer()) {
-        readHeaderAndBody(false, -1);
-      }
+      withCommBufferLock(() -> readHeaderAndBody(false, -1));
     } else {
       throw new IOException("Dead Connection");
     }
@@ -37,6 +37,8 @@ import java.util.Random;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
 
 import org.apache.commons.lang3.mutable.MutableInt;
 import org.apache.logging.log4j.Logger;
@@ -165,6 +167,7 @@ public abstract class ServerConnection implements Runnable {
 
   Socket theSocket;
   private ByteBuffer commBuffer;
+  private final Lock commBufferLock = new ReentrantLock();
   protected final CachedRegionHelper crHelper;
   protected String name;
 
@@ -1178,6 +1181,10 @@ public abstract class ServerConnection implements Runnable {
         if (!isTerminated()) {
           getAcceptor().setTLCommBuffer();
           doOneMessage();
+          // the selector does not know about messages that have already been decrypted
+          while (processMessages && !crHelper.isShutdown() && hasBufferedInput()) {
+            doOneMessage();
+          }
           if (processMessages && !crHelper.isShutdown()) {
             // finished message so reregister
             registerWithSelector();
@@ -1238,9 +1245,17 @@ public abstract class ServerConnection implements Runnable {
   }
 
   SelectableChannel getSelectableChannel() {
+    if (theSocket instanceof SslChannelSocket) {
+      return ((SslChannelSocket) theSocket).getSocketChannel();
+    }
     return theSocket.getChannel();
   }
 
+  private boolean hasBufferedInput() {
+    return theSocket instanceof SslChannelSocket
+        && ((SslChannelSocket) theSocket).hasBufferedInput();
+  }
+
   void registerWithSelector2(Selector s) throws ClosedChannelException {
     getSelectableChannel().register(s, SelectionKey.OP_READ, this);
   }
@@ -1249,7 +1264,7 @@ public abstract class ServerConnection implements Runnable {
    * Switch this connection to blocking mode so we can use oldIO to read and write messages.
    */
   void makeBlocking() throws IOException {
-    SelectableChannel c = theSocket.getChannel();
+    SelectableChannel c = getSelectableChannel();
     c.configureBlocking(true);
   }
 
@@ -1389,6 +1404,13 @@ public abstract class ServerConnection implements Runnable {
     }
   }
 
+  /**
+   * Returns the lock that the messages of this connection hold while using the comm buffer
+   */
+  Lock getCommBufferLock() {
+    return commBufferLock;
+  }
+
   public boolean isOpen() {
     return !isClosed();
   }
@@ -0,0 +1,371 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.Socket;
+import java.net.SocketAddress;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.net.BufferPool;
+import org.apache.geode.internal.net.NioFilter;
+
+/**
+ * A socket for a client connection accepted by a selector based {@link AcceptorImpl} when
+ * client/server SSL is enabled. The TLS handshake has already been performed with an
+ * {@link javax.net.ssl.SSLEngine} on the accepted {@link SocketChannel}, and this socket's streams
+ * encrypt and decrypt through that engine.
+ * <p>
+ * {@link #getChannel()} returns null so that {@link Message} uses the streams rather than reading
+ * and writing the channel directly. The selector uses {@link #getSocketChannel()} instead, which
+ * it must only do when {@link #hasBufferedInput()} is false: the selector can not see bytes that
+ * have already been read from the channel and decrypted.
+ * <p>
+ * The streams require the channel to be in blocking mode.
+ */
+class SslChannelSocket extends Socket {
+  private static final Logger logger = LogService.getLogger();
+
+  private final Socket socket;
+
+  private final SocketChannel channel;
+
+  private final NioFilter filter;
+
+  private final BufferPool bufferPool;
+
+  /**
+   * encrypted bytes read from the channel that have not yet been unwrapped
+   */
+  private final ByteBuffer netBuffer;
+
+  /**
+   * decrypted bytes that have not yet been read from the input stream. This buffer is always left
+   * ready for writing, so its position is the number of bytes available.
+   */
+  private ByteBuffer appData;
+
+  private final InputStream inputStream = new SslInputStream();
+
+  private final OutputStream outputStream = new SslOutputStream();
+
+  private boolean closed;
+
+  /**
+   * @param socket the accepted socket, which must have a channel
+   * @param filter the filter returned by the TLS handshake
+   * @param netBuffer the buffer that was given to the handshake. It may already hold application
+   *        data that the client sent right after the handshake. It is released to the bufferPool
+   *        when this socket is closed.
+   */
+  SslChannelSocket(Socket socket, NioFilter filter, ByteBuffer netBuffer, BufferPool bufferPool)
+      throws IOException {
+    this.socket = socket;
+    this.channel = socket.getChannel();
+    this.filter = filter;
+    this.netBuffer = netBuffer;
+    this.bufferPool = bufferPool;
+    appData = filter.getUnwrappedBuffer(netBuffer);
+    if (netBuffer.position() > 0) {
+      netBuffer.flip();
+      appData = filter.unwrap(netBuffer);
+    }
+  }
+
+  SocketChannel getSocketChannel() {
+    return channel;
+  }
+
+  /**
+   * Returns true if data has already been decrypted and can be read without waiting on the channel.
+   */
+  boolean hasBufferedInput() {
+    synchronized (inputStream) {
+      return appData.position() > 0;
+    }
+  }
+
+  @Override
+  public SocketChannel getChannel() {
+    return null;
+  }
+
+  @Override
+  public InputStream getInputStream() throws IOException {
+    if (isClosed()) {
+      throw new SocketException("Socket is closed");
+    }
+    return inputStream;
+  }
+
+  @Override
+  public OutputStream getOutputStream() throws IOException {
+    if (isClosed()) {
+      throw new SocketException("Socket is closed");
+    }
+    return outputStream;
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (closed) {
+      return;
+    }
+    closed = true;
+    try {
+      filter.close(channel);
+    } catch (RuntimeException e) {
+      logger.debug("Exception closing the SSL session of {}", socket, e);
+    } finally {
+      bufferPool.releaseReceiveBuffer(netBuffer);
+      socket.close();
+    }
+  }
+
+  @Override
+  public boolean isClosed() {
+    return socket.isClosed();
+  }
+
+  @Override
+  public boolean isConnected() {
+    return socket.isConnected();
+  }
+
+  @Override
+  public boolean isBound() {
+    return socket.isBound();
+  }
+
+  @Override
+  public boolean isInputShutdown() {
+    return socket.isInputShutdown();
+  }
+
+  @Override
+  public boolean isOutputShutdown() {
+    return socket.isOutputShutdown();
+  }
+
+  @Override
+  public void shutdownInput() throws IOException {
+    socket.shutdownInput();
+  }
+
+  @Override
+  public void shutdownOutput() throws IOException {
+    socket.shutdownOutput();
+  }
+
+  @Override
+  public void connect(SocketAddress endpoint, int timeout) throws IOException {
+    socket.connect(endpoint, timeout);
+  }
+
+  @Override
+  public void bind(SocketAddress bindpoint) throws IOException {
+    socket.bind(bindpoint);
+  }
+
+  @Override
+  public InetAddress getInetAddress() {
+    return socket.getInetAddress();
+  }
+
+  @Override
+  public InetAddress getLocalAddress() {
+    return socket.getLocalAddress();
+  }
+
+  @Override
+  public int getPort() {
+    return socket.getPort();
+  }
+
+  @Override
+  public int getLocalPort() {
+    return socket.getLocalPort();
+  }
+
+  @Override
+  public SocketAddress getRemoteSocketAddress() {
+    return socket.getRemoteSocketAddress();
+  }
+
+  @Override
+  public SocketAddress getLocalSocketAddress() {
+    return socket.getLocalSocketAddress();
+  }
+
+  @Override
+  public void setTcpNoDelay(boolean on) throws SocketException {
+    socket.setTcpNoDelay(on);
+  }
+
+  @Override
+  public boolean getTcpNoDelay() throws SocketException {
+    return socket.getTcpNoDelay();
+  }
+
+  @Override
+  public void setSoLinger(boolean on, int linger) throws SocketException {
+    socket.setSoLinger(on, linger);
+  }
+
+  @Override
+  public int getSoLinger() throws SocketException {
+    return socket.getSoLinger();
+  }
+
+  @Override
+  public void setSoTimeout(int timeout) throws SocketException {
+    socket.setSoTimeout(timeout);
+  }
+
+  @Override
+  public int getSoTimeout() throws SocketException {
+    return socket.getSoTimeout();
+  }
+
+  @Override
+  public void setSendBufferSize(int size) throws SocketException {
+    socket.setSendBufferSize(size);
+  }
+
+  @Override
+  public int getSendBufferSize() throws SocketException {
+    return socket.getSendBufferSize();
+  }
+
+  @Override
+  public void setReceiveBufferSize(int size) throws SocketException {
+    socket.setReceiveBufferSize(size);
+  }
+
+  @Override
+  public int getReceiveBufferSize() throws SocketException {
+    return socket.getReceiveBufferSize();
+  }
+
+  @Override
+  public void setKeepAlive(boolean on) throws SocketException {
+    socket.setKeepAlive(on);
+  }
+
+  @Override
+  public boolean getKeepAlive() throws SocketException {
+    return socket.getKeepAlive();
+  }
+
+  @Override
+  public void setTrafficClass(int tc) throws SocketException {
+    socket.setTrafficClass(tc);
+  }
+
+  @Override
+  public int getTrafficClass() throws SocketException {
+    return socket.getTrafficClass();
+  }
+
+  @Override
+  public void setReuseAddress(boolean on) throws SocketException {
+    socket.setReuseAddress(on);
+  }
+
+  @Override
+  public boolean getReuseAddress() throws SocketException {
+    return socket.getReuseAddress();
+  }
+
+  @Override
+  public String toString() {
+    return "SslChannelSocket[" + socket + "]";
+  }
+
+  private class SslInputStream extends InputStream {
+
+    @Override
+    public int read() throws IOException {
+      byte[] b = new byte[1];
+      return read(b, 0, 1) < 0 ? -1 : b[0] & 0xff;
+    }
+
+    @Override
+    public synchronized int read(byte[] b, int off, int len) throws IOException {
+      if (len == 0) {
+        return 0;
+      }
+      while (appData.position() == 0) {
+        if (channel.read(netBuffer) < 0) {
+          return -1;
+        }
+        netBuffer.flip();
+        appData = filter.unwrap(netBuffer);
+      }
+      appData.flip();
+      int bytesRead = Math.min(len, appData.remaining());
+      appData.get(b, off, bytesRead);
+      appData.compact();
+      return bytesRead;
+    }
+
+    @Override
+    public synchronized int available() {
+      return appData.position();
+    }
+  }
+
+  /**
+   * Writes are serialized on the stream so that the TLS records reach the channel in the order
+   * they were wrapped. The filter is only locked while wrapping, so that the input stream can
+   * unwrap while this stream waits on the channel.
+   */
+  private class SslOutputStream extends OutputStream {
+
+    /**
+     * a copy of the bytes last wrapped by the filter, which reuses its own buffer
+     */
+    private ByteBuffer wrappedCopy = ByteBuffer.allocate(0);
+
+    @Override
+    public void write(int b) throws IOException {
+      write(new byte[] {(byte) b}, 0, 1);
+    }
+
+    @Override
+    public synchronized void write(byte[] b, int off, int len) throws IOException {
+      synchronized (filter) {
+        ByteBuffer wrapped = filter.wrap(ByteBuffer.wrap(b, off, len));
+        if (wrappedCopy.capacity() < wrapped.remaining()) {
+          wrappedCopy = ByteBuffer.allocate(wrapped.remaining());
+        }
+        wrappedCopy.clear();
+        wrappedCopy.put(wrapped);
+        wrappedCopy.flip();
+      }
+      while (wrappedCopy.hasRemaining()) {
+        channel.write(wrappedCopy);
+      }
+    }
+  }
+}
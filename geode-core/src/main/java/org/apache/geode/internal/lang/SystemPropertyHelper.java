@@ -56,6 +56,22 @@ public class SystemPropertyHelper {
    */
   public static final String EVICTION_SCAN_THRESHOLD_PERCENT = "EvictionScanThresholdPercent";
 
+  /**
+   * When set to "true" LRU eviction lists buffer the nodes appended by each thread instead of
+   * synchronizing on the list for every append (defaults to false). This property takes
+   * precedence over {@link #EVICTION_SCAN_ASYNC}. For more details see
+   * {@link org.apache.geode.internal.cache.eviction.LRUListWithStripedBuffers}.
+   */
+  public static final String EVICTION_STRIPED_BUFFERS = "EvictionStripedBuffers";
+
+  /**
+   * When set to "true" LRU eviction lists evict the entries that are used least often instead of
+   * the least recently used ones (defaults to false). This property takes precedence over
+   * {@link #EVICTION_STRIPED_BUFFERS} and {@link #EVICTION_SCAN_ASYNC}. For more details see
+   * {@link org.apache.geode.internal.cache.eviction.WindowTinyLFUList}.
+   */
+  public static final String EVICTION_TINY_LFU = "EvictionTinyLFU";
+
   public static final String EVICTION_SEARCH_MAX_ENTRIES = "lru.maxSearchEntries";
 
   public static final String EARLY_ENTRY_EVENT_SERIALIZATION = "earlyEntryEventSerialization";
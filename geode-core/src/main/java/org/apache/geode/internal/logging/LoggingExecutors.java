@@ -269,6 +269,19 @@ public class LoggingExecutors {
     return new ForkJoinPool(maxParallelThreads, factory, null, true);
   }
 
+  /**
+   * Returns an executor that runs each command on a new virtual thread. Only use this if
+   * {@link VirtualThreadFactory#isEnabled()} returns true.
+   */
+  public static ExecutorService newVirtualThreadPerTaskExecutor(String threadName,
+      ThreadInitializer threadInitializer, CommandWrapper commandWrapper) {
+    ThreadFactory threadFactory =
+        new VirtualThreadFactory(threadName, threadInitializer, commandWrapper);
+    // no core threads and no keep alive so every command gets a thread of its own
+    return new ThreadPoolExecutor(0, Integer.MAX_VALUE, 0L, SECONDS,
+        new SynchronousQueue<>(), threadFactory);
+  }
+
   public static Executor newThreadOnEachExecute(String threadName) {
     return command -> new LoggingThread(threadName, command).start();
   }
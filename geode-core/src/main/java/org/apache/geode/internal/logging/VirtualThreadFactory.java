@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.logging;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadFactory;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.logging.LoggingThreadFactory.CommandWrapper;
+import org.apache.geode.internal.logging.LoggingThreadFactory.ThreadInitializer;
+
+/**
+ * Produces virtual threads that log uncaught exceptions, for the JVMs that support them. Like
+ * {@link LoggingThreadFactory} the threads have unique names that contain the "baseName" and
+ * optionally run a "threadInitializer" and "commandWrapper". Virtual threads are always daemons.
+ * <p>
+ * Geode is compiled for Java 8 so the virtual thread builder is looked up reflectively. Callers
+ * must check {@link #isEnabled()} before creating a factory.
+ */
+public class VirtualThreadFactory implements ThreadFactory {
+  private static final Logger logger = LogService.getLogger();
+
+  /**
+   * This system property causes client connections of a cache server that does not use a selector
+   * and the reader threads of peer connections to run on virtual threads. It is ignored if the JVM
+   * does not support virtual threads.
+   */
+  public static final String USE_VIRTUAL_THREADS_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "useVirtualThreads";
+
+  private static final boolean ENABLED = Boolean.getBoolean(USE_VIRTUAL_THREADS_PROPERTY);
+
+  private static final Method OF_VIRTUAL = findOfVirtual();
+
+  private static boolean loggedUnsupported;
+
+  private final ThreadFactory virtualThreadFactory;
+  private final ThreadInitializer threadInitializer;
+  private final CommandWrapper commandWrapper;
+
+  /**
+   * Create a factory that produces virtual threads that log uncaught exceptions
+   *
+   * @param baseName the base name will be included in every thread name
+   * @param threadInitializer if not null, will be invoked with the thread each time a thread is
+   *        created
+   * @param commandWrapper if not null, will be invoked by each thread created by this factory
+   * @throws UnsupportedOperationException if the JVM does not support virtual threads
+   */
+  public VirtualThreadFactory(String baseName, ThreadInitializer threadInitializer,
+      CommandWrapper commandWrapper) {
+    this.virtualThreadFactory = createVirtualThreadFactory(baseName);
+    this.threadInitializer = threadInitializer;
+    this.commandWrapper = commandWrapper;
+  }
+
+  /**
+   * Returns true if the JVM supports virtual threads
+   */
+  public static boolean isSupported() {
+    return OF_VIRTUAL != null;
+  }
+
+  /**
+   * Returns true if virtual threads have been requested with {@link #USE_VIRTUAL_THREADS_PROPERTY}
+   * and the JVM supports them
+   */
+  public static boolean isEnabled() {
+    if (!ENABLED) {
+      return false;
+    }
+    if (!isSupported()) {
+      if (!loggedUnsupported) {
+        loggedUnsupported = true;
+        logger.warn("{} is set but this JVM does not support virtual threads; using platform "
+            + "threads", USE_VIRTUAL_THREADS_PROPERTY);
+      }
+      return false;
+    }
+    return true;
+  }
+
+  @Override
+  public Thread newThread(Runnable runnable) {
+    Runnable commandToRun;
+    if (commandWrapper != null) {
+      commandToRun = () -> commandWrapper.invoke(runnable);
+    } else {
+      commandToRun = runnable;
+    }
+    Thread thread = virtualThreadFactory.newThread(commandToRun);
+    LoggingUncaughtExceptionHandler.setOnThread(thread);
+    if (threadInitializer != null) {
+      threadInitializer.initialize(thread);
+    }
+    return thread;
+  }
+
+  /**
+   * Returns the {@code Thread.ofVirtual} method, or null if it does not exist or is a preview
+   * feature that has not been enabled
+   */
+  private static Method findOfVirtual() {
+    try {
+      Method ofVirtual = Thread.class.getMethod("ofVirtual");
+      ofVirtual.invoke(null);
+      return ofVirtual;
+    } catch (ReflectiveOperationException | RuntimeException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Returns {@code Thread.ofVirtual().name(baseName, 1).factory()}
+   */
+  private static ThreadFactory createVirtualThreadFactory(String baseName) {
+    if (!isSupported()) {
+      throw new UnsupportedOperationException("This JVM does not support virtual threads");
+    }
+    try {
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      Object builder = OF_VIRTUAL.invoke(null);
+      builder = builderClass.getMethod("name", String.class, long.class).invoke(builder,
+          baseName, 1L);
+      return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+    } catch (ReflectiveOperationException e) {
+      throw new UnsupportedOperationException("Unable to create a virtual thread factory", e);
+    }
+  }
+}
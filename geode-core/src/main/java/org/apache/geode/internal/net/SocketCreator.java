@@ -913,6 +913,29 @@ public class SocketCreator {
     return sslContext.createSSLEngine(hostName, port);
   }
 
+  /**
+   * Returns an SSLEngine for a connection accepted from the given peer, configured the same way as
+   * the server sockets created by this SocketCreator
+   */
+  public SSLEngine createServerSSLEngine(String hostName, int port) {
+    SSLEngine engine = createSSLEngine(hostName, port);
+    engine.setUseClientMode(false);
+    if (this.sslConfig.isRequireAuth()) {
+      engine.setNeedClientAuth(true);
+    }
+    engine.setEnableSessionCreation(true);
+
+    String[] protocols = this.sslConfig.getProtocolsAsStringArray();
+    if (!"any".equalsIgnoreCase(protocols[0])) {
+      engine.setEnabledProtocols(protocols);
+    }
+    String[] ciphers = this.sslConfig.getCiphersAsStringArray();
+    if (!"any".equalsIgnoreCase(ciphers[0])) {
+      engine.setEnabledCipherSuites(ciphers);
+    }
+    return engine;
+  }
+
   /**
    * @see <a
    *      href=https://docs.oracle.com/javase/8/docs/technotes/guides/security/jsse/JSSERefGuide.html#SSLENG">JSSE
@@ -123,6 +123,9 @@ public class FreeListManager {
         tinyFree += cl.computeTotalSize();
       }
     }
+    for (ThreadAllocationCache cache : this.allThreadAllocationCaches) {
+      tinyFree += cache.computeTotalSize();
+    }
     return tinyFree;
   }
 
@@ -140,6 +143,9 @@ public class FreeListManager {
   private final AtomicInteger lastFragmentAllocation = new AtomicInteger(0);
   private final CopyOnWriteArrayList<Fragment> fragmentList;
   private final MemoryAllocatorImpl ma;
+  private volatile ThreadLocal<ThreadAllocationCache> threadAllocationCaches;
+  private final CopyOnWriteArrayList<ThreadAllocationCache> allThreadAllocationCaches =
+      new CopyOnWriteArrayList<ThreadAllocationCache>();
 
   public FreeListManager(MemoryAllocatorImpl ma, final Slab[] slabs) {
     this.ma = ma;
@@ -322,6 +328,27 @@ public class FreeListManager {
     verifyHugeMultiple(HUGE_MULTIPLE);
   }
   public static final int MAX_TINY = TINY_MULTIPLE * TINY_FREE_LIST_COUNT;
+  /**
+   * Number of tiny chunks of one size that a thread moves between its allocation cache and the
+   * shared free list at a time. A thread caches at most twice this many chunks of each size. Zero
+   * disables the thread allocation caches.
+   */
+  public static final int THREAD_CACHE_BATCH_SIZE =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_THREAD_CACHE_BATCH_SIZE", 8);
+  static {
+    verifyThreadCacheBatchSize(THREAD_CACHE_BATCH_SIZE);
+  }
+  /**
+   * Chunks up to this size are cached by the thread allocation caches.
+   */
+  public static final int THREAD_CACHE_MAX_CHUNK_SIZE = Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_THREAD_CACHE_MAX_CHUNK_SIZE", 256);
+  /**
+   * Number of tiny free lists, starting with the smallest size, whose chunks are cached by the
+   * thread allocation caches.
+   */
+  static final int THREAD_CACHE_FREE_LIST_COUNT = THREAD_CACHE_BATCH_SIZE == 0 ? 0
+      : Math.max(0, Math.min(THREAD_CACHE_MAX_CHUNK_SIZE / TINY_MULTIPLE, TINY_FREE_LIST_COUNT));
 
   /**
    * Return true if the two chunks have been combined into one. If low and high are adjacent to each
@@ -527,6 +554,63 @@ public class FreeListManager {
    */
   protected void afterDefragmentationCountFetched() {}
 
+  /**
+   * Makes each thread that allocates or frees small chunks cache some of them, if the thread
+   * allocation caches are not disabled. Registering the cache of a new thread first reclaims the
+   * caches of terminated threads, so that only the caches of live threads are kept.
+   */
+  void enableThreadAllocationCaches() {
+    if (THREAD_CACHE_FREE_LIST_COUNT > 0 && this.threadAllocationCaches == null) {
+      this.threadAllocationCaches = ThreadLocal.withInitial(() -> {
+        reclaimDeadThreadAllocationCaches();
+        ThreadAllocationCache cache =
+            new ThreadAllocationCache(Thread.currentThread(), THREAD_CACHE_FREE_LIST_COUNT);
+        this.allThreadAllocationCaches.add(cache);
+        return cache;
+      });
+    }
+  }
+
+  int getThreadAllocationCacheCount() {
+    return this.allThreadAllocationCaches.size();
+  }
+
+  /**
+   * Returns the allocation cache of the calling thread if chunks of the given tiny free list index
+   * are cached, otherwise null.
+   */
+  private ThreadAllocationCache getThreadAllocationCache(int idx) {
+    ThreadLocal<ThreadAllocationCache> caches = this.threadAllocationCaches;
+    if (caches == null || idx >= THREAD_CACHE_FREE_LIST_COUNT) {
+      return null;
+    }
+    return caches.get();
+  }
+
+  /**
+   * Returns the chunks cached by threads that have terminated to the shared free lists. Called
+   * whenever a thread registers its cache. Concurrent calls reclaim each cache once.
+   */
+  void reclaimDeadThreadAllocationCaches() {
+    for (ThreadAllocationCache cache : this.allThreadAllocationCaches) {
+      if (cache.isOwnerDead() && this.allThreadAllocationCaches.remove(cache)) {
+        for (int idx = 0; idx < cache.getFreeListCount(); idx++) {
+          long addr = cache.clear(idx);
+          if (addr != 0L) {
+            basicFreeAll(addr, idx, this.tinyFreeLists);
+          }
+        }
+      }
+    }
+  }
+
+  static void verifyThreadCacheBatchSize(int batchSize) {
+    if (batchSize < 0) {
+      throw new IllegalStateException(
+          DistributionConfig.GEMFIRE_PREFIX + "OFF_HEAP_THREAD_CACHE_BATCH_SIZE must be >= 0.");
+    }
+  }
+
   static void verifyOffHeapAlignment(int tinyMultiple) {
     if (tinyMultiple <= 0 || (tinyMultiple & 3) != 0) {
       throw new IllegalStateException(
@@ -632,6 +716,17 @@ public class FreeListManager {
         }
       }
     }
+    for (ThreadAllocationCache cache : this.allThreadAllocationCaches) {
+      if (cache.isOwnerDead()) {
+        this.allThreadAllocationCaches.remove(cache);
+      }
+      for (int i = 0; i < cache.getFreeListCount(); i++) {
+        long head = cache.clear(i);
+        if (head != 0L) {
+          l.add(new OffHeapStoredObjectAddressStack(head));
+        }
+      }
+    }
   }
 
   private void collectFreeHugeChunks(List<LongStack> l) {
@@ -699,8 +794,37 @@ public class FreeListManager {
   }
 
   private OffHeapStoredObject allocateTiny(int size, boolean useFragments) {
-    return basicAllocate(getNearestTinyMultiple(size), TINY_MULTIPLE, 0, this.tinyFreeLists,
-        useFragments);
+    int idx = getNearestTinyMultiple(size);
+    ThreadAllocationCache cache = getThreadAllocationCache(idx);
+    if (cache != null) {
+      long memAddr = cache.poll(idx);
+      if (memAddr == 0L) {
+        memAddr = refillThreadAllocationCache(cache, idx);
+      }
+      if (memAddr != 0L) {
+        OffHeapStoredObject result = new OffHeapStoredObject(memAddr);
+        checkDataIntegrity(result);
+        result.readyForAllocation();
+        return result;
+      }
+    }
+    return basicAllocate(idx, TINY_MULTIPLE, 0, this.tinyFreeLists, useFragments);
+  }
+
+  /**
+   * Moves a batch of chunks from the shared free list to the given cache, except for the first
+   * chunk whose address is returned. Returns {@code 0L} if the shared free list is empty.
+   */
+  private long refillThreadAllocationCache(ThreadAllocationCache cache, int idx) {
+    OffHeapStoredObjectAddressStack clq = this.tinyFreeLists.get(idx);
+    if (clq == null) {
+      return 0L;
+    }
+    long result = clq.poll(THREAD_CACHE_BATCH_SIZE);
+    if (result != 0L) {
+      cache.offerAll(idx, OffHeapStoredObject.getNext(result));
+    }
+    return result;
   }
 
   private OffHeapStoredObject basicAllocate(int idx, int multiple, int offset,
@@ -797,7 +921,17 @@ public class FreeListManager {
   }
 
   private void freeTiny(long addr, int cSize) {
-    basicFree(addr, getNearestTinyMultiple(cSize), this.tinyFreeLists);
+    int idx = getNearestTinyMultiple(cSize);
+    ThreadAllocationCache cache = getThreadAllocationCache(idx);
+    if (cache != null) {
+      long overflow =
+          cache.offer(idx, addr, 2 * THREAD_CACHE_BATCH_SIZE, THREAD_CACHE_BATCH_SIZE);
+      if (overflow != 0L) {
+        basicFreeAll(overflow, idx, this.tinyFreeLists);
+      }
+      return;
+    }
+    basicFree(addr, idx, this.tinyFreeLists);
   }
 
   private void basicFree(long addr, int idx,
@@ -815,6 +949,21 @@ public class FreeListManager {
     }
   }
 
+  /**
+   * Like basicFree but frees all the chunks linked from addr.
+   */
+  private void basicFreeAll(long addr, int idx,
+      AtomicReferenceArray<OffHeapStoredObjectAddressStack> freeLists) {
+    OffHeapStoredObjectAddressStack clq = freeLists.get(idx);
+    if (clq == null) {
+      clq = createFreeListForEmptySlot(freeLists, idx);
+      if (!freeLists.compareAndSet(idx, null, clq)) {
+        clq = freeLists.get(idx);
+      }
+    }
+    clq.offerAll(addr);
+  }
+
   /**
    * Tests override this method to simulate concurrent modification
    */
@@ -872,6 +1021,13 @@ public class FreeListManager {
         addr = OffHeapStoredObject.getNext(addr);
       }
     }
+    for (ThreadAllocationCache cache : this.allThreadAllocationCaches) {
+      for (int i = 0; i < cache.getFreeListCount(); i++) {
+        final int freeListId = i;
+        cache.forEachAddress(i,
+            addr -> value.add(new MemoryBlockNode(sma, new TinyMemoryBlock(addr, freeListId))));
+      }
+    }
     return value;
   }
 
@@ -223,6 +223,7 @@ public class MemoryAllocatorImpl implements MemoryAllocator {
 
     this.stats.incMaxMemory(this.freeList.getTotalMemory());
     this.stats.incFreeMemory(this.freeList.getTotalMemory());
+    this.freeList.enableThreadAllocationCaches();
   }
 
   public List<OffHeapStoredObject> getLostChunks(InternalCache cache) {
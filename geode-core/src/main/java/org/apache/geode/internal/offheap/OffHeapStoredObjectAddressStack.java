@@ -50,6 +50,25 @@ public class OffHeapStoredObjectAddressStack implements LongStack {
     }
   }
 
+  /**
+   * Pushes all the addresses linked from the given address on to this stack. The last linked
+   * address must have a next address of {@code 0L}.
+   */
+  public void offerAll(long e) {
+    assert e != 0;
+    MemoryAllocatorImpl.validateAddress(e);
+    long last = e;
+    long next = OffHeapStoredObject.getNext(last);
+    while (next != 0L) {
+      last = next;
+      next = OffHeapStoredObject.getNext(last);
+    }
+    synchronized (this) {
+      OffHeapStoredObject.setNext(last, this.topAddr);
+      this.topAddr = e;
+    }
+  }
+
   @Override
   public long poll() {
     long result;
@@ -62,6 +81,29 @@ public class OffHeapStoredObjectAddressStack implements LongStack {
     return result;
   }
 
+  /**
+   * Removes up to max addresses from the top of this stack and returns the first of them, or
+   * returns {@code 0L} if this stack is empty. The removed addresses stay linked to each other and
+   * the last of them has a next address of {@code 0L}. The caller owns them after this call.
+   */
+  public long poll(int max) {
+    long result;
+    synchronized (this) {
+      result = this.topAddr;
+      if (result != 0L) {
+        long last = result;
+        long next = OffHeapStoredObject.getNext(last);
+        for (int i = 1; i < max && next != 0L; i++) {
+          last = next;
+          next = OffHeapStoredObject.getNext(last);
+        }
+        OffHeapStoredObject.setNext(last, 0L);
+        this.topAddr = next;
+      }
+    }
+    return result;
+  }
+
   /**
    * Returns the address of the "top" item in this stack.
    */
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.offheap;
+
+import java.lang.ref.WeakReference;
+import java.util.function.LongConsumer;
+
+/**
+ * Caches free tiny chunks for a single thread so that most of its allocations and frees of small
+ * values do not synchronize on the shared tiny free lists of the {@link FreeListManager}. Chunks
+ * are moved between this cache and the shared free lists in batches. Like in
+ * OffHeapStoredObjectAddressStack the cached chunks of each size are linked together through
+ * their "next" address.
+ * <p>
+ * Other threads drain the cache when they need all the free chunks, for example to defragment, so
+ * the cache is still synchronized. That lock is almost never contended.
+ */
+class ThreadAllocationCache {
+  private final WeakReference<Thread> owner;
+
+  /**
+   * The top address of the cached chunks for each tiny free list index.
+   */
+  private final long[] topAddrs;
+
+  private final int[] counts;
+
+  ThreadAllocationCache(Thread owner, int freeListCount) {
+    this.owner = new WeakReference<>(owner);
+    this.topAddrs = new long[freeListCount];
+    this.counts = new int[freeListCount];
+  }
+
+  /**
+   * Returns true if the thread this cache belongs to has terminated.
+   */
+  boolean isOwnerDead() {
+    Thread thread = this.owner.get();
+    return thread == null || !thread.isAlive();
+  }
+
+  /**
+   * Removes and returns a cached chunk of the given free list index or returns {@code 0L} if none
+   * is cached.
+   */
+  synchronized long poll(int idx) {
+    long result = this.topAddrs[idx];
+    if (result != 0L) {
+      this.topAddrs[idx] = OffHeapStoredObject.getNext(result);
+      this.counts[idx]--;
+    }
+    return result;
+  }
+
+  /**
+   * Caches the chunks linked from addr. The last linked chunk must have a next address of
+   * {@code 0L}.
+   */
+  synchronized void offerAll(int idx, long addr) {
+    while (addr != 0L) {
+      long next = OffHeapStoredObject.getNext(addr);
+      OffHeapStoredObject.setNext(addr, this.topAddrs[idx]);
+      this.topAddrs[idx] = addr;
+      this.counts[idx]++;
+      addr = next;
+    }
+  }
+
+  /**
+   * Caches the chunk at addr. If more than maxCount chunks of this index are cached afterwards then
+   * only the keepCount most recently cached ones are kept.
+   *
+   * @return the address of the first of the linked chunks no longer cached, or {@code 0L} if the
+   *         cache did not overflow
+   */
+  synchronized long offer(int idx, long addr, int maxCount, int keepCount) {
+    OffHeapStoredObject.setNext(addr, this.topAddrs[idx]);
+    this.topAddrs[idx] = addr;
+    this.counts[idx]++;
+    if (this.counts[idx] <= maxCount) {
+      return 0L;
+    }
+    long lastKept = addr;
+    for (int i = 1; i < keepCount; i++) {
+      lastKept = OffHeapStoredObject.getNext(lastKept);
+    }
+    long result = OffHeapStoredObject.getNext(lastKept);
+    OffHeapStoredObject.setNext(lastKept, 0L);
+    this.counts[idx] = keepCount;
+    return result;
+  }
+
+  /**
+   * Removes all the cached chunks of the given free list index and returns the address of the
+   * first of them. The caller owns all the linked chunks after this call.
+   */
+  synchronized long clear(int idx) {
+    long result = this.topAddrs[idx];
+    this.topAddrs[idx] = 0L;
+    this.counts[idx] = 0;
+    return result;
+  }
+
+  synchronized void forEachAddress(int idx, LongConsumer consumer) {
+    long addr = this.topAddrs[idx];
+    while (addr != 0L) {
+      consumer.accept(addr);
+      addr = OffHeapStoredObject.getNext(addr);
+    }
+  }
+
+  synchronized long computeTotalSize() {
+    long result = 0;
+    for (int idx = 0; idx < this.topAddrs.length; idx++) {
+      long addr = this.topAddrs[idx];
+      while (addr != 0L) {
+        result += OffHeapStoredObject.getSize(addr);
+        addr = OffHeapStoredObject.getNext(addr);
+      }
+    }
+    return result;
+  }
+
+  int getFreeListCount() {
+    return this.topAddrs.length;
+  }
+}
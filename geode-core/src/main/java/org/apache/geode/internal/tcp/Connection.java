@@ -38,6 +38,7 @@ import java.util.Map;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
 import javax.net.ssl.SSLEngine;
 import javax.net.ssl.SSLException;
@@ -214,8 +215,11 @@ public class Connection implements Runnable {
   /** the socket entrusted to this connection */
   private final Socket socket;
 
-  /** output stream/channel lock */
-  private final Object outLock = new Object();
+  /**
+   * output stream/channel lock. Not a monitor so that a reader running on a virtual thread does
+   * not pin its carrier while blocked in a socket write.
+   */
+  private final ReentrantLock outLock = new ReentrantLock();
 
   /** the ID string of the conduit (for logging) */
   private String conduitIdStr;
@@ -2556,7 +2560,8 @@ public class Connection implements Runnable {
     int retries = 0;
     int totalAmtWritten = 0;
     try {
-      synchronized (this.outLock) {
+      this.outLock.lock();
+      try {
         if (!forceAsync) {
           // check one more time while holding outLock in case a pusher was created
           if (this.asyncQueuingInProgress) {
@@ -2692,6 +2697,8 @@ public class Connection implements Runnable {
         } finally {
           channel.configureBlocking(true);
         }
+      } finally {
+        this.outLock.unlock();
       }
     } finally {
       if (socketWriteStarted) {
@@ -2723,7 +2730,8 @@ public class Connection implements Runnable {
         // fall through
       }
       long startLock = stats.startSocketLock();
-      synchronized (this.outLock) {
+      this.outLock.lock();
+      try {
         stats.endSocketLock(startLock);
         if (this.asyncQueuingInProgress) {
           if (addToQueue(buffer, msg, false)) {
@@ -2741,8 +2749,9 @@ public class Connection implements Runnable {
             stats.endSocketWrite(true, start, amtWritten, 0);
           }
         }
-
-      } // synchronized
+      } finally {
+        this.outLock.unlock();
+      }
     } else {
       writeAsync(channel, buffer, forceAsync, msg, stats);
     }
@@ -48,6 +48,7 @@ import org.apache.geode.internal.SystemTimer;
 import org.apache.geode.internal.alerting.AlertingAction;
 import org.apache.geode.internal.logging.LogService;
 import org.apache.geode.internal.logging.LoggingExecutors;
+import org.apache.geode.internal.logging.VirtualThreadFactory;
 import org.apache.geode.internal.net.BufferPool;
 import org.apache.geode.internal.net.SocketCloser;
 
@@ -206,6 +207,10 @@ public class ConnectionTable {
   }
 
   private Executor createThreadPoolForIO(boolean conserveSockets) {
+    if (VirtualThreadFactory.isEnabled()) {
+      return LoggingExecutors.newVirtualThreadPerTaskExecutor(
+          conserveSockets ? "SharedP2PReader" : "UnsharedP2PReader", null, null);
+    }
     if (conserveSockets) {
       return LoggingExecutors.newThreadOnEachExecute("SharedP2PReader");
     } else {
@@ -27,6 +27,7 @@ import org.junit.Test;
 import org.apache.geode.cache.query.Aggregator;
 import org.apache.geode.cache.query.internal.aggregate.Avg;
 import org.apache.geode.cache.query.internal.aggregate.AvgBucketNode;
+import org.apache.geode.cache.query.internal.aggregate.AvgDataStoreNode;
 import org.apache.geode.cache.query.internal.aggregate.AvgDistinct;
 import org.apache.geode.cache.query.internal.aggregate.AvgDistinctPRQueryNode;
 import org.apache.geode.cache.query.internal.aggregate.AvgPRQueryNode;
@@ -35,6 +36,7 @@ import org.apache.geode.cache.query.internal.aggregate.CountDistinct;
 import org.apache.geode.cache.query.internal.aggregate.CountDistinctPRQueryNode;
 import org.apache.geode.cache.query.internal.aggregate.CountPRQueryNode;
 import org.apache.geode.cache.query.internal.aggregate.DistinctAggregator;
+import org.apache.geode.cache.query.internal.aggregate.DistinctDataStoreNode;
 import org.apache.geode.cache.query.internal.aggregate.MaxMin;
 import org.apache.geode.cache.query.internal.aggregate.Sum;
 import org.apache.geode.cache.query.internal.aggregate.SumDistinct;
@@ -85,6 +87,19 @@ public class CompiledAggregateFunctionJUnitTest {
     QueryExecutionContext context6 = new QueryExecutionContext(null, cache);
     context6.setBucketList(bucketList);
     assertThat(caf6.evaluate(context6)).isInstanceOf(DistinctAggregator.class);
+
+    CompiledAggregateFunction caf7 = new CompiledAggregateFunction(null, OQLLexerTokenTypes.COUNT);
+    QueryExecutionContext context7 = new QueryExecutionContext(null, cache);
+    context7.setBucketList(this.bucketList);
+    context7.setIsPRDataStoreNode(true);
+    assertThat(caf7.evaluate(context7)).isInstanceOf(CountPRQueryNode.class);
+
+    CompiledAggregateFunction caf8 =
+        new CompiledAggregateFunction(null, OQLLexerTokenTypes.COUNT, true);
+    QueryExecutionContext context8 = new QueryExecutionContext(null, cache);
+    context8.setBucketList(this.bucketList);
+    context8.setIsPRDataStoreNode(true);
+    assertThat(caf8.evaluate(context8)).isInstanceOf(DistinctDataStoreNode.class);
   }
 
   @Test
@@ -119,6 +134,19 @@ public class CompiledAggregateFunctionJUnitTest {
     QueryExecutionContext context6 = new QueryExecutionContext(null, cache);
     context6.setBucketList(bucketList);
     assertThat(caf6.evaluate(context6)).isInstanceOf(DistinctAggregator.class);
+
+    CompiledAggregateFunction caf7 = new CompiledAggregateFunction(null, OQLLexerTokenTypes.SUM);
+    QueryExecutionContext context7 = new QueryExecutionContext(null, cache);
+    context7.setBucketList(this.bucketList);
+    context7.setIsPRDataStoreNode(true);
+    assertThat(caf7.evaluate(context7)).isInstanceOf(Sum.class);
+
+    CompiledAggregateFunction caf8 =
+        new CompiledAggregateFunction(null, OQLLexerTokenTypes.SUM, true);
+    QueryExecutionContext context8 = new QueryExecutionContext(null, cache);
+    context8.setBucketList(this.bucketList);
+    context8.setIsPRDataStoreNode(true);
+    assertThat(caf8.evaluate(context8)).isInstanceOf(DistinctDataStoreNode.class);
   }
 
   @Test
@@ -153,6 +181,19 @@ public class CompiledAggregateFunctionJUnitTest {
     QueryExecutionContext context6 = new QueryExecutionContext(null, cache);
     context6.setBucketList(this.bucketList);
     assertThat(caf6.evaluate(context6)).isInstanceOf(DistinctAggregator.class);
+
+    CompiledAggregateFunction caf7 = new CompiledAggregateFunction(null, OQLLexerTokenTypes.AVG);
+    QueryExecutionContext context7 = new QueryExecutionContext(null, cache);
+    context7.setBucketList(this.bucketList);
+    context7.setIsPRDataStoreNode(true);
+    assertThat(caf7.evaluate(context7)).isInstanceOf(AvgDataStoreNode.class);
+
+    CompiledAggregateFunction caf8 =
+        new CompiledAggregateFunction(null, OQLLexerTokenTypes.AVG, true);
+    QueryExecutionContext context8 = new QueryExecutionContext(null, cache);
+    context8.setBucketList(this.bucketList);
+    context8.setIsPRDataStoreNode(true);
+    assertThat(caf8.evaluate(context8)).isInstanceOf(DistinctDataStoreNode.class);
   }
 
   @Test
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.query.internal.types.ObjectTypeImpl;
+import org.apache.geode.cache.query.internal.types.StructTypeImpl;
+import org.apache.geode.cache.query.types.ObjectType;
+import org.apache.geode.test.junit.categories.OQLQueryTest;
+
+@Category(OQLQueryTest.class)
+public class CompiledSelectTopKTest {
+
+  private OrderByComparator comparator;
+
+  @Before
+  public void setUp() {
+    comparator = mock(OrderByComparator.class);
+  }
+
+  @Test
+  public void trimToLimitKeepsSmallestRowsOfBag() {
+    SortedResultsBag<Integer> bag = new SortedResultsBag<>(Comparator.naturalOrder(), true);
+    for (int value : new int[] {5, 3, 9, 1, 7}) {
+      bag.add(value);
+    }
+
+    CompiledSelect.trimToLimit(bag, 2, comparator);
+
+    assertThat(new ArrayList<Object>(bag)).containsExactly(1, 3);
+    verify(comparator).removeEvaluatedSortCriteria(5);
+    verify(comparator).removeEvaluatedSortCriteria(7);
+    verify(comparator).removeEvaluatedSortCriteria(9);
+    verify(comparator, never()).removeEvaluatedSortCriteria(3);
+  }
+
+  @Test
+  public void trimToLimitKeepsCriteriaOfDuplicateStraddlingTheLimit() {
+    SortedResultsBag<Integer> bag = new SortedResultsBag<>(Comparator.naturalOrder(), true);
+    for (int value : new int[] {3, 1, 3, 3}) {
+      bag.add(value);
+    }
+
+    CompiledSelect.trimToLimit(bag, 2, comparator);
+
+    assertThat(new ArrayList<Object>(bag)).containsExactly(1, 3);
+    verify(comparator, never()).removeEvaluatedSortCriteria(3);
+  }
+
+  @Test
+  public void trimToLimitToZeroEmptiesResults() {
+    SortedResultsBag<Integer> bag = new SortedResultsBag<>(Comparator.naturalOrder(), true);
+    bag.add(2);
+    bag.add(1);
+
+    CompiledSelect.trimToLimit(bag, 0, comparator);
+
+    assertThat(bag).isEmpty();
+    verify(comparator).removeEvaluatedSortCriteria(1);
+    verify(comparator).removeEvaluatedSortCriteria(2);
+  }
+
+  @Test
+  public void trimToLimitRemovesFieldValuesOfStructs() {
+    StructTypeImpl structType = new StructTypeImpl(new String[] {"id", "name"},
+        new ObjectType[] {new ObjectTypeImpl(Integer.class), new ObjectTypeImpl(String.class)});
+    Comparator<Object[]> byId = Comparator.comparing(fields -> (Integer) fields[0]);
+    SortedStructBag bag = new SortedStructBag(byId, structType, true);
+    Object[] first = {1, "a"};
+    Object[] second = {2, "b"};
+    Object[] third = {3, "c"};
+    bag.addFieldValues(third);
+    bag.addFieldValues(first);
+    bag.addFieldValues(second);
+
+    CompiledSelect.trimToLimit(bag, 1, comparator);
+
+    List<Object[]> remaining = new ArrayList<>();
+    bag.fieldValuesIterator().forEachRemaining(fields -> remaining.add((Object[]) fields));
+    assertThat(remaining).hasSize(1);
+    assertThat(Arrays.asList(remaining.get(0))).containsExactly(1, "a");
+    verify(comparator).removeEvaluatedSortCriteria(second);
+    verify(comparator).removeEvaluatedSortCriteria(third);
+  }
+}
@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.lang.reflect.Method;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.OQLQueryTest;
+
+@Category(OQLQueryTest.class)
+public class MemberAccessorTest {
+
+  @Test
+  public void readsPublicGetter() throws Throwable {
+    MemberAccessor accessor =
+        MemberAccessor.forReadMember(Portfolio.class.getMethod("getStatus"));
+
+    assertThat(accessor.read(new Portfolio("active", 3))).isEqualTo("active");
+  }
+
+  @Test
+  public void readsPrimitiveGetter() throws Throwable {
+    MemberAccessor accessor = MemberAccessor.forReadMember(Portfolio.class.getMethod("getId"));
+
+    assertThat(accessor.read(new Portfolio("active", 3))).isEqualTo(3);
+  }
+
+  @Test
+  public void readsPublicField() throws Throwable {
+    MemberAccessor accessor = MemberAccessor.forReadMember(Portfolio.class.getField("region"));
+
+    assertThat(accessor.read(new Portfolio("active", 3))).isEqualTo("east");
+  }
+
+  @Test
+  public void readsPublicMethodOfNonPublicClass() throws Throwable {
+    Method method = Hidden.class.getMethod("getStatus");
+    method.setAccessible(true);
+    MemberAccessor accessor = MemberAccessor.forReadMember(method);
+
+    assertThat(accessor.read(new Hidden())).isEqualTo("hidden");
+  }
+
+  @Test
+  public void exposesMember() throws Exception {
+    Method method = Portfolio.class.getMethod("getStatus");
+
+    assertThat(MemberAccessor.forReadMember(method).getMember()).isSameAs(method);
+  }
+
+  @Test
+  public void invokesMethodWithArgumentsConvertedLikeReflection() throws Throwable {
+    MemberAccessor accessor =
+        MemberAccessor.forMethod(Portfolio.class.getMethod("scaled", long.class));
+
+    assertThat(accessor.invoke(new Portfolio("active", 3), new Object[] {2})).isEqualTo(6L);
+  }
+
+  @Test
+  public void invokesStaticMethod() throws Throwable {
+    MemberAccessor accessor =
+        MemberAccessor.forMethod(Portfolio.class.getMethod("describe", String.class));
+
+    assertThat(accessor.invoke(null, new Object[] {"x"})).isEqualTo("portfolio x");
+  }
+
+  @Test
+  public void invokesVoidMethod() throws Throwable {
+    MemberAccessor accessor = MemberAccessor.forMethod(Portfolio.class.getMethod("touch"));
+
+    assertThat(accessor.invoke(new Portfolio("active", 3), new Object[0])).isNull();
+  }
+
+  @Test
+  public void propagatesExceptionThrownByMethod() throws Exception {
+    MemberAccessor accessor = MemberAccessor.forReadMember(Portfolio.class.getMethod("fail"));
+
+    Throwable thrown = catchThrowable(() -> accessor.read(new Portfolio("active", 3)));
+
+    assertThat(thrown).isInstanceOf(IllegalStateException.class).hasMessage("failed");
+  }
+
+  public static class Portfolio {
+    public final String region = "east";
+    private final String status;
+    private final int id;
+
+    public Portfolio(String status, int id) {
+      this.status = status;
+      this.id = id;
+    }
+
+    public String getStatus() {
+      return status;
+    }
+
+    public int getId() {
+      return id;
+    }
+
+    public long scaled(long factor) {
+      return id * factor;
+    }
+
+    public void touch() {}
+
+    public String fail() {
+      throw new IllegalStateException("failed");
+    }
+
+    public static String describe(String name) {
+      return "portfolio " + name;
+    }
+  }
+
+  private static class Hidden {
+    public String getStatus() {
+      return "hidden";
+    }
+  }
+}
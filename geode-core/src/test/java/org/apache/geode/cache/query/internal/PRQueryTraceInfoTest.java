@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.internal.membership.InternalDistributedMember;
+import org.apache.geode.test.junit.categories.OQLQueryTest;
+
+@Category(OQLQueryTest.class)
+public class PRQueryTraceInfoTest {
+
+  @Test
+  public void bucketTimesAreSerialized() throws Exception {
+    PRQueryTraceInfo traceInfo = new PRQueryTraceInfo();
+    traceInfo.setNumResults(3);
+    traceInfo.setTimeInMillis(2.5f);
+    traceInfo.setIndexesUsed(" indexesUsed(0)");
+    traceInfo.setBucketTimes(bucketTimes());
+
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    traceInfo.toData(new DataOutputStream(bytes));
+    PRQueryTraceInfo copy = new PRQueryTraceInfo();
+    copy.fromData(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+    assertThat(copy.getTimeInMillis()).isEqualTo(2.5f);
+    assertThat(copy.getBucketTimes()).isEqualTo(bucketTimes());
+  }
+
+  @Test
+  public void logLineListsBucketTimesInBucketOrder() {
+    InternalDistributedMember member = mock(InternalDistributedMember.class);
+    PRQueryTraceInfo traceInfo = new PRQueryTraceInfo();
+    traceInfo.setSender(member);
+    traceInfo.setBucketTimes(bucketTimes());
+
+    assertThat(traceInfo.createLogLine(member)).endsWith(" bucketTimes(2):3=0.5ms,12=1.25ms");
+  }
+
+  @Test
+  public void logLineOmitsBucketTimesIfThereAreNone() {
+    InternalDistributedMember member = mock(InternalDistributedMember.class);
+    PRQueryTraceInfo traceInfo = new PRQueryTraceInfo();
+    traceInfo.setSender(member);
+
+    assertThat(traceInfo.createLogLine(member)).doesNotContain("bucketTimes");
+  }
+
+  private static Map<Integer, Float> bucketTimes() {
+    Map<Integer, Float> bucketTimes = new HashMap<>();
+    bucketTimes.put(12, 1.25f);
+    bucketTimes.put(3, 0.5f);
+    return bucketTimes;
+  }
+}
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes.LITERAL_and;
+import static org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes.LITERAL_or;
+import static org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes.TOK_EQ;
+import static org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes.TOK_GE;
+import static org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes.TOK_GT;
+import static org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes.TOK_LE;
+import static org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes.TOK_LT;
+import static org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes.TOK_NE;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.math.BigDecimal;
+import java.util.Date;
+import java.util.concurrent.Callable;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.test.junit.categories.OQLQueryTest;
+
+@Category(OQLQueryTest.class)
+public class WherePredicateTest {
+
+  private static final int[] OPERATORS = {TOK_EQ, TOK_NE, TOK_LT, TOK_LE, TOK_GT, TOK_GE};
+
+  private static final Object[] VALUES = {null, QueryService.UNDEFINED, 0, 1, -1, 7L,
+      Integer.MAX_VALUE, Long.MIN_VALUE, (short) 3, (byte) 1, 1.0D, -0.0D, 0.0D, Double.NaN,
+      2.5F, "", "a", "b", "ab", new BigDecimal("1"), new Date(0), Boolean.TRUE};
+
+  private ExecutionContext context;
+  private CompiledValue expression;
+
+  @Before
+  public void setUp() {
+    context = mock(ExecutionContext.class);
+    InternalCache cache = mock(InternalCache.class);
+    when(context.getCache()).thenReturn(cache);
+    expression = mock(CompiledValue.class);
+  }
+
+  @Test
+  public void comparisonWithLiteralMatchesInterpretedComparison() throws Exception {
+    for (int operator : OPERATORS) {
+      for (Object constant : VALUES) {
+        assertSameResults(new CompiledComparison(expression, literal(constant), operator));
+        assertSameResults(new CompiledComparison(literal(constant), expression, operator));
+      }
+    }
+  }
+
+  @Test
+  public void comparisonWithBindArgumentMatchesInterpretedComparison() throws Exception {
+    when(context.isBindArgsSet()).thenReturn(true);
+    CompiledComparison comparison =
+        new CompiledComparison(expression, new CompiledBindArgument(1), TOK_LT);
+    WherePredicate compiled = WherePredicate.compile(comparison);
+
+    for (Object argument : VALUES) {
+      when(context.getBindArgument(1)).thenReturn(argument);
+      WherePredicate bound = compiled.bind(context);
+      for (Object value : VALUES) {
+        when(expression.evaluate(context)).thenReturn(value);
+        assertThat(resultOf(() -> bound.evaluate(context))).as("%s < %s", value, argument)
+            .isEqualTo(resultOf(() -> comparison.evaluate(context)));
+      }
+    }
+  }
+
+  @Test
+  public void bindArgumentIsResolvedOncePerExecution() throws Exception {
+    when(context.isBindArgsSet()).thenReturn(true);
+    when(context.getBindArgument(1)).thenReturn(5);
+    when(expression.evaluate(context)).thenReturn(4);
+    WherePredicate bound = WherePredicate
+        .compile(new CompiledComparison(expression, new CompiledBindArgument(1), TOK_LT))
+        .bind(context);
+
+    assertThat(bound.evaluate(context)).isEqualTo(true);
+    assertThat(bound.evaluate(context)).isEqualTo(true);
+
+    verify(context, times(1)).getBindArgument(1);
+  }
+
+  @Test
+  public void junctionMatchesInterpretedJunction() throws Exception {
+    Object[] operands = {true, false, null, QueryService.UNDEFINED};
+    CompiledValue first = mock(CompiledValue.class);
+    CompiledValue second = mock(CompiledValue.class);
+    CompiledValue third = mock(CompiledValue.class);
+    for (int operator : new int[] {LITERAL_and, LITERAL_or}) {
+      CompiledJunction junction =
+          new CompiledJunction(new CompiledValue[] {first, second, third}, operator);
+      WherePredicate compiled = WherePredicate.compile(junction).bind(context);
+      for (Object a : operands) {
+        for (Object b : operands) {
+          for (Object c : operands) {
+            when(first.evaluate(context)).thenReturn(a);
+            when(second.evaluate(context)).thenReturn(b);
+            when(third.evaluate(context)).thenReturn(c);
+            assertThat(compiled.evaluate(context)).as("%s %s %s", a, b, c)
+                .isEqualTo(junction.evaluate(context));
+          }
+        }
+      }
+    }
+  }
+
+  @Test
+  public void otherExpressionsAreInterpreted() throws Exception {
+    when(expression.evaluate(context)).thenReturn(QueryService.UNDEFINED);
+
+    assertThat(WherePredicate.compile(expression).bind(context).evaluate(context))
+        .isSameAs(QueryService.UNDEFINED);
+  }
+
+  private void assertSameResults(CompiledComparison comparison) throws Exception {
+    WherePredicate compiled = WherePredicate.compile(comparison).bind(context);
+    for (Object value : VALUES) {
+      when(expression.evaluate(context)).thenReturn(value);
+      assertThat(resultOf(() -> compiled.evaluate(context)))
+          .as("%s with %s", comparison.getOperator(), value)
+          .isEqualTo(resultOf(() -> comparison.evaluate(context)));
+    }
+  }
+
+  /**
+   * Returns the result of the evaluation, or the class of the exception it threw.
+   */
+  private static Object resultOf(Callable<Object> evaluation) {
+    try {
+      return evaluation.call();
+    } catch (Exception e) {
+      return e.getClass();
+    }
+  }
+
+  private static CompiledValue literal(Object value) {
+    return new CompiledLiteral(value);
+  }
+}
@@ -142,6 +142,40 @@ public class AggregatorJUnitTest {
     assertEquals(expected, ((Number) apqn.terminate()).floatValue(), 0);
   }
 
+  @Test
+  public void testAvgDataStoreNode() throws Exception {
+    AvgDataStoreNode adsn = new AvgDataStoreNode();
+    adsn.accumulate(new Object[] {new Integer(7), new Double(43)});
+    adsn.accumulate(new Object[] {new Integer(5), new Double(273.86)});
+    adsn.accumulate(new Object[] {new Integer(0), new Integer(0)});
+    Object[] arr = (Object[]) adsn.terminate();
+    assertEquals(12, ((Integer) arr[0]).intValue());
+    assertEquals(43 + 273.86, ((Number) arr[1]).doubleValue(), 0.001);
+
+    AvgPRQueryNode apqn = new AvgPRQueryNode();
+    apqn.accumulate(arr);
+    assertEquals((43 + 273.86) / 12.0, ((Number) apqn.terminate()).doubleValue(), 0.001);
+  }
+
+  @Test
+  public void testDistinctDataStoreNode() throws Exception {
+    Set<Integer> set1 = new HashSet<Integer>();
+    set1.add(1);
+    set1.add(2);
+    Set<Integer> set2 = new HashSet<Integer>();
+    set2.add(2);
+    set2.add(3);
+    DistinctDataStoreNode ddsn = new DistinctDataStoreNode();
+    ddsn.accumulate(set1);
+    ddsn.accumulate(set2);
+    ddsn.accumulate(new HashSet<Integer>());
+    Set<Integer> expected = new HashSet<Integer>();
+    expected.add(1);
+    expected.add(2);
+    expected.add(3);
+    assertEquals(expected, ddsn.terminate());
+  }
+
   @Test
   public void testAvgDistinct() throws Exception {
     AvgDistinct avg = new AvgDistinct();
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.test.junit.categories.OQLIndexTest;
+
+@Category(OQLIndexTest.class)
+public class CompositeIndexKeyTest {
+
+  private static CompositeIndexKey key(Object... components) {
+    return new CompositeIndexKey(components);
+  }
+
+  @Test
+  public void keysAreOrderedComponentByComponent() {
+    assertThat(key("a", 1).compareTo(key("a", 2))).isNegative();
+    assertThat(key("a", 2).compareTo(key("b", 0))).isNegative();
+    assertThat(key("b", 0).compareTo(key("a", 2))).isPositive();
+    assertThat(key("a", 1).compareTo(key("a", 1))).isZero();
+  }
+
+  @Test
+  public void numbersOfDifferentTypesAreComparedByValue() {
+    assertThat(key("a", 1).compareTo(key("a", 1L))).isZero();
+    assertThat(key("a", 1)).isEqualTo(key("a", 1L));
+    assertThat(key("a", 1).hashCode()).isEqualTo(key("a", 1.0d).hashCode());
+    assertThat(key("a", 1).compareTo(key("a", 1.5d))).isNegative();
+  }
+
+  @Test
+  public void undefinedSortsBeforeNullWhichSortsBeforeValues() {
+    CompositeIndexKey undefined = key("a", QueryService.UNDEFINED);
+    CompositeIndexKey nullKey = key("a", IndexManager.NULL);
+    CompositeIndexKey value = key("a", "");
+
+    assertThat(undefined.compareTo(nullKey)).isNegative();
+    assertThat(nullKey.compareTo(value)).isNegative();
+    assertThat(value.compareTo(undefined)).isPositive();
+  }
+
+  @Test
+  public void boundsEncloseAllKeysWithTheSamePrefix() {
+    CompositeIndexKey lower = key("a", CompositeIndexKey.MIN);
+    CompositeIndexKey upper = key("a", CompositeIndexKey.MAX);
+
+    assertThat(lower.compareTo(key("a", QueryService.UNDEFINED, 1))).isNegative();
+    assertThat(upper.compareTo(key("a", Integer.MAX_VALUE, 1))).isPositive();
+    assertThat(upper.compareTo(key("b", CompositeIndexKey.MIN))).isNegative();
+    assertThat(lower.compareTo(key(" ", CompositeIndexKey.MAX))).isPositive();
+  }
+
+  @Test
+  public void shorterKeySortsBetweenTheBoundsOfItsPrefix() {
+    CompositeIndexKey prefix = key("a", 5);
+
+    assertThat(prefix.compareTo(key("a", 5, CompositeIndexKey.MIN))).isPositive();
+    assertThat(prefix.compareTo(key("a", 5, CompositeIndexKey.MAX))).isNegative();
+    assertThat(key("a", 5, CompositeIndexKey.MAX).compareTo(prefix)).isPositive();
+    assertThat(prefix.compareTo(key("a", 5, 0))).isNegative();
+  }
+
+  @Test
+  public void keysSortAfterTheNullAndUndefinedTokens() {
+    assertThat(key("a").compareTo(IndexManager.NULL)).isPositive();
+    assertThat(key("a").compareTo(QueryService.UNDEFINED)).isPositive();
+  }
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.test.junit.categories.OQLIndexTest;
+
+@Category(OQLIndexTest.class)
+public class IndexManagerTest {
+
+  private final RegionEntry entry1 = mock(RegionEntry.class);
+  private final RegionEntry entry2 = mock(RegionEntry.class);
+
+  @Test
+  public void coalesceTasksDropsRepeatedTasksOfAnEntry() {
+    Object[] task1 = task(IndexManager.UPDATE_ENTRY, entry1, IndexProtocol.AFTER_UPDATE_OP);
+    Object[] task2 = task(IndexManager.UPDATE_ENTRY, entry2, IndexProtocol.AFTER_UPDATE_OP);
+    Object[] task3 = task(IndexManager.UPDATE_ENTRY, entry1, IndexProtocol.AFTER_UPDATE_OP);
+
+    List<Object[]> tasks = IndexManager.coalesceTasks(Arrays.asList(task1, task2, task3));
+
+    assertThat(tasks).containsExactly(task1, task2);
+  }
+
+  @Test
+  public void coalesceTasksKeepsChangesOfTheAction() {
+    Object[] task1 = task(IndexManager.ADD_ENTRY, entry1, IndexProtocol.OTHER_OP);
+    Object[] task2 = task(IndexManager.REMOVE_ENTRY, entry1, IndexProtocol.OTHER_OP);
+    Object[] task3 = task(IndexManager.ADD_ENTRY, entry1, IndexProtocol.OTHER_OP);
+
+    List<Object[]> tasks = IndexManager.coalesceTasks(Arrays.asList(task1, task2, task3));
+
+    assertThat(tasks).containsExactly(task1, task2, task3);
+  }
+
+  @Test
+  public void coalesceTasksKeepsTasksWithoutEntries() {
+    Object[] task1 = task(IndexManager.RECREATE_INDEX, null, IndexProtocol.OTHER_OP);
+    Object[] task2 = task(IndexManager.RECREATE_INDEX, null, IndexProtocol.OTHER_OP);
+
+    List<Object[]> tasks = IndexManager.coalesceTasks(Arrays.asList(task1, task2));
+
+    assertThat(tasks).containsExactly(task1, task2);
+  }
+
+  private static Object[] task(int action, RegionEntry entry, int opCode) {
+    return new Object[] {action, entry, opCode};
+  }
+}
@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.CountDownLatch;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.internal.types.TypeUtils;
+import org.apache.geode.test.junit.categories.OQLIndexTest;
+
+@Category(OQLIndexTest.class)
+public class NumericKeyIndexMapTest {
+
+  NumericKeyIndexMap map;
+
+  private ConcurrentNavigableMap<Object, Object> expected;
+
+  NumericKeyIndexMap createMap() {
+    return new NumericKeyIndexMap();
+  }
+
+  @Before
+  public void setUp() {
+    map = createMap();
+    expected = new ConcurrentSkipListMap<>(TypeUtils.getExtendedNumericComparator());
+  }
+
+  @Test
+  public void keysAreReturnedWithTheTypeTheyWereAddedWith() {
+    map.put(1, "a");
+    map.put(2L, "b");
+    map.put(3.0d, "c");
+    map.put((short) 4, "d");
+    map.put(4.0f, "e");
+
+    assertThat(map.keySet()).containsExactly(1, 2L, 3.0d, (short) 4);
+    assertThat(map.get(1L)).isEqualTo("a");
+    assertThat(map.get(2)).isEqualTo("b");
+    assertThat(map.get(4)).isEqualTo("e");
+  }
+
+  @Test
+  public void nonIntegralKeysAreOrderedWithIntegralKeys() {
+    Object[] keys = {QueryService.UNDEFINED, -0.0d, 0, 0.5d, 1.5f, 2L,
+        Double.MAX_VALUE, Long.MAX_VALUE, Long.MIN_VALUE, 1e300, -1e300, 0x1p53 + 2, 7.0d};
+    for (Object key : keys) {
+      map.put(key, key.toString());
+      expected.put(key, key.toString());
+    }
+
+    assertSameContents(map, expected);
+    assertSameContents(map.descendingMap(), expected.descendingMap());
+    assertSameContents(map.subMap(-0.5d, true, 2.5f, false),
+        expected.subMap(-0.5d, true, 2.5f, false));
+    assertSameContents(map.headMap(QueryService.UNDEFINED, true),
+        expected.headMap(QueryService.UNDEFINED, true));
+    assertSameContents(map.tailMap(0x1p53, false), expected.tailMap(0x1p53, false));
+  }
+
+  @Test
+  public void splitsAndMergesChunksLikeASkipList() {
+    Random random = new Random(0);
+    for (int i = 0; i < 20000; i++) {
+      Object key = randomKey(random);
+      Object value = random.nextInt(4);
+      switch (random.nextInt(5)) {
+        case 0:
+        case 1:
+          assertThat(map.putIfAbsent(key, value)).isEqualTo(expected.putIfAbsent(key, value));
+          break;
+        case 2:
+          assertThat(map.replace(key, 0, value)).isEqualTo(expected.replace(key, 0, value));
+          break;
+        case 3:
+          assertThat(map.remove(key, value)).isEqualTo(expected.remove(key, value));
+          break;
+        default:
+          assertThat(map.remove(key)).isEqualTo(expected.remove(key));
+          break;
+      }
+    }
+
+    assertThat(map.size()).isEqualTo(expected.size());
+    assertSameContents(map, expected);
+    assertSameContents(map.descendingMap(), expected.descendingMap());
+    for (int i = 0; i < 200; i++) {
+      Object from = randomKey(random);
+      Object to = randomKey(random);
+      if (TypeUtils.getExtendedNumericComparator().compare(from, to) > 0) {
+        Object swap = from;
+        from = to;
+        to = swap;
+      }
+      boolean fromInclusive = random.nextBoolean();
+      boolean toInclusive = random.nextBoolean();
+      assertSameContents(map.subMap(from, fromInclusive, to, toInclusive),
+          expected.subMap(from, fromInclusive, to, toInclusive));
+      assertSameContents(map.subMap(from, fromInclusive, to, toInclusive).descendingMap(),
+          expected.subMap(from, fromInclusive, to, toInclusive).descendingMap());
+      assertThat(map.floorKey(from)).isEqualTo(expected.floorKey(from));
+      assertThat(map.higherKey(to)).isEqualTo(expected.higherKey(to));
+    }
+  }
+
+  @Test
+  public void increasingKeysFillChunks() {
+    for (long key = 0; key < 10 * NumericKeyIndexMap.CHUNK_SIZE; key++) {
+      map.put(key, key);
+    }
+    for (Iterator<Object> keys = map.keySet().iterator(); keys.hasNext();) {
+      if ((Long) keys.next() % 3 != 0) {
+        keys.remove();
+      }
+    }
+
+    assertThat(map.size()).isEqualTo(214);
+    assertThat(map.firstKey()).isEqualTo(0L);
+    assertThat(map.lastKey()).isEqualTo(639L);
+    assertThat(map.headMap(100L).size()).isEqualTo(34);
+  }
+
+  @Test
+  public void clearRemovesAllKeys() {
+    map.put(1, "a");
+    map.put(1.5d, "b");
+    map.put(IndexManager.NULL, "c");
+
+    map.clear();
+
+    assertThat(map).isEmpty();
+    assertThat(map.get(1)).isNull();
+    map.put(2, "d");
+    assertThat(map.keySet()).containsExactly(2);
+  }
+
+  @Test
+  public void concurrentUpdatesOfDisjointKeysAreNotLost() throws Exception {
+    int threads = 4;
+    int keysPerThread = 5000;
+    CountDownLatch start = new CountDownLatch(1);
+    List<Thread> workers = new ArrayList<>();
+    for (int t = 0; t < threads; t++) {
+      int offset = t;
+      Thread worker = new Thread(() -> {
+        try {
+          start.await();
+        } catch (InterruptedException e) {
+          return;
+        }
+        for (int i = 0; i < keysPerThread; i++) {
+          map.put(i * threads + offset, i);
+        }
+        for (int i = 0; i < keysPerThread; i += 2) {
+          map.remove(i * threads + offset);
+        }
+      });
+      worker.start();
+      workers.add(worker);
+    }
+    start.countDown();
+    for (Thread worker : workers) {
+      worker.join();
+    }
+
+    assertThat(map.size()).isEqualTo(threads * keysPerThread / 2);
+    int previous = -1;
+    for (Object key : map.keySet()) {
+      assertThat((Integer) key).isGreaterThan(previous);
+      assertThat((Integer) key / threads % 2).isEqualTo(1);
+      previous = (Integer) key;
+    }
+  }
+
+  private static Object randomKey(Random random) {
+    int key = random.nextInt(2000) - 1000;
+    switch (random.nextInt(6)) {
+      case 0:
+        return (long) key;
+      case 1:
+        return key + 0.5d;
+      case 2:
+        return (double) key;
+      case 3:
+        return IndexManager.NULL;
+      default:
+        return key;
+    }
+  }
+
+  private static void assertSameContents(Map<Object, Object> actual, Map<Object, Object> map) {
+    List<Object> actualEntries = new ArrayList<>();
+    for (Map.Entry<Object, Object> entry : actual.entrySet()) {
+      actualEntries.add(entry.getKey());
+      actualEntries.add(entry.getValue());
+    }
+    List<Object> expectedEntries = new ArrayList<>();
+    for (Map.Entry<Object, Object> entry : map.entrySet()) {
+      expectedEntries.add(entry.getKey());
+      expectedEntries.add(entry.getValue());
+    }
+    assertThat(actualEntries).isEqualTo(expectedEntries);
+  }
+}
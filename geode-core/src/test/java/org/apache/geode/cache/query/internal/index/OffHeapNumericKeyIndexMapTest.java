@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.offheap.MemoryAllocatorImpl;
+import org.apache.geode.internal.offheap.NullOffHeapMemoryStats;
+import org.apache.geode.internal.offheap.NullOutOfOffHeapMemoryListener;
+import org.apache.geode.internal.offheap.SlabImpl;
+import org.apache.geode.test.junit.categories.OQLIndexTest;
+
+@Category(OQLIndexTest.class)
+public class OffHeapNumericKeyIndexMapTest extends NumericKeyIndexMapTest {
+
+  private MemoryAllocatorImpl allocator;
+
+  @Override
+  NumericKeyIndexMap createMap() {
+    allocator = MemoryAllocatorImpl.createForUnitTest(new NullOutOfOffHeapMemoryListener(),
+        new NullOffHeapMemoryStats(), new SlabImpl[] {new SlabImpl(8 * 1024 * 1024)});
+    return new NumericKeyIndexMap(allocator);
+  }
+
+  @After
+  public void tearDown() {
+    try {
+      map.clear();
+      assertThat(allocator.getUsedMemory()).isZero();
+    } finally {
+      MemoryAllocatorImpl.freeOffHeapMemory();
+    }
+  }
+
+  @Test
+  public void keysAreAllocatedWithTheFirstKey() {
+    assertThat(map.isOffHeap()).isTrue();
+    assertThat(allocator.getUsedMemory()).isZero();
+
+    map.put(1L, "a");
+
+    assertThat(allocator.getUsedMemory()).isPositive();
+  }
+
+  @Test
+  public void removingKeysReleasesEmptiedChunks() {
+    for (long key = 0; key < 10 * NumericKeyIndexMap.CHUNK_SIZE; key++) {
+      map.put(key, key);
+    }
+    long usedMemory = allocator.getUsedMemory();
+
+    map.headMap(9L * NumericKeyIndexMap.CHUNK_SIZE).clear();
+
+    assertThat(allocator.getUsedMemory()).isLessThan(usedMemory);
+    assertThat(map.size()).isEqualTo(NumericKeyIndexMap.CHUNK_SIZE);
+  }
+
+  @Test
+  public void closeKeepsTheKeysUntilTheLastRetainIsReleased() {
+    for (long key = 0; key < 3 * NumericKeyIndexMap.CHUNK_SIZE; key++) {
+      map.put(key, key);
+    }
+    assertThat(map.retain()).isTrue();
+
+    map.close();
+
+    assertThat(map.size()).isEqualTo(3 * NumericKeyIndexMap.CHUNK_SIZE);
+    assertThat(map.get(7L)).isEqualTo(7L);
+    assertThat(allocator.getUsedMemory()).isPositive();
+
+    map.release();
+
+    assertThat(allocator.getUsedMemory()).isZero();
+    assertThat(map.size()).isZero();
+    assertThat(map.retain()).isFalse();
+  }
+
+  @Test
+  public void updatesAreRefusedOnceClosed() {
+    map.put(1L, "a");
+    assertThat(map.retain()).isTrue();
+    map.close();
+
+    assertThat(map.put(2L, "b")).isNull();
+    assertThat(map.remove(1L)).isNull();
+
+    assertThat(map.get(1L)).isEqualTo("a");
+    assertThat(map.containsKey(2L)).isFalse();
+
+    map.release();
+
+    assertThat(allocator.getUsedMemory()).isZero();
+    assertThat(map.put(3L, "c")).isNull();
+    assertThat(allocator.getUsedMemory()).isZero();
+  }
+}
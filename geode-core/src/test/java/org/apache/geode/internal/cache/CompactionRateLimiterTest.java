@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class CompactionRateLimiterTest {
+
+  private final AtomicLong clock = new AtomicLong();
+
+  @Test
+  public void copiesAWholeIncrementWithoutPausing() {
+    CompactionRateLimiter limiter = new CompactionRateLimiter(1000, 100, clock::get);
+
+    assertThat(limiter.recordCopied(60)).isZero();
+    assertThat(limiter.recordCopied(40)).isZero();
+  }
+
+  @Test
+  public void pausesUntilAWholeIncrementIsAvailableOnceOverdrawn() {
+    CompactionRateLimiter limiter = new CompactionRateLimiter(1000, 100, clock::get);
+
+    // 150 bytes leave the budget 50 bytes short, refilling 150 bytes at 1000 bytes/sec
+    assertThat(limiter.recordCopied(150)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(150));
+
+    clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(150));
+    assertThat(limiter.recordCopied(100)).isZero();
+  }
+
+  @Test
+  public void refillIsCappedAtOneIncrement() {
+    CompactionRateLimiter limiter = new CompactionRateLimiter(1000, 100, clock::get);
+
+    clock.addAndGet(TimeUnit.SECONDS.toNanos(10));
+    assertThat(limiter.recordCopied(100)).isZero();
+    assertThat(limiter.recordCopied(1)).isGreaterThan(0);
+  }
+
+  @Test
+  public void sustainedRateMatchesBudget() {
+    CompactionRateLimiter limiter = new CompactionRateLimiter(1000, 100, clock::get);
+
+    long copied = 0;
+    while (copied < 10_000) {
+      clock.addAndGet(limiter.recordCopied(30));
+      copied += 30;
+    }
+
+    assertThat(clock.get()).isBetween(TimeUnit.MILLISECONDS.toNanos(9_800),
+        TimeUnit.MILLISECONDS.toNanos(10_100));
+  }
+
+  @Test
+  public void rejectsNonPositiveRate() {
+    Throwable thrown = catchThrowable(() -> new CompactionRateLimiter(0, 100, clock::get));
+
+    assertThat(thrown).isInstanceOf(IllegalArgumentException.class);
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.After;
+import org.junit.Test;
+
+public class GroupCommitterTest {
+
+  private final ExecutorService executor = Executors.newFixedThreadPool(8);
+
+  @After
+  public void tearDown() {
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void singleWriterForcesAfterMaxWait() throws Exception {
+    AtomicInteger forces = new AtomicInteger();
+    GroupCommitter committer =
+        new GroupCommitter(writes -> forces.incrementAndGet(), TimeUnit.MILLISECONDS.toNanos(1), 8);
+
+    committer.awaitForce();
+    committer.awaitForce();
+
+    assertThat(forces.get()).isEqualTo(2);
+  }
+
+  @Test
+  public void concurrentWritersShareForces() throws Exception {
+    AtomicInteger forces = new AtomicInteger();
+    AtomicInteger forcedWrites = new AtomicInteger();
+    GroupCommitter committer = new GroupCommitter(writes -> {
+      forces.incrementAndGet();
+      forcedWrites.addAndGet(writes);
+    }, TimeUnit.SECONDS.toNanos(10), 8);
+
+    CountDownLatch start = new CountDownLatch(1);
+    List<Future<?>> writers = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      writers.add(executor.submit(() -> {
+        start.await();
+        committer.awaitForce();
+        return null;
+      }));
+    }
+    start.countDown();
+    for (Future<?> writer : writers) {
+      writer.get(30, TimeUnit.SECONDS);
+    }
+
+    // a full batch is forced without waiting for the max wait
+    assertThat(forcedWrites.get()).isEqualTo(8);
+    assertThat(forces.get()).isLessThan(8);
+  }
+
+  @Test
+  public void failedForceIsThrownToEveryWriterOfTheBatch() throws Exception {
+    IOException failure = new IOException("disk gone");
+    GroupCommitter committer = new GroupCommitter(writes -> {
+      throw failure;
+    }, TimeUnit.SECONDS.toNanos(10), 2);
+
+    Future<?> first = executor.submit(() -> {
+      committer.awaitForce();
+      return null;
+    });
+    Throwable thrown = catchThrowable(committer::awaitForce);
+    assertThat(thrown).isInstanceOf(IOException.class);
+    assertThat(thrown.getCause()).isSameAs(failure);
+
+    Throwable thrownByFirst = catchThrowable(() -> first.get(30, TimeUnit.SECONDS));
+    assertThat(thrownByFirst.getCause().getCause()).isSameAs(failure);
+  }
+}
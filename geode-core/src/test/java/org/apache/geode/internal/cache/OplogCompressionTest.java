@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.contrib.java.lang.system.RestoreSystemProperties;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.OplogCompression.Codec;
+import org.apache.geode.test.junit.categories.CompressionTest;
+
+@Category({CompressionTest.class})
+public class OplogCompressionTest {
+
+  @Rule
+  public final RestoreSystemProperties restoreSystemProperties = new RestoreSystemProperties();
+
+  private static byte[] json(int records) {
+    StringBuilder builder = new StringBuilder("[");
+    for (int i = 0; i < records; i++) {
+      builder.append("{\"id\":").append(i).append(",\"name\":\"customer\",\"active\":true},");
+    }
+    return builder.append("]").toString().getBytes(StandardCharsets.UTF_8);
+  }
+
+  @Test
+  public void everyCodecRoundTripsAndShrinksRepetitiveValues() {
+    byte[] value = json(100);
+    for (Codec codec : Codec.values()) {
+      byte[] compressed = new OplogCompression(codec).compress(value, value.length);
+
+      assertThat(compressed).as(codec.name()).isNotNull();
+      assertThat(compressed.length).as(codec.name()).isLessThan(value.length / 2);
+      assertThat(OplogCompression.decompress(compressed)).as(codec.name()).isEqualTo(value);
+    }
+  }
+
+  @Test
+  public void compressesOnlyTheValidLengthOfTheValue() {
+    byte[] value = json(20);
+    byte[] padded = Arrays.copyOf(value, value.length + 100);
+
+    byte[] compressed = new OplogCompression(Codec.LZ4).compress(padded, value.length);
+
+    assertThat(OplogCompression.decompress(compressed)).isEqualTo(value);
+  }
+
+  @Test
+  public void smallOrIncompressibleValuesAreNotCompressed() {
+    byte[] random = new byte[1024];
+    new Random(1).nextBytes(random);
+    OplogCompression compression = new OplogCompression(Codec.ZSTD);
+
+    assertThat(compression.compress(new byte[10], 10)).isNull();
+    assertThat(compression.compress(random, random.length)).isNull();
+  }
+
+  @Test
+  public void codecIsSelectedPerDiskStore() {
+    System.setProperty(OplogCompression.COMPRESSION_PROPERTY, "lz4");
+    System.setProperty(OplogCompression.COMPRESSION_PROPERTY + ".archive", "zstd");
+    System.setProperty(OplogCompression.COMPRESSION_PROPERTY + ".plain", "none");
+
+    assertThat(OplogCompression.forDiskStore("archive").getCodec()).isEqualTo(Codec.ZSTD);
+    assertThat(OplogCompression.forDiskStore("other").getCodec()).isEqualTo(Codec.LZ4);
+    assertThat(OplogCompression.forDiskStore("plain")).isNull();
+  }
+
+  @Test
+  public void unknownCodecIsRejected() {
+    System.setProperty(OplogCompression.COMPRESSION_PROPERTY, "gzip");
+
+    Throwable thrown = catchThrowable(() -> OplogCompression.forDiskStore("store"));
+
+    assertThat(thrown).isInstanceOf(IllegalArgumentException.class).hasMessageContaining("gzip");
+  }
+
+  @Test
+  public void compressedBitIsPersistent() {
+    byte bits = EntryBits.setCompressed(EntryBits.setSerialized((byte) 0, true), true);
+
+    assertThat(EntryBits.isCompressed(EntryBits.getPersistentBits(bits))).isTrue();
+    assertThat(EntryBits.isCompressed(EntryBits.setCompressed(bits, false))).isFalse();
+  }
+}
@@ -0,0 +1,98 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.file.Files;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class OplogFileMappingTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private File file;
+
+  @Before
+  public void setup() throws Exception {
+    file = temporaryFolder.newFile("BACKUPdiskStore_1.crf");
+    byte[] contents = new byte[100];
+    for (int i = 0; i < contents.length; i++) {
+      contents[i] = (byte) i;
+    }
+    Files.write(file.toPath(), contents);
+  }
+
+  @Test
+  public void readsBytesAtOffset() throws Exception {
+    OplogFileMapping mapping = OplogFileMapping.map(file, 100);
+
+    assertThat(mapping.read(10, 3)).containsExactly(10, 11, 12);
+    assertThat(mapping.read(97, 3)).containsExactly(97, 98, 99);
+  }
+
+  @Test
+  public void mapsOnlyTheGivenSize() throws Exception {
+    OplogFileMapping mapping = OplogFileMapping.map(file, 50);
+
+    assertThat(mapping.capacity()).isEqualTo(50);
+    assertThat(mapping.read(48, 2)).containsExactly(48, 49);
+  }
+
+  @Test
+  public void readOutsideOfTheMappingReturnsNullToFallBackToTheFile() throws Exception {
+    OplogFileMapping mapping = OplogFileMapping.map(file, 50);
+
+    assertThat(mapping.read(49, 2)).isNull();
+    assertThat(mapping.read(-1, 2)).isNull();
+  }
+
+  @Test
+  public void readAfterCloseReturnsNullToFallBackToTheFile() throws Exception {
+    OplogFileMapping mapping = OplogFileMapping.map(file, 100);
+
+    mapping.close();
+
+    assertThat(mapping.isUnmapped()).isTrue();
+    assertThat(mapping.read(10, 3)).isNull();
+  }
+
+  @Test
+  public void closingTwiceIsHarmless() throws Exception {
+    OplogFileMapping mapping = OplogFileMapping.map(file, 100);
+
+    mapping.close();
+    mapping.close();
+
+    assertThat(mapping.isUnmapped()).isTrue();
+  }
+
+  @Test
+  public void fileCanBeDeletedAfterClose() throws Exception {
+    OplogFileMapping mapping = OplogFileMapping.map(file, 100);
+    mapping.read(0, 10);
+
+    mapping.close();
+
+    assertThat(file.delete()).isTrue();
+    assertThat(mapping.read(0, 10)).isNull();
+  }
+}
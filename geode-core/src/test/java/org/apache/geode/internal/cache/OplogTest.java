@@ -80,4 +80,9 @@ public class OplogTest {
     verify(oplog, times(1)).handleNoLiveValues();
     assertThat(oplog.getTotalLiveCount().get()).isEqualTo(0);
   }
+
+  @Test
+  public void closedOplogIsNotMappedSoReadsFallBackToTheFile() {
+    assertThat(oplog.getCrfMapping()).isNull();
+  }
 }
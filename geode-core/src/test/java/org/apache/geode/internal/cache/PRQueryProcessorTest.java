@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static java.util.Arrays.asList;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.PRQueryProcessor.PRQueryExecutor;
+import org.apache.geode.test.junit.categories.OQLQueryTest;
+
+@Category(OQLQueryTest.class)
+public class PRQueryProcessorTest {
+
+  private int reserved;
+
+  @After
+  public void tearDown() {
+    PRQueryExecutor.releaseThreads(reserved);
+    PRQueryProcessor.TEST_NUM_THREADS = 0;
+  }
+
+  @Test
+  public void maxThreadsDefaultsToAvailableProcessors() {
+    assertThat(PRQueryProcessor.getMaxThreads())
+        .isEqualTo(Runtime.getRuntime().availableProcessors());
+  }
+
+  @Test
+  public void maxThreadsCanBeSetForTests() {
+    PRQueryProcessor.TEST_NUM_THREADS = 5;
+
+    assertThat(PRQueryProcessor.getMaxThreads()).isEqualTo(5);
+  }
+
+  @Test
+  public void reservesThreadsLeftByOtherQueries() {
+    reserved += PRQueryExecutor.reserveThreads(2, 4);
+    assertThat(reserved).isEqualTo(2);
+
+    int more = PRQueryExecutor.reserveThreads(2, 4);
+    reserved += more;
+
+    // the calling thread of each query is not a pool thread, so one of the four stays free
+    assertThat(more).isEqualTo(1);
+    assertThat(PRQueryExecutor.reserveThreads(2, 4)).isZero();
+  }
+
+  @Test
+  public void releasedThreadsCanBeReservedAgain() {
+    reserved += PRQueryExecutor.reserveThreads(3, 4);
+    PRQueryExecutor.releaseThreads(reserved);
+    reserved = 0;
+
+    reserved += PRQueryExecutor.reserveThreads(3, 4);
+
+    assertThat(reserved).isEqualTo(3);
+  }
+
+  @Test
+  public void trimToLimitDropsResultsBeyondTheLimit() {
+    List<Collection> resultCollector = new ArrayList<>();
+    resultCollector.add(asList(1, 2, 3));
+    resultCollector.add(asList(4, 5, 6));
+    resultCollector.add(asList(7, 8, 9));
+
+    PRQueryProcessor.trimToLimit(resultCollector, 5);
+
+    assertThat(resultCollector).hasSize(2);
+    assertThat(resultCollector.get(0)).containsExactly(1, 2, 3);
+    assertThat(resultCollector.get(1)).containsExactly(4, 5);
+  }
+
+  @Test
+  public void trimToLimitKeepsResultsWithinTheLimit() {
+    List<Collection> resultCollector = new ArrayList<>();
+    resultCollector.add(asList(1, 2));
+    resultCollector.add(asList(3));
+
+    PRQueryProcessor.trimToLimit(resultCollector, 3);
+
+    assertThat(resultCollector).hasSize(2);
+    assertThat(resultCollector.get(0)).containsExactly(1, 2);
+    assertThat(resultCollector.get(1)).containsExactly(3);
+  }
+}
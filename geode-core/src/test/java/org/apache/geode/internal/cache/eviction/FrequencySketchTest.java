@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+
+public class FrequencySketchTest {
+
+  @Test
+  public void frequencyOfUnknownItemIsZero() {
+    FrequencySketch sketch = new FrequencySketch();
+
+    assertThat(sketch.frequency("key".hashCode())).isZero();
+  }
+
+  @Test
+  public void incrementIncreasesFrequency() {
+    FrequencySketch sketch = new FrequencySketch();
+
+    sketch.increment("key".hashCode());
+    sketch.increment("key".hashCode());
+
+    assertThat(sketch.frequency("key".hashCode())).isEqualTo(2);
+  }
+
+  @Test
+  public void frequencyDoesNotExceedMaximum() {
+    FrequencySketch sketch = new FrequencySketch();
+    sketch.ensureCapacity(1024);
+
+    for (int i = 0; i < 100; i++) {
+      sketch.increment("key".hashCode());
+    }
+
+    assertThat(sketch.frequency("key".hashCode())).isEqualTo(FrequencySketch.MAX_FREQUENCY);
+  }
+
+  @Test
+  public void resetHalvesFrequency() {
+    FrequencySketch sketch = new FrequencySketch();
+    for (int i = 0; i < 6; i++) {
+      sketch.increment("key".hashCode());
+    }
+
+    sketch.reset();
+
+    assertThat(sketch.frequency("key".hashCode())).isEqualTo(3);
+  }
+
+  @Test
+  public void growingForgetsFrequencies() {
+    FrequencySketch sketch = new FrequencySketch();
+    sketch.increment("key".hashCode());
+
+    sketch.ensureCapacity(1024);
+
+    assertThat(sketch.frequency("key".hashCode())).isZero();
+  }
+}
@@ -0,0 +1,108 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import org.apache.geode.internal.cache.CachePerfStats;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.control.HeapMemoryMonitor;
+import org.apache.geode.internal.cache.control.InternalResourceManager;
+import org.apache.geode.internal.cache.control.MemoryMonitor;
+import org.apache.geode.internal.cache.control.MemoryThresholds;
+
+public class HeapEvictorTest {
+
+  private static final long BYTES_TO_EVICT = 100;
+
+  private static final long EVICTION_THRESHOLD_CLEAR_BYTES = 1000;
+
+  private HeapMemoryMonitor monitor;
+  private HeapEvictor evictor;
+  private long bytesUsedAfterCollection;
+
+  @Before
+  public void setup() {
+    InternalCache cache = mock(InternalCache.class);
+    when(cache.getCachePerfStats()).thenReturn(mock(CachePerfStats.class));
+    InternalResourceManager resourceManager = mock(InternalResourceManager.class);
+    when(cache.getResourceManager()).thenReturn(resourceManager);
+    monitor = mock(HeapMemoryMonitor.class);
+    when(resourceManager.getMemoryMonitor(false)).thenReturn(monitor);
+    MemoryThresholds thresholds = mock(MemoryThresholds.class);
+    when(thresholds.getEvictionThresholdClearBytes()).thenReturn(EVICTION_THRESHOLD_CLEAR_BYTES);
+    when(monitor.getThresholds()).thenReturn(thresholds);
+
+    evictor = new HeapEvictor(cache) {
+      @Override
+      public long getTotalBytesToEvict() {
+        return BYTES_TO_EVICT;
+      }
+
+      @Override
+      long getBytesUsedAfterCollection(MemoryMonitor monitor) {
+        return bytesUsedAfterCollection;
+      }
+    };
+  }
+
+  @After
+  public void tearDown() {
+    evictor.close();
+  }
+
+  @Test
+  public void changedMemoryUsageAfterCollectionAboveThresholdAddsFastLoops() {
+    bytesUsedAfterCollection = EVICTION_THRESHOLD_CLEAR_BYTES + 3 * BYTES_TO_EVICT;
+
+    evictor.updateFastLoopsFromMemoryMonitor();
+
+    assertThat(evictor.numFastLoops()).isEqualTo(4);
+  }
+
+  @Test
+  public void memoryUsageAfterCollectionBelowThresholdDoesNotAddFastLoops() {
+    bytesUsedAfterCollection = EVICTION_THRESHOLD_CLEAR_BYTES - 2 * BYTES_TO_EVICT;
+
+    evictor.updateFastLoopsFromMemoryMonitor();
+
+    assertThat(evictor.numFastLoops()).isZero();
+  }
+
+  @Test
+  public void currentMemoryUsageIsNotUsedAsFeedback() {
+    when(monitor.getBytesUsed()).thenReturn(EVICTION_THRESHOLD_CLEAR_BYTES + 3 * BYTES_TO_EVICT);
+    bytesUsedAfterCollection = EVICTION_THRESHOLD_CLEAR_BYTES - 2 * BYTES_TO_EVICT;
+
+    evictor.updateFastLoopsFromMemoryMonitor();
+
+    assertThat(evictor.numFastLoops()).isZero();
+  }
+
+  @Test
+  public void unknownMemoryUsageAfterCollectionDoesNotAddFastLoops() {
+    bytesUsedAfterCollection = -1;
+
+    evictor.updateFastLoopsFromMemoryMonitor();
+
+    assertThat(evictor.numFastLoops()).isZero();
+  }
+}
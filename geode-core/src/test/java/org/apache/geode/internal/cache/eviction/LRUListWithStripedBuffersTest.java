@@ -0,0 +1,188 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class LRUListWithStripedBuffersTest {
+
+  private EvictionCounters stats;
+  private EvictionController controller;
+
+  @Before
+  public void setup() {
+    stats = mock(EvictionCounters.class);
+    controller = mock(EvictionController.class);
+    when(controller.getCounters()).thenReturn(stats);
+  }
+
+  private static EvictableEntry createNode() {
+    return mock(EvictableEntry.class, delegatesTo(new LinkableEvictionNode()));
+  }
+
+  @Test
+  public void evictingFromEmptyListReturnsNull() {
+    LRUListWithStripedBuffers list = new LRUListWithStripedBuffers(controller);
+
+    assertThat(list.getEvictableEntry()).isNull();
+    assertThat(list.size()).isZero();
+  }
+
+  @Test
+  public void appendedNodeIsLinkedWhenBuffersAreDrained() {
+    LRUListWithStripedBuffers list = new LRUListWithStripedBuffers(controller);
+    list.appendEntry(createNode());
+    assertThat(list.size()).isZero();
+
+    list.drainBuffers();
+
+    assertThat(list.size()).isOne();
+  }
+
+  @Test
+  public void appendingLinkedNodeIsIgnored() {
+    LRUListWithStripedBuffers list = new LRUListWithStripedBuffers(controller);
+    EvictableEntry node = createNode();
+    list.appendEntry(node);
+    list.appendEntry(node);
+    list.drainBuffers();
+
+    list.appendEntry(node);
+    list.drainBuffers();
+
+    assertThat(list.size()).isOne();
+  }
+
+  @Test
+  public void evictsNodesInTheOrderTheyWereAppended() {
+    LRUListWithStripedBuffers list = new LRUListWithStripedBuffers(controller);
+    EvictableEntry first = createNode();
+    EvictableEntry second = createNode();
+    list.appendEntry(first);
+    list.appendEntry(second);
+
+    assertThat(list.getEvictableEntry()).isSameAs(first);
+    assertThat(list.getEvictableEntry()).isSameAs(second);
+    assertThat(list.getEvictableEntry()).isNull();
+  }
+
+  @Test
+  public void doesNotEvictRecentlyUsedNode() {
+    LRUListWithStripedBuffers list = new LRUListWithStripedBuffers(controller);
+    EvictableEntry recentlyUsedNode = createNode();
+    when(recentlyUsedNode.isRecentlyUsed()).thenReturn(true, false);
+    EvictableEntry node = createNode();
+    list.appendEntry(recentlyUsedNode);
+    list.appendEntry(node);
+
+    assertThat(list.getEvictableEntry()).isSameAs(node);
+    verify(recentlyUsedNode).unsetRecentlyUsed();
+    assertThat(list.size()).isOne();
+    assertThat(list.getEvictableEntry()).isSameAs(recentlyUsedNode);
+  }
+
+  @Test
+  public void destroyedNodeIsNotLinkedAfterwards() {
+    LRUListWithStripedBuffers list = new LRUListWithStripedBuffers(controller);
+    EvictableEntry node = createNode();
+    list.appendEntry(node);
+
+    list.destroyEntry(node);
+
+    assertThat(list.size()).isZero();
+    assertThat(list.getEvictableEntry()).isNull();
+    verify(stats).incDestroys();
+  }
+
+  @Test
+  public void destroyWaitsForNodeClaimedButNotYetStoredBeforeIt() throws Exception {
+    LRUListWithStripedBuffers list = new LRUListWithStripedBuffers(controller, 1);
+    EvictableEntry slow = createNode();
+    EvictableEntry destroyed = createNode();
+    LRUListWithStripedBuffers.Buffer buffer = list.getBuffer(Thread.currentThread());
+    long slot = buffer.claim();
+    list.appendEntry(destroyed);
+
+    Thread destroyer = new Thread(() -> list.destroyEntry(destroyed));
+    destroyer.start();
+    destroyer.join(100);
+    assertThat(destroyer.isAlive()).as("destroy waits for the claimed slot").isTrue();
+
+    buffer.publish(slot, slow);
+    destroyer.join();
+
+    verify(stats).incDestroys();
+    list.drainBuffers();
+    assertThat(list.size()).isOne();
+    assertThat(list.getEvictableEntry()).isSameAs(slow);
+    assertThat(list.getEvictableEntry()).isNull();
+  }
+
+  @Test
+  public void clearDiscardsBufferedNodes() {
+    LRUListWithStripedBuffers list = new LRUListWithStripedBuffers(controller);
+    list.appendEntry(createNode());
+
+    list.clear(null, null);
+
+    assertThat(list.getEvictableEntry()).isNull();
+  }
+
+  @Test
+  public void fullBufferIsDrainedByAppendingThread() {
+    LRUListWithStripedBuffers list = new LRUListWithStripedBuffers(controller, 1);
+
+    for (int i = 0; i <= LRUListWithStripedBuffers.BUFFER_SIZE; i++) {
+      list.appendEntry(createNode());
+    }
+
+    assertThat(list.size()).isEqualTo(LRUListWithStripedBuffers.BUFFER_SIZE);
+  }
+
+  @Test
+  public void nodesAppendedConcurrentlyAreAllLinked() throws Exception {
+    LRUListWithStripedBuffers list = new LRUListWithStripedBuffers(controller, 2);
+    int threadCount = 4;
+    int nodesPerThread = 1000;
+    List<Thread> threads = new ArrayList<>();
+    for (int i = 0; i < threadCount; i++) {
+      List<EvictableEntry> nodes = new ArrayList<>();
+      for (int j = 0; j < nodesPerThread; j++) {
+        nodes.add(createNode());
+      }
+      threads.add(new Thread(() -> nodes.forEach(list::appendEntry)));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    list.drainBuffers();
+
+    assertThat(list.size()).isEqualTo(threadCount * nodesPerThread);
+  }
+}
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class WindowTinyLFUListTest {
+
+  private EvictionCounters stats;
+  private EvictionController controller;
+
+  @Before
+  public void setup() {
+    stats = mock(EvictionCounters.class);
+    controller = mock(EvictionController.class);
+    when(controller.getCounters()).thenReturn(stats);
+  }
+
+  private static EvictableEntry createNode(Object key) {
+    EvictableEntry node = mock(EvictableEntry.class, delegatesTo(new LinkableEvictionNode()));
+    doReturn(key).when(node).getKeyForSizing();
+    return node;
+  }
+
+  @Test
+  public void evictingFromEmptyListReturnsNull() {
+    WindowTinyLFUList list = new WindowTinyLFUList(controller);
+
+    assertThat(list.getEvictableEntry()).isNull();
+    assertThat(list.size()).isZero();
+  }
+
+  @Test
+  public void appendingLinkedNodeIsIgnored() {
+    WindowTinyLFUList list = new WindowTinyLFUList(controller);
+    EvictableEntry node = createNode("key");
+
+    list.appendEntry(node);
+    list.appendEntry(node);
+
+    assertThat(list.size()).isOne();
+  }
+
+  @Test
+  public void evictsNodesInTheOrderTheyWereAppendedWhenUsedEquallyOften() {
+    WindowTinyLFUList list = new WindowTinyLFUList(controller);
+    EvictableEntry first = createNode("first");
+    EvictableEntry second = createNode("second");
+    list.appendEntry(first);
+    list.appendEntry(second);
+
+    assertThat(list.getEvictableEntry()).isSameAs(first);
+    assertThat(list.getEvictableEntry()).isSameAs(second);
+    assertThat(list.getEvictableEntry()).isNull();
+  }
+
+  @Test
+  public void frequentlyUsedNodeIsNotEvictedByNodesUsedOnce() {
+    WindowTinyLFUList list = new WindowTinyLFUList(controller);
+    EvictableEntry frequentlyUsedNode = createNode("frequent");
+    list.appendEntry(frequentlyUsedNode);
+    for (int i = 0; i < 20; i++) {
+      list.appendEntry(createNode("key-" + i));
+    }
+    for (int i = 0; i < 5; i++) {
+      list.appendEntry(frequentlyUsedNode);
+    }
+
+    List<EvictableEntry> evicted = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      evicted.add(list.getEvictableEntry());
+    }
+
+    assertThat(evicted).doesNotContain(frequentlyUsedNode).doesNotContainNull();
+    assertThat(list.size()).isEqualTo(11);
+  }
+
+  @Test
+  public void destroyedNodeIsNotEvicted() {
+    WindowTinyLFUList list = new WindowTinyLFUList(controller);
+    EvictableEntry node = createNode("key");
+    list.appendEntry(node);
+
+    list.destroyEntry(node);
+
+    assertThat(list.size()).isZero();
+    assertThat(list.getEvictableEntry()).isNull();
+    verify(stats).incDestroys();
+  }
+
+  @Test
+  public void nodesAppendedAfterClearAreEvicted() {
+    WindowTinyLFUList list = new WindowTinyLFUList(controller);
+    list.appendEntry(createNode("first"));
+    list.appendEntry(createNode("second"));
+
+    list.clear(null, null);
+    assertThat(list.size()).isZero();
+    EvictableEntry node = createNode("third");
+    list.appendEntry(node);
+
+    assertThat(list.getEvictableEntry()).isSameAs(node);
+    assertThat(list.getEvictableEntry()).isNull();
+  }
+}
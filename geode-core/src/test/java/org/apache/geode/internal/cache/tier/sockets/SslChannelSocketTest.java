@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import static org.apache.geode.test.awaitility.GeodeAwaitility.getTimeout;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.internal.DMStats;
+import org.apache.geode.internal.net.BufferPool;
+import org.apache.geode.internal.net.NioFilter;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.rules.ExecutorServiceRule;
+
+@Category(ClientServerTest.class)
+public class SslChannelSocketTest {
+
+  private static final byte MASK = 0x5a;
+
+  private ServerSocketChannel serverChannel;
+  private SocketChannel clientChannel;
+  private SocketChannel acceptedChannel;
+  private BufferPool bufferPool;
+
+  @Rule
+  public ExecutorServiceRule executorServiceRule = new ExecutorServiceRule();
+
+  @Before
+  public void setUp() throws IOException {
+    serverChannel = ServerSocketChannel.open();
+    serverChannel.bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    clientChannel = SocketChannel.open(serverChannel.getLocalAddress());
+    acceptedChannel = serverChannel.accept();
+    bufferPool = new BufferPool(mock(DMStats.class));
+  }
+
+  @After
+  public void tearDown() throws IOException {
+    clientChannel.close();
+    acceptedChannel.close();
+    serverChannel.close();
+  }
+
+  @Test
+  public void channelIsHiddenFromMessage() throws IOException {
+    SslChannelSocket socket = createSocket(ByteBuffer.allocate(64));
+
+    assertThat(socket.getChannel()).isNull();
+    assertThat(socket.getSocketChannel()).isSameAs(acceptedChannel);
+    assertThat(ServerConnection.allocateCommBuffer(32, socket).isDirect()).isFalse();
+  }
+
+  @Test
+  public void inputStreamUnwrapsBytesFromChannel() throws IOException {
+    SslChannelSocket socket = createSocket(ByteBuffer.allocate(64));
+    clientChannel.write(mask(new byte[] {1, 2, 3, 4}));
+
+    byte[] bytes = new byte[3];
+    InputStream inputStream = socket.getInputStream();
+    assertThat(inputStream.read(bytes, 0, 3)).isEqualTo(3);
+    assertThat(bytes).isEqualTo(new byte[] {1, 2, 3});
+    assertThat(socket.hasBufferedInput()).isTrue();
+    assertThat(inputStream.read()).isEqualTo(4);
+    assertThat(socket.hasBufferedInput()).isFalse();
+  }
+
+  @Test
+  public void bytesLeftByHandshakeAreReadFirst() throws IOException {
+    ByteBuffer netBuffer = ByteBuffer.allocate(64);
+    netBuffer.put(mask(new byte[] {7, 8}));
+    SslChannelSocket socket = createSocket(netBuffer);
+
+    assertThat(socket.hasBufferedInput()).isTrue();
+    assertThat(socket.getInputStream().read()).isEqualTo(7);
+    assertThat(socket.getInputStream().read()).isEqualTo(8);
+  }
+
+  @Test
+  public void outputStreamWrapsBytesToChannel() throws IOException {
+    SslChannelSocket socket = createSocket(ByteBuffer.allocate(64));
+
+    socket.getOutputStream().write(new byte[] {9, 10, 11}, 1, 2);
+
+    ByteBuffer received = ByteBuffer.allocate(2);
+    while (received.hasRemaining()) {
+      clientChannel.read(received);
+    }
+    assertThat(received.array()).isEqualTo(new byte[] {10 ^ MASK, 11 ^ MASK});
+  }
+
+  @Test
+  public void inputStreamUnwrapsWhileOutputStreamWaitsOnChannel() throws Exception {
+    SslChannelSocket socket = createSocket(ByteBuffer.allocate(64));
+    // the client does not read, so the writer fills the socket buffers and waits on the channel
+    executorServiceRule.submit(() -> {
+      byte[] bytes = new byte[64 * 1024];
+      for (int i = 0; i < 1024; i++) {
+        socket.getOutputStream().write(bytes);
+      }
+      return null;
+    });
+    clientChannel.write(mask(new byte[] {5}));
+
+    Future<Integer> read = executorServiceRule.submit(() -> socket.getInputStream().read());
+
+    assertThat(read.get(getTimeout().getValueInMS(), TimeUnit.MILLISECONDS)).isEqualTo(5);
+  }
+
+  @Test
+  public void inputStreamReturnsEndOfStreamWhenPeerCloses() throws IOException {
+    SslChannelSocket socket = createSocket(ByteBuffer.allocate(64));
+    clientChannel.close();
+
+    assertThat(socket.getInputStream().read()).isEqualTo(-1);
+  }
+
+  @Test
+  public void closeClosesAcceptedSocket() throws IOException {
+    SslChannelSocket socket = createSocket(ByteBuffer.allocate(64));
+
+    socket.close();
+
+    assertThat(socket.isClosed()).isTrue();
+    assertThat(acceptedChannel.isOpen()).isFalse();
+  }
+
+  private SslChannelSocket createSocket(ByteBuffer netBuffer) throws IOException {
+    return new SslChannelSocket(acceptedChannel.socket(), new MaskingFilter(), netBuffer,
+        bufferPool);
+  }
+
+  private static ByteBuffer mask(byte[] bytes) {
+    byte[] masked = new byte[bytes.length];
+    for (int i = 0; i < bytes.length; i++) {
+      masked[i] = (byte) (bytes[i] ^ MASK);
+    }
+    return ByteBuffer.wrap(masked);
+  }
+
+  /**
+   * A stand in for an SSLEngine based filter that "encrypts" by masking each byte
+   */
+  private static class MaskingFilter implements NioFilter {
+    private final ByteBuffer appData = ByteBuffer.allocate(64);
+
+    @Override
+    public synchronized ByteBuffer wrap(ByteBuffer buffer) {
+      byte[] bytes = new byte[buffer.remaining()];
+      buffer.get(bytes);
+      return mask(bytes);
+    }
+
+    /**
+     * synchronized like {@link org.apache.geode.internal.net.NioSslEngine#unwrap}
+     */
+    @Override
+    public synchronized ByteBuffer unwrap(ByteBuffer wrappedBuffer) {
+      while (wrappedBuffer.hasRemaining()) {
+        appData.put((byte) (wrappedBuffer.get() ^ MASK));
+      }
+      wrappedBuffer.clear();
+      return appData;
+    }
+
+    @Override
+    public ByteBuffer ensureWrappedCapacity(int amount, ByteBuffer wrappedBuffer,
+        BufferPool.BufferType bufferType) {
+      return wrappedBuffer;
+    }
+
+    @Override
+    public ByteBuffer readAtLeast(SocketChannel channel, int amount, ByteBuffer wrappedBuffer) {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public ByteBuffer getUnwrappedBuffer(ByteBuffer wrappedBuffer) {
+      return appData;
+    }
+  }
+}
@@ -0,0 +1,93 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.logging;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.logging.LoggingThreadFactory.CommandWrapper;
+import org.apache.geode.internal.logging.LoggingThreadFactory.ThreadInitializer;
+import org.apache.geode.test.junit.categories.LoggingTest;
+
+/**
+ * Unit tests for {@link VirtualThreadFactory}.
+ */
+@Category(LoggingTest.class)
+public class VirtualThreadFactoryTest {
+
+  @Test
+  public void isNotEnabledWithoutSystemProperty() {
+    assumeFalse(Boolean.getBoolean(VirtualThreadFactory.USE_VIRTUAL_THREADS_PROPERTY));
+
+    assertThat(VirtualThreadFactory.isEnabled()).isFalse();
+  }
+
+  @Test
+  public void constructorThrowsIfVirtualThreadsAreNotSupported() {
+    assumeFalse(VirtualThreadFactory.isSupported());
+
+    Throwable thrown = catchThrowable(() -> new VirtualThreadFactory("baseName", null, null));
+
+    assertThat(thrown).isInstanceOf(UnsupportedOperationException.class);
+  }
+
+  @Test
+  public void verifyThreadNamesAndDaemon() {
+    assumeTrue(VirtualThreadFactory.isSupported());
+    VirtualThreadFactory factory = new VirtualThreadFactory("baseName", null, null);
+
+    Thread first = factory.newThread(mock(Runnable.class));
+    Thread second = factory.newThread(mock(Runnable.class));
+
+    assertThat(first.getName()).isEqualTo("baseName" + 1);
+    assertThat(second.getName()).isEqualTo("baseName" + 2);
+    assertThat(first.isDaemon()).isTrue();
+  }
+
+  @Test
+  public void verifyThreadHasExpectedHandler() {
+    assumeTrue(VirtualThreadFactory.isSupported());
+    VirtualThreadFactory factory = new VirtualThreadFactory("baseName", null, null);
+
+    Thread thread = factory.newThread(mock(Runnable.class));
+
+    assertThat(thread.getUncaughtExceptionHandler())
+        .isSameAs(LoggingUncaughtExceptionHandler.getInstance());
+  }
+
+  @Test
+  public void verifyThreadInitializerAndCommandWrapperCalled() throws InterruptedException {
+    assumeTrue(VirtualThreadFactory.isSupported());
+    ThreadInitializer threadInitializer = mock(ThreadInitializer.class);
+    CommandWrapper commandWrapper = mock(CommandWrapper.class);
+    Runnable command = mock(Runnable.class);
+    VirtualThreadFactory factory =
+        new VirtualThreadFactory("baseName", threadInitializer, commandWrapper);
+
+    Thread thread = factory.newThread(command);
+    thread.start();
+    thread.join();
+
+    verify(threadInitializer).initialize(thread);
+    verify(commandWrapper).invoke(command);
+  }
+}
@@ -720,6 +720,92 @@ public class FreeListManagerTest {
     assertThat(ob).hasSize(3);
   }
 
+  @Test
+  public void tinyChunkFreedToThreadAllocationCacheIsReusedByTheSameThread() {
+    setUpSingleSlabManager();
+    this.freeListManager.enableThreadAllocationCaches();
+    OffHeapStoredObject c = this.freeListManager.allocate(24);
+    OffHeapStoredObject.release(c.getAddress(), this.freeListManager);
+
+    assertThat(this.freeListManager.getFreeTinyMemory()).isEqualTo(computeExpectedSize(24));
+    assertThat(this.freeListManager.getOrderedBlocks()).hasSize(2);
+    assertThat(this.freeListManager.allocate(24).getAddress()).isEqualTo(c.getAddress());
+  }
+
+  @Test
+  public void tinyChunksCachedByThreadsAreReturnedToSharedFreeListOnOverflow() {
+    setUpSingleSlabManager();
+    this.freeListManager.enableThreadAllocationCaches();
+    List<OffHeapStoredObject> chunks = new ArrayList<>();
+    for (int i = 0; i < 2 * FreeListManager.THREAD_CACHE_BATCH_SIZE + 1; i++) {
+      chunks.add(this.freeListManager.allocate(24));
+    }
+    for (OffHeapStoredObject c : chunks) {
+      OffHeapStoredObject.release(c.getAddress(), this.freeListManager);
+    }
+
+    assertThat(this.freeListManager.getFreeTinyMemory())
+        .isEqualTo(chunks.size() * computeExpectedSize(24));
+    assertThat(this.freeListManager.allocate(24).getAddress())
+        .isEqualTo(chunks.get(chunks.size() - 1).getAddress());
+  }
+
+  @Test
+  public void defragmentCollectsTinyChunksCachedByThreads() {
+    int slabSize = 1024;
+    setUpSingleSlabManager(slabSize);
+    this.freeListManager.enableThreadAllocationCaches();
+    OffHeapStoredObject c1 = this.freeListManager.allocate(slabSize / 2 - 8);
+    OffHeapStoredObject c2 = this.freeListManager.allocate(24);
+    OffHeapStoredObject c3 = this.freeListManager.allocate(slabSize / 2 - 8 - 32);
+    OffHeapStoredObject.release(c1.getAddress(), this.freeListManager);
+    OffHeapStoredObject.release(c2.getAddress(), this.freeListManager);
+    OffHeapStoredObject.release(c3.getAddress(), this.freeListManager);
+    this.freeListManager.firstDefragmentation = false;
+
+    assertThat(this.freeListManager.defragment(slabSize)).isTrue();
+    assertThat(this.freeListManager.getFreeTinyMemory()).isZero();
+  }
+
+  @Test
+  public void tinyChunksCachedByTerminatedThreadsCanBeReclaimed() throws Exception {
+    setUpSingleSlabManager();
+    this.freeListManager.enableThreadAllocationCaches();
+    OffHeapStoredObject c = this.freeListManager.allocate(24);
+    Thread thread =
+        new Thread(() -> OffHeapStoredObject.release(c.getAddress(), this.freeListManager));
+    thread.start();
+    thread.join();
+
+    this.freeListManager.reclaimDeadThreadAllocationCaches();
+
+    assertThat(this.freeListManager.getFreeTinyMemory()).isEqualTo(computeExpectedSize(24));
+    assertThat(this.freeListManager.allocate(24).getAddress()).isEqualTo(c.getAddress());
+  }
+
+  @Test
+  public void tinyChunksCachedByTerminatedThreadsAreReclaimedWhenAnotherThreadRegisters()
+      throws Exception {
+    setUpSingleSlabManager();
+    this.freeListManager.enableThreadAllocationCaches();
+    OffHeapStoredObject c1 = this.freeListManager.allocate(24);
+    OffHeapStoredObject c2 = this.freeListManager.allocate(24);
+    Thread first =
+        new Thread(() -> OffHeapStoredObject.release(c1.getAddress(), this.freeListManager));
+    first.start();
+    first.join();
+    assertThat(this.freeListManager.getThreadAllocationCacheCount()).isEqualTo(2);
+
+    Thread second =
+        new Thread(() -> OffHeapStoredObject.release(c2.getAddress(), this.freeListManager));
+    second.start();
+    second.join();
+
+    assertThat(this.freeListManager.getThreadAllocationCacheCount()).isEqualTo(2);
+    assertThat(this.freeListManager.getFreeTinyMemory()).isEqualTo(2 * computeExpectedSize(24));
+    assertThat(this.freeListManager.allocate(24).getAddress()).isEqualTo(c1.getAddress());
+  }
+
   @Test
   public void allocatedBlocksEmptyIfNoAllocations() {
     Slab chunk = new SlabImpl(10);
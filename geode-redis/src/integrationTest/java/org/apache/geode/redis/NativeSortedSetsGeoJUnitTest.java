@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.LOG_LEVEL;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+
+import org.junit.After;
+import org.junit.AfterClass;
+import org.junit.BeforeClass;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import redis.clients.jedis.GeoUnit;
+import redis.clients.jedis.Jedis;
+import redis.clients.jedis.exceptions.JedisDataException;
+
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.GemFireCache;
+import org.apache.geode.internal.AvailablePortHelper;
+import org.apache.geode.redis.internal.RedisConstants;
+import org.apache.geode.test.junit.categories.RedisTest;
+
+/**
+ * Verifies that the GEO commands, which need a Region per key, are rejected when sorted sets are
+ * stored natively and do not leave anything behind for the sorted set commands to trip over.
+ */
+@Category({RedisTest.class})
+public class NativeSortedSetsGeoJUnitTest {
+  private static Jedis jedis;
+  private static GeodeRedisServer server;
+  private static GemFireCache cache;
+
+  @BeforeClass
+  public static void setUp() throws IOException {
+    System.setProperty(GeodeRedisServer.NATIVE_SORTED_SETS_SYS_PROP_NAME, "true");
+    CacheFactory cf = new CacheFactory();
+    cf.set(LOG_LEVEL, "error");
+    cf.set(MCAST_PORT, "0");
+    cf.set(LOCATORS, "");
+    cache = cf.create();
+    int port = AvailablePortHelper.getRandomAvailableTCPPort();
+    server = new GeodeRedisServer("localhost", port);
+
+    server.start();
+    jedis = new Jedis("localhost", port, 10000000);
+  }
+
+  @Test
+  public void geoAddIsRejectedAndCreatesNothing() {
+    assertThatThrownBy(() -> jedis.geoadd("Sicily", 13.361389, 38.115556, "Palermo"))
+        .isInstanceOf(JedisDataException.class)
+        .hasMessageContaining(RedisConstants.ERROR_GEO_NATIVE_SORTED_SETS);
+
+    assertThat(jedis.exists("Sicily")).isFalse();
+    assertThat(cache.getRegion("Sicily")).isNull();
+
+    assertThat(jedis.zadd("Sicily", 1.0, "Palermo")).isEqualTo(1L);
+    assertThat(jedis.zrange("Sicily", 0, -1)).containsExactly("Palermo");
+  }
+
+  @Test
+  public void geoQueriesOnSortedSetAreRejected() {
+    jedis.zadd("Sicily", 1.0, "Palermo");
+    jedis.zadd("Sicily", 2.0, "Catania");
+
+    assertThatThrownBy(() -> jedis.geopos("Sicily", "Palermo"))
+        .isInstanceOf(JedisDataException.class)
+        .hasMessageContaining(RedisConstants.ERROR_GEO_NATIVE_SORTED_SETS);
+    assertThatThrownBy(() -> jedis.georadius("Sicily", 15, 37, 200, GeoUnit.KM))
+        .isInstanceOf(JedisDataException.class)
+        .hasMessageContaining(RedisConstants.ERROR_GEO_NATIVE_SORTED_SETS);
+
+    assertThat(jedis.zscore("Sicily", "Catania")).isEqualTo(2.0);
+    assertThat(jedis.zrange("Sicily", 0, -1)).containsExactly("Palermo", "Catania");
+  }
+
+  @Test
+  public void delRemovesSortedSetAfterRejectedGeoAdd() {
+    jedis.zadd("Sicily", 1.0, "Palermo");
+    assertThatThrownBy(() -> jedis.geoadd("Sicily", 15.087269, 37.502669, "Catania"))
+        .isInstanceOf(JedisDataException.class);
+
+    assertThat(jedis.zcard("Sicily")).isEqualTo(1L);
+    assertThat(jedis.del("Sicily")).isEqualTo(1L);
+
+    assertThat(jedis.exists("Sicily")).isFalse();
+    assertThat(cache.getRegion("Sicily")).isNull();
+    assertThat(jedis.zrange("Sicily", 0, -1)).isEmpty();
+  }
+
+  @After
+  public void flushAll() {
+    jedis.flushAll();
+  }
+
+  @AfterClass
+  public static void tearDown() {
+    jedis.close();
+    cache.close();
+    server.shutdown();
+    System.clearProperty(GeodeRedisServer.NATIVE_SORTED_SETS_SYS_PROP_NAME);
+  }
+}
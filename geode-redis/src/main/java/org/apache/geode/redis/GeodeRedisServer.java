@@ -70,7 +70,9 @@ import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.ByteToCommandDecoder;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
+import org.apache.geode.redis.internal.RedisCollection;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisSortedSet;
 import org.apache.geode.redis.internal.RegionProvider;
 
 /**
@@ -232,6 +234,20 @@ public class GeodeRedisServer {
    */
   public static final String HLL_REGION = "ReDiS_HlL";
 
+  /**
+   * The field that defines the name of the {@link Region} which holds all of the sorted sets when
+   * they are stored natively, see {@link #NATIVE_SORTED_SETS_SYS_PROP_NAME}. The current value of
+   * this field is {@code SORTED_SET_REGION}.
+   */
+  public static final String SORTED_SET_REGION = "ReDiS_SoRtEdSeTs";
+
+  /**
+   * The field that defines the name of the {@link Region} which holds all of the hashes, sets and
+   * lists when they are stored compactly, see {@link #COMPACT_COLLECTIONS_SYS_PROP_NAME}. The
+   * current value of this field is {@code COLLECTIONS_REGION}.
+   */
+  public static final String COLLECTIONS_REGION = "ReDiS_CoLlEcTiOnS";
+
   /**
    * The field that defines the name of the {@link Region} which holds all of the Redis meta data.
    * The current value of this field is {@code REDIS_META_DATA_REGION}.
@@ -251,6 +267,22 @@ public class GeodeRedisServer {
    */
   public static final String NUM_THREADS_SYS_PROP_NAME = "gemfireredis.numthreads";
 
+  /**
+   * System property name that, when set to true, stores every sorted set as a single value of the
+   * {@value #SORTED_SET_REGION} {@link Region} instead of creating a {@link Region} with OQL
+   * indexes per sorted set. The GEO commands are not supported in this mode. This has to be set
+   * consistently on all servers of the distributed system.
+   */
+  public static final String NATIVE_SORTED_SETS_SYS_PROP_NAME = "gemfireredis.nativesortedsets";
+
+  /**
+   * System property name that, when set to true, stores every hash, set and list as a single value
+   * of the {@value #COLLECTIONS_REGION} {@link Region} instead of creating a {@link Region} per
+   * key. Modifications are then distributed as deltas containing only the changed elements. This
+   * has to be set consistently on all servers of the distributed system.
+   */
+  public static final String COMPACT_COLLECTIONS_SYS_PROP_NAME = "gemfireredis.compactcollections";
+
   /**
    * The actual {@link RegionShortcut} type specified by the system property
    * {@value #DEFAULT_REGION_SYS_PROP_NAME}.
@@ -414,6 +446,8 @@ public class GeodeRedisServer {
       Region<ByteArrayWrapper, ByteArrayWrapper> stringsRegion;
 
       Region<ByteArrayWrapper, HyperLogLogPlus> hLLRegion;
+      Region<ByteArrayWrapper, RedisSortedSet> sortedSetsRegion;
+      Region<ByteArrayWrapper, RedisCollection> collectionsRegion;
       Region<String, RedisDataType> redisMetaData;
       InternalCache gemFireCache = (InternalCache) cache;
       try {
@@ -427,6 +461,16 @@ public class GeodeRedisServer {
               gemFireCache.createRegionFactory(this.DEFAULT_REGION_TYPE);
           hLLRegion = regionFactory.create(HLL_REGION);
         }
+        if ((sortedSetsRegion = cache.getRegion(SORTED_SET_REGION)) == null) {
+          RegionFactory<ByteArrayWrapper, RedisSortedSet> regionFactory =
+              gemFireCache.createRegionFactory(this.DEFAULT_REGION_TYPE);
+          sortedSetsRegion = regionFactory.create(SORTED_SET_REGION);
+        }
+        if ((collectionsRegion = cache.getRegion(COLLECTIONS_REGION)) == null) {
+          RegionFactory<ByteArrayWrapper, RedisCollection> regionFactory =
+              gemFireCache.createRegionFactory(this.DEFAULT_REGION_TYPE);
+          collectionsRegion = regionFactory.create(COLLECTIONS_REGION);
+        }
         if ((redisMetaData = cache.getRegion(REDIS_META_DATA_REGION)) == null) {
           AttributesFactory af = new AttributesFactory();
           af.addCacheListener(metaListener);
@@ -442,11 +486,15 @@ public class GeodeRedisServer {
         assErr.initCause(e);
         throw assErr;
       }
-      this.regionCache = new RegionProvider(stringsRegion, hLLRegion, redisMetaData,
-          expirationFutures, expirationExecutor, this.DEFAULT_REGION_TYPE);
+      this.regionCache = new RegionProvider(stringsRegion, hLLRegion, sortedSetsRegion,
+          collectionsRegion, redisMetaData, expirationFutures, expirationExecutor,
+          this.DEFAULT_REGION_TYPE, Boolean.getBoolean(NATIVE_SORTED_SETS_SYS_PROP_NAME),
+          Boolean.getBoolean(COMPACT_COLLECTIONS_SYS_PROP_NAME));
       redisMetaData.put(REDIS_META_DATA_REGION, RedisDataType.REDIS_PROTECTED);
       redisMetaData.put(HLL_REGION, RedisDataType.REDIS_PROTECTED);
       redisMetaData.put(STRING_REGION, RedisDataType.REDIS_PROTECTED);
+      redisMetaData.put(SORTED_SET_REGION, RedisDataType.REDIS_PROTECTED);
+      redisMetaData.put(COLLECTIONS_REGION, RedisDataType.REDIS_PROTECTED);
     }
     checkForRegions();
   }
@@ -0,0 +1,256 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.InvalidDeltaException;
+
+/**
+ * Base class of the Redis collections that are keyed by member, see {@link RedisHash} and
+ * {@link RedisSet}. It implements {@link ConcurrentMap} so the executors can use it exactly like
+ * the Region they would otherwise create per key.
+ * <p>
+ * Reads go straight to the backing {@link ConcurrentHashMap}. Modifications are synchronized so
+ * that they are recorded in the same order they are applied, and only the recorded entries are
+ * written by {@link #toDelta(DataOutput)}. The views returned by {@link #keySet()},
+ * {@link #values()} and {@link #entrySet()} are unmodifiable so that no change can bypass the
+ * delta.
+ */
+public abstract class AbstractRedisMap<V> implements ConcurrentMap<ByteArrayWrapper, V>,
+    RedisCollection {
+
+  private static final long serialVersionUID = 3184407913557283417L;
+
+  private static final byte PUT = 0;
+  private static final byte REMOVE = 1;
+
+  private ConcurrentHashMap<ByteArrayWrapper, V> map = new ConcurrentHashMap<>();
+
+  /**
+   * Keys put or removed since the last delta was taken, a null value denotes a removal
+   */
+  private transient List<ByteArrayWrapper> deltaKeys = new ArrayList<>();
+  private transient List<V> deltaValues = new ArrayList<>();
+
+  protected abstract void writeValue(V value, DataOutput out) throws IOException;
+
+  protected abstract V readValue(DataInput in) throws IOException;
+
+  @Override
+  public int size() {
+    return map.size();
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return map.isEmpty();
+  }
+
+  @Override
+  public boolean containsKey(Object key) {
+    return map.containsKey(key);
+  }
+
+  @Override
+  public boolean containsValue(Object value) {
+    return map.containsValue(value);
+  }
+
+  @Override
+  public V get(Object key) {
+    return map.get(key);
+  }
+
+  @Override
+  public synchronized V put(ByteArrayWrapper key, V value) {
+    V oldValue = map.put(key, value);
+    recordDelta(key, value);
+    return oldValue;
+  }
+
+  @Override
+  public synchronized V putIfAbsent(ByteArrayWrapper key, V value) {
+    V oldValue = map.putIfAbsent(key, value);
+    if (oldValue == null) {
+      recordDelta(key, value);
+    }
+    return oldValue;
+  }
+
+  @Override
+  public synchronized void putAll(Map<? extends ByteArrayWrapper, ? extends V> entries) {
+    for (Map.Entry<? extends ByteArrayWrapper, ? extends V> entry : entries.entrySet()) {
+      put(entry.getKey(), entry.getValue());
+    }
+  }
+
+  @Override
+  public synchronized V remove(Object key) {
+    V oldValue = map.remove(key);
+    if (oldValue != null) {
+      recordDelta((ByteArrayWrapper) key, null);
+    }
+    return oldValue;
+  }
+
+  @Override
+  public synchronized boolean remove(Object key, Object value) {
+    boolean removed = map.remove(key, value);
+    if (removed) {
+      recordDelta((ByteArrayWrapper) key, null);
+    }
+    return removed;
+  }
+
+  @Override
+  public synchronized boolean replace(ByteArrayWrapper key, V oldValue, V newValue) {
+    boolean replaced = map.replace(key, oldValue, newValue);
+    if (replaced) {
+      recordDelta(key, newValue);
+    }
+    return replaced;
+  }
+
+  @Override
+  public synchronized V replace(ByteArrayWrapper key, V value) {
+    V oldValue = map.replace(key, value);
+    if (oldValue != null) {
+      recordDelta(key, value);
+    }
+    return oldValue;
+  }
+
+  @Override
+  public synchronized void clear() {
+    for (ByteArrayWrapper key : map.keySet()) {
+      recordDelta(key, null);
+    }
+    map.clear();
+  }
+
+  @Override
+  public Set<ByteArrayWrapper> keySet() {
+    return Collections.unmodifiableSet(map.keySet());
+  }
+
+  @Override
+  public Collection<V> values() {
+    return Collections.unmodifiableCollection(map.values());
+  }
+
+  @Override
+  public Set<Map.Entry<ByteArrayWrapper, V>> entrySet() {
+    return Collections.unmodifiableSet(map.entrySet());
+  }
+
+  @Override
+  public synchronized void clearDelta() {
+    deltaKeys.clear();
+    deltaValues.clear();
+  }
+
+  private void recordDelta(ByteArrayWrapper key, V value) {
+    deltaKeys.add(key);
+    deltaValues.add(value);
+  }
+
+  @Override
+  public synchronized boolean hasDelta() {
+    return !deltaKeys.isEmpty();
+  }
+
+  @Override
+  public synchronized void toDelta(DataOutput out) throws IOException {
+    DataSerializer.writePrimitiveInt(deltaKeys.size(), out);
+    for (int i = 0; i < deltaKeys.size(); i++) {
+      V value = deltaValues.get(i);
+      if (value == null) {
+        DataSerializer.writePrimitiveByte(REMOVE, out);
+        DataSerializer.writeByteArray(deltaKeys.get(i).toBytes(), out);
+      } else {
+        DataSerializer.writePrimitiveByte(PUT, out);
+        DataSerializer.writeByteArray(deltaKeys.get(i).toBytes(), out);
+        writeValue(value, out);
+      }
+    }
+    clearDelta();
+  }
+
+  @Override
+  public synchronized void fromDelta(DataInput in) throws IOException, InvalidDeltaException {
+    int size = DataSerializer.readPrimitiveInt(in);
+    for (int i = 0; i < size; i++) {
+      byte op = DataSerializer.readPrimitiveByte(in);
+      ByteArrayWrapper key = new ByteArrayWrapper(DataSerializer.readByteArray(in));
+      if (op == PUT) {
+        map.put(key, readValue(in));
+      } else if (op == REMOVE) {
+        map.remove(key);
+      } else {
+        throw new InvalidDeltaException("Unknown " + getClass().getSimpleName()
+            + " delta operation " + op);
+      }
+    }
+  }
+
+  @Override
+  public synchronized void toData(DataOutput out) throws IOException {
+    DataSerializer.writePrimitiveInt(map.size(), out);
+    for (Map.Entry<ByteArrayWrapper, V> entry : map.entrySet()) {
+      DataSerializer.writeByteArray(entry.getKey().toBytes(), out);
+      writeValue(entry.getValue(), out);
+    }
+  }
+
+  @Override
+  public synchronized void fromData(DataInput in) throws IOException, ClassNotFoundException {
+    int size = DataSerializer.readPrimitiveInt(in);
+    map = new ConcurrentHashMap<>(size);
+    for (int i = 0; i < size; i++) {
+      ByteArrayWrapper key = new ByteArrayWrapper(DataSerializer.readByteArray(in));
+      map.put(key, readValue(in));
+    }
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) {
+      return true;
+    }
+    return o instanceof Map && map.equals(o);
+  }
+
+  @Override
+  public int hashCode() {
+    return map.hashCode();
+  }
+
+  @Override
+  public String toString() {
+    return getClass().getSimpleName() + map;
+  }
+}
@@ -15,6 +15,7 @@
 package org.apache.geode.redis.internal;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import io.netty.buffer.ByteBuf;
@@ -53,20 +54,32 @@ public class ByteToCommandDecoder extends ByteToMessageDecoder {
   private static final byte arrayID = 42; // '*';
   private static final int MAX_BULK_STRING_LENGTH = 512 * 1024 * 1024; // 512 MB
 
+  /**
+   * Reader index of the next byte to scan. Nothing is consumed from the buffer until a command has
+   * been fully received, so an incomplete command is scanned again from its start on the next read
+   */
+  private int index;
+
+  /**
+   * Start index and length of every bulk string of the command being scanned. The array is reused
+   * for all commands of this connection so that scanning an incomplete command allocates nothing
+   */
+  private int[] bulkStrings = new int[16];
+
   public ByteToCommandDecoder() {}
 
   @Override
   protected void decode(ChannelHandlerContext ctx, ByteBuf in, List<Object> out) throws Exception {
-    Command c = null;
-    do {
-      in.markReaderIndex();
-      c = parse(in);
-      if (c == null) {
-        in.resetReaderIndex();
+    /*
+     * Every complete command of a pipeline is decoded in this one call so that
+     * ExecutionHandlerContext executes the whole batch and flushes once on channelReadComplete
+     */
+    while (in.isReadable()) {
+      Command c = parse(in);
+      if (c == null)
         return;
-      }
       out.add(c);
-    } while (in.isReadable()); // Try to take advantage of pipelining if it is being used
+    }
   }
 
   private Command parse(ByteBuf buffer) throws RedisCommandParserException {
@@ -75,69 +88,89 @@ public class ByteToCommandDecoder extends ByteToMessageDecoder {
     if (!buffer.isReadable())
       return null;
 
-    byte firstB = buffer.readByte();
+    this.index = buffer.readerIndex();
+    byte firstB = buffer.getByte(this.index++);
     if (firstB != arrayID)
       throw new RedisCommandParserException(
           "Expected: " + (char) arrayID + " Actual: " + (char) firstB);
-    ArrayList<byte[]> commandElems = new ArrayList<byte[]>();
 
-    if (!parseArray(commandElems, buffer))
+    int arrayLength = parseArray(buffer);
+    if (arrayLength < 0)
       return null;
 
+    /*
+     * Only now that the command is complete are the bulk strings copied out, straight from the
+     * buffer into arrays of their exact size
+     */
+    ArrayList<byte[]> commandElems = new ArrayList<byte[]>(arrayLength);
+    for (int i = 0; i < arrayLength; i++) {
+      byte[] bulkString = new byte[this.bulkStrings[2 * i + 1]];
+      buffer.getBytes(this.bulkStrings[2 * i], bulkString);
+      commandElems.add(bulkString);
+    }
+    buffer.readerIndex(this.index);
+
     return new Command(commandElems);
   }
 
-  private boolean parseArray(ArrayList<byte[]> commandElems, ByteBuf buffer)
-      throws RedisCommandParserException {
+  /**
+   * Scans the array of bulk strings of a command, recording where each of them starts
+   *
+   * @param buffer Buffer to scan
+   * @return The number of bulk strings, or -1 if the command has not been fully received
+   * @throws RedisCommandParserException Thrown when there is illegal syntax
+   */
+  private int parseArray(ByteBuf buffer) throws RedisCommandParserException {
     byte currentChar;
     int arrayLength = parseCurrentNumber(buffer);
     if (arrayLength == Integer.MIN_VALUE || !parseRN(buffer))
-      return false;
+      return -1;
     if (arrayLength < 0 || arrayLength > 1000000000)
       throw new RedisCommandParserException("invalid multibulk length");
 
     for (int i = 0; i < arrayLength; i++) {
-      if (!buffer.isReadable())
-        return false;
-      currentChar = buffer.readByte();
+      if (this.index >= buffer.writerIndex())
+        return -1;
+      currentChar = buffer.getByte(this.index++);
       if (currentChar == bulkStringID) {
-        byte[] newBulkString = parseBulkString(buffer);
-        if (newBulkString == null)
-          return false;
-        commandElems.add(newBulkString);
+        if (!parseBulkString(buffer, i))
+          return -1;
       } else
         throw new RedisCommandParserException(
             "expected: \'$\', got \'" + (char) currentChar + "\'");
     }
-    return true;
+    return arrayLength;
   }
 
   /**
-   * Helper method to parse a bulk string when one is seen
+   * Helper method to scan a bulk string when one is seen. The bulk string itself is not copied, its
+   * position is recorded in {@link #bulkStrings}
    *
-   * @param buffer Buffer to read from
-   * @return byte[] representation of the Bulk String read
+   * @param buffer Buffer to scan
+   * @param position Position of the bulk string within the command array
+   * @return true if the bulk string has been fully received
    * @throws RedisCommandParserException Thrown when there is illegal syntax
    */
-  private byte[] parseBulkString(ByteBuf buffer) throws RedisCommandParserException {
+  private boolean parseBulkString(ByteBuf buffer, int position)
+      throws RedisCommandParserException {
     int bulkStringLength = parseCurrentNumber(buffer);
     if (bulkStringLength == Integer.MIN_VALUE)
-      return null;
+      return false;
     if (bulkStringLength > MAX_BULK_STRING_LENGTH)
       throw new RedisCommandParserException(
           "invalid bulk length, cannot exceed max length of " + MAX_BULK_STRING_LENGTH);
     if (!parseRN(buffer))
-      return null;
-
-    if (!buffer.isReadable(bulkStringLength))
-      return null;
-    byte[] bulkString = new byte[bulkStringLength];
-    buffer.readBytes(bulkString);
+      return false;
 
-    if (!parseRN(buffer))
-      return null;
+    if (buffer.writerIndex() - this.index < bulkStringLength)
+      return false;
+    if (this.bulkStrings.length < 2 * position + 2)
+      this.bulkStrings = Arrays.copyOf(this.bulkStrings, 4 * position + 2);
+    this.bulkStrings[2 * position] = this.index;
+    this.bulkStrings[2 * position + 1] = bulkStringLength;
+    this.index += bulkStringLength;
 
-    return bulkString;
+    return parseRN(buffer);
   }
 
   /**
@@ -148,21 +181,15 @@ public class ByteToCommandDecoder extends ByteToMessageDecoder {
    */
   private int parseCurrentNumber(ByteBuf buffer) {
     int number = 0;
-    int readerIndex = buffer.readerIndex();
-    byte b = 0;
-    while (true) {
-      if (!buffer.isReadable())
-        return Integer.MIN_VALUE;
-      b = buffer.readByte();
-      if (Character.isDigit(b)) {
-        number = number * 10 + (int) (b - '0');
-        readerIndex++;
-      } else {
-        buffer.readerIndex(readerIndex);
-        break;
-      }
+    int writerIndex = buffer.writerIndex();
+    while (this.index < writerIndex) {
+      byte b = buffer.getByte(this.index);
+      if (!Character.isDigit(b))
+        return number;
+      number = number * 10 + (int) (b - '0');
+      this.index++;
     }
-    return number;
+    return Integer.MIN_VALUE;
   }
 
   /**
@@ -172,13 +199,13 @@ public class ByteToCommandDecoder extends ByteToMessageDecoder {
    * @throws RedisCommandParserException Thrown when the next two characters are not "\r\n"
    */
   private boolean parseRN(ByteBuf buffer) throws RedisCommandParserException {
-    if (!buffer.isReadable(2))
+    if (buffer.writerIndex() - this.index < 2)
       return false;
-    byte b = buffer.readByte();
+    byte b = buffer.getByte(this.index++);
     if (b != rID)
       throw new RedisCommandParserException(
           "expected \'" + (char) rID + "\', got \'" + (char) b + "\'");
-    b = buffer.readByte();
+    b = buffer.getByte(this.index++);
     if (b != nID)
       throw new RedisCommandParserException(
           "expected: \'" + (char) nID + "\', got \'" + (char) b + "\'");
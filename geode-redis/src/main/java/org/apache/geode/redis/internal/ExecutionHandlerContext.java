@@ -15,9 +15,11 @@
 package org.apache.geode.redis.internal;
 
 import java.io.IOException;
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Lock;
 
 import io.netty.buffer.ByteBuf;
 import io.netty.buffer.ByteBufAllocator;
@@ -67,6 +69,11 @@ public class ExecutionHandlerContext extends ChannelInboundHandlerAdapter {
   private final Runnable flusher;
   private final EventExecutor lastExecutor;
   private final ByteBufAllocator byteBufAllocator;
+  /**
+   * True while the commands of a read are being executed, their responses are then only flushed
+   * once by {@link #channelReadComplete(ChannelHandlerContext)}
+   */
+  private boolean readInProgress;
   /**
    * TransactionId for any transactions started by this client
    */
@@ -125,7 +132,7 @@ public class ExecutionHandlerContext extends ChannelInboundHandlerAdapter {
 
   private void writeToChannel(ByteBuf message) {
     channel.write(message, channel.voidPromise());
-    if (!needChannelFlush.getAndSet(true)) {
+    if (!needChannelFlush.getAndSet(true) && !readInProgress) {
       this.lastExecutor.execute(flusher);
     }
   }
@@ -135,10 +142,21 @@ public class ExecutionHandlerContext extends ChannelInboundHandlerAdapter {
    */
   @Override
   public void channelRead(ChannelHandlerContext ctx, Object msg) throws Exception {
+    this.readInProgress = true;
     Command command = (Command) msg;
     executeCommand(ctx, command);
   }
 
+  /**
+   * Called once all the commands decoded from a read have been executed, so a pipeline of commands
+   * gets all of its responses in a single flush
+   */
+  @Override
+  public void channelReadComplete(ChannelHandlerContext ctx) {
+    this.readInProgress = false;
+    flushChannel();
+  }
+
   /**
    * Exception handler for the entire pipeline
    */
@@ -209,6 +227,7 @@ public class ExecutionHandlerContext extends ChannelInboundHandlerAdapter {
       exec.executeCommand(command, this);
       ByteBuf response = command.getResponse();
       writeToChannel(response);
+      flushChannel();
       channelInactive(ctx);
     } else if (type == RedisCommandType.AUTH) {
       exec.executeCommand(command, this);
@@ -232,7 +251,7 @@ public class ExecutionHandlerContext extends ChannelInboundHandlerAdapter {
     Exception cause = null;
     for (int i = 0; i < MAXIMUM_NUM_RETRIES; i++) {
       try {
-        exec.executeCommand(command, this);
+        executeLocked(exec, command);
         return;
       } catch (Exception e) {
         cause = e;
@@ -244,13 +263,26 @@ public class ExecutionHandlerContext extends ChannelInboundHandlerAdapter {
     throw cause;
   }
 
+  /**
+   * Executes the command holding the locks of the values it modifies, see
+   * {@link RegionProvider#lockValues(Command)}
+   */
+  private void executeLocked(Executor exec, Command command) throws Exception {
+    List<Lock> locks = this.regionProvider.lockValues(command);
+    try {
+      exec.executeCommand(command, this);
+    } finally {
+      this.regionProvider.unlockValues(locks);
+    }
+  }
+
   private void executeWithTransaction(ChannelHandlerContext ctx, final Executor exec,
       Command command) throws Exception {
     CacheTransactionManager txm = cache.getCacheTransactionManager();
     TransactionId transactionId = getTransactionID();
     txm.resume(transactionId);
     try {
-      exec.executeCommand(command, this);
+      executeLocked(exec, command);
     } catch (UnsupportedOperationInTransactionException e) {
       command.setResponse(Coder.getErrorResponse(this.byteBufAllocator,
           RedisConstants.ERROR_UNSUPPORTED_OPERATION_IN_TRANSACTION));
@@ -0,0 +1,33 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import org.apache.geode.DataSerializable;
+import org.apache.geode.Delta;
+
+/**
+ * A Redis collection that is stored as a single {@link org.apache.geode.cache.Region} value rather
+ * than as a Region of its own. Implementations record their modifications so that storing the
+ * value again only distributes the changes as a {@link Delta}.
+ */
+public interface RedisCollection extends Delta, DataSerializable {
+
+  boolean isEmpty();
+
+  /**
+   * Discards the recorded changes, called once the collection has been stored in its region
+   */
+  void clearDelta();
+}
@@ -17,7 +17,7 @@ package org.apache.geode.redis.internal;
 
 public class RedisConstants {
 
-  public static final int NUM_DEFAULT_KEYS = 3;
+  public static final int NUM_DEFAULT_KEYS = 5;
 
   /*
    * Responses
@@ -63,6 +63,8 @@ public class RedisConstants {
       "Attemping to authenticate with an invalid password";
   public static final String ERROR_NOT_AUTH = "Must authenticate before sending any requests";
   public static final String ERROR_ZSET_MEMBER_NOT_FOUND = "could not decode requested zset member";
+  public static final String ERROR_GEO_NATIVE_SORTED_SETS =
+      "Geo commands are not supported when sorted sets are stored natively";
 
   public static class ArityDef {
 
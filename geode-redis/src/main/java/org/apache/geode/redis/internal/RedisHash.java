@@ -0,0 +1,43 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+import org.apache.geode.DataSerializer;
+
+/**
+ * A Redis hash stored as a single value in
+ * {@link org.apache.geode.redis.GeodeRedisServer#COLLECTIONS_REGION}, mapping each field to its
+ * value. Only the fields changed by HSET, HDEL and the like are distributed as a delta.
+ */
+public class RedisHash extends AbstractRedisMap<ByteArrayWrapper> {
+
+  private static final long serialVersionUID = -6150429113926270781L;
+
+  public RedisHash() {}
+
+  @Override
+  protected void writeValue(ByteArrayWrapper value, DataOutput out) throws IOException {
+    DataSerializer.writeByteArray(value.toBytes(), out);
+  }
+
+  @Override
+  protected ByteArrayWrapper readValue(DataInput in) throws IOException {
+    return new ByteArrayWrapper(DataSerializer.readByteArray(in));
+  }
+}
@@ -0,0 +1,322 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.InvalidDeltaException;
+
+/**
+ * A Redis list stored as a single value in
+ * {@link org.apache.geode.redis.GeodeRedisServer#COLLECTIONS_REGION}. Elements are kept in order
+ * in an {@link ArrayList}, so that indexed commands such as LINDEX and LRANGE no longer need a
+ * query.
+ * <p>
+ * Every modification is recorded as an operation, and {@link #toDelta(DataOutput)} only writes
+ * those operations which are replayed in the same order by {@link #fromDelta(DataInput)}. All
+ * methods are synchronized because the same instance may be read and modified by several Redis
+ * clients at once.
+ */
+public class RedisList implements RedisCollection {
+
+  private static final long serialVersionUID = 7340192844418096345L;
+
+  private static final byte PUSH_LEFT = 0;
+  private static final byte PUSH_RIGHT = 1;
+  private static final byte POP_LEFT = 2;
+  private static final byte POP_RIGHT = 3;
+  private static final byte SET = 4;
+  private static final byte TRIM = 5;
+  private static final byte REMOVE = 6;
+
+  private ArrayList<ByteArrayWrapper> elements = new ArrayList<>();
+
+  private transient List<ListOperation> deltaOperations = new ArrayList<>();
+
+  /**
+   * A recorded modification. The meaning of first and second depends on the operation: the index
+   * for SET, start and stop for TRIM and the count for REMOVE.
+   */
+  private static class ListOperation {
+    private final byte op;
+    private final int first;
+    private final int second;
+    private final List<ByteArrayWrapper> values;
+
+    private ListOperation(byte op, int first, int second, List<ByteArrayWrapper> values) {
+      this.op = op;
+      this.first = first;
+      this.second = second;
+      this.values = values;
+    }
+  }
+
+  public RedisList() {}
+
+  public synchronized int size() {
+    return elements.size();
+  }
+
+  @Override
+  public synchronized boolean isEmpty() {
+    return elements.isEmpty();
+  }
+
+  /**
+   * Pushes the values one after the other, so a left push leaves the last value at the head
+   *
+   * @return the size of the list after the push
+   */
+  public synchronized int push(List<ByteArrayWrapper> values, boolean left) {
+    doPush(values, left);
+    recordDelta(new ListOperation(left ? PUSH_LEFT : PUSH_RIGHT, 0, 0, values));
+    return elements.size();
+  }
+
+  /**
+   * @return the removed element or null if the list is empty
+   */
+  public synchronized ByteArrayWrapper pop(boolean left) {
+    if (elements.isEmpty()) {
+      return null;
+    }
+    ByteArrayWrapper popped = doPop(left);
+    recordDelta(new ListOperation(left ? POP_LEFT : POP_RIGHT, 0, 0, null));
+    return popped;
+  }
+
+  /**
+   * @param index 0 based index
+   * @return the element at the index or null if the index is out of bounds
+   */
+  public synchronized ByteArrayWrapper get(int index) {
+    if (index < 0 || index >= elements.size()) {
+      return null;
+    }
+    return elements.get(index);
+  }
+
+  /**
+   * @param start 0 based index of the first element, must not be negative
+   * @param stop 0 based index of the last element, inclusive, capped at the last element
+   * @return a copy of the elements in the range
+   */
+  public synchronized List<ByteArrayWrapper> range(int start, int stop) {
+    int end = Math.min(stop, elements.size() - 1);
+    if (start > end) {
+      return new ArrayList<>();
+    }
+    return new ArrayList<>(elements.subList(start, end + 1));
+  }
+
+  /**
+   * @param index 0 based index
+   * @return false if the index is out of bounds in which case the list is unchanged
+   */
+  public synchronized boolean set(int index, ByteArrayWrapper value) {
+    if (index < 0 || index >= elements.size()) {
+      return false;
+    }
+    elements.set(index, value);
+    recordDelta(new ListOperation(SET, index, 0, Collections.singletonList(value)));
+    return true;
+  }
+
+  /**
+   * Keeps only the elements from start to stop, inclusive. The list is emptied if no element is in
+   * that range.
+   *
+   * @param start 0 based index of the first element to keep, must not be negative
+   * @param stop 0 based index of the last element to keep, capped at the last element
+   */
+  public synchronized void trim(int start, int stop) {
+    int end = Math.min(stop, elements.size() - 1);
+    doTrim(start, end);
+    recordDelta(new ListOperation(TRIM, start, end, null));
+  }
+
+  /**
+   * Removes elements equal to the value. A positive count removes at most that many elements
+   * starting from the head, a negative count starting from the tail and 0 removes all of them.
+   *
+   * @return the number of elements removed
+   */
+  public synchronized int remove(ByteArrayWrapper value, int count) {
+    int removed = doRemove(value, count);
+    if (removed > 0) {
+      recordDelta(new ListOperation(REMOVE, count, 0, Collections.singletonList(value)));
+    }
+    return removed;
+  }
+
+  @Override
+  public synchronized void clearDelta() {
+    deltaOperations.clear();
+  }
+
+  private void doPush(List<ByteArrayWrapper> values, boolean left) {
+    if (left) {
+      List<ByteArrayWrapper> reversed = new ArrayList<>(values);
+      Collections.reverse(reversed);
+      elements.addAll(0, reversed);
+    } else {
+      elements.addAll(values);
+    }
+  }
+
+  private ByteArrayWrapper doPop(boolean left) {
+    return elements.remove(left ? 0 : elements.size() - 1);
+  }
+
+  private void doTrim(int start, int stop) {
+    if (start > stop) {
+      elements.clear();
+      return;
+    }
+    elements.subList(stop + 1, elements.size()).clear();
+    elements.subList(0, start).clear();
+  }
+
+  private int doRemove(ByteArrayWrapper value, int count) {
+    int removed = 0;
+    if (count >= 0) {
+      for (int i = 0; i < elements.size() && (count == 0 || removed < count);) {
+        if (elements.get(i).equals(value)) {
+          elements.remove(i);
+          removed++;
+        } else {
+          i++;
+        }
+      }
+    } else {
+      for (int i = elements.size() - 1; i >= 0 && removed < -count; i--) {
+        if (elements.get(i).equals(value)) {
+          elements.remove(i);
+          removed++;
+        }
+      }
+    }
+    return removed;
+  }
+
+  private void recordDelta(ListOperation operation) {
+    deltaOperations.add(operation);
+  }
+
+  @Override
+  public synchronized boolean hasDelta() {
+    return !deltaOperations.isEmpty();
+  }
+
+  @Override
+  public synchronized void toDelta(DataOutput out) throws IOException {
+    DataSerializer.writePrimitiveInt(deltaOperations.size(), out);
+    for (ListOperation operation : deltaOperations) {
+      DataSerializer.writePrimitiveByte(operation.op, out);
+      switch (operation.op) {
+        case PUSH_LEFT:
+        case PUSH_RIGHT:
+          writeElements(operation.values, out);
+          break;
+        case SET:
+          DataSerializer.writePrimitiveInt(operation.first, out);
+          DataSerializer.writeByteArray(operation.values.get(0).toBytes(), out);
+          break;
+        case TRIM:
+          DataSerializer.writePrimitiveInt(operation.first, out);
+          DataSerializer.writePrimitiveInt(operation.second, out);
+          break;
+        case REMOVE:
+          DataSerializer.writePrimitiveInt(operation.first, out);
+          DataSerializer.writeByteArray(operation.values.get(0).toBytes(), out);
+          break;
+        default:
+          break;
+      }
+    }
+    clearDelta();
+  }
+
+  @Override
+  public synchronized void fromDelta(DataInput in) throws IOException, InvalidDeltaException {
+    int size = DataSerializer.readPrimitiveInt(in);
+    for (int i = 0; i < size; i++) {
+      byte op = DataSerializer.readPrimitiveByte(in);
+      switch (op) {
+        case PUSH_LEFT:
+        case PUSH_RIGHT:
+          doPush(readElements(in), op == PUSH_LEFT);
+          break;
+        case POP_LEFT:
+        case POP_RIGHT:
+          if (!elements.isEmpty()) {
+            doPop(op == POP_LEFT);
+          }
+          break;
+        case SET:
+          int index = DataSerializer.readPrimitiveInt(in);
+          ByteArrayWrapper value = new ByteArrayWrapper(DataSerializer.readByteArray(in));
+          if (index < elements.size()) {
+            elements.set(index, value);
+          }
+          break;
+        case TRIM:
+          int start = DataSerializer.readPrimitiveInt(in);
+          int stop = DataSerializer.readPrimitiveInt(in);
+          doTrim(start, stop);
+          break;
+        case REMOVE:
+          int count = DataSerializer.readPrimitiveInt(in);
+          doRemove(new ByteArrayWrapper(DataSerializer.readByteArray(in)), count);
+          break;
+        default:
+          throw new InvalidDeltaException("Unknown list delta operation " + op);
+      }
+    }
+  }
+
+  @Override
+  public synchronized void toData(DataOutput out) throws IOException {
+    writeElements(elements, out);
+  }
+
+  @Override
+  public synchronized void fromData(DataInput in) throws IOException, ClassNotFoundException {
+    elements = readElements(in);
+  }
+
+  private static void writeElements(List<ByteArrayWrapper> values, DataOutput out)
+      throws IOException {
+    DataSerializer.writePrimitiveInt(values.size(), out);
+    for (ByteArrayWrapper value : values) {
+      DataSerializer.writeByteArray(value.toBytes(), out);
+    }
+  }
+
+  private static ArrayList<ByteArrayWrapper> readElements(DataInput in) throws IOException {
+    int size = DataSerializer.readPrimitiveInt(in);
+    ArrayList<ByteArrayWrapper> values = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) {
+      values.add(new ByteArrayWrapper(DataSerializer.readByteArray(in)));
+    }
+    return values;
+  }
+}
@@ -0,0 +1,39 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+
+/**
+ * A Redis set stored as a single value in
+ * {@link org.apache.geode.redis.GeodeRedisServer#COLLECTIONS_REGION}. Like the Region used per set
+ * otherwise, every member maps to {@link Boolean#TRUE}, which is implied and therefore not
+ * serialized. Only the members changed by SADD, SREM and the like are distributed as a delta.
+ */
+public class RedisSet extends AbstractRedisMap<Boolean> {
+
+  private static final long serialVersionUID = 2571038214402470645L;
+
+  public RedisSet() {}
+
+  @Override
+  protected void writeValue(Boolean value, DataOutput out) {}
+
+  @Override
+  protected Boolean readValue(DataInput in) {
+    return Boolean.TRUE;
+  }
+}
@@ -0,0 +1,341 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.AbstractMap.SimpleImmutableEntry;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.apache.geode.DataSerializer;
+import org.apache.geode.Delta;
+import org.apache.geode.InvalidDeltaException;
+
+/**
+ * A Redis sorted set stored as a single value in
+ * {@link org.apache.geode.redis.GeodeRedisServer#SORTED_SET_REGION}. Members are kept in a hash map
+ * for score lookups and in a {@link SortedSetSkipList} for rank and score range operations, so that
+ * ZADD, ZRANK and ZRANGEBYSCORE run in O(log n) without the query engine.
+ * <p>
+ * Every modification is recorded so that an update only distributes the added and removed members
+ * as a {@link Delta} instead of the whole set. All methods are synchronized because the same
+ * instance may be read and modified by several Redis clients at once.
+ */
+public class RedisSortedSet implements RedisCollection {
+
+  private static final long serialVersionUID = -2409123548312498162L;
+
+  private static final byte ADD = 0;
+  private static final byte REMOVE = 1;
+
+  private HashMap<ByteArrayWrapper, Double> scores = new HashMap<>();
+
+  private transient SortedSetSkipList index = new SortedSetSkipList();
+
+  /**
+   * Members added or removed since the last delta was taken, a null score denotes a removal
+   */
+  private transient List<ByteArrayWrapper> deltaMembers = new ArrayList<>();
+  private transient List<Double> deltaScores = new ArrayList<>();
+
+  public RedisSortedSet() {}
+
+  public synchronized int size() {
+    return scores.size();
+  }
+
+  @Override
+  public synchronized boolean isEmpty() {
+    return scores.isEmpty();
+  }
+
+  /**
+   * @return the score of the member or null if it is not in this set
+   */
+  public synchronized DoubleWrapper getScore(ByteArrayWrapper member) {
+    Double score = scores.get(member);
+    return score == null ? null : new DoubleWrapper(score);
+  }
+
+  /**
+   * Adds the member or updates its score if it is already present
+   *
+   * @return true if the member was not previously in this set
+   */
+  public synchronized boolean add(ByteArrayWrapper member, double score) {
+    boolean added = doAdd(member, score);
+    recordDelta(member, score);
+    return added;
+  }
+
+  /**
+   * Increments the score of the member, adding it with the increment as score if it is not present
+   *
+   * @return the new score, or {@link Double#NaN} if the increment would result in NaN in which case
+   *         the set is left unchanged
+   */
+  public synchronized double incrementScore(ByteArrayWrapper member, double increment) {
+    Double oldScore = scores.get(member);
+    double newScore = oldScore == null ? increment : oldScore + increment;
+    if (Double.isNaN(newScore)) {
+      return newScore;
+    }
+    doAdd(member, newScore);
+    recordDelta(member, newScore);
+    return newScore;
+  }
+
+  /**
+   * @return true if the member was in this set
+   */
+  public synchronized boolean remove(ByteArrayWrapper member) {
+    boolean removed = doRemove(member);
+    if (removed) {
+      recordDelta(member, null);
+    }
+    return removed;
+  }
+
+  /**
+   * @return the 0 based rank of the member, or -1 if it is not in this set
+   */
+  public synchronized int rank(ByteArrayWrapper member, boolean reverse) {
+    Double score = scores.get(member);
+    if (score == null) {
+      return -1;
+    }
+    int rank = index.rank(score, member) - 1;
+    return reverse ? index.size() - 1 - rank : rank;
+  }
+
+  /**
+   * @param start 0 based index of the first entry, must be within bounds
+   * @param stop 0 based index of the last entry, inclusive, must be within bounds
+   * @param reverse if true the ranks are counted from the highest score
+   */
+  public synchronized List<Entry<ByteArrayWrapper, DoubleWrapper>> range(int start, int stop,
+      boolean reverse) {
+    List<Entry<ByteArrayWrapper, DoubleWrapper>> result = new ArrayList<>(stop - start + 1);
+    int rank = reverse ? index.size() - start : start + 1;
+    SortedSetSkipList.Node node = index.getByRank(rank);
+    for (int i = start; node != null && i <= stop; i++) {
+      result.add(toEntry(node));
+      node = reverse ? node.previous() : node.next();
+    }
+    return result;
+  }
+
+  /**
+   * @param offset number of matching entries to skip
+   * @param limit maximum number of entries to return, or a negative number for all of them
+   * @param reverse if true the entries are returned from the highest score down
+   */
+  public synchronized List<Entry<ByteArrayWrapper, DoubleWrapper>> rangeByScore(double min,
+      boolean minInclusive, double max, boolean maxInclusive, int offset, int limit,
+      boolean reverse) {
+    List<Entry<ByteArrayWrapper, DoubleWrapper>> result = new ArrayList<>();
+    SortedSetSkipList.Node node;
+    if (reverse) {
+      node = index.lastInRange(min, minInclusive, max, maxInclusive);
+    } else {
+      node = index.firstInRange(min, minInclusive, max, maxInclusive);
+    }
+    for (int i = 0; node != null && i < offset; i++) {
+      node = reverse ? node.previous() : node.next();
+    }
+    while (node != null && (limit < 0 || result.size() < limit)) {
+      if (reverse ? !SortedSetSkipList.aboveMin(node.score, min, minInclusive)
+          : !SortedSetSkipList.belowMax(node.score, max, maxInclusive)) {
+        break;
+      }
+      result.add(toEntry(node));
+      node = reverse ? node.previous() : node.next();
+    }
+    return result;
+  }
+
+  public synchronized int countByScore(double min, boolean minInclusive, double max,
+      boolean maxInclusive) {
+    SortedSetSkipList.Node first = index.firstInRange(min, minInclusive, max, maxInclusive);
+    if (first == null) {
+      return 0;
+    }
+    SortedSetSkipList.Node last = index.lastInRange(min, minInclusive, max, maxInclusive);
+    return index.rank(last.score, last.member) - index.rank(first.score, first.member) + 1;
+  }
+
+  /**
+   * @return the number of members removed
+   */
+  public synchronized int removeRangeByScore(double min, boolean minInclusive, double max,
+      boolean maxInclusive) {
+    List<Entry<ByteArrayWrapper, DoubleWrapper>> toRemove =
+        rangeByScore(min, minInclusive, max, maxInclusive, 0, -1, false);
+    for (Entry<ByteArrayWrapper, DoubleWrapper> entry : toRemove) {
+      remove(entry.getKey());
+    }
+    return toRemove.size();
+  }
+
+  /**
+   * @param start 0 based index of the first entry, must be within bounds
+   * @param stop 0 based index of the last entry, inclusive, must be within bounds
+   * @return the number of members removed
+   */
+  public synchronized int removeRangeByRank(int start, int stop) {
+    List<Entry<ByteArrayWrapper, DoubleWrapper>> toRemove = range(start, stop, false);
+    for (Entry<ByteArrayWrapper, DoubleWrapper> entry : toRemove) {
+      remove(entry.getKey());
+    }
+    return toRemove.size();
+  }
+
+  /**
+   * Returns the members within the given lexicographical range, ordered by their bytes regardless
+   * of their scores. A null bound is unbounded.
+   */
+  public synchronized List<ByteArrayWrapper> rangeByLex(ByteArrayWrapper min,
+      boolean minInclusive, ByteArrayWrapper max, boolean maxInclusive) {
+    List<ByteArrayWrapper> result = new ArrayList<>();
+    for (ByteArrayWrapper member : scores.keySet()) {
+      if (min != null) {
+        int cmp = member.compareTo(min);
+        if (cmp < 0 || (cmp == 0 && !minInclusive)) {
+          continue;
+        }
+      }
+      if (max != null) {
+        int cmp = member.compareTo(max);
+        if (cmp > 0 || (cmp == 0 && !maxInclusive)) {
+          continue;
+        }
+      }
+      result.add(member);
+    }
+    Collections.sort(result);
+    return result;
+  }
+
+  /**
+   * @return a snapshot of all members and their scores in no particular order
+   */
+  public synchronized List<Entry<ByteArrayWrapper, DoubleWrapper>> entries() {
+    List<Entry<ByteArrayWrapper, DoubleWrapper>> result = new ArrayList<>(scores.size());
+    for (Map.Entry<ByteArrayWrapper, Double> entry : scores.entrySet()) {
+      result.add(new SimpleImmutableEntry<>(entry.getKey(), new DoubleWrapper(entry.getValue())));
+    }
+    return result;
+  }
+
+  @Override
+  public synchronized void clearDelta() {
+    deltaMembers.clear();
+    deltaScores.clear();
+  }
+
+  private boolean doAdd(ByteArrayWrapper member, double score) {
+    Double oldScore = scores.put(member, score);
+    if (oldScore != null) {
+      if (oldScore == score) {
+        return false;
+      }
+      index.delete(oldScore, member);
+    }
+    index.insert(score, member);
+    return oldScore == null;
+  }
+
+  private boolean doRemove(ByteArrayWrapper member) {
+    Double oldScore = scores.remove(member);
+    if (oldScore == null) {
+      return false;
+    }
+    index.delete(oldScore, member);
+    return true;
+  }
+
+  private void recordDelta(ByteArrayWrapper member, Double score) {
+    deltaMembers.add(member);
+    deltaScores.add(score);
+  }
+
+  private static Entry<ByteArrayWrapper, DoubleWrapper> toEntry(SortedSetSkipList.Node node) {
+    return new SimpleImmutableEntry<>(node.member, new DoubleWrapper(node.score));
+  }
+
+  @Override
+  public synchronized boolean hasDelta() {
+    return !deltaMembers.isEmpty();
+  }
+
+  @Override
+  public synchronized void toDelta(DataOutput out) throws IOException {
+    DataSerializer.writePrimitiveInt(deltaMembers.size(), out);
+    for (int i = 0; i < deltaMembers.size(); i++) {
+      Double score = deltaScores.get(i);
+      if (score == null) {
+        DataSerializer.writePrimitiveByte(REMOVE, out);
+        DataSerializer.writeByteArray(deltaMembers.get(i).toBytes(), out);
+      } else {
+        DataSerializer.writePrimitiveByte(ADD, out);
+        DataSerializer.writeByteArray(deltaMembers.get(i).toBytes(), out);
+        DataSerializer.writePrimitiveDouble(score, out);
+      }
+    }
+    clearDelta();
+  }
+
+  @Override
+  public synchronized void fromDelta(DataInput in) throws IOException, InvalidDeltaException {
+    int size = DataSerializer.readPrimitiveInt(in);
+    for (int i = 0; i < size; i++) {
+      byte op = DataSerializer.readPrimitiveByte(in);
+      ByteArrayWrapper member = new ByteArrayWrapper(DataSerializer.readByteArray(in));
+      if (op == ADD) {
+        doAdd(member, DataSerializer.readPrimitiveDouble(in));
+      } else if (op == REMOVE) {
+        doRemove(member);
+      } else {
+        throw new InvalidDeltaException("Unknown sorted set delta operation " + op);
+      }
+    }
+  }
+
+  @Override
+  public synchronized void toData(DataOutput out) throws IOException {
+    DataSerializer.writePrimitiveInt(scores.size(), out);
+    for (Map.Entry<ByteArrayWrapper, Double> entry : scores.entrySet()) {
+      DataSerializer.writeByteArray(entry.getKey().toBytes(), out);
+      DataSerializer.writePrimitiveDouble(entry.getValue(), out);
+    }
+  }
+
+  @Override
+  public synchronized void fromData(DataInput in) throws IOException, ClassNotFoundException {
+    int size = DataSerializer.readPrimitiveInt(in);
+    scores = new HashMap<>(size);
+    index.clear();
+    for (int i = 0; i < size; i++) {
+      doAdd(new ByteArrayWrapper(DataSerializer.readByteArray(in)),
+          DataSerializer.readPrimitiveDouble(in));
+    }
+  }
+}
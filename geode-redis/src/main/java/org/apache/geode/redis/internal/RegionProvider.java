@@ -15,7 +15,11 @@
 package org.apache.geode.redis.internal;
 
 import java.io.Closeable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Set;
@@ -78,6 +82,24 @@ public class RegionProvider implements Closeable {
    */
   private final Region<ByteArrayWrapper, HyperLogLogPlus> hLLRegion;
 
+  /**
+   * This is the {@link RedisDataType#REDIS_SORTEDSET} {@link Region}. When
+   * {@link #nativeSortedSets} is set, this Region stores every sorted set as a single
+   * {@link RedisSortedSet} value instead of creating a Region per sorted set
+   */
+  private final Region<ByteArrayWrapper, RedisSortedSet> sortedSetsRegion;
+
+  private final boolean nativeSortedSets;
+
+  /**
+   * This is the Region that stores every {@link RedisDataType#REDIS_HASH},
+   * {@link RedisDataType#REDIS_SET} and {@link RedisDataType#REDIS_LIST} as a single
+   * {@link RedisCollection} value when {@link #compactCollections} is set
+   */
+  private final Region<ByteArrayWrapper, RedisCollection> collectionsRegion;
+
+  private final boolean compactCollections;
+
   private final Cache cache;
   private final QueryService queryService;
   private final ConcurrentMap<ByteArrayWrapper, Map<Enum<?>, Query>> preparedQueries =
@@ -89,16 +111,33 @@ public class RegionProvider implements Closeable {
   private static final CreateRegionCommand createRegionCmd = new CreateRegionCommand();
   private final ConcurrentHashMap<String, Lock> locks;
 
+  private static final int VALUE_LOCK_STRIPES = 256;
+
+  /**
+   * Locks that make getting, modifying and storing a {@link RedisSortedSet} or
+   * {@link RedisCollection} value atomic per key.
+   * They are striped by key so that they never have to be created or removed.
+   */
+  private final ReentrantLock[] valueLocks;
+
   public RegionProvider(Region<ByteArrayWrapper, ByteArrayWrapper> stringsRegion,
       Region<ByteArrayWrapper, HyperLogLogPlus> hLLRegion,
+      Region<ByteArrayWrapper, RedisSortedSet> sortedSetsRegion,
+      Region<ByteArrayWrapper, RedisCollection> collectionsRegion,
       Region<String, RedisDataType> redisMetaRegion,
       ConcurrentMap<ByteArrayWrapper, ScheduledFuture<?>> expirationsMap,
-      ScheduledExecutorService expirationExecutor, RegionShortcut defaultShortcut) {
-    if (stringsRegion == null || hLLRegion == null || redisMetaRegion == null)
+      ScheduledExecutorService expirationExecutor, RegionShortcut defaultShortcut,
+      boolean nativeSortedSets, boolean compactCollections) {
+    if (stringsRegion == null || hLLRegion == null || sortedSetsRegion == null
+        || collectionsRegion == null || redisMetaRegion == null)
       throw new NullPointerException();
     this.regions = new ConcurrentHashMap<>();
     this.stringsRegion = stringsRegion;
     this.hLLRegion = hLLRegion;
+    this.sortedSetsRegion = sortedSetsRegion;
+    this.nativeSortedSets = nativeSortedSets;
+    this.collectionsRegion = collectionsRegion;
+    this.compactCollections = compactCollections;
     this.redisMetaRegion = redisMetaRegion;
     this.cache = GemFireCacheImpl.getInstance();
     this.queryService = cache.getQueryService();
@@ -106,6 +145,9 @@ public class RegionProvider implements Closeable {
     this.expirationExecutor = expirationExecutor;
     this.defaultRegionType = defaultShortcut;
     this.locks = new ConcurrentHashMap<>();
+    this.valueLocks = new ReentrantLock[VALUE_LOCK_STRIPES];
+    for (int i = 0; i < VALUE_LOCK_STRIPES; i++)
+      this.valueLocks[i] = new ReentrantLock();
   }
 
   public boolean existsKey(ByteArrayWrapper key) {
@@ -174,6 +216,19 @@ public class RegionProvider implements Closeable {
   public boolean removeKey(ByteArrayWrapper key, RedisDataType type, boolean cancelExpiration) {
     if (type == null || type == RedisDataType.REDIS_PROTECTED)
       return false;
+    if (isStoredAsValue(type)) {
+      ReentrantLock valueLock = getValueLock(key);
+      valueLock.lock();
+      try {
+        return removeKey0(key, type, cancelExpiration);
+      } finally {
+        valueLock.unlock();
+      }
+    }
+    return removeKey0(key, type, cancelExpiration);
+  }
+
+  private boolean removeKey0(ByteArrayWrapper key, RedisDataType type, boolean cancelExpiration) {
     Lock lock = this.locks.get(key.toString());
     try {
       if (lock != null) {// Strings/hlls will not have locks
@@ -185,6 +240,10 @@ public class RegionProvider implements Closeable {
           return this.stringsRegion.remove(key) != null;
         } else if (type == RedisDataType.REDIS_HLL) {
           return this.hLLRegion.remove(key) != null;
+        } else if (type == RedisDataType.REDIS_SORTEDSET && this.nativeSortedSets) {
+          return this.sortedSetsRegion.remove(key) != null;
+        } else if (isCompactCollection(type)) {
+          return this.collectionsRegion.remove(key) != null;
         } else {
           return destroyRegion(key, type);
         }
@@ -213,6 +272,10 @@ public class RegionProvider implements Closeable {
   public void createRemoteRegionReferenceLocally(ByteArrayWrapper key, RedisDataType type) {
     if (type == null || type == RedisDataType.REDIS_STRING || type == RedisDataType.REDIS_HLL)
       return;
+    if (type == RedisDataType.REDIS_SORTEDSET && this.nativeSortedSets)
+      return;
+    if (isCompactCollection(type))
+      return;
     Region<?, ?> r = this.regions.get(key);
     if (r != null)
       return;
@@ -454,6 +517,255 @@ public class RegionProvider implements Closeable {
     return this.hLLRegion;
   }
 
+  public Region<ByteArrayWrapper, RedisSortedSet> getSortedSetsRegion() {
+    return this.sortedSetsRegion;
+  }
+
+  /**
+   * @return true if sorted sets are stored as {@link RedisSortedSet} values in
+   *         {@link #getSortedSetsRegion()} rather than in a Region per key
+   */
+  public boolean usesNativeSortedSets() {
+    return this.nativeSortedSets;
+  }
+
+  /**
+   * Gets the {@link RedisSortedSet} stored for the key, or creates and stores an empty one. A newly
+   * created sorted set is registered in the meta data Region under
+   * {@link RedisDataType#REDIS_SORTEDSET}.
+   *
+   * @param key Key of the sorted set
+   * @return The sorted set, never null
+   */
+  public RedisSortedSet getOrCreateSortedSet(ByteArrayWrapper key) {
+    checkDataType(key, RedisDataType.REDIS_SORTEDSET);
+    RedisSortedSet sortedSet = this.sortedSetsRegion.get(key);
+    if (sortedSet == null) {
+      RedisDataType existingType = metaPutIfAbsent(key, RedisDataType.REDIS_SORTEDSET);
+      if (existingType != null && existingType != RedisDataType.REDIS_SORTEDSET)
+        throw new RedisDataTypeMismatchException(
+            "The key name \"" + key + "\" is already used by a " + existingType.toString());
+      RedisSortedSet newSortedSet = new RedisSortedSet();
+      sortedSet = this.sortedSetsRegion.putIfAbsent(key, newSortedSet);
+      if (sortedSet == null)
+        sortedSet = newSortedSet;
+    }
+    return sortedSet;
+  }
+
+  /**
+   * Stores a modified {@link RedisSortedSet} so that its changes are distributed as a delta. If the
+   * sorted set has become empty the key is removed instead. The key must be locked with
+   * {@link #lockValues(Command)} from before the sorted set was read, so that no other command
+   * records changes in between. The delta is cleared afterwards because a put that does not
+   * distribute the value never takes it.
+   *
+   * @param key Key of the sorted set
+   * @param sortedSet The modified sorted set
+   */
+  public void putSortedSet(ByteArrayWrapper key, RedisSortedSet sortedSet) {
+    checkValueLocked(key);
+    if (sortedSet.isEmpty()) {
+      removeKey(key, RedisDataType.REDIS_SORTEDSET);
+      return;
+    }
+    this.sortedSetsRegion.put(key, sortedSet);
+    sortedSet.clearDelta();
+  }
+
+  private boolean isStoredAsValue(RedisDataType type) {
+    return type == RedisDataType.REDIS_SORTEDSET && this.nativeSortedSets
+        || isCompactCollection(type);
+  }
+
+  private int getValueLockStripe(ByteArrayWrapper key) {
+    return (key.hashCode() & 0x7fffffff) % VALUE_LOCK_STRIPES;
+  }
+
+  private ReentrantLock getValueLock(ByteArrayWrapper key) {
+    return this.valueLocks[getValueLockStripe(key)];
+  }
+
+  private void checkValueLocked(ByteArrayWrapper key) {
+    if (!getValueLock(key).isHeldByCurrentThread())
+      throw new IllegalStateException("The value of key \"" + key + "\" is not locked");
+  }
+
+  /**
+   * Locks the keys of a command on a value stored in a single Region entry, so that the command
+   * gets, modifies and stores the value without other commands modifying it in between. Locks are
+   * always taken in stripe order, so commands on several keys can not deadlock.
+   *
+   * @param command The command about to be executed
+   * @return The locks taken, to be released with {@link #unlockValues(List)}
+   */
+  public List<Lock> lockValues(Command command) {
+    if (!isStoredAsValue(command.getCommandType().getDataType()) || command.getKey() == null)
+      return Collections.emptyList();
+    List<ByteArrayWrapper> keys = getValueKeys(command);
+    int[] stripes = new int[keys.size()];
+    for (int i = 0; i < stripes.length; i++)
+      stripes[i] = getValueLockStripe(keys.get(i));
+    Arrays.sort(stripes);
+    List<Lock> locked = new ArrayList<>(stripes.length);
+    for (int i = 0; i < stripes.length; i++) {
+      if (i > 0 && stripes[i] == stripes[i - 1])
+        continue;
+      Lock lock = this.valueLocks[stripes[i]];
+      lock.lock();
+      locked.add(lock);
+    }
+    return locked;
+  }
+
+  private List<ByteArrayWrapper> getValueKeys(Command command) {
+    if (command.getCommandType() == RedisCommandType.SMOVE
+        && command.getProcessedCommand().size() > 2) {
+      // SMOVE modifies both the source and the destination
+      List<ByteArrayWrapper> keys = new ArrayList<>(2);
+      keys.add(command.getKey());
+      keys.add(new ByteArrayWrapper(command.getProcessedCommand().get(2)));
+      return keys;
+    }
+    return Collections.singletonList(command.getKey());
+  }
+
+  public void unlockValues(List<Lock> locked) {
+    for (int i = locked.size() - 1; i >= 0; i--)
+      locked.get(i).unlock();
+  }
+
+  public Region<ByteArrayWrapper, RedisCollection> getCollectionsRegion() {
+    return this.collectionsRegion;
+  }
+
+  /**
+   * @return true if hashes, sets and lists are stored as {@link RedisCollection} values in
+   *         {@link #getCollectionsRegion()} rather than in a Region per key
+   */
+  public boolean usesCompactCollections() {
+    return this.compactCollections;
+  }
+
+  private boolean isCompactCollection(RedisDataType type) {
+    return this.compactCollections && (type == RedisDataType.REDIS_HASH
+        || type == RedisDataType.REDIS_SET || type == RedisDataType.REDIS_LIST);
+  }
+
+  /**
+   * @param key Key of the collection
+   * @return The {@link RedisCollection} stored for the key, or null if there is none
+   */
+  public RedisCollection getCollection(ByteArrayWrapper key) {
+    return this.collectionsRegion.get(key);
+  }
+
+  /**
+   * Gets the {@link RedisCollection} stored for the key, or creates and stores an empty one of the
+   * given type. A newly created collection is registered in the meta data Region under the type.
+   *
+   * @param key Key of the collection
+   * @param type One of {@link RedisDataType#REDIS_HASH}, {@link RedisDataType#REDIS_SET} or
+   *        {@link RedisDataType#REDIS_LIST}
+   * @return The collection, never null
+   */
+  public RedisCollection getOrCreateCollection(ByteArrayWrapper key, RedisDataType type) {
+    checkDataType(key, type);
+    RedisCollection collection = this.collectionsRegion.get(key);
+    if (collection == null) {
+      RedisDataType existingType = metaPutIfAbsent(key, type);
+      if (existingType != null && existingType != type)
+        throw new RedisDataTypeMismatchException(
+            "The key name \"" + key + "\" is already used by a " + existingType.toString());
+      RedisCollection newCollection = newCollection(type);
+      collection = this.collectionsRegion.putIfAbsent(key, newCollection);
+      if (collection == null)
+        collection = newCollection;
+    }
+    return collection;
+  }
+
+  private RedisCollection newCollection(RedisDataType type) {
+    if (type == RedisDataType.REDIS_HASH)
+      return new RedisHash();
+    else if (type == RedisDataType.REDIS_SET)
+      return new RedisSet();
+    else if (type == RedisDataType.REDIS_LIST)
+      return new RedisList();
+    throw new IllegalArgumentException("Unable to store a " + type + " as a collection");
+  }
+
+  /**
+   * Stores a modified {@link RedisCollection} so that its changes are distributed as a delta. If
+   * the collection has become empty the key is removed instead, and if it has not changed nothing
+   * needs to be done. As for {@link #putSortedSet(ByteArrayWrapper, RedisSortedSet)} the key must
+   * be locked with {@link #lockValues(Command)} from before the collection was read.
+   *
+   * @param key Key of the collection
+   * @param collection The modified collection
+   */
+  public void putCollection(ByteArrayWrapper key, RedisCollection collection) {
+    checkValueLocked(key);
+    if (collection.isEmpty()) {
+      removeKey(key);
+      return;
+    }
+    if (!collection.hasDelta())
+      return;
+    this.collectionsRegion.put(key, collection);
+    collection.clearDelta();
+  }
+
+  /**
+   * Gets the entries of a hash or the members of a set, which is either the Region of the key or
+   * the {@link RedisHash} or {@link RedisSet} value when collections are stored compactly
+   *
+   * @param key Key of the hash or set
+   * @return The entries, or null if the key does not exist
+   */
+  public Map<ByteArrayWrapper, ?> getMap(ByteArrayWrapper key) {
+    if (!this.compactCollections) {
+      @SuppressWarnings("unchecked")
+      Map<ByteArrayWrapper, ?> region = (Map<ByteArrayWrapper, ?>) getRegion(key);
+      return region;
+    }
+    RedisCollection collection = getCollection(key);
+    return collection instanceof AbstractRedisMap ? (AbstractRedisMap<?>) collection : null;
+  }
+
+  /**
+   * Like {@link #getMap(ByteArrayWrapper)} but creates the hash or set if it does not exist
+   *
+   * @param key Key of the hash or set
+   * @param type {@link RedisDataType#REDIS_HASH} or {@link RedisDataType#REDIS_SET}
+   * @param context Context of the command
+   * @return The entries, never null
+   */
+  public Map<ByteArrayWrapper, ?> getOrCreateMap(ByteArrayWrapper key, RedisDataType type,
+      ExecutionHandlerContext context) {
+    if (!this.compactCollections) {
+      @SuppressWarnings("unchecked")
+      Map<ByteArrayWrapper, ?> region =
+          (Map<ByteArrayWrapper, ?>) getOrCreateRegion(key, type, context);
+      return region;
+    }
+    return (AbstractRedisMap<?>) getOrCreateCollection(key, type);
+  }
+
+  /**
+   * Completes a modification of a hash or set obtained from {@link #getMap(ByteArrayWrapper)} or
+   * {@link #getOrCreateMap(ByteArrayWrapper, RedisDataType, ExecutionHandlerContext)}. A Region has
+   * already been updated, a compact collection is stored so that its changes are distributed.
+   *
+   * @param key Key of the hash or set
+   * @param map The modified entries
+   */
+  public void storeMap(ByteArrayWrapper key, Map<ByteArrayWrapper, ?> map) {
+    if (map instanceof RedisCollection) {
+      putCollection(key, (RedisCollection) map);
+    }
+  }
+
   private RedisDataType getRedisDataType(String key) {
     return this.redisMetaRegion.get(key);
   }
@@ -0,0 +1,278 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Indexable skip list ordering the members of a {@link RedisSortedSet} by score and then by member
+ * bytes. Every forward pointer also records how many nodes it skips, so that rank lookups and
+ * lookups by rank run in O(log n) just like the range searches. This follows the layout of the
+ * skip list used by Redis itself.
+ * <p>
+ * This class is not thread safe, callers are expected to synchronize externally.
+ */
+class SortedSetSkipList {
+
+  static final int MAX_LEVEL = 32;
+
+  private static final double LEVEL_PROBABILITY = 0.25;
+
+  static final class Node {
+    final ByteArrayWrapper member;
+    final double score;
+    private final Node[] forward;
+    private final int[] span;
+    private Node backward;
+
+    private Node(int level, double score, ByteArrayWrapper member) {
+      this.member = member;
+      this.score = score;
+      this.forward = new Node[level];
+      this.span = new int[level];
+    }
+
+    Node next() {
+      return forward[0];
+    }
+
+    Node previous() {
+      return backward;
+    }
+  }
+
+  private final Node header = new Node(MAX_LEVEL, 0, null);
+  private Node tail;
+  private int level = 1;
+  private int length;
+
+  int size() {
+    return length;
+  }
+
+  Node first() {
+    return header.forward[0];
+  }
+
+  Node last() {
+    return tail;
+  }
+
+  void clear() {
+    for (int i = 0; i < MAX_LEVEL; i++) {
+      header.forward[i] = null;
+      header.span[i] = 0;
+    }
+    tail = null;
+    level = 1;
+    length = 0;
+  }
+
+  /**
+   * Inserts a new node, the caller must make sure the member is not already present
+   */
+  Node insert(double score, ByteArrayWrapper member) {
+    Node[] update = new Node[MAX_LEVEL];
+    int[] rank = new int[MAX_LEVEL];
+    Node x = header;
+    for (int i = level - 1; i >= 0; i--) {
+      rank[i] = i == level - 1 ? 0 : rank[i + 1];
+      while (x.forward[i] != null && precedes(x.forward[i], score, member)) {
+        rank[i] += x.span[i];
+        x = x.forward[i];
+      }
+      update[i] = x;
+    }
+
+    int newLevel = randomLevel();
+    if (newLevel > level) {
+      for (int i = level; i < newLevel; i++) {
+        rank[i] = 0;
+        update[i] = header;
+        header.span[i] = length;
+      }
+      level = newLevel;
+    }
+
+    x = new Node(newLevel, score, member);
+    for (int i = 0; i < newLevel; i++) {
+      x.forward[i] = update[i].forward[i];
+      update[i].forward[i] = x;
+      x.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+      update[i].span[i] = (rank[0] - rank[i]) + 1;
+    }
+    for (int i = newLevel; i < level; i++) {
+      update[i].span[i]++;
+    }
+
+    x.backward = update[0] == header ? null : update[0];
+    if (x.forward[0] != null) {
+      x.forward[0].backward = x;
+    } else {
+      tail = x;
+    }
+    length++;
+    return x;
+  }
+
+  /**
+   * @return true if a node with the exact score and member was found and removed
+   */
+  boolean delete(double score, ByteArrayWrapper member) {
+    Node[] update = new Node[MAX_LEVEL];
+    Node x = header;
+    for (int i = level - 1; i >= 0; i--) {
+      while (x.forward[i] != null && precedes(x.forward[i], score, member)) {
+        x = x.forward[i];
+      }
+      update[i] = x;
+    }
+    x = x.forward[0];
+    if (x != null && x.score == score && x.member.equals(member)) {
+      unlink(x, update);
+      return true;
+    }
+    return false;
+  }
+
+  private void unlink(Node x, Node[] update) {
+    for (int i = 0; i < level; i++) {
+      if (update[i].forward[i] == x) {
+        update[i].span[i] += x.span[i] - 1;
+        update[i].forward[i] = x.forward[i];
+      } else {
+        update[i].span[i] -= 1;
+      }
+    }
+    if (x.forward[0] != null) {
+      x.forward[0].backward = x.backward;
+    } else {
+      tail = x.backward;
+    }
+    while (level > 1 && header.forward[level - 1] == null) {
+      level--;
+    }
+    length--;
+  }
+
+  /**
+   * @return the 1-based rank of the member, or 0 if it is not present with the given score
+   */
+  int rank(double score, ByteArrayWrapper member) {
+    int rank = 0;
+    Node x = header;
+    for (int i = level - 1; i >= 0; i--) {
+      while (x.forward[i] != null && precedesOrEquals(x.forward[i], score, member)) {
+        rank += x.span[i];
+        x = x.forward[i];
+      }
+      if (x != header && x.score == score && x.member.equals(member)) {
+        return rank;
+      }
+    }
+    return 0;
+  }
+
+  /**
+   * @param rank 1-based rank
+   * @return the node at the given rank, or null if the rank is out of bounds
+   */
+  Node getByRank(int rank) {
+    if (rank < 1 || rank > length) {
+      return null;
+    }
+    int traversed = 0;
+    Node x = header;
+    for (int i = level - 1; i >= 0; i--) {
+      while (x.forward[i] != null && traversed + x.span[i] <= rank) {
+        traversed += x.span[i];
+        x = x.forward[i];
+      }
+      if (traversed == rank) {
+        return x;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return the lowest ranked node with a score in the given range, or null if there is none
+   */
+  Node firstInRange(double min, boolean minInclusive, double max, boolean maxInclusive) {
+    if (!isRangeValid(min, minInclusive, max, maxInclusive)) {
+      return null;
+    }
+    Node x = header;
+    for (int i = level - 1; i >= 0; i--) {
+      while (x.forward[i] != null && !aboveMin(x.forward[i].score, min, minInclusive)) {
+        x = x.forward[i];
+      }
+    }
+    x = x.forward[0];
+    if (x == null || !belowMax(x.score, max, maxInclusive)) {
+      return null;
+    }
+    return x;
+  }
+
+  /**
+   * @return the highest ranked node with a score in the given range, or null if there is none
+   */
+  Node lastInRange(double min, boolean minInclusive, double max, boolean maxInclusive) {
+    if (!isRangeValid(min, minInclusive, max, maxInclusive)) {
+      return null;
+    }
+    Node x = header;
+    for (int i = level - 1; i >= 0; i--) {
+      while (x.forward[i] != null && belowMax(x.forward[i].score, max, maxInclusive)) {
+        x = x.forward[i];
+      }
+    }
+    if (x == header || !aboveMin(x.score, min, minInclusive)) {
+      return null;
+    }
+    return x;
+  }
+
+  static boolean aboveMin(double score, double min, boolean minInclusive) {
+    return minInclusive ? score >= min : score > min;
+  }
+
+  static boolean belowMax(double score, double max, boolean maxInclusive) {
+    return maxInclusive ? score <= max : score < max;
+  }
+
+  private static boolean isRangeValid(double min, boolean minInclusive, double max,
+      boolean maxInclusive) {
+    return min < max || (min == max && minInclusive && maxInclusive);
+  }
+
+  private static boolean precedes(Node node, double score, ByteArrayWrapper member) {
+    return node.score < score || (node.score == score && node.member.compareTo(member) < 0);
+  }
+
+  private static boolean precedesOrEquals(Node node, double score, ByteArrayWrapper member) {
+    return node.score < score || (node.score == score && node.member.compareTo(member) <= 0);
+  }
+
+  private static int randomLevel() {
+    int newLevel = 1;
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    while (newLevel < MAX_LEVEL && random.nextDouble() < LEVEL_PROBABILITY) {
+      newLevel++;
+    }
+    return newLevel;
+  }
+}
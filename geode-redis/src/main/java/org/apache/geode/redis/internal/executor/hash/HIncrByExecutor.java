@@ -15,14 +15,13 @@
 package org.apache.geode.redis.internal.executor.hash;
 
 import java.util.List;
+import java.util.Map;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
-import org.apache.geode.redis.internal.RedisDataType;
 
 public class HIncrByExecutor extends HashExecutor {
 
@@ -58,8 +57,7 @@ public class HIncrByExecutor extends HashExecutor {
 
     ByteArrayWrapper key = command.getKey();
 
-    Region<ByteArrayWrapper, ByteArrayWrapper> keyRegion =
-        getOrCreateRegion(context, key, RedisDataType.REDIS_HASH);
+    Map<ByteArrayWrapper, ByteArrayWrapper> keyRegion = getOrCreateHash(context, key);
 
     byte[] byteField = commandElems.get(FIELD_INDEX);
     ByteArrayWrapper field = new ByteArrayWrapper(byteField);
@@ -72,6 +70,7 @@ public class HIncrByExecutor extends HashExecutor {
 
     if (oldValue == null) {
       keyRegion.put(field, new ByteArrayWrapper(incrArray));
+      storeHash(context, key, keyRegion);
       command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), increment));
       return;
     }
@@ -103,6 +102,7 @@ public class HIncrByExecutor extends HashExecutor {
     // String newValue = String.valueOf(value);
 
     keyRegion.put(field, new ByteArrayWrapper(Coder.longToBytes(value)));
+    storeHash(context, key, keyRegion);
 
     command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), value));
 
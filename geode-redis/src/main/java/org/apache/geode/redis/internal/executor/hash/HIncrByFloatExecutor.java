@@ -15,14 +15,13 @@
 package org.apache.geode.redis.internal.executor.hash;
 
 import java.util.List;
+import java.util.Map;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
-import org.apache.geode.redis.internal.RedisDataType;
 
 public class HIncrByFloatExecutor extends HashExecutor {
 
@@ -59,8 +58,7 @@ public class HIncrByFloatExecutor extends HashExecutor {
 
     ByteArrayWrapper key = command.getKey();
 
-    Region<ByteArrayWrapper, ByteArrayWrapper> keyRegion =
-        getOrCreateRegion(context, key, RedisDataType.REDIS_HASH);
+    Map<ByteArrayWrapper, ByteArrayWrapper> keyRegion = getOrCreateHash(context, key);
 
     byte[] byteField = commandElems.get(FIELD_INDEX);
     ByteArrayWrapper field = new ByteArrayWrapper(byteField);
@@ -73,6 +71,7 @@ public class HIncrByFloatExecutor extends HashExecutor {
 
     if (oldValue == null) {
       keyRegion.put(field, new ByteArrayWrapper(incrArray));
+      storeHash(context, key, keyRegion);
       respondBulkStrings(command, context, increment);
       return;
     }
@@ -98,6 +97,7 @@ public class HIncrByFloatExecutor extends HashExecutor {
 
     value += increment;
     keyRegion.put(field, new ByteArrayWrapper(Coder.doubleToBytes(value)));
+    storeHash(context, key, keyRegion);
     respondBulkStrings(command, context, value);
   }
 
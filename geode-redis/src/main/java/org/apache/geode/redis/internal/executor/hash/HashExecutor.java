@@ -14,7 +14,8 @@
  */
 package org.apache.geode.redis.internal.executor.hash;
 
-import org.apache.geode.cache.Region;
+import java.util.Map;
+
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisDataType;
@@ -24,18 +25,26 @@ public abstract class HashExecutor extends AbstractExecutor {
 
   protected final int FIELD_INDEX = 2;
 
-  @Override
+  /**
+   * Gets the fields of the hash, creating the hash if it does not exist. Modifications must be
+   * completed by {@link #storeHash(ExecutionHandlerContext, ByteArrayWrapper, Map)}.
+   */
   @SuppressWarnings("unchecked")
-  protected Region<ByteArrayWrapper, ByteArrayWrapper> getOrCreateRegion(
-      ExecutionHandlerContext context, ByteArrayWrapper key, RedisDataType type) {
-    return (Region<ByteArrayWrapper, ByteArrayWrapper>) context.getRegionProvider()
-        .getOrCreateRegion(key, type, context);
+  protected Map<ByteArrayWrapper, ByteArrayWrapper> getOrCreateHash(
+      ExecutionHandlerContext context, ByteArrayWrapper key) {
+    return (Map<ByteArrayWrapper, ByteArrayWrapper>) context.getRegionProvider()
+        .getOrCreateMap(key, RedisDataType.REDIS_HASH, context);
   }
 
   @SuppressWarnings("unchecked")
-  protected Region<ByteArrayWrapper, ByteArrayWrapper> getRegion(ExecutionHandlerContext context,
+  protected Map<ByteArrayWrapper, ByteArrayWrapper> getHash(ExecutionHandlerContext context,
       ByteArrayWrapper key) {
-    return (Region<ByteArrayWrapper, ByteArrayWrapper>) context.getRegionProvider().getRegion(key);
+    return (Map<ByteArrayWrapper, ByteArrayWrapper>) context.getRegionProvider().getMap(key);
+  }
+
+  protected void storeHash(ExecutionHandlerContext context, ByteArrayWrapper key,
+      Map<ByteArrayWrapper, ByteArrayWrapper> hash) {
+    context.getRegionProvider().storeMap(key, hash);
   }
 
 }
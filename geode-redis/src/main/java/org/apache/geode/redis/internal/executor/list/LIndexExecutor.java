@@ -26,6 +26,7 @@ import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisList;
 import org.apache.geode.redis.internal.executor.ListQuery;
 
 public class LIndexExecutor extends ListExecutor {
@@ -45,6 +46,12 @@ public class LIndexExecutor extends ListExecutor {
     byte[] indexArray = commandElems.get(2);
 
     checkDataType(key, RedisDataType.REDIS_LIST, context);
+
+    if (usesCompactLists(context)) {
+      executeCompact(command, context, key, indexArray);
+      return;
+    }
+
     Region<Integer, ByteArrayWrapper> keyRegion = getRegion(context, key);
 
     if (keyRegion == null) {
@@ -100,6 +107,27 @@ public class LIndexExecutor extends ListExecutor {
     respondBulkStrings(command, context, valueWrapper);
   }
 
+  private void executeCompact(Command command, ExecutionHandlerContext context,
+      ByteArrayWrapper key, byte[] indexArray) {
+    RedisList list = getList(context, key);
+    if (list == null) {
+      command.setResponse(Coder.getNilResponse(context.getByteBufAllocator()));
+      return;
+    }
+
+    int redisIndex;
+    try {
+      redisIndex = Coder.bytesToInt(indexArray);
+    } catch (NumberFormatException e) {
+      command.setResponse(Coder.getErrorResponse(context.getByteBufAllocator(), ERROR_NOT_NUMERIC));
+      return;
+    }
+
+    if (redisIndex < 0)
+      redisIndex += list.size();
+    respondBulkStrings(command, context, list.get(redisIndex));
+  }
+
   private Struct getEntryAtIndex(ExecutionHandlerContext context, ByteArrayWrapper key, int index)
       throws Exception {
 
@@ -23,6 +23,7 @@ import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisList;
 
 public class LLenExecutor extends ListExecutor {
 
@@ -42,6 +43,14 @@ public class LLenExecutor extends ListExecutor {
     int listSize = 0;
 
     checkDataType(key, RedisDataType.REDIS_LIST, context);
+
+    if (usesCompactLists(context)) {
+      RedisList list = getList(context, key);
+      command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(),
+          list == null ? NOT_EXISTS : list.size()));
+      return;
+    }
+
     Region<Integer, ByteArrayWrapper> keyRegion = getRegion(context, key);
 
     if (keyRegion == null) {
@@ -26,6 +26,7 @@ import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisList;
 import org.apache.geode.redis.internal.executor.ListQuery;
 
 public class LRemExecutor extends ListExecutor {
@@ -51,9 +52,14 @@ public class LRemExecutor extends ListExecutor {
 
 
     checkDataType(key, RedisDataType.REDIS_LIST, context);
-    Region<Integer, ByteArrayWrapper> keyRegion = getRegion(context, key);
-
-    if (keyRegion == null) {
+    RedisList list = null;
+    Region<Integer, ByteArrayWrapper> keyRegion = null;
+    if (usesCompactLists(context))
+      list = getList(context, key);
+    else
+      keyRegion = getRegion(context, key);
+
+    if (list == null && keyRegion == null) {
       command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), NOT_EXISTS));
       return;
     }
@@ -65,6 +71,13 @@ public class LRemExecutor extends ListExecutor {
       return;
     }
 
+    if (list != null) {
+      int numRemoved = list.remove(new ByteArrayWrapper(value), count);
+      putList(context, key, list);
+      command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), numRemoved));
+      return;
+    }
+
     List<Struct> removeList;
     try {
       removeList = getRemoveList(context, key, new ByteArrayWrapper(value), count);
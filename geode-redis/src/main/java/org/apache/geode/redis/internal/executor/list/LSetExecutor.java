@@ -25,6 +25,7 @@ import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisList;
 import org.apache.geode.redis.internal.executor.ListQuery;
 
 public class LSetExecutor extends ListExecutor {
@@ -53,9 +54,14 @@ public class LSetExecutor extends ListExecutor {
 
 
     checkDataType(key, RedisDataType.REDIS_LIST, context);
-    Region<Integer, ByteArrayWrapper> keyRegion = getRegion(context, key);
-
-    if (keyRegion == null) {
+    RedisList list = null;
+    Region<Integer, ByteArrayWrapper> keyRegion = null;
+    if (usesCompactLists(context))
+      list = getList(context, key);
+    else
+      keyRegion = getRegion(context, key);
+
+    if (list == null && keyRegion == null) {
       command.setResponse(Coder.getErrorResponse(context.getByteBufAllocator(), ERROR_INDEX));
       return;
     }
@@ -67,6 +73,18 @@ public class LSetExecutor extends ListExecutor {
       return;
     }
 
+    if (list != null) {
+      if (index < 0)
+        index += list.size();
+      if (!list.set(index, new ByteArrayWrapper(value))) {
+        command.setResponse(Coder.getErrorResponse(context.getByteBufAllocator(), ERROR_INDEX));
+        return;
+      }
+      putList(context, key, list);
+      command.setResponse(Coder.getSimpleStringResponse(context.getByteBufAllocator(), SUCCESS));
+      return;
+    }
+
     int listSize = keyRegion.size() - LIST_EMPTY_SIZE;
     if (index < 0)
       index += listSize;
@@ -25,6 +25,7 @@ import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisList;
 import org.apache.geode.redis.internal.executor.ListQuery;
 
 public class LTrimExecutor extends ListExecutor {
@@ -53,15 +54,20 @@ public class LTrimExecutor extends ListExecutor {
 
 
     checkDataType(key, RedisDataType.REDIS_LIST, context);
-    Region keyRegion = getRegion(context, key);
-
-    if (keyRegion == null) {
+    RedisList list = null;
+    Region keyRegion = null;
+    if (usesCompactLists(context))
+      list = getList(context, key);
+    else
+      keyRegion = getRegion(context, key);
+
+    if (list == null && keyRegion == null) {
       command
           .setResponse(Coder.getErrorResponse(context.getByteBufAllocator(), ERROR_KEY_NOT_EXISTS));
       return;
     }
 
-    int listSize = keyRegion.size() - LIST_EMPTY_SIZE;
+    int listSize = list != null ? list.size() : keyRegion.size() - LIST_EMPTY_SIZE;
     if (listSize == 0) {
       command.setResponse(Coder.getSimpleStringResponse(context.getByteBufAllocator(), SUCCESS));
       return;
@@ -80,6 +86,13 @@ public class LTrimExecutor extends ListExecutor {
     redisStart = Math.min(redisStart, listSize - 1);
     redisStop = Math.min(redisStop, listSize - 1);
 
+    if (list != null) {
+      list.trim(redisStart, redisStop);
+      putList(context, key, list);
+      command.setResponse(Coder.getSimpleStringResponse(context.getByteBufAllocator(), SUCCESS));
+      return;
+    }
+
     if (redisStart == 0 && redisStop == listSize - 1) {
       command.setResponse(Coder.getSimpleStringResponse(context.getByteBufAllocator(), SUCCESS));
       return;
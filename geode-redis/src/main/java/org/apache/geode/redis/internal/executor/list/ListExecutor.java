@@ -14,6 +14,7 @@
  */
 package org.apache.geode.redis.internal.executor.list;
 
+import java.util.ArrayList;
 import java.util.List;
 
 import org.apache.geode.cache.Region;
@@ -21,7 +22,9 @@ import org.apache.geode.cache.query.QueryService;
 import org.apache.geode.internal.cache.GemFireCacheImpl;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
+import org.apache.geode.redis.internal.RedisCollection;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisList;
 import org.apache.geode.redis.internal.executor.AbstractExecutor;
 
 public abstract class ListExecutor extends AbstractExecutor {
@@ -50,6 +53,35 @@ public abstract class ListExecutor extends AbstractExecutor {
     return (Region<Integer, ByteArrayWrapper>) context.getRegionProvider().getRegion(key);
   }
 
+  /**
+   * @return true if lists are stored as {@link RedisList} values rather than a Region per key
+   */
+  protected boolean usesCompactLists(ExecutionHandlerContext context) {
+    return context.getRegionProvider().usesCompactCollections();
+  }
+
+  protected RedisList getList(ExecutionHandlerContext context, ByteArrayWrapper key) {
+    RedisCollection collection = context.getRegionProvider().getCollection(key);
+    return collection instanceof RedisList ? (RedisList) collection : null;
+  }
+
+  protected RedisList getOrCreateList(ExecutionHandlerContext context, ByteArrayWrapper key) {
+    return (RedisList) context.getRegionProvider().getOrCreateCollection(key,
+        RedisDataType.REDIS_LIST);
+  }
+
+  protected void putList(ExecutionHandlerContext context, ByteArrayWrapper key, RedisList list) {
+    context.getRegionProvider().putCollection(key, list);
+  }
+
+  protected List<ByteArrayWrapper> toElements(List<byte[]> commandElems, int startIndex,
+      int endIndex) {
+    List<ByteArrayWrapper> elements = new ArrayList<>(endIndex - startIndex);
+    for (int i = startIndex; i < endIndex; i++)
+      elements.add(new ByteArrayWrapper(commandElems.get(i)));
+    return elements;
+  }
+
   /**
    * Helper method to be used by the push commands to push elements onto a list. Because our current
    * setup requires non trivial code to push elements in to a Region, I wanted all the push code to
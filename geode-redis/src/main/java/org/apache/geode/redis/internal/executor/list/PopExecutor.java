@@ -23,6 +23,7 @@ import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.Extendable;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisList;
 
 public abstract class PopExecutor extends ListExecutor implements Extendable {
 
@@ -38,6 +39,19 @@ public abstract class PopExecutor extends ListExecutor implements Extendable {
     ByteArrayWrapper key = command.getKey();
 
     checkDataType(key, RedisDataType.REDIS_LIST, context);
+
+    if (usesCompactLists(context)) {
+      RedisList list = getList(context, key);
+      ByteArrayWrapper popped = list == null ? null : list.pop(popType() == ListDirection.LEFT);
+      if (popped == null) {
+        command.setResponse(Coder.getNilResponse(context.getByteBufAllocator()));
+        return;
+      }
+      putList(context, key, list);
+      respondBulkStrings(command, context, popped);
+      return;
+    }
+
     Region keyRegion = getRegion(context, key);
 
     if (keyRegion == null || keyRegion.size() == LIST_EMPTY_SIZE) {
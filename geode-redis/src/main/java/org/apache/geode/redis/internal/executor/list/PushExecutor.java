@@ -23,6 +23,7 @@ import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.Extendable;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisList;
 
 public abstract class PushExecutor extends PushXExecutor implements Extendable {
 
@@ -39,6 +40,15 @@ public abstract class PushExecutor extends PushXExecutor implements Extendable {
 
     ByteArrayWrapper key = command.getKey();
 
+    if (usesCompactLists(context)) {
+      RedisList list = getOrCreateList(context, key);
+      int listSize = list.push(toElements(commandElems, START_VALUES_INDEX, commandElems.size()),
+          pushType() == ListDirection.LEFT);
+      putList(context, key, list);
+      command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), listSize));
+      return;
+    }
+
     Region<Integer, ByteArrayWrapper> keyRegion =
         getOrCreateRegion(context, key, RedisDataType.REDIS_LIST);
     pushElements(key, commandElems, START_VALUES_INDEX, commandElems.size(), keyRegion, pushType(),
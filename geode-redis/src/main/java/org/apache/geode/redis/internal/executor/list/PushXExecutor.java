@@ -23,6 +23,7 @@ import org.apache.geode.redis.internal.Command;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.Extendable;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisList;
 
 public abstract class PushXExecutor extends ListExecutor implements Extendable {
 
@@ -39,6 +40,19 @@ public abstract class PushXExecutor extends ListExecutor implements Extendable {
 
     ByteArrayWrapper key = command.getKey();
 
+    if (usesCompactLists(context)) {
+      checkDataType(key, RedisDataType.REDIS_LIST, context);
+      RedisList list = getList(context, key);
+      if (list == null) {
+        command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), NOT_EXISTS));
+        return;
+      }
+      int listSize = list.push(toElements(commandElems, 2, 3), pushType() == ListDirection.LEFT);
+      putList(context, key, list);
+      command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), listSize));
+      return;
+    }
+
     Region<Integer, ByteArrayWrapper> keyRegion = getRegion(context, key);
     if (keyRegion == null) {
       command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), NOT_EXISTS));
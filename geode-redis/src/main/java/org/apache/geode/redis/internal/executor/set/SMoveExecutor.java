@@ -15,8 +15,8 @@
 package org.apache.geode.redis.internal.executor.set;
 
 import java.util.List;
+import java.util.Map;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.Command;
@@ -45,9 +45,7 @@ public class SMoveExecutor extends SetExecutor {
 
     checkDataType(source, RedisDataType.REDIS_SET, context);
     checkDataType(destination, RedisDataType.REDIS_SET, context);
-    @SuppressWarnings("unchecked")
-    Region<ByteArrayWrapper, Boolean> sourceRegion =
-        (Region<ByteArrayWrapper, Boolean>) context.getRegionProvider().getRegion(source);
+    Map<ByteArrayWrapper, Boolean> sourceRegion = getSet(context, source);
 
     if (sourceRegion == null) {
       command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), NOT_MOVED));
@@ -56,17 +54,16 @@ public class SMoveExecutor extends SetExecutor {
 
     Object oldVal = sourceRegion.get(mem);
     sourceRegion.remove(mem);
+    storeSet(context, source, sourceRegion);
 
     if (oldVal == null) {
       command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), NOT_MOVED));
       return;
     }
 
-    @SuppressWarnings("unchecked")
-    Region<ByteArrayWrapper, Boolean> destinationRegion =
-        (Region<ByteArrayWrapper, Boolean>) getOrCreateRegion(context, destination,
-            RedisDataType.REDIS_SET);
+    Map<ByteArrayWrapper, Boolean> destinationRegion = getOrCreateSet(context, destination);
     destinationRegion.put(mem, true);
+    storeSet(context, destination, destinationRegion);
 
     command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), MOVED));
   }
@@ -15,9 +15,9 @@
 package org.apache.geode.redis.internal.executor.set;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.Command;
@@ -36,9 +36,7 @@ public class SPopExecutor extends SetExecutor {
     }
 
     ByteArrayWrapper key = command.getKey();
-    @SuppressWarnings("unchecked")
-    Region<ByteArrayWrapper, Boolean> keyRegion =
-        (Region<ByteArrayWrapper, Boolean>) context.getRegionProvider().getRegion(key);
+    Map<ByteArrayWrapper, Boolean> keyRegion = getSet(context, key);
     if (keyRegion == null || keyRegion.isEmpty()) {
       command.setResponse(Coder.getNilResponse(context.getByteBufAllocator()));
       return;
@@ -53,6 +51,8 @@ public class SPopExecutor extends SetExecutor {
     keyRegion.remove(pop);
     if (keyRegion.isEmpty()) {
       context.getRegionProvider().removeKey(key);
+    } else {
+      storeSet(context, key, keyRegion);
     }
 
     respondBulkStrings(command, context, pop);
@@ -14,8 +14,35 @@
  */
 package org.apache.geode.redis.internal.executor.set;
 
+import java.util.Map;
+
+import org.apache.geode.redis.internal.ByteArrayWrapper;
+import org.apache.geode.redis.internal.ExecutionHandlerContext;
+import org.apache.geode.redis.internal.RedisDataType;
 import org.apache.geode.redis.internal.executor.AbstractExecutor;
 
 public abstract class SetExecutor extends AbstractExecutor {
 
+  /**
+   * Gets the members of the set, creating the set if it does not exist. Modifications must be
+   * completed by {@link #storeSet(ExecutionHandlerContext, ByteArrayWrapper, Map)}.
+   */
+  @SuppressWarnings("unchecked")
+  protected Map<ByteArrayWrapper, Boolean> getOrCreateSet(ExecutionHandlerContext context,
+      ByteArrayWrapper key) {
+    return (Map<ByteArrayWrapper, Boolean>) context.getRegionProvider().getOrCreateMap(key,
+        RedisDataType.REDIS_SET, context);
+  }
+
+  @SuppressWarnings("unchecked")
+  protected Map<ByteArrayWrapper, Boolean> getSet(ExecutionHandlerContext context,
+      ByteArrayWrapper key) {
+    return (Map<ByteArrayWrapper, Boolean>) context.getRegionProvider().getMap(key);
+  }
+
+  protected void storeSet(ExecutionHandlerContext context, ByteArrayWrapper key,
+      Map<ByteArrayWrapper, Boolean> set) {
+    context.getRegionProvider().storeMap(key, set);
+  }
+
 }
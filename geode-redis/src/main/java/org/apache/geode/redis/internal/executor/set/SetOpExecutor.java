@@ -21,7 +21,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.Command;
@@ -49,8 +48,7 @@ public abstract class SetOpExecutor extends SetExecutor implements Extendable {
     ByteArrayWrapper firstSetKey = new ByteArrayWrapper(commandElems.get(setsStartIndex++));
     if (!isStorage())
       checkDataType(firstSetKey, RedisDataType.REDIS_SET, context);
-    Region<ByteArrayWrapper, Boolean> region =
-        (Region<ByteArrayWrapper, Boolean>) rC.getRegion(firstSetKey);
+    Map<ByteArrayWrapper, Boolean> region = getSet(context, firstSetKey);
     Set<ByteArrayWrapper> firstSet = null;
     if (region != null) {
       firstSet = new HashSet<ByteArrayWrapper>(region.keySet());
@@ -59,7 +57,7 @@ public abstract class SetOpExecutor extends SetExecutor implements Extendable {
     for (int i = setsStartIndex; i < commandElems.size(); i++) {
       ByteArrayWrapper key = new ByteArrayWrapper(commandElems.get(i));
       checkDataType(key, RedisDataType.REDIS_SET, context);
-      region = (Region<ByteArrayWrapper, Boolean>) rC.getRegion(key);
+      region = getSet(context, key);
       if (region != null)
         setList.add(region.keySet());
       else if (this instanceof SInterExecutor)
@@ -77,17 +75,16 @@ public abstract class SetOpExecutor extends SetExecutor implements Extendable {
 
     Set<ByteArrayWrapper> resultSet = setOp(firstSet, setList);
     if (isStorage()) {
-      Region<ByteArrayWrapper, Boolean> newRegion = null; // (Region<ByteArrayWrapper, Boolean>)
-                                                          // rC.getRegion(destination);
+      Map<ByteArrayWrapper, Boolean> newRegion = null;
       rC.removeKey(destination);
       if (resultSet != null) {
         Map<ByteArrayWrapper, Boolean> map = new HashMap<ByteArrayWrapper, Boolean>();
         for (ByteArrayWrapper entry : resultSet)
           map.put(entry, Boolean.TRUE);
         if (!map.isEmpty()) {
-          newRegion = (Region<ByteArrayWrapper, Boolean>) rC.getOrCreateRegion(destination,
-              RedisDataType.REDIS_SET, context);
+          newRegion = getOrCreateSet(context, destination);
           newRegion.putAll(map);
+          storeSet(context, destination, newRegion);
         }
         command
             .setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), resultSet.size()));
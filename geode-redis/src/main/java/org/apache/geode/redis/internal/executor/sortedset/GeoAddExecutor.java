@@ -33,6 +33,9 @@ public class GeoAddExecutor extends GeoSortedSetExecutor {
 
   @Override
   public void executeCommand(Command command, ExecutionHandlerContext context) {
+    if (rejectIfNativeSortedSets(command, context)) {
+      return;
+    }
     int numberOfAdds = 0;
     List<byte[]> commandElems = command.getProcessedCommand();
     ByteArrayWrapper key = command.getKey();
@@ -29,6 +29,9 @@ public class GeoDistExecutor extends GeoSortedSetExecutor {
 
   @Override
   public void executeCommand(Command command, ExecutionHandlerContext context) {
+    if (rejectIfNativeSortedSets(command, context)) {
+      return;
+    }
     List<byte[]> commandElems = command.getProcessedCommand();
     ByteArrayWrapper key = command.getKey();
 
@@ -32,6 +32,9 @@ public class GeoPosExecutor extends GeoSortedSetExecutor {
 
   @Override
   public void executeCommand(Command command, ExecutionHandlerContext context) {
+    if (rejectIfNativeSortedSets(command, context)) {
+      return;
+    }
     List<byte[]> commandElems = command.getProcessedCommand();
     ByteArrayWrapper key = command.getKey();
 
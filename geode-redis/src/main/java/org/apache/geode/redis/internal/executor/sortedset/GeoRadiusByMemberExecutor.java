@@ -42,6 +42,9 @@ public class GeoRadiusByMemberExecutor extends GeoSortedSetExecutor {
 
   @Override
   public void executeCommand(Command command, ExecutionHandlerContext context) {
+    if (rejectIfNativeSortedSets(command, context)) {
+      return;
+    }
     List<byte[]> commandElems = command.getProcessedCommand();
 
     if (commandElems.size() < 5) {
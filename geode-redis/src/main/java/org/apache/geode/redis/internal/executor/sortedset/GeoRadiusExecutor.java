@@ -41,6 +41,9 @@ public class GeoRadiusExecutor extends GeoSortedSetExecutor {
 
   @Override
   public void executeCommand(Command command, ExecutionHandlerContext context) {
+    if (rejectIfNativeSortedSets(command, context)) {
+      return;
+    }
     List<byte[]> commandElems = command.getProcessedCommand();
 
     if (commandElems.size() < 6) {
@@ -32,6 +32,7 @@ import org.apache.geode.redis.internal.GeoCoder;
 import org.apache.geode.redis.internal.GeoRadiusResponseElement;
 import org.apache.geode.redis.internal.RedisConstants;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisSortedSet;
 import org.apache.geode.redis.internal.executor.AbstractExecutor;
 import org.apache.geode.redis.internal.executor.SortedSetQuery;
 
@@ -55,6 +56,22 @@ public abstract class GeoSortedSetExecutor extends AbstractExecutor {
     return r;
   }
 
+  /**
+   * Geo commands keep the geohashes of a key in a {@link Region} of their own, which sorted sets
+   * stored as {@link RedisSortedSet} values do not have. Responds with an error if sorted sets are
+   * stored that way.
+   *
+   * @return true if the command was rejected
+   */
+  protected boolean rejectIfNativeSortedSets(Command command, ExecutionHandlerContext context) {
+    if (!context.getRegionProvider().usesNativeSortedSets()) {
+      return false;
+    }
+    command.setResponse(Coder.getErrorResponse(context.getByteBufAllocator(),
+        RedisConstants.ERROR_GEO_NATIVE_SORTED_SETS));
+    return true;
+  }
+
   protected List<StructImpl> getGeoRadiusRange(ExecutionHandlerContext context,
       ByteArrayWrapper key, String hash) throws Exception {
     Query query = getQuery(key, SortedSetQuery.GEORADIUS, context);
@@ -14,12 +14,16 @@
  */
 package org.apache.geode.redis.internal.executor.sortedset;
 
+import java.util.Collections;
+import java.util.List;
+
 import org.apache.geode.cache.Region;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.DoubleWrapper;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisSortedSet;
 import org.apache.geode.redis.internal.executor.AbstractExecutor;
 
 public abstract class SortedSetExecutor extends AbstractExecutor {
@@ -44,4 +48,38 @@ public abstract class SortedSetExecutor extends AbstractExecutor {
     return r;
   }
 
+  /**
+   * @return true if sorted sets are stored as {@link RedisSortedSet} values rather than a Region
+   *         per key
+   */
+  protected boolean usesNativeSortedSets(ExecutionHandlerContext context) {
+    return context.getRegionProvider().usesNativeSortedSets();
+  }
+
+  protected RedisSortedSet getSortedSet(ExecutionHandlerContext context, ByteArrayWrapper key) {
+    return context.getRegionProvider().getSortedSetsRegion().get(key);
+  }
+
+  protected RedisSortedSet getOrCreateSortedSet(ExecutionHandlerContext context,
+      ByteArrayWrapper key) {
+    return context.getRegionProvider().getOrCreateSortedSet(key);
+  }
+
+  protected void putSortedSet(ExecutionHandlerContext context, ByteArrayWrapper key,
+      RedisSortedSet sortedSet) {
+    context.getRegionProvider().putSortedSet(key, sortedSet);
+  }
+
+  /**
+   * Gets the members of a {@link RedisSortedSet} within a lexicographical range where
+   * {@link #minus} and {@link #plus} denote unbounded ends
+   */
+  protected List<ByteArrayWrapper> getLexRange(RedisSortedSet sortedSet, ByteArrayWrapper start,
+      ByteArrayWrapper stop, boolean startInclusive, boolean stopInclusive) {
+    if (start.equals(plus) || stop.equals(minus))
+      return Collections.emptyList();
+    return sortedSet.rangeByLex(start.equals(minus) ? null : start, startInclusive,
+        stop.equals(plus) ? null : stop, stopInclusive);
+  }
+
 }
@@ -26,6 +26,7 @@ import org.apache.geode.redis.internal.DoubleWrapper;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisSortedSet;
 
 public class ZAddExecutor extends SortedSetExecutor {
 
@@ -44,6 +45,11 @@ public class ZAddExecutor extends SortedSetExecutor {
     ByteArrayWrapper key = command.getKey();
     int numberOfAdds = 0;
 
+    if (usesNativeSortedSets(context)) {
+      executeNative(command, context, key, commandElems);
+      return;
+    }
+
     if (commandElems.size() > 4) {
       Map<ByteArrayWrapper, DoubleWrapper> map = new HashMap<ByteArrayWrapper, DoubleWrapper>();
       for (int i = 2; i < commandElems.size(); i++) {
@@ -87,4 +93,31 @@ public class ZAddExecutor extends SortedSetExecutor {
     command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), numberOfAdds));
   }
 
+  private void executeNative(Command command, ExecutionHandlerContext context,
+      ByteArrayWrapper key, List<byte[]> commandElems) {
+    int numberOfPairs = (commandElems.size() - 2) / 2;
+    ByteArrayWrapper[] members = new ByteArrayWrapper[numberOfPairs];
+    double[] scores = new double[numberOfPairs];
+    for (int i = 0; i < numberOfPairs; i++) {
+      try {
+        scores[i] = Coder.bytesToDouble(commandElems.get(2 + 2 * i));
+      } catch (NumberFormatException e) {
+        command.setResponse(
+            Coder.getErrorResponse(context.getByteBufAllocator(), ERROR_NOT_NUMERICAL));
+        return;
+      }
+      members[i] = new ByteArrayWrapper(commandElems.get(3 + 2 * i));
+    }
+
+    RedisSortedSet sortedSet = getOrCreateSortedSet(context, key);
+    int numberOfAdds = 0;
+    for (int i = 0; i < numberOfPairs; i++) {
+      if (sortedSet.add(members[i], scores[i]))
+        numberOfAdds++;
+    }
+    putSortedSet(context, key, sortedSet);
+
+    command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), numberOfAdds));
+  }
+
 }
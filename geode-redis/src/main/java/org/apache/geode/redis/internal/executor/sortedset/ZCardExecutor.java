@@ -24,6 +24,7 @@ import org.apache.geode.redis.internal.DoubleWrapper;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisSortedSet;
 
 public class ZCardExecutor extends SortedSetExecutor {
 
@@ -40,6 +41,14 @@ public class ZCardExecutor extends SortedSetExecutor {
 
     ByteArrayWrapper key = command.getKey();
 
+    if (usesNativeSortedSets(context)) {
+      checkDataType(key, RedisDataType.REDIS_SORTEDSET, context);
+      RedisSortedSet sortedSet = getSortedSet(context, key);
+      command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(),
+          sortedSet == null ? NOT_EXISTS : sortedSet.size()));
+      return;
+    }
+
     Region<ByteArrayWrapper, DoubleWrapper> keyRegion = getRegion(context, key);
     checkDataType(key, RedisDataType.REDIS_SORTEDSET, context);
 
@@ -30,6 +30,7 @@ import org.apache.geode.redis.internal.DoubleWrapper;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisSortedSet;
 import org.apache.geode.redis.internal.executor.SortedSetQuery;
 
 public class ZCountExecutor extends SortedSetExecutor {
@@ -49,10 +50,15 @@ public class ZCountExecutor extends SortedSetExecutor {
 
     ByteArrayWrapper key = command.getKey();
 
-    Region<ByteArrayWrapper, DoubleWrapper> keyRegion = getRegion(context, key);
+    RedisSortedSet sortedSet = null;
+    Region<ByteArrayWrapper, DoubleWrapper> keyRegion = null;
+    if (usesNativeSortedSets(context))
+      sortedSet = getSortedSet(context, key);
+    else
+      keyRegion = getRegion(context, key);
     checkDataType(key, RedisDataType.REDIS_SORTEDSET, context);
 
-    if (keyRegion == null) {
+    if (keyRegion == null && sortedSet == null) {
       command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), NOT_EXISTS));
       return;
     }
@@ -86,10 +92,14 @@ public class ZCountExecutor extends SortedSetExecutor {
 
 
     int count;
-    try {
-      count = getCount(key, keyRegion, context, start, stop, startInclusive, stopInclusive);
-    } catch (Exception e) {
-      throw new RuntimeException(e);
+    if (sortedSet != null) {
+      count = sortedSet.countByScore(start, startInclusive, stop, stopInclusive);
+    } else {
+      try {
+        count = getCount(key, keyRegion, context, start, stop, startInclusive, stopInclusive);
+      } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
     }
 
 
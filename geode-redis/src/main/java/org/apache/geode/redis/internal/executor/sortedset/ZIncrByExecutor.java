@@ -24,6 +24,7 @@ import org.apache.geode.redis.internal.DoubleWrapper;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisSortedSet;
 
 public class ZIncrByExecutor extends SortedSetExecutor {
 
@@ -41,9 +42,6 @@ public class ZIncrByExecutor extends SortedSetExecutor {
 
     ByteArrayWrapper key = command.getKey();
 
-    Region<ByteArrayWrapper, DoubleWrapper> keyRegion =
-        getOrCreateRegion(context, key, RedisDataType.REDIS_SORTEDSET);
-
     ByteArrayWrapper member = new ByteArrayWrapper(commandElems.get(3));
 
     double incr;
@@ -56,6 +54,23 @@ public class ZIncrByExecutor extends SortedSetExecutor {
       return;
     }
 
+    if (usesNativeSortedSets(context)) {
+      RedisSortedSet sortedSet = getOrCreateSortedSet(context, key);
+      double result = sortedSet.incrementScore(member, incr);
+      if (Double.isNaN(result)) {
+        if (sortedSet.isEmpty())
+          putSortedSet(context, key, sortedSet);
+        command.setResponse(Coder.getErrorResponse(context.getByteBufAllocator(), ERROR_NAN));
+        return;
+      }
+      putSortedSet(context, key, sortedSet);
+      respondBulkStrings(command, context, result);
+      return;
+    }
+
+    Region<ByteArrayWrapper, DoubleWrapper> keyRegion =
+        getOrCreateRegion(context, key, RedisDataType.REDIS_SORTEDSET);
+
     DoubleWrapper score = keyRegion.get(member);
 
     if (score == null) {
@@ -26,6 +26,7 @@ import org.apache.geode.redis.internal.DoubleWrapper;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisSortedSet;
 import org.apache.geode.redis.internal.executor.SortedSetQuery;
 
 public class ZLexCountExecutor extends SortedSetExecutor {
@@ -47,10 +48,15 @@ public class ZLexCountExecutor extends SortedSetExecutor {
 
     ByteArrayWrapper key = command.getKey();
 
-    Region<ByteArrayWrapper, DoubleWrapper> keyRegion = getRegion(context, key);
+    RedisSortedSet sortedSet = null;
+    Region<ByteArrayWrapper, DoubleWrapper> keyRegion = null;
+    if (usesNativeSortedSets(context))
+      sortedSet = getSortedSet(context, key);
+    else
+      keyRegion = getRegion(context, key);
     checkDataType(key, RedisDataType.REDIS_SORTEDSET, context);
 
-    if (keyRegion == null) {
+    if (keyRegion == null && sortedSet == null) {
       command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), NOT_EXISTS));
       return;
     }
@@ -90,8 +96,12 @@ public class ZLexCountExecutor extends SortedSetExecutor {
 
     int count;
     try {
-      count = getCount(key, keyRegion, context, Coder.stringToByteArrayWrapper(startString),
-          Coder.stringToByteArrayWrapper(stopString), minInclusive, maxInclusive);
+      if (sortedSet != null)
+        count = getLexRange(sortedSet, Coder.stringToByteArrayWrapper(startString),
+            Coder.stringToByteArrayWrapper(stopString), minInclusive, maxInclusive).size();
+      else
+        count = getCount(key, keyRegion, context, Coder.stringToByteArrayWrapper(startString),
+            Coder.stringToByteArrayWrapper(stopString), minInclusive, maxInclusive);
     } catch (Exception e) {
       command.setResponse(Coder.getErrorResponse(context.getByteBufAllocator(), e.toString()));
       return;
@@ -36,6 +36,7 @@ import org.apache.geode.redis.internal.DoubleWrapper;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisSortedSet;
 import org.apache.geode.redis.internal.executor.SortedSetQuery;
 
 public class ZRangeByLexExecutor extends SortedSetExecutor {
@@ -86,10 +87,16 @@ public class ZRangeByLexExecutor extends SortedSetExecutor {
     }
 
     ByteArrayWrapper key = command.getKey();
-    Region<ByteArrayWrapper, DoubleWrapper> keyRegion =
-        getOrCreateRegion(context, key, RedisDataType.REDIS_SORTEDSET);
+    RedisSortedSet sortedSet = null;
+    Region<ByteArrayWrapper, DoubleWrapper> keyRegion = null;
+    if (usesNativeSortedSets(context)) {
+      checkDataType(key, RedisDataType.REDIS_SORTEDSET, context);
+      sortedSet = getSortedSet(context, key);
+    } else {
+      keyRegion = getOrCreateRegion(context, key, RedisDataType.REDIS_SORTEDSET);
+    }
 
-    if (keyRegion == null) {
+    if (keyRegion == null && sortedSet == null) {
       command.setResponse(Coder.getEmptyArrayResponse(context.getByteBufAllocator()));
       return;
     }
@@ -125,7 +132,15 @@ public class ZRangeByLexExecutor extends SortedSetExecutor {
       return;
     }
     Collection<ByteArrayWrapper> list = null;
-    if (!(existsLimit && limit == 0)) {
+    if (sortedSet != null && !(existsLimit && limit == 0)) {
+      List<ByteArrayWrapper> members = getLexRange(sortedSet,
+          Coder.stringToByteArrayWrapper(startString), Coder.stringToByteArrayWrapper(stopString),
+          minInclusive, maxInclusive);
+      int size = members.size();
+      if (limit == 0)
+        limit = size;
+      list = members.subList(Math.min(size, offset), Math.min(offset + limit, size));
+    } else if (!(existsLimit && limit == 0)) {
       try {
         list = getRange(key, keyRegion, context, Coder.stringToByteArrayWrapper(startString),
             Coder.stringToByteArrayWrapper(stopString), minInclusive, maxInclusive, offset, limit);
@@ -34,6 +34,7 @@ import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.Extendable;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisSortedSet;
 import org.apache.geode.redis.internal.executor.SortedSetQuery;
 
 public class ZRangeByScoreExecutor extends SortedSetExecutor implements Extendable {
@@ -98,9 +99,14 @@ public class ZRangeByScoreExecutor extends SortedSetExecutor implements Extendab
     ByteArrayWrapper key = command.getKey();
 
     checkDataType(key, RedisDataType.REDIS_SORTEDSET, context);
-    Region<ByteArrayWrapper, DoubleWrapper> keyRegion = getRegion(context, key);
+    RedisSortedSet sortedSet = null;
+    Region<ByteArrayWrapper, DoubleWrapper> keyRegion = null;
+    if (usesNativeSortedSets(context))
+      sortedSet = getSortedSet(context, key);
+    else
+      keyRegion = getRegion(context, key);
 
-    if (keyRegion == null) {
+    if (keyRegion == null && sortedSet == null) {
       command.setResponse(Coder.getEmptyArrayResponse(context.getByteBufAllocator()));
       return;
     }
@@ -135,11 +141,16 @@ public class ZRangeByScoreExecutor extends SortedSetExecutor implements Extendab
     }
 
     Collection<?> list;
-    try {
-      list = getKeys(key, keyRegion, context, start, stop, startInclusive, stopInclusive, offset,
-          limit);
-    } catch (Exception e) {
-      throw new RuntimeException(e);
+    if (sortedSet != null) {
+      list = sortedSet.rangeByScore(start, startInclusive, stop, stopInclusive, offset,
+          limit > 0 ? limit : -1, isReverse());
+    } else {
+      try {
+        list = getKeys(key, keyRegion, context, start, stop, startInclusive, stopInclusive, offset,
+            limit);
+      } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
     }
 
     if (list == null)
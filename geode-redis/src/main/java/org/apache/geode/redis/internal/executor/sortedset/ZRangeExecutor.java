@@ -27,6 +27,7 @@ import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.Extendable;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisSortedSet;
 import org.apache.geode.redis.internal.executor.SortedSetQuery;
 
 public class ZRangeExecutor extends SortedSetExecutor implements Extendable {
@@ -53,9 +54,14 @@ public class ZRangeExecutor extends SortedSetExecutor implements Extendable {
     ByteArrayWrapper key = command.getKey();
 
     checkDataType(key, RedisDataType.REDIS_SORTEDSET, context);
-    Region<ByteArrayWrapper, DoubleWrapper> keyRegion = getRegion(context, key);
+    RedisSortedSet sortedSet = null;
+    Region<ByteArrayWrapper, DoubleWrapper> keyRegion = null;
+    if (usesNativeSortedSets(context))
+      sortedSet = getSortedSet(context, key);
+    else
+      keyRegion = getRegion(context, key);
 
-    if (keyRegion == null) {
+    if (keyRegion == null && sortedSet == null) {
       command.setResponse(Coder.getEmptyArrayResponse(context.getByteBufAllocator()));
       return;
     }
@@ -63,7 +69,7 @@ public class ZRangeExecutor extends SortedSetExecutor implements Extendable {
 
     int start;
     int stop;
-    int sSetSize = keyRegion.size();
+    int sSetSize = sortedSet != null ? sortedSet.size() : keyRegion.size();
 
     try {
       byte[] startArray = commandElems.get(2);
@@ -85,10 +91,14 @@ public class ZRangeExecutor extends SortedSetExecutor implements Extendable {
     if (stop == sSetSize)
       stop--;
     List<?> list;
-    try {
-      list = getRange(context, key, start, stop);
-    } catch (Exception e) {
-      throw new RuntimeException(e);
+    if (sortedSet != null) {
+      list = sortedSet.range(start, stop, isReverse());
+    } else {
+      try {
+        list = getRange(context, key, start, stop);
+      } catch (Exception e) {
+        throw new RuntimeException(e);
+      }
     }
 
     command.setResponse(Coder.zRangeResponse(context.getByteBufAllocator(), list, withScores));
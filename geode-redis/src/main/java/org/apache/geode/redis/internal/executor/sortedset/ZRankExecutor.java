@@ -27,6 +27,7 @@ import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.Extendable;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisSortedSet;
 import org.apache.geode.redis.internal.executor.SortedSetQuery;
 
 public class ZRankExecutor extends SortedSetExecutor implements Extendable {
@@ -43,6 +44,18 @@ public class ZRankExecutor extends SortedSetExecutor implements Extendable {
     ByteArrayWrapper key = command.getKey();
 
     checkDataType(key, RedisDataType.REDIS_SORTEDSET, context);
+
+    if (usesNativeSortedSets(context)) {
+      RedisSortedSet sortedSet = getSortedSet(context, key);
+      int rank = sortedSet == null ? -1
+          : sortedSet.rank(new ByteArrayWrapper(commandElems.get(2)), isReverse());
+      if (rank < 0)
+        command.setResponse(Coder.getNilResponse(context.getByteBufAllocator()));
+      else
+        command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), rank));
+      return;
+    }
+
     Region<ByteArrayWrapper, DoubleWrapper> keyRegion = getRegion(context, key);
 
     if (keyRegion == null) {
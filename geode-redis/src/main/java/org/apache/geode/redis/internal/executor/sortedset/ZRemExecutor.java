@@ -24,6 +24,7 @@ import org.apache.geode.redis.internal.DoubleWrapper;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisSortedSet;
 
 public class ZRemExecutor extends SortedSetExecutor {
 
@@ -39,6 +40,23 @@ public class ZRemExecutor extends SortedSetExecutor {
     ByteArrayWrapper key = command.getKey();
 
     checkDataType(key, RedisDataType.REDIS_SORTEDSET, context);
+
+    if (usesNativeSortedSets(context)) {
+      RedisSortedSet sortedSet = getSortedSet(context, key);
+      int numDeletedMembers = 0;
+      if (sortedSet != null) {
+        for (int i = 2; i < commandElems.size(); i++) {
+          if (sortedSet.remove(new ByteArrayWrapper(commandElems.get(i))))
+            numDeletedMembers++;
+        }
+        if (numDeletedMembers > 0)
+          putSortedSet(context, key, sortedSet);
+      }
+      command
+          .setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), numDeletedMembers));
+      return;
+    }
+
     Region<ByteArrayWrapper, DoubleWrapper> keyRegion = getRegion(context, key);
 
     if (keyRegion == null) {
@@ -28,6 +28,7 @@ import org.apache.geode.redis.internal.DoubleWrapper;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisSortedSet;
 import org.apache.geode.redis.internal.executor.SortedSetQuery;
 
 public class ZRemRangeByLexExecutor extends SortedSetExecutor {
@@ -50,9 +51,14 @@ public class ZRemRangeByLexExecutor extends SortedSetExecutor {
     ByteArrayWrapper key = command.getKey();
 
     checkDataType(key, RedisDataType.REDIS_SORTEDSET, context);
-    Region<ByteArrayWrapper, DoubleWrapper> keyRegion = getRegion(context, key);
-
-    if (keyRegion == null) {
+    RedisSortedSet sortedSet = null;
+    Region<ByteArrayWrapper, DoubleWrapper> keyRegion = null;
+    if (usesNativeSortedSets(context))
+      sortedSet = getSortedSet(context, key);
+    else
+      keyRegion = getRegion(context, key);
+
+    if (keyRegion == null && sortedSet == null) {
       command
           .setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), ERROR_NOT_EXISTS));
       return;
@@ -90,6 +96,20 @@ public class ZRemRangeByLexExecutor extends SortedSetExecutor {
       return;
     }
 
+    if (sortedSet != null) {
+      int numRemoved = 0;
+      for (ByteArrayWrapper member : getLexRange(sortedSet,
+          Coder.stringToByteArrayWrapper(startString), Coder.stringToByteArrayWrapper(stopString),
+          minInclusive, maxInclusive)) {
+        if (sortedSet.remove(member))
+          numRemoved++;
+      }
+      if (numRemoved > 0)
+        putSortedSet(context, key, sortedSet);
+      command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), numRemoved));
+      return;
+    }
+
     Collection<ByteArrayWrapper> removeList;
     try {
       removeList = getRange(key, keyRegion, context, Coder.stringToByteArrayWrapper(startString),
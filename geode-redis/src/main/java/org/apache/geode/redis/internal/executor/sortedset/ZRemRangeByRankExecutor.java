@@ -28,6 +28,7 @@ import org.apache.geode.redis.internal.DoubleWrapper;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisSortedSet;
 import org.apache.geode.redis.internal.executor.SortedSetQuery;
 
 public class ZRemRangeByRankExecutor extends SortedSetExecutor {
@@ -49,9 +50,14 @@ public class ZRemRangeByRankExecutor extends SortedSetExecutor {
     ByteArrayWrapper key = command.getKey();
 
     checkDataType(key, RedisDataType.REDIS_SORTEDSET, context);
-    Region<ByteArrayWrapper, DoubleWrapper> keyRegion = getRegion(context, key);
-
-    if (keyRegion == null) {
+    RedisSortedSet sortedSet = null;
+    Region<ByteArrayWrapper, DoubleWrapper> keyRegion = null;
+    if (usesNativeSortedSets(context))
+      sortedSet = getSortedSet(context, key);
+    else
+      keyRegion = getRegion(context, key);
+
+    if (keyRegion == null && sortedSet == null) {
       command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), NONE_REMOVED));
       return;
     }
@@ -67,7 +73,7 @@ public class ZRemRangeByRankExecutor extends SortedSetExecutor {
       return;
     }
 
-    int sSetSize = keyRegion.size();
+    int sSetSize = sortedSet != null ? sortedSet.size() : keyRegion.size();
 
     startRank = getBoundedStartIndex(startRank, sSetSize);
     stopRank = getBoundedEndIndex(stopRank, sSetSize);
@@ -79,6 +85,13 @@ public class ZRemRangeByRankExecutor extends SortedSetExecutor {
       return;
     }
 
+    if (sortedSet != null) {
+      int numRemoved = sortedSet.removeRangeByRank(startRank, stopRank);
+      putSortedSet(context, key, sortedSet);
+      command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), numRemoved));
+      return;
+    }
+
     int numRemoved = 0;
     List<?> removeList = null;
     try {
@@ -29,6 +29,7 @@ import org.apache.geode.redis.internal.DoubleWrapper;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisSortedSet;
 import org.apache.geode.redis.internal.executor.SortedSetQuery;
 
 public class ZRemRangeByScoreExecutor extends SortedSetExecutor {
@@ -50,9 +51,14 @@ public class ZRemRangeByScoreExecutor extends SortedSetExecutor {
     ByteArrayWrapper key = command.getKey();
 
     checkDataType(key, RedisDataType.REDIS_SORTEDSET, context);
-    Region<ByteArrayWrapper, DoubleWrapper> keyRegion = getRegion(context, key);
-
-    if (keyRegion == null) {
+    RedisSortedSet sortedSet = null;
+    Region<ByteArrayWrapper, DoubleWrapper> keyRegion = null;
+    if (usesNativeSortedSets(context))
+      sortedSet = getSortedSet(context, key);
+    else
+      keyRegion = getRegion(context, key);
+
+    if (keyRegion == null && sortedSet == null) {
       command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), NOT_EXISTS));
       return;
     }
@@ -83,6 +89,14 @@ public class ZRemRangeByScoreExecutor extends SortedSetExecutor {
       return;
     }
 
+    if (sortedSet != null) {
+      int numRemoved = sortedSet.removeRangeByScore(start, startInclusive, stop, stopInclusive);
+      if (numRemoved > 0)
+        putSortedSet(context, key, sortedSet);
+      command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), numRemoved));
+      return;
+    }
+
     int numRemoved = 0;
 
     Collection<?> removeList = null;
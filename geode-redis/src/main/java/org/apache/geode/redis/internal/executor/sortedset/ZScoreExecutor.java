@@ -24,6 +24,7 @@ import org.apache.geode.redis.internal.DoubleWrapper;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisSortedSet;
 
 public class ZScoreExecutor extends SortedSetExecutor {
 
@@ -40,13 +41,19 @@ public class ZScoreExecutor extends SortedSetExecutor {
     ByteArrayWrapper member = new ByteArrayWrapper(commandElems.get(2));
 
     checkDataType(key, RedisDataType.REDIS_SORTEDSET, context);
-    Region<ByteArrayWrapper, DoubleWrapper> keyRegion = getRegion(context, key);
+    DoubleWrapper score;
+    if (usesNativeSortedSets(context)) {
+      RedisSortedSet sortedSet = getSortedSet(context, key);
+      score = sortedSet == null ? null : sortedSet.getScore(member);
+    } else {
+      Region<ByteArrayWrapper, DoubleWrapper> keyRegion = getRegion(context, key);
 
-    if (keyRegion == null) {
-      command.setResponse(Coder.getNilResponse(context.getByteBufAllocator()));
-      return;
+      if (keyRegion == null) {
+        command.setResponse(Coder.getNilResponse(context.getByteBufAllocator()));
+        return;
+      }
+      score = keyRegion.get(member);
     }
-    DoubleWrapper score = keyRegion.get(member);
     if (score == null) {
       command.setResponse(Coder.getNilResponse(context.getByteBufAllocator()));
       return;
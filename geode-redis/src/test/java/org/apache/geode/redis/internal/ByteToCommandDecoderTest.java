@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.RedisTest;
+
+@Category({RedisTest.class})
+public class ByteToCommandDecoderTest {
+
+  private EmbeddedChannel channel;
+
+  @Before
+  public void setUp() {
+    channel = new EmbeddedChannel(new ByteToCommandDecoder());
+  }
+
+  @Test
+  public void decodesEveryCommandOfAPipeline() {
+    channel.writeInbound(
+        buffer("*2\r\n$3\r\nGET\r\n$1\r\na\r\n*3\r\n$3\r\nSET\r\n$1\r\nb\r\n$2\r\nbc\r\n"));
+
+    Command get = channel.readInbound();
+    Command set = channel.readInbound();
+    assertThat(get.getCommandType()).isEqualTo(RedisCommandType.GET);
+    assertThat(elements(get)).containsExactly("GET", "a");
+    assertThat(set.getCommandType()).isEqualTo(RedisCommandType.SET);
+    assertThat(elements(set)).containsExactly("SET", "b", "bc");
+    assertThat((Object) channel.readInbound()).isNull();
+  }
+
+  @Test
+  public void waitsForFragmentedCommand() {
+    channel.writeInbound(buffer("*2\r\n$3\r\nGET\r\n$5\r\nab"));
+    assertThat((Object) channel.readInbound()).isNull();
+
+    channel.writeInbound(buffer("cde\r\n*1\r\n$4\r\nPI"));
+    Command get = channel.readInbound();
+    assertThat(elements(get)).containsExactly("GET", "abcde");
+    assertThat((Object) channel.readInbound()).isNull();
+
+    channel.writeInbound(buffer("NG\r\n"));
+    Command ping = channel.readInbound();
+    assertThat(ping.getCommandType()).isEqualTo(RedisCommandType.PING);
+  }
+
+  @Test
+  public void decodesCommandWithManyArguments() {
+    StringBuilder request = new StringBuilder("*41\r\n$6\r\nMSETNX\r\n");
+    for (int i = 0; i < 40; i++) {
+      request.append("$2\r\n").append(i < 10 ? "0" + i : String.valueOf(i)).append("\r\n");
+    }
+    channel.writeInbound(buffer(request.toString()));
+
+    Command command = channel.readInbound();
+    assertThat(command.getProcessedCommand()).hasSize(41);
+    assertThat(Coder.bytesToString(command.getProcessedCommand().get(40))).isEqualTo("39");
+  }
+
+  private static ByteBuf buffer(String request) {
+    return Unpooled.wrappedBuffer(Coder.stringToBytes(request));
+  }
+
+  private static String[] elements(Command command) {
+    String[] elements = new String[command.getProcessedCommand().size()];
+    for (int i = 0; i < elements.length; i++) {
+      elements[i] = Coder.bytesToString(command.getProcessedCommand().get(i));
+    }
+    return elements;
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.RedisTest;
+
+@Category({RedisTest.class})
+public class RedisHashTest {
+
+  @Test
+  public void onlyRecordsActualChanges() {
+    RedisHash hash = new RedisHash();
+    hash.put(bytes("f"), bytes("1"));
+    hash.clearDelta();
+
+    assertThat(hash.putIfAbsent(bytes("f"), bytes("2")).toString()).isEqualTo("1");
+    assertThat(hash.remove(bytes("missing"))).isNull();
+    assertThat(hash.hasDelta()).isFalse();
+  }
+
+  @Test
+  public void viewsAreUnmodifiable() {
+    RedisHash hash = new RedisHash();
+    hash.put(bytes("f"), bytes("1"));
+
+    assertThatThrownBy(() -> hash.keySet().remove(bytes("f")))
+        .isInstanceOf(UnsupportedOperationException.class);
+    assertThat(hash).containsKey(bytes("f"));
+  }
+
+  @Test
+  public void deltaOnlyCarriesChangesAndAppliesToCopy() throws Exception {
+    RedisHash hash = new RedisHash();
+    hash.put(bytes("a"), bytes("1"));
+    hash.put(bytes("b"), bytes("2"));
+
+    ByteArrayOutputStream data = new ByteArrayOutputStream();
+    hash.toData(new DataOutputStream(data));
+    RedisHash copy = new RedisHash();
+    copy.fromData(new DataInputStream(new ByteArrayInputStream(data.toByteArray())));
+    hash.clearDelta();
+
+    hash.remove(bytes("a"));
+    hash.put(bytes("b"), bytes("3"));
+    hash.put(bytes("c"), bytes("4"));
+
+    ByteArrayOutputStream delta = new ByteArrayOutputStream();
+    hash.toDelta(new DataOutputStream(delta));
+    assertThat(hash.hasDelta()).isFalse();
+    copy.fromDelta(new DataInputStream(new ByteArrayInputStream(delta.toByteArray())));
+
+    assertThat(copy).isEqualTo(hash).hasSize(2);
+  }
+
+  @Test
+  public void setMembersSurviveSerialization() throws Exception {
+    RedisSet set = new RedisSet();
+    set.put(bytes("m1"), true);
+    set.put(bytes("m2"), true);
+
+    ByteArrayOutputStream data = new ByteArrayOutputStream();
+    set.toData(new DataOutputStream(data));
+    RedisSet copy = new RedisSet();
+    copy.fromData(new DataInputStream(new ByteArrayInputStream(data.toByteArray())));
+
+    assertThat(copy.keySet()).containsExactlyInAnyOrder(bytes("m1"), bytes("m2"));
+    assertThat(copy.get(bytes("m1"))).isTrue();
+  }
+
+  private static ByteArrayWrapper bytes(String value) {
+    return new ByteArrayWrapper(Coder.stringToBytes(value));
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.RedisTest;
+
+@Category({RedisTest.class})
+public class RedisListTest {
+
+  private RedisList list;
+
+  @Before
+  public void setUp() {
+    list = new RedisList();
+    list.push(elements("c", "d"), false);
+    list.push(elements("b", "a"), true);
+  }
+
+  @Test
+  public void pushKeepsRedisOrder() {
+    assertThat(values(list.range(0, list.size() - 1))).containsExactly("a", "b", "c", "d");
+    assertThat(list.push(elements("e"), false)).isEqualTo(5);
+  }
+
+  @Test
+  public void popRemovesFromEitherEnd() {
+    assertThat(list.pop(true).toString()).isEqualTo("a");
+    assertThat(list.pop(false).toString()).isEqualTo("d");
+    assertThat(list.size()).isEqualTo(2);
+    list.pop(true);
+    list.pop(true);
+    assertThat(list.pop(true)).isNull();
+  }
+
+  @Test
+  public void getAndSetHonorBounds() {
+    assertThat(list.get(2).toString()).isEqualTo("c");
+    assertThat(list.get(4)).isNull();
+    assertThat(list.set(1, element("x"))).isTrue();
+    assertThat(list.set(4, element("x"))).isFalse();
+    assertThat(values(list.range(0, 10))).containsExactly("a", "x", "c", "d");
+  }
+
+  @Test
+  public void trimKeepsRange() {
+    list.trim(1, 10);
+    assertThat(values(list.range(0, 10))).containsExactly("b", "c", "d");
+    list.trim(2, 1);
+    assertThat(list.isEmpty()).isTrue();
+  }
+
+  @Test
+  public void removeHonorsCountDirection() {
+    list.push(elements("a", "b", "a"), false);
+    assertThat(list.remove(element("a"), -1)).isEqualTo(1);
+    assertThat(values(list.range(0, 10))).containsExactly("a", "b", "c", "d", "a", "b");
+    assertThat(list.remove(element("a"), 1)).isEqualTo(1);
+    assertThat(list.remove(element("b"), 0)).isEqualTo(2);
+    assertThat(values(list.range(0, 10))).containsExactly("c", "d", "a");
+  }
+
+  @Test
+  public void deltaReplaysOperationsOnCopy() throws Exception {
+    ByteArrayOutputStream data = new ByteArrayOutputStream();
+    list.toData(new DataOutputStream(data));
+    RedisList copy = new RedisList();
+    copy.fromData(new DataInputStream(new ByteArrayInputStream(data.toByteArray())));
+    list.clearDelta();
+
+    list.pop(true);
+    list.push(elements("y", "z"), true);
+    list.set(2, element("w"));
+    list.remove(element("c"), 0);
+    list.trim(0, 2);
+    assertThat(list.hasDelta()).isTrue();
+
+    ByteArrayOutputStream delta = new ByteArrayOutputStream();
+    list.toDelta(new DataOutputStream(delta));
+    assertThat(list.hasDelta()).isFalse();
+    copy.fromDelta(new DataInputStream(new ByteArrayInputStream(delta.toByteArray())));
+
+    assertThat(values(copy.range(0, 10))).containsExactly("z", "y", "w");
+  }
+
+  private static ByteArrayWrapper element(String value) {
+    return new ByteArrayWrapper(Coder.stringToBytes(value));
+  }
+
+  private static List<ByteArrayWrapper> elements(String... values) {
+    List<ByteArrayWrapper> result = new ArrayList<>();
+    for (String value : values) {
+      result.add(element(value));
+    }
+    return result;
+  }
+
+  private static List<String> values(List<ByteArrayWrapper> elements) {
+    List<String> result = new ArrayList<>();
+    for (ByteArrayWrapper element : elements) {
+      result.add(element.toString());
+    }
+    return result;
+  }
+}
@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map.Entry;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.RedisTest;
+
+@Category({RedisTest.class})
+public class RedisSortedSetTest {
+
+  private RedisSortedSet sortedSet;
+
+  @Before
+  public void setUp() {
+    sortedSet = new RedisSortedSet();
+    sortedSet.add(member("d"), 4);
+    sortedSet.add(member("b"), 2);
+    sortedSet.add(member("a"), 1);
+    sortedSet.add(member("c"), 2);
+    sortedSet.add(member("e"), 5);
+  }
+
+  @Test
+  public void addReturnsFalseAndUpdatesScoreForExistingMember() {
+    assertThat(sortedSet.add(member("a"), 10)).isFalse();
+    assertThat(sortedSet.size()).isEqualTo(5);
+    assertThat(sortedSet.getScore(member("a")).score).isEqualTo(10);
+    assertThat(sortedSet.rank(member("a"), false)).isEqualTo(4);
+  }
+
+  @Test
+  public void rankOrdersByScoreThenMember() {
+    assertThat(sortedSet.rank(member("a"), false)).isEqualTo(0);
+    assertThat(sortedSet.rank(member("b"), false)).isEqualTo(1);
+    assertThat(sortedSet.rank(member("c"), false)).isEqualTo(2);
+    assertThat(sortedSet.rank(member("e"), false)).isEqualTo(4);
+    assertThat(sortedSet.rank(member("e"), true)).isEqualTo(0);
+    assertThat(sortedSet.rank(member("missing"), false)).isEqualTo(-1);
+  }
+
+  @Test
+  public void rangeReturnsEntriesByRank() {
+    assertThat(members(sortedSet.range(1, 3, false))).containsExactly("b", "c", "d");
+    assertThat(members(sortedSet.range(0, 1, true))).containsExactly("e", "d");
+  }
+
+  @Test
+  public void rangeByScoreHonorsBoundsOffsetAndLimit() {
+    assertThat(members(sortedSet.rangeByScore(2, true, 4, true, 0, -1, false)))
+        .containsExactly("b", "c", "d");
+    assertThat(members(sortedSet.rangeByScore(2, false, 5, false, 0, -1, false)))
+        .containsExactly("d");
+    assertThat(members(sortedSet.rangeByScore(1, true, 5, true, 1, 2, false)))
+        .containsExactly("b", "c");
+    assertThat(members(sortedSet.rangeByScore(1, true, 4, true, 0, 2, true)))
+        .containsExactly("d", "c");
+    assertThat(sortedSet.rangeByScore(3, true, 2, true, 0, -1, false)).isEmpty();
+  }
+
+  @Test
+  public void countByScore() {
+    assertThat(sortedSet.countByScore(2, true, 4, true)).isEqualTo(3);
+    assertThat(sortedSet.countByScore(Double.NEGATIVE_INFINITY, true, Double.POSITIVE_INFINITY,
+        true)).isEqualTo(5);
+    assertThat(sortedSet.countByScore(6, true, 7, true)).isEqualTo(0);
+  }
+
+  @Test
+  public void removeRangesKeepIndexConsistent() {
+    assertThat(sortedSet.removeRangeByScore(2, true, 2, true)).isEqualTo(2);
+    assertThat(members(sortedSet.range(0, 2, false))).containsExactly("a", "d", "e");
+    assertThat(sortedSet.removeRangeByRank(0, 1)).isEqualTo(2);
+    assertThat(members(sortedSet.range(0, 0, false))).containsExactly("e");
+  }
+
+  @Test
+  public void incrementScoreMovesMember() {
+    assertThat(sortedSet.incrementScore(member("a"), 10)).isEqualTo(11);
+    assertThat(sortedSet.rank(member("a"), false)).isEqualTo(4);
+    assertThat(sortedSet.incrementScore(member("f"), 3)).isEqualTo(3);
+    assertThat(sortedSet.size()).isEqualTo(6);
+  }
+
+  @Test
+  public void rangeByLexOrdersByMemberBytes() {
+    assertThat(sortedSet.rangeByLex(member("b"), true, member("d"), false))
+        .containsExactly(member("b"), member("c"));
+    assertThat(sortedSet.rangeByLex(null, true, member("b"), true))
+        .containsExactly(member("a"), member("b"));
+  }
+
+  @Test
+  public void deltaOnlyCarriesChangesAndAppliesToCopy() throws Exception {
+    RedisSortedSet copy = new RedisSortedSet();
+    copy.fromData(new DataInputStream(new ByteArrayInputStream(toData(sortedSet))));
+    sortedSet.clearDelta();
+    assertThat(sortedSet.hasDelta()).isFalse();
+
+    sortedSet.remove(member("b"));
+    sortedSet.add(member("f"), 0);
+    assertThat(sortedSet.hasDelta()).isTrue();
+
+    ByteArrayOutputStream delta = new ByteArrayOutputStream();
+    sortedSet.toDelta(new DataOutputStream(delta));
+    assertThat(sortedSet.hasDelta()).isFalse();
+    copy.fromDelta(new DataInputStream(new ByteArrayInputStream(delta.toByteArray())));
+
+    assertThat(members(copy.range(0, copy.size() - 1, false)))
+        .containsExactly("f", "a", "c", "d", "e");
+  }
+
+  private static byte[] toData(RedisSortedSet sortedSet) throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    sortedSet.toData(new DataOutputStream(bytes));
+    return bytes.toByteArray();
+  }
+
+  private static ByteArrayWrapper member(String name) {
+    return new ByteArrayWrapper(Coder.stringToBytes(name));
+  }
+
+  private static List<String> members(List<Entry<ByteArrayWrapper, DoubleWrapper>> entries) {
+    List<String> result = new ArrayList<>();
+    for (Entry<ByteArrayWrapper, DoubleWrapper> entry : entries) {
+      result.add(entry.getKey().toString());
+    }
+    return result;
+  }
+}